@@ -33,6 +33,11 @@ public class TestDateProvider extends DateProvider {
         stubbedDate = dateTimeFormatter.parseDateTime(date + " " + time).toDate();
     }
 
+    @Override
+    public long currentTimeMillis() {
+        return stubbedDate.getTime();
+    }
+
     @Override
     public String currentDateString() {
         return format(stubbedDate.getTime());
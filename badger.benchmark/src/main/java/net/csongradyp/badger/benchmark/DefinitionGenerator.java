@@ -0,0 +1,157 @@
+package net.csongradyp.badger.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes synthetic achievement definition files with an even mix of every achievement type.
+ */
+public final class DefinitionGenerator {
+
+    public static final int ACHIEVEMENTS_PER_EVENT = 10;
+    private static final String[] TYPES = {"score", "scoreRange", "time", "timeRange", "date", "composite", "single"};
+
+    private DefinitionGenerator() {
+    }
+
+    public static String eventName(final int index) {
+        return "event-" + index;
+    }
+
+    public static int numberOfEvents(final int achievements) {
+        return Math.max(1, achievements / ACHIEVEMENTS_PER_EVENT);
+    }
+
+    public static File writeIni(final int achievements) throws IOException {
+        final File file = File.createTempFile("badger-benchmark-", ".ini");
+        file.deleteOnExit();
+        try (PrintWriter writer = new PrintWriter(file, StandardCharsets.UTF_8.name())) {
+            writer.println("[events]");
+            for (int i = 0; i < numberOfEvents(achievements); i++) {
+                writer.println("event = " + eventName(i));
+            }
+            for (int i = 0; i < achievements; i++) {
+                final String type = TYPES[i % TYPES.length];
+                writer.println();
+                writer.println("[" + type + "/" + type + "-" + i + "]");
+                writer.println("subscription = " + eventName(i % numberOfEvents(achievements)));
+                writer.println("category = category-" + i % 5);
+                for (String trigger : iniTriggers(type, i)) {
+                    writer.println(trigger);
+                }
+            }
+        }
+        return file;
+    }
+
+    private static List<String> iniTriggers(final String type, final int i) {
+        final List<String> triggers = new ArrayList<>();
+        switch (type) {
+            case "score":
+                triggers.add("trigger = " + score(i));
+                triggers.add("trigger = " + score(i) * 10);
+                break;
+            case "scoreRange":
+                triggers.add("trigger = " + score(i));
+                triggers.add("trigger = " + (score(i) + 50));
+                break;
+            case "time":
+                triggers.add("trigger = " + time(i));
+                break;
+            case "timeRange":
+                triggers.add("trigger = " + time(i));
+                triggers.add("trigger = " + time(i + 7));
+                break;
+            case "date":
+                triggers.add("trigger = " + date(i));
+                break;
+            case "composite":
+                triggers.add("relation = score & (time | date)");
+                triggers.add("scoreTrigger = " + score(i));
+                triggers.add("timeTrigger = " + time(i));
+                triggers.add("dateTrigger = " + date(i));
+                break;
+            default:
+                break;
+        }
+        return triggers;
+    }
+
+    public static File writeJson(final int achievements) throws IOException {
+        final File file = File.createTempFile("badger-benchmark-", ".json");
+        file.deleteOnExit();
+        try (PrintWriter writer = new PrintWriter(file, StandardCharsets.UTF_8.name())) {
+            final List<String> events = new ArrayList<>();
+            for (int i = 0; i < numberOfEvents(achievements); i++) {
+                events.add(quote(eventName(i)));
+            }
+            writer.println("{");
+            writer.println("  \"events\" : [" + String.join(", ", events) + "],");
+            writer.println("  \"achievements\" : {");
+            final List<String> sections = new ArrayList<>();
+            for (int t = 0; t < TYPES.length; t++) {
+                final List<String> entries = new ArrayList<>();
+                for (int i = t; i < achievements; i += TYPES.length) {
+                    entries.add(jsonAchievement(TYPES[t], i, numberOfEvents(achievements)));
+                }
+                sections.add("    " + quote(TYPES[t]) + " : [\n" + String.join(",\n", entries) + "\n    ]");
+            }
+            writer.println(String.join(",\n", sections));
+            writer.println("  }");
+            writer.println("}");
+        }
+        return file;
+    }
+
+    private static String jsonAchievement(final String type, final int i, final int events) {
+        final StringBuilder json = new StringBuilder("      { \"id\" : ").append(quote(type + "-" + i))
+                .append(", \"category\" : ").append(quote("category-" + i % 5))
+                .append(", \"subscription\" : [").append(quote(eventName(i % events))).append("]");
+        switch (type) {
+            case "score":
+                json.append(", \"trigger\" : [").append(score(i)).append(", ").append(score(i) * 10).append("]");
+                break;
+            case "scoreRange":
+                json.append(", \"trigger\" : [{\"start\" : ").append(score(i)).append(", \"end\" : ").append(score(i) + 50).append("}]");
+                break;
+            case "time":
+                json.append(", \"trigger\" : [").append(quote(time(i))).append("]");
+                break;
+            case "timeRange":
+                json.append(", \"trigger\" : [{\"start\" : ").append(quote(time(i))).append(", \"end\" : ").append(quote(time(i + 7))).append("}]");
+                break;
+            case "date":
+                json.append(", \"trigger\" : [").append(quote(date(i))).append("]");
+                break;
+            case "composite":
+                json.append(", \"relation\" : \"score & (time | date)\"")
+                        .append(", \"scoreTrigger\" : [").append(score(i)).append("]")
+                        .append(", \"timeTrigger\" : [").append(quote(time(i))).append("]")
+                        .append(", \"dateTrigger\" : [").append(quote(date(i))).append("]");
+                break;
+            default:
+                break;
+        }
+        return json.append(" }").toString();
+    }
+
+    private static long score(final int i) {
+        return 1 + i % 100;
+    }
+
+    private static String time(final int i) {
+        return String.format("%02d:%02d", i % 24, i % 60);
+    }
+
+    private static String date(final int i) {
+        return String.format("%02d-%02d", 1 + i % 12, 1 + i % 28);
+    }
+
+    private static String quote(final String value) {
+        return "\"" + value + "\"";
+    }
+}
@@ -0,0 +1,65 @@
+package net.csongradyp.badger.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import net.csongradyp.badger.AchievementDefinition;
+import net.csongradyp.badger.benchmark.store.BenchmarkStore;
+import net.csongradyp.badger.parser.AchievementDefinitionFileParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * INI and JSON parsing of synthetic definition files of increasing size.
+ * Parsing does not touch the store, so only the in-memory context is used.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configuration=benchmark-log4j.properties")
+public class DefinitionParserBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int achievements;
+
+    private ConfigurableApplicationContext context;
+    private AchievementDefinitionFileParser parser;
+    private File iniFile;
+    private File jsonFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = BenchmarkStore.MEMORY.createContext();
+        parser = context.getBean(AchievementDefinitionFileParser.class);
+        iniFile = DefinitionGenerator.writeIni(achievements);
+        jsonFile = DefinitionGenerator.writeJson(achievements);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AchievementDefinition parseIni() {
+        return parser.parse(iniFile);
+    }
+
+    @Benchmark
+    public AchievementDefinition parseJson() {
+        return parser.parse(jsonFile);
+    }
+}
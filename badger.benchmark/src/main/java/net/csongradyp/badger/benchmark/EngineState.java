@@ -0,0 +1,76 @@
+package net.csongradyp.badger.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import net.csongradyp.badger.AchievementController;
+import net.csongradyp.badger.benchmark.store.BenchmarkStore;
+import net.csongradyp.badger.parser.AchievementDefinitionFileParser;
+import net.csongradyp.badger.persistence.EventDao;
+import net.csongradyp.badger.persistence.ScoreDurability;
+import net.csongradyp.badger.provider.unlock.AchievementUnlockProviderFacade;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Running engine loaded with a synthetic definition of {@link #achievements} achievements.
+ */
+@State(Scope.Benchmark)
+public class EngineState {
+
+    @Param({"MEMORY", "OBJECTDB"})
+    public BenchmarkStore store;
+    @Param({"ASYNC", "SYNC"})
+    public ScoreDurability durability;
+    @Param({"100", "1000"})
+    public int achievements;
+
+    public final Collection<String> owners = Arrays.asList("owner-1", "owner-2");
+
+    public ConfigurableApplicationContext context;
+    public AchievementController controller;
+    public AchievementUnlockProviderFacade unlockFinder;
+
+    private int events;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = store.createContext();
+        controller = context.getBean(AchievementController.class);
+        unlockFinder = context.getBean(AchievementUnlockProviderFacade.class);
+        context.getBean(EventDao.class).setDurability(durability, EventDao.DEFAULT_FLUSH_INTERVAL);
+
+        final File definition = DefinitionGenerator.writeIni(achievements);
+        controller.setAchievementDefinition(context.getBean(AchievementDefinitionFileParser.class).parse(definition));
+        controller.reset();
+        events = DefinitionGenerator.numberOfEvents(achievements);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        controller.reset();
+        context.close();
+    }
+
+    /**
+     * @return the defined events in round robin order.
+     */
+    public String nextEvent() {
+        cursor = (cursor + 1) % events;
+        return DefinitionGenerator.eventName(cursor);
+    }
+
+    /**
+     * @return scores cycling through every score trigger of the synthetic definition.
+     */
+    public long nextScore() {
+        return cursor * 7L % 200L;
+    }
+}
@@ -0,0 +1,80 @@
+package net.csongradyp.badger.benchmark;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import net.csongradyp.badger.event.EventBus;
+import net.csongradyp.badger.event.OverflowPolicy;
+import net.csongradyp.badger.event.handler.wrapper.AchievementUnlockedHandlerWrapper;
+import net.csongradyp.badger.event.handler.wrapper.ScoreUpdateHandlerWrapper;
+import net.csongradyp.badger.event.message.AchievementUnlockedEvent;
+import net.csongradyp.badger.event.message.ScoreUpdatedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link EventBus} publishing to a number of subscribers. The bus does not use the store, so there is no store parameter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configuration=benchmark-log4j.properties")
+public class EventBusBenchmark {
+
+    private static final int ASYNC_QUEUE_CAPACITY = 65536;
+
+    @Param({"1", "10", "100"})
+    public int subscribers;
+    @Param({"false", "true"})
+    public boolean async;
+
+    private final LongAdder received = new LongAdder();
+    private final ScoreUpdatedEvent scoreUpdatedEvent = new ScoreUpdatedEvent("event", 1L);
+    private final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent("id", "title", "text", "1");
+    private EventBus eventBus;
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() {
+        eventBus = new EventBus();
+        for (int i = 0; i < subscribers; i++) {
+            eventBus.subscribeOnScoreChanged(new ScoreUpdateHandlerWrapper(score -> received.increment()));
+            eventBus.subscribeOnUnlock(new AchievementUnlockedHandlerWrapper(achievement -> received.increment()));
+        }
+        if (async) {
+            executor = Executors.newSingleThreadExecutor();
+            eventBus.enableAsyncDispatch(executor, ASYNC_QUEUE_CAPACITY, OverflowPolicy.BLOCK);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        eventBus.disableAsyncDispatch();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void publishScoreChanged() {
+        eventBus.publishScoreChanged(scoreUpdatedEvent);
+    }
+
+    @Benchmark
+    public void publishUnlocked() {
+        eventBus.publishUnlocked(unlockedEvent);
+    }
+}
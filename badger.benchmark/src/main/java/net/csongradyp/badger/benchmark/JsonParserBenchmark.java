@@ -0,0 +1,79 @@
+package net.csongradyp.badger.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.csongradyp.badger.AchievementDefinition;
+import net.csongradyp.badger.domain.AchievementType;
+import net.csongradyp.badger.parser.api.RelationParser;
+import net.csongradyp.badger.parser.api.trigger.DateTriggerParser;
+import net.csongradyp.badger.parser.api.trigger.ITriggerParser;
+import net.csongradyp.badger.parser.api.trigger.ScoreTriggerParser;
+import net.csongradyp.badger.parser.api.trigger.TimeTriggerParser;
+import net.csongradyp.badger.parser.json.AchievementJsonParser;
+import net.csongradyp.badger.provider.date.DateProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Streaming JSON parsing against binding the whole document to an object tree first.
+ * Run with {@code -prof gc} to compare the allocated bytes per parse as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configuration=benchmark-log4j.properties")
+public class JsonParserBenchmark {
+
+    @Param({"10000", "100000"})
+    public int achievements;
+
+    private AchievementJsonParser bindingParser;
+    private AchievementJsonParser streamingParser;
+    private File jsonFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        bindingParser = createParser();
+        bindingParser.setStreaming(false);
+        streamingParser = createParser();
+        jsonFile = DefinitionGenerator.writeJson(achievements);
+    }
+
+    private static AchievementJsonParser createParser() {
+        final DateProvider dateProvider = new DateProvider();
+        final Map<AchievementType, ITriggerParser> triggerParsers = new HashMap<>();
+        triggerParsers.put(AchievementType.SCORE, new ScoreTriggerParser());
+        triggerParsers.put(AchievementType.DATE, new DateTriggerParser(dateProvider));
+        triggerParsers.put(AchievementType.TIME, new TimeTriggerParser(dateProvider));
+        final RelationParser relationParser = new RelationParser();
+        final AchievementJsonParser parser = new AchievementJsonParser();
+        parser.setJsonTriggerParsers(triggerParsers);
+        parser.setDateProvider(dateProvider);
+        parser.setRelationParser(relationParser);
+        return parser;
+    }
+
+    @Benchmark
+    public AchievementDefinition bind() {
+        return bindingParser.parse(jsonFile);
+    }
+
+    @Benchmark
+    public AchievementDefinition stream() {
+        return streamingParser.parse(jsonFile);
+    }
+}
@@ -0,0 +1,104 @@
+package net.csongradyp.badger.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import net.csongradyp.badger.domain.IRelation;
+import net.csongradyp.badger.domain.achievement.relation.RelationCompiler;
+import net.csongradyp.badger.domain.achievement.trigger.DateTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.ITrigger;
+import net.csongradyp.badger.domain.achievement.trigger.ScoreTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.ScoreTriggerPair;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTriggerPair;
+import net.csongradyp.badger.parser.api.RelationParser;
+import net.csongradyp.badger.provider.date.ClockReading;
+import org.joda.time.DateTime;
+import org.joda.time.LocalTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Composite relation evaluation, parsed relation tree compared to its compiled form.
+ * Relations are evaluated in memory only, so there is no store parameter.
+ * {@link #parse()} measures loading one more composite with an expression already seen, as in large definitions.
+ * The *Reading variants take a pre-decoded {@link ClockReading} like the unlock providers do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RelationBenchmark {
+
+    @Param({"score & (time | date)", "score & date & scoreRange & timeRange", "(score | scoreRange) & (time | timeRange) & date"})
+    public String expression;
+
+    private RelationParser relationParser;
+    private Collection<ITrigger> triggers;
+    private IRelation parsed;
+    private IRelation compiled;
+    private final long[] scores = {150L, 5L, 50L};
+    private Date[] dates;
+    private Date[] times;
+    private ClockReading[] readings;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        relationParser = new RelationParser();
+        triggers = new ArrayList<>();
+        triggers.add(new ScoreTrigger(100L, ScoreTrigger.Operation.GREATER_THAN));
+        triggers.add(new ScoreTriggerPair(0L, 10L));
+        triggers.add(new DateTrigger(new DateTime(2000, 12, 24, 0, 0).toDate()));
+        triggers.add(new TimeTrigger(new LocalTime(12, 0)));
+        triggers.add(new TimeTriggerPair(new LocalTime(20, 0), new LocalTime(8, 0)));
+        parsed = relationParser.parse(expression, triggers);
+        compiled = RelationCompiler.compile(parsed);
+
+        final DateTime now = new DateTime(2014, 12, 24, 12, 0);
+        dates = new Date[]{now.toDate(), now.plusDays(1).toDate(), now.plusMonths(3).toDate()};
+        times = new Date[]{now.toDate(), now.plusDays(1).withHourOfDay(22).toDate(), now.plusMonths(3).withHourOfDay(15).toDate()};
+        readings = new ClockReading[]{ClockReading.of(times[0].getTime()), ClockReading.of(times[1].getTime()), ClockReading.of(times[2].getTime())};
+    }
+
+    @Benchmark
+    public IRelation parse() {
+        return relationParser.compile(expression, triggers);
+    }
+
+    @Benchmark
+    public Boolean evaluateParsed() {
+        cursor = (cursor + 1) % scores.length;
+        return parsed.evaluate(scores[cursor], dates[cursor], times[cursor]);
+    }
+
+    @Benchmark
+    public Boolean evaluateCompiled() {
+        cursor = (cursor + 1) % scores.length;
+        return compiled.evaluate(scores[cursor], dates[cursor], times[cursor]);
+    }
+
+    @Benchmark
+    public boolean evaluateParsedReading() {
+        cursor = (cursor + 1) % scores.length;
+        return parsed.evaluate(scores[cursor], readings[cursor]);
+    }
+
+    @Benchmark
+    public boolean evaluateCompiledReading() {
+        cursor = (cursor + 1) % scores.length;
+        return compiled.evaluate(scores[cursor], readings[cursor]);
+    }
+}
@@ -0,0 +1,61 @@
+package net.csongradyp.badger.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import net.csongradyp.badger.Badger;
+import net.csongradyp.badger.StorageBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cold start of an in-memory engine with a synthetic definition through the Spring context and through
+ * {@link Badger#builder()}. Every fork measures a single start, so class loading is part of the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 10, jvmArgsAppend = "-Dlog4j.configuration=benchmark-log4j.properties")
+public class StartupBenchmark {
+
+    @Param({"100"})
+    public int achievements;
+
+    private File definition;
+    private Badger badger;
+
+    @Setup
+    public void setUp() throws IOException {
+        definition = DefinitionGenerator.writeIni(achievements);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        badger.shutdown();
+    }
+
+    @Benchmark
+    public Badger spring() {
+        badger = new Badger(definition, StorageBackend.IN_MEMORY);
+        return badger;
+    }
+
+    @Benchmark
+    public Badger builder() {
+        badger = Badger.builder().definition(definition).build();
+        return badger;
+    }
+}
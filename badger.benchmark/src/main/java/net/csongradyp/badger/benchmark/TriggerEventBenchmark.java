@@ -0,0 +1,51 @@
+package net.csongradyp.badger.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code AchievementController.triggerEvent} variants with and without owners.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configuration=benchmark-log4j.properties")
+public class TriggerEventBenchmark {
+
+    @Benchmark
+    public void increment(final EngineState state) {
+        state.controller.triggerEvent(state.nextEvent());
+    }
+
+    @Benchmark
+    public void incrementWithOwners(final EngineState state) {
+        state.controller.triggerEvent(state.nextEvent(), state.owners);
+    }
+
+    @Benchmark
+    public void setScore(final EngineState state) {
+        state.controller.triggerEvent(state.nextEvent(), state.nextScore());
+    }
+
+    @Benchmark
+    public void setScoreWithOwners(final EngineState state) {
+        state.controller.triggerEvent(state.nextEvent(), state.nextScore(), state.owners);
+    }
+
+    @Benchmark
+    public void highScore(final EngineState state) {
+        state.controller.triggerEventWithHighScore(state.nextEvent(), state.nextScore());
+    }
+
+    @Benchmark
+    public void highScoreWithOwners(final EngineState state) {
+        state.controller.triggerEventWithHighScore(state.nextEvent(), state.nextScore(), state.owners);
+    }
+}
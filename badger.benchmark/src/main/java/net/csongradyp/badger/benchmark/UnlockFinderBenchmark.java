@@ -0,0 +1,55 @@
+package net.csongradyp.badger.benchmark;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import net.csongradyp.badger.Unlockable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code AchievementUnlockProviderFacade.findUnlockables} lookups and the incremental and the full {@code AchievementController} checks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configuration=benchmark-log4j.properties")
+public class UnlockFinderBenchmark {
+
+    @Benchmark
+    public Collection<Unlockable> findUnlockables(final EngineState state) {
+        return state.unlockFinder.findUnlockables(state.nextEvent(), state.nextScore());
+    }
+
+    @Benchmark
+    public Collection<Unlockable> findUnlockablesOfCrossedThresholds(final EngineState state) {
+        final long score = state.nextScore();
+        return state.unlockFinder.findUnlockables(state.nextEvent(), score - 1, score, state.owners);
+    }
+
+    @Benchmark
+    public Collection<Unlockable> findAll(final EngineState state) {
+        return state.unlockFinder.findAll();
+    }
+
+    /**
+     * Measures one triggered event followed by a check, in the steady state where previously unlockable achievements
+     * are already unlocked.
+     */
+    @Benchmark
+    public void checkAndUnlock(final EngineState state) {
+        state.controller.triggerEvent(state.nextEvent());
+        state.controller.checkAndUnlock();
+    }
+
+    @Benchmark
+    public void checkAndUnlockAll(final EngineState state) {
+        state.controller.triggerEvent(state.nextEvent());
+        state.controller.checkAndUnlockAll();
+    }
+}
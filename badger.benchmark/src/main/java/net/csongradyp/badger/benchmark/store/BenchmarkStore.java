@@ -0,0 +1,29 @@
+package net.csongradyp.badger.benchmark.store;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+/**
+ * Persistence backends the benchmarks are executed against.
+ */
+public enum BenchmarkStore {
+
+    /**
+     * The in-memory persistence store instead of the Spring Data repositories.
+     */
+    MEMORY("META-INF/memory-beans.xml"),
+    /**
+     * The production context with ObjectDB repositories writing {@code badger.db} into the working directory.
+     */
+    OBJECTDB("META-INF/beans.xml");
+
+    private final String contextXmlPath;
+
+    BenchmarkStore(final String contextXmlPath) {
+        this.contextXmlPath = contextXmlPath;
+    }
+
+    public ConfigurableApplicationContext createContext() {
+        return new ClassPathXmlApplicationContext(contextXmlPath);
+    }
+}
@@ -0,0 +1,4 @@
+package net.csongradyp.badger.benchmark.jmh_generated;
+public class DefinitionParserBenchmark_jmhType extends DefinitionParserBenchmark_jmhType_B3 {
+}
+
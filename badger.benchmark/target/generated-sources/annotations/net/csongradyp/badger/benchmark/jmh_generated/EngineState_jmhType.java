@@ -0,0 +1,4 @@
+package net.csongradyp.badger.benchmark.jmh_generated;
+public class EngineState_jmhType extends EngineState_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package net.csongradyp.badger.benchmark.jmh_generated;
+public class EventBusBenchmark_jmhType extends EventBusBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package net.csongradyp.badger.benchmark.jmh_generated;
+public class JsonParserBenchmark_jmhType extends JsonParserBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package net.csongradyp.badger.benchmark.jmh_generated;
+public class RelationBenchmark_jmhType extends RelationBenchmark_jmhType_B3 {
+}
+
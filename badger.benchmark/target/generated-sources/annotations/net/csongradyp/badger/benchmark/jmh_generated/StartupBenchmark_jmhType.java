@@ -0,0 +1,4 @@
+package net.csongradyp.badger.benchmark.jmh_generated;
+public class StartupBenchmark_jmhType extends StartupBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package net.csongradyp.badger.benchmark.jmh_generated;
+public class TriggerEventBenchmark_jmhType extends TriggerEventBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package net.csongradyp.badger.benchmark.jmh_generated;
+public class UnlockFinderBenchmark_jmhType extends UnlockFinderBenchmark_jmhType_B3 {
+}
+
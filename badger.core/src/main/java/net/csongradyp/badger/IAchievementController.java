@@ -7,6 +7,7 @@ import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.Set;
 import net.csongradyp.badger.domain.IAchievement;
+import net.csongradyp.badger.event.IAchievementUnlockedEvent;
 
 public interface IAchievementController {
 
@@ -18,6 +19,15 @@ public interface IAchievementController {
 
     void setLocale(Locale locale);
 
+    /**
+     * Renders an unlocked event in the given language without changing the locale of new unlock events.
+     *
+     * @param event  unlocked event to render.
+     * @param locale language of the title and description.
+     * @return copy of the event with localized title and description, or the event itself for unknown achievements.
+     */
+    IAchievementUnlockedEvent localize(IAchievementUnlockedEvent event, Locale locale);
+
     Collection<IAchievement> getAll();
 
     Collection<IAchievement> getAllUnlocked();
@@ -28,8 +38,17 @@ public interface IAchievementController {
 
     Optional<IAchievement> get(String id);
 
+    /**
+     * Unlocks the achievements affected by counter changes and clock movement since the previous check.
+     */
     void checkAndUnlock();
 
+    /**
+     * Re-evaluates and unlocks every achievement of the definition, e.g. to recover after the store was modified
+     * outside of the engine.
+     */
+    void checkAndUnlockAll();
+
     void triggerEventWithHighScore(String event, Long score);
 
     void triggerEventWithHighScore(String event, Long score, Collection<String> owners);
@@ -42,6 +61,8 @@ public interface IAchievementController {
 
     void triggerEvent(String event);
 
+    Collection<IAchievementUnlockedEvent> triggerEvents(Collection<TriggerRequest> requests);
+
     void unlock(String achievementId, String triggerValue, Collection<String> owners);
 
     void unlock(String achievementId, String triggerValue);
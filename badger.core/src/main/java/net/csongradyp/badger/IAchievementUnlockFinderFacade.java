@@ -3,19 +3,39 @@ package net.csongradyp.badger;
 import java.util.Collection;
 import java.util.Optional;
 import net.csongradyp.badger.domain.IAchievement;
-import net.csongradyp.badger.event.IAchievementUnlockedEvent;
 
+/**
+ * Finds the achievements to unlock. Results are {@link Unlockable} entries, unlock events are created by the caller
+ * only for the unlocks it has stored.
+ */
 public interface IAchievementUnlockFinderFacade {
 
-    Collection<IAchievementUnlockedEvent> findAll();
+    /**
+     * Evaluates every achievement of the definition.
+     */
+    Collection<Unlockable> findAll();
 
-    Collection<IAchievementUnlockedEvent> findUnlockables(String event);
+    /**
+     * Evaluates only the achievements affected since the previous check: the ones subscribed for an event whose counter
+     * changed and, if the clock moved to another minute, the time and date dependent ones.
+     * The first call after a definition is set evaluates every achievement.
+     */
+    Collection<Unlockable> findChanged();
 
-    Collection<IAchievementUnlockedEvent> findUnlockables(String event, Long currentValue);
+    Collection<Unlockable> findUnlockables(String event);
 
-    Collection<IAchievementUnlockedEvent> findUnlockables(String event, Collection<String> owners);
+    Collection<Unlockable> findUnlockables(String event, Long currentValue);
 
-    Collection<IAchievementUnlockedEvent> findUnlockables(String event, Long score, Collection<String> owners);
+    Collection<Unlockable> findUnlockables(String event, Collection<String> owners);
 
-    Optional<IAchievementUnlockedEvent> getUnlockable(IAchievement achievementBean);
+    Collection<Unlockable> findUnlockables(String event, Long score, Collection<String> owners);
+
+    /**
+     * Finds the achievements unlocked by the change of the event counter from the previous to the new score.
+     * Score based achievements are evaluated only when one of their thresholds was crossed by the change.
+     * The event is recorded as changed for the next {@link #findChanged()}.
+     */
+    Collection<Unlockable> findUnlockables(String event, Long previousScore, Long score, Collection<String> owners);
+
+    Optional<Unlockable> getUnlockable(IAchievement achievementBean);
 }
@@ -0,0 +1,46 @@
+package net.csongradyp.badger;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * Single element of a batched trigger call.
+ * A request without score increments the event counter by one, a request with score sets the counter to the given value.
+ */
+public class TriggerRequest {
+
+    private final String event;
+    private final Long score;
+    private final Collection<String> owners;
+
+    public TriggerRequest(final String event) {
+        this(event, null, Collections.emptySet());
+    }
+
+    public TriggerRequest(final String event, final Collection<String> owners) {
+        this(event, null, owners);
+    }
+
+    public TriggerRequest(final String event, final Long score) {
+        this(event, score, Collections.emptySet());
+    }
+
+    public TriggerRequest(final String event, final Long score, final Collection<String> owners) {
+        this.event = event;
+        this.score = score;
+        this.owners = owners;
+    }
+
+    public String getEvent() {
+        return event;
+    }
+
+    public Optional<Long> getScore() {
+        return Optional.ofNullable(score);
+    }
+
+    public Collection<String> getOwners() {
+        return owners;
+    }
+}
@@ -0,0 +1,61 @@
+package net.csongradyp.badger;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import net.csongradyp.badger.domain.IAchievement;
+
+/**
+ * Achievement level found to be unlockable by the current counters and clock.
+ * It carries only the achievement, the level, the owners and the raw trigger value: a score, or the clock in
+ * milliseconds for time and date achievements. The unlock event is created from it only after the unlock is stored.
+ */
+public class Unlockable {
+
+    private final IAchievement achievement;
+    private final int level;
+    private final long triggerValue;
+    private Set<String> owners;
+
+    public Unlockable(final IAchievement achievement, final long triggerValue) {
+        this(achievement, 1, triggerValue);
+    }
+
+    public Unlockable(final IAchievement achievement, final int level, final long triggerValue) {
+        this.achievement = achievement;
+        this.level = level;
+        this.triggerValue = triggerValue;
+        owners = Collections.emptySet();
+    }
+
+    public IAchievement getAchievement() {
+        return achievement;
+    }
+
+    public String getId() {
+        return achievement.getId();
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public long getTriggerValue() {
+        return triggerValue;
+    }
+
+    public Set<String> getOwners() {
+        return owners;
+    }
+
+    public void addOwners(final Collection<String> owners) {
+        if (owners.isEmpty()) {
+            return;
+        }
+        if (this.owners.isEmpty()) {
+            this.owners = new HashSet<>();
+        }
+        this.owners.addAll(owners);
+    }
+}
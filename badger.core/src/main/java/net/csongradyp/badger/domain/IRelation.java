@@ -1,8 +1,23 @@
 package net.csongradyp.badger.domain;
 
 import java.util.Date;
+import net.csongradyp.badger.provider.date.ClockReading;
 
 public interface IRelation {
 
     Boolean evaluate(Long score, Date date, Date time);
+
+    /**
+     * Evaluates the relation against a pre-decoded clock reading.
+     * Implementations should override it to compare primitive values; the default converts the reading back to
+     * {@link Date} instances.
+     *
+     * @param score current event counter value.
+     * @param clock clock reading supplying both the date and the time to check.
+     * @return {@code true} if the relation is fulfilled.
+     */
+    default boolean evaluate(final long score, final ClockReading clock) {
+        final Date now = new Date(clock.getTimeMillis());
+        return evaluate(score, now, now);
+    }
 }
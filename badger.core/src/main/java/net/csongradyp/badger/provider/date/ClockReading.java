@@ -0,0 +1,84 @@
+package net.csongradyp.badger.provider.date;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.joda.time.Chronology;
+import org.joda.time.DateTimeZone;
+import org.joda.time.chrono.ISOChronology;
+
+/**
+ * One reading of the clock, pre-decoded into the primitive values time and date triggers are compared with.
+ * Days are numbered in a leap year, so February 29 always has its own day and every other date keeps its number
+ * in every year.
+ */
+public final class ClockReading {
+
+    private static final long MILLIS_PER_MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final int MINUTES_PER_DAY = (int) TimeUnit.DAYS.toMinutes(1);
+    private static final int[] DAYS_BEFORE_MONTH = {0, 31, 60, 91, 121, 152, 182, 213, 244, 274, 305, 335};
+    private static final Chronology UTC = ISOChronology.getInstanceUTC();
+
+    private final long timeMillis;
+    private final long epochMinute;
+    private final int minuteOfDay;
+    private final int dayOfYear;
+
+    private ClockReading(final long timeMillis, final DateTimeZone zone) {
+        this.timeMillis = timeMillis;
+        epochMinute = Math.floorDiv(timeMillis, MILLIS_PER_MINUTE);
+        final long localMillis = timeMillis + zone.getOffset(timeMillis);
+        minuteOfDay = (int) Math.floorMod(Math.floorDiv(localMillis, MILLIS_PER_MINUTE), (long) MINUTES_PER_DAY);
+        dayOfYear = dayOfYear(UTC.monthOfYear().get(localMillis), UTC.dayOfMonth().get(localMillis));
+    }
+
+    /**
+     * @param timeMillis instant in milliseconds since the epoch, decoded in the default time zone.
+     */
+    public static ClockReading of(final long timeMillis) {
+        return new ClockReading(timeMillis, DateTimeZone.getDefault());
+    }
+
+    public static ClockReading of(final long timeMillis, final DateTimeZone zone) {
+        return new ClockReading(timeMillis, zone);
+    }
+
+    /**
+     * @return day of the year of the given month and day, counted in a leap year (1 - 366).
+     */
+    public static int dayOfYear(final int monthOfYear, final int dayOfMonth) {
+        return DAYS_BEFORE_MONTH[monthOfYear - 1] + dayOfMonth;
+    }
+
+    /**
+     * @return minute of the day of the given date in the default time zone.
+     */
+    public static int minuteOfDayOf(final Date date) {
+        return of(date.getTime()).getMinuteOfDay();
+    }
+
+    /**
+     * @return leap year based day of the year of the given date in the default time zone.
+     */
+    public static int dayOfYearOf(final Date date) {
+        return of(date.getTime()).getDayOfYear();
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * @return minutes elapsed since the epoch, the same for every reading within one minute.
+     */
+    public long getEpochMinute() {
+        return epochMinute;
+    }
+
+    public int getMinuteOfDay() {
+        return minuteOfDay;
+    }
+
+    public int getDayOfYear() {
+        return dayOfYear;
+    }
+}
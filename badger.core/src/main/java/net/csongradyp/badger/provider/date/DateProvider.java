@@ -10,32 +10,52 @@ import org.joda.time.format.DateTimeFormatter;
 @Named
 public class DateProvider implements IDateProvider {
 
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
     private final DateTimeFormatter dateFormatter;
     private final DateTimeFormatter timeFormatter;
+    private volatile ClockReading reading;
 
     public DateProvider() {
         dateFormatter = DateTimeFormat.forPattern("MM-dd");
         timeFormatter = DateTimeFormat.forPattern("HH:mm");
     }
 
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public ClockReading currentReading() {
+        final long now = currentTimeMillis();
+        final ClockReading cached = reading;
+        if (cached != null && cached.getEpochMinute() == Math.floorDiv(now, MILLIS_PER_MINUTE)) {
+            return cached;
+        }
+        final ClockReading current = ClockReading.of(now);
+        reading = current;
+        return current;
+    }
+
     @Override
     public String currentDateString() {
-        return format(new Date().getTime());
+        return format(currentTimeMillis());
     }
 
     @Override
     public Date currentDate() {
-        return new DateTime().toLocalDate().toDate();
+        return new DateTime(currentTimeMillis()).toLocalDate().toDate();
     }
 
     @Override
     public String currentTimeString() {
-        return getTime(new Date());
+        return getTime(currentTime());
     }
 
     @Override
     public Date currentTime() {
-        return new Date();
+        return new Date(currentTimeMillis());
     }
 
     @Override
@@ -6,6 +6,21 @@ import java.util.Date;
 
 public interface IDateProvider {
 
+    /**
+     * Returns the current instant of the clock every other {@code current...} method is derived from.
+     *
+     * @return milliseconds since the epoch.
+     */
+    long currentTimeMillis();
+
+    /**
+     * Returns the current clock reading decoded to minute of day and day of year.
+     * Readings are reused within the same minute, so repeated calls during one evaluation pass do not allocate.
+     *
+     * @return {@link ClockReading} of the current minute.
+     */
+    ClockReading currentReading();
+
     String currentDateString();
 
     Date currentDate();
@@ -0,0 +1,32 @@
+package net.csongradyp.badger.provider.date;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Manually driven clock to test time and date based achievements deterministically.
+ */
+public class VirtualDateProvider extends DateProvider {
+
+    private final AtomicLong now;
+
+    /**
+     * @param now initial instant in milliseconds since the epoch.
+     */
+    public VirtualDateProvider(final long now) {
+        this.now = new AtomicLong(now);
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return now.get();
+    }
+
+    public void setTime(final long instant) {
+        now.set(instant);
+    }
+
+    public void advance(final long amount, final TimeUnit unit) {
+        now.addAndGet(unit.toMillis(amount));
+    }
+}
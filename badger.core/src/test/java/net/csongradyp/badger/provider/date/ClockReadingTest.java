@@ -0,0 +1,57 @@
+package net.csongradyp.badger.provider.date;
+
+import java.util.concurrent.TimeUnit;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ClockReadingTest {
+
+    @Test
+    public void testReadingIsDecodedToMinuteOfDayAndDayOfYear() {
+        final DateTime time = new DateTime(2014, 12, 24, 23, 58, 30);
+
+        final ClockReading result = ClockReading.of(time.getMillis());
+
+        assertThat(result.getTimeMillis(), is(equalTo(time.getMillis())));
+        assertThat(result.getMinuteOfDay(), is(equalTo(23 * 60 + 58)));
+        assertThat(result.getDayOfYear(), is(equalTo(new DateTime(2000, 12, 24, 0, 0).getDayOfYear())));
+    }
+
+    @Test
+    public void testDayOfYearIsCountedInLeapYear() {
+        assertThat(ClockReading.dayOfYear(2, 29), is(equalTo(60)));
+        assertThat(ClockReading.dayOfYear(3, 1), is(equalTo(61)));
+        assertThat(ClockReading.dayOfYearOf(new DateTime(2015, 3, 1, 0, 0).toDate()), is(equalTo(61)));
+        assertThat(ClockReading.dayOfYear(12, 31), is(equalTo(366)));
+    }
+
+    @Test
+    public void testReadingUsesGivenTimeZone() {
+        final long instant = new DateTime(2015, 1, 1, 0, 30, DateTimeZone.UTC).getMillis();
+
+        final ClockReading result = ClockReading.of(instant, DateTimeZone.forOffsetHours(-1));
+
+        assertThat(result.getMinuteOfDay(), is(equalTo(23 * 60 + 30)));
+        assertThat(result.getDayOfYear(), is(equalTo(366)));
+    }
+
+    @Test
+    public void testDateProviderReusesReadingWithinTheSameMinute() {
+        final VirtualDateProvider dateProvider = new VirtualDateProvider(new DateTime(2014, 12, 24, 12, 0).getMillis());
+        final ClockReading reading = dateProvider.currentReading();
+
+        dateProvider.advance(59, TimeUnit.SECONDS);
+        assertThat(dateProvider.currentReading(), is(sameInstance(reading)));
+
+        dateProvider.advance(1, TimeUnit.SECONDS);
+        assertThat(dateProvider.currentReading(), is(not(sameInstance(reading))));
+        assertThat(dateProvider.currentReading().getMinuteOfDay(), is(equalTo(12 * 60 + 1)));
+    }
+}
@@ -0,0 +1,48 @@
+package net.csongradyp.badger.provider.date;
+
+import java.util.concurrent.TimeUnit;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class VirtualDateProviderTest {
+
+    private static final DateTime START = new DateTime(2014, 12, 24, 23, 58);
+
+    private VirtualDateProvider underTest;
+
+    @Before
+    public void setUp() {
+        underTest = new VirtualDateProvider(START.getMillis());
+    }
+
+    @Test
+    public void testCurrentValuesAreDerivedFromTheVirtualTime() {
+        assertThat(underTest.currentTimeMillis(), is(equalTo(START.getMillis())));
+        assertThat(underTest.currentTime(), is(equalTo(START.toDate())));
+        assertThat(underTest.currentTimeString(), is(equalTo("23:58")));
+        assertThat(underTest.currentDateString(), is(equalTo("12-24")));
+        assertThat(underTest.currentDate(), is(equalTo(START.withTimeAtStartOfDay().toDate())));
+    }
+
+    @Test
+    public void testAdvanceMovesTheClockForward() {
+        underTest.advance(3, TimeUnit.MINUTES);
+
+        assertThat(underTest.currentTimeString(), is(equalTo("00:01")));
+        assertThat(underTest.currentDateString(), is(equalTo("12-25")));
+    }
+
+    @Test
+    public void testSetTimeMovesTheClockToTheGivenInstant() {
+        final DateTime instant = START.minusYears(1);
+
+        underTest.setTime(instant.getMillis());
+
+        assertThat(underTest.currentTime(), is(equalTo(instant.toDate())));
+    }
+}
@@ -6,6 +6,10 @@ import net.csongradyp.badger.exception.MalformedAchievementDefinition;
 
 import java.util.*;
 
+/**
+ * Mutable achievement definition used while parsing. Achievements, events and categories keep their insertion
+ * order, so a definition file compiles to the same order on every run.
+ */
 public class AchievementBundle implements AchievementDefinition {
 
     private final Map<AchievementType, Map<String, IAchievement>> achievementTypeMap;
@@ -13,15 +17,15 @@ public class AchievementBundle implements AchievementDefinition {
     private final Map<String, Set<IAchievement>> achievementCategoryMap;
 
     public AchievementBundle() {
-        achievementTypeMap = new HashMap<>();
-        achievementEventMap = new HashMap<>();
-        achievementCategoryMap = new HashMap<>();
+        achievementTypeMap = new EnumMap<>(AchievementType.class);
+        achievementEventMap = new LinkedHashMap<>();
+        achievementCategoryMap = new LinkedHashMap<>();
         setUpTypeMap();
     }
 
     private void setUpTypeMap() {
         for (AchievementType type : AchievementType.values()) {
-            achievementTypeMap.put(type, new HashMap<>());
+            achievementTypeMap.put(type, new LinkedHashMap<>());
         }
     }
 
@@ -32,7 +36,7 @@ public class AchievementBundle implements AchievementDefinition {
 
     @Override
     public void setEvents(final Collection<String> events) {
-        events.stream().forEach(event -> achievementEventMap.put(event, new HashSet<>()));
+        events.stream().forEach(event -> achievementEventMap.put(event, new LinkedHashSet<>()));
     }
 
     @Override
@@ -65,7 +69,7 @@ public class AchievementBundle implements AchievementDefinition {
     private void addToCategoryMap(final IAchievement achievementBean) {
         final String category = achievementBean.getCategory();
         if (achievementCategoryMap.get(category) == null) {
-            achievementCategoryMap.put(category, new HashSet<>());
+            achievementCategoryMap.put(category, new LinkedHashSet<>());
         }
         achievementCategoryMap.get(category).add(achievementBean);
     }
@@ -82,7 +86,7 @@ public class AchievementBundle implements AchievementDefinition {
 
     @Override
     public Collection<IAchievement> getAll() {
-        Collection<IAchievement> allAchievements = new HashSet<>();
+        Collection<IAchievement> allAchievements = new ArrayList<>();
         achievementTypeMap.values().forEach(achievementMap -> allAchievements.addAll(achievementMap.values()));
         return allAchievements;
     }
@@ -107,4 +111,11 @@ public class AchievementBundle implements AchievementDefinition {
         return getAll().stream().filter(achievement -> achievement.getId().equals(id)).findAny();
     }
 
+    /**
+     * @return immutable, indexed snapshot of the current content of this bundle.
+     */
+    public CompiledAchievementDefinition compile() {
+        return new CompiledAchievementDefinition(this);
+    }
+
 }
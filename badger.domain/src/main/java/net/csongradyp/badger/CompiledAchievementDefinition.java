@@ -0,0 +1,106 @@
+package net.csongradyp.badger;
+
+import net.csongradyp.badger.domain.AchievementType;
+import net.csongradyp.badger.domain.IAchievement;
+
+import java.util.*;
+
+/**
+ * Immutable snapshot of an achievement definition with direct id, type, event and category indexes.
+ * Every lookup is served from precomputed unmodifiable views, so instances can be shared between threads.
+ */
+public final class CompiledAchievementDefinition implements AchievementDefinition {
+
+    private static final String IMMUTABLE = "Compiled achievement definition cannot be modified";
+
+    private final Map<String, Optional<IAchievement>> achievementIdMap;
+    private final Map<AchievementType, Map<String, Optional<IAchievement>>> achievementTypeMap;
+    private final Map<String, Set<IAchievement>> achievementEventMap;
+    private final Map<String, List<IAchievement>> achievementEventArrays;
+    private final Map<String, List<IAchievement>> achievementCategoryMap;
+    private final Collection<IAchievement> allAchievements;
+
+    public CompiledAchievementDefinition(final AchievementDefinition definition) {
+        this(definition.getAll(), definition.getAllByEvents());
+    }
+
+    /**
+     * @param all                 every achievement of the definition.
+     * @param achievementsByEvent achievements subscribed for each declared event, in evaluation order.
+     */
+    public CompiledAchievementDefinition(final Collection<IAchievement> all, final Map<String, ? extends Collection<IAchievement>> achievementsByEvent) {
+        final Map<String, Optional<IAchievement>> idMap = new HashMap<>();
+        final Map<AchievementType, Map<String, Optional<IAchievement>>> typeMap = new EnumMap<>(AchievementType.class);
+        final Map<String, List<IAchievement>> categoryMap = new HashMap<>();
+        for (AchievementType type : AchievementType.values()) {
+            typeMap.put(type, new HashMap<>());
+        }
+        for (IAchievement achievement : all) {
+            final Optional<IAchievement> entry = Optional.of(achievement);
+            idMap.put(achievement.getId(), entry);
+            typeMap.get(achievement.getType()).put(achievement.getId(), entry);
+            categoryMap.computeIfAbsent(achievement.getCategory(), category -> new ArrayList<>()).add(achievement);
+        }
+        typeMap.replaceAll((type, achievements) -> Collections.unmodifiableMap(achievements));
+        categoryMap.replaceAll((category, achievements) -> Collections.unmodifiableList(achievements));
+
+        final Map<String, Set<IAchievement>> eventMap = new HashMap<>();
+        final Map<String, List<IAchievement>> eventArrays = new HashMap<>();
+        achievementsByEvent.forEach((event, achievements) -> {
+            eventMap.put(event, Collections.unmodifiableSet(new LinkedHashSet<>(achievements)));
+            eventArrays.put(event, Collections.unmodifiableList(Arrays.asList(achievements.toArray(new IAchievement[achievements.size()]))));
+        });
+
+        achievementIdMap = Collections.unmodifiableMap(idMap);
+        achievementTypeMap = Collections.unmodifiableMap(typeMap);
+        achievementCategoryMap = Collections.unmodifiableMap(categoryMap);
+        achievementEventMap = Collections.unmodifiableMap(eventMap);
+        achievementEventArrays = Collections.unmodifiableMap(eventArrays);
+        allAchievements = Collections.unmodifiableList(new ArrayList<>(all));
+    }
+
+    @Override
+    public Collection<IAchievement> getAll() {
+        return allAchievements;
+    }
+
+    @Override
+    public void setEvents(final String[] events) {
+        throw new UnsupportedOperationException(IMMUTABLE);
+    }
+
+    @Override
+    public void setEvents(final Collection<String> events) {
+        throw new UnsupportedOperationException(IMMUTABLE);
+    }
+
+    @Override
+    public void setAchievements(final Collection<IAchievement> achievements) {
+        throw new UnsupportedOperationException(IMMUTABLE);
+    }
+
+    @Override
+    public Collection<IAchievement> getAchievementsSubscribedFor(final String event) {
+        return achievementEventArrays.getOrDefault(event, Collections.emptyList());
+    }
+
+    @Override
+    public Collection<IAchievement> getAchievementsForCategory(final String category) {
+        return achievementCategoryMap.get(category);
+    }
+
+    @Override
+    public Map<String, Set<IAchievement>> getAllByEvents() {
+        return achievementEventMap;
+    }
+
+    @Override
+    public Optional<IAchievement> get(final AchievementType type, final String id) {
+        return achievementTypeMap.get(type).getOrDefault(id, Optional.empty());
+    }
+
+    @Override
+    public Optional<IAchievement> get(final String id) {
+        return achievementIdMap.getOrDefault(id, Optional.empty());
+    }
+}
@@ -0,0 +1,174 @@
+package net.csongradyp.badger;
+
+import net.csongradyp.badger.domain.AbstractAchievementBean;
+import net.csongradyp.badger.domain.AchievementType;
+import net.csongradyp.badger.domain.IAchievement;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable definition assembled from several independent definitions, e.g. one per game mode. Achievement ids and
+ * events of a namespace are qualified with its name, {@code mode.kill} is the {@code kill} event of the {@code mode}
+ * namespace. Lookups go to the index of the namespace directly, a namespace can be replaced without touching the
+ * indexes of the others.
+ */
+public final class NamespacedAchievementDefinition implements AchievementDefinition {
+
+    public static final String SEPARATOR = ".";
+
+    private static final String IMMUTABLE = "Namespaced achievement definition cannot be modified";
+    private static final NamespacedAchievementDefinition EMPTY = new NamespacedAchievementDefinition(Collections.emptyMap());
+
+    private final Map<String, CompiledAchievementDefinition> namespaces;
+    private final Collection<IAchievement> allAchievements;
+    private final Map<String, Set<IAchievement>> achievementEventMap;
+
+    /**
+     * @param namespaces compiled definitions by namespace, see {@link #compileNamespace(String, AchievementDefinition)}.
+     */
+    public NamespacedAchievementDefinition(final Map<String, CompiledAchievementDefinition> namespaces) {
+        this.namespaces = Collections.unmodifiableMap(new LinkedHashMap<>(namespaces));
+        final List<IAchievement> all = new ArrayList<>();
+        final Map<String, Set<IAchievement>> eventMap = new LinkedHashMap<>();
+        this.namespaces.values().forEach(definition -> {
+            all.addAll(definition.getAll());
+            eventMap.putAll(definition.getAllByEvents());
+        });
+        allAchievements = Collections.unmodifiableList(all);
+        achievementEventMap = Collections.unmodifiableMap(eventMap);
+    }
+
+    public static NamespacedAchievementDefinition empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Qualifies the ids and event subscriptions of the achievements with the namespace and compiles the result.
+     * The achievements are copied, the given definition and its achievements are left unchanged.
+     *
+     * @param namespace  name of the namespace, must not contain the {@link #SEPARATOR}.
+     * @param definition parsed definition of the namespace.
+     * @return compiled definition of the namespace.
+     * @throws IllegalArgumentException if the namespace name is invalid or an achievement cannot be copied.
+     */
+    public static CompiledAchievementDefinition compileNamespace(final String namespace, final AchievementDefinition definition) {
+        if (namespace == null || namespace.isEmpty() || namespace.contains(SEPARATOR)) {
+            throw new IllegalArgumentException("Invalid namespace: " + namespace);
+        }
+        final List<IAchievement> achievements = new ArrayList<>();
+        final Map<IAchievement, IAchievement> copies = new IdentityHashMap<>();
+        for (IAchievement achievement : definition.getAll()) {
+            if (!(achievement instanceof AbstractAchievementBean)) {
+                throw new IllegalArgumentException("Achievement cannot be namespaced: " + achievement.getClass().getName());
+            }
+            final AbstractAchievementBean copy = ((AbstractAchievementBean) achievement).copy();
+            copy.setId(qualify(namespace, copy.getId()));
+            if (copy.getSubscriptions() != null) {
+                copy.setSubscription(copy.getSubscriptions().stream().map(event -> qualify(namespace, event)).collect(Collectors.toList()));
+            }
+            achievements.add(copy);
+            copies.put(achievement, copy);
+        }
+        final Map<String, Collection<IAchievement>> achievementsByEvent = new LinkedHashMap<>();
+        definition.getAllByEvents().forEach((event, subscribed) -> achievementsByEvent.put(qualify(namespace, event),
+                subscribed.stream().map(achievement -> copies.getOrDefault(achievement, achievement)).collect(Collectors.toList())));
+        return new CompiledAchievementDefinition(achievements, achievementsByEvent);
+    }
+
+    public static String qualify(final String namespace, final String name) {
+        return namespace + SEPARATOR + name;
+    }
+
+    /**
+     * @param namespace  name of the namespace to add or replace.
+     * @param definition parsed definition of the namespace or the current one returned by {@link #getNamespace(String)}.
+     * @return new definition with the given namespace, other namespaces are shared with this one.
+     */
+    public NamespacedAchievementDefinition withNamespace(final String namespace, final AchievementDefinition definition) {
+        final Map<String, CompiledAchievementDefinition> replaced = new LinkedHashMap<>(namespaces);
+        final CompiledAchievementDefinition current = namespaces.get(namespace);
+        replaced.put(namespace, definition == current ? current : compileNamespace(namespace, definition));
+        return new NamespacedAchievementDefinition(replaced);
+    }
+
+    /**
+     * @return new definition without the given namespace.
+     */
+    public NamespacedAchievementDefinition withoutNamespace(final String namespace) {
+        final Map<String, CompiledAchievementDefinition> remaining = new LinkedHashMap<>(namespaces);
+        remaining.remove(namespace);
+        return new NamespacedAchievementDefinition(remaining);
+    }
+
+    public Set<String> getNamespaces() {
+        return namespaces.keySet();
+    }
+
+    /**
+     * @return definition of the namespace with qualified ids and events.
+     */
+    public Optional<AchievementDefinition> getNamespace(final String namespace) {
+        return Optional.ofNullable(namespaces.get(namespace));
+    }
+
+    private CompiledAchievementDefinition namespaceOf(final String qualifiedName) {
+        final int separator = qualifiedName.indexOf(SEPARATOR);
+        return separator < 0 ? null : namespaces.get(qualifiedName.substring(0, separator));
+    }
+
+    @Override
+    public Collection<IAchievement> getAll() {
+        return allAchievements;
+    }
+
+    @Override
+    public void setEvents(final String[] events) {
+        throw new UnsupportedOperationException(IMMUTABLE);
+    }
+
+    @Override
+    public void setEvents(final Collection<String> events) {
+        throw new UnsupportedOperationException(IMMUTABLE);
+    }
+
+    @Override
+    public void setAchievements(final Collection<IAchievement> achievements) {
+        throw new UnsupportedOperationException(IMMUTABLE);
+    }
+
+    @Override
+    public Collection<IAchievement> getAchievementsSubscribedFor(final String event) {
+        final CompiledAchievementDefinition namespace = namespaceOf(event);
+        return namespace == null ? Collections.emptyList() : namespace.getAchievementsSubscribedFor(event);
+    }
+
+    @Override
+    public Collection<IAchievement> getAchievementsForCategory(final String category) {
+        final List<IAchievement> achievements = new ArrayList<>();
+        namespaces.values().forEach(definition -> {
+            final Collection<IAchievement> inCategory = definition.getAchievementsForCategory(category);
+            if (inCategory != null) {
+                achievements.addAll(inCategory);
+            }
+        });
+        return achievements.isEmpty() ? null : achievements;
+    }
+
+    @Override
+    public Map<String, Set<IAchievement>> getAllByEvents() {
+        return achievementEventMap;
+    }
+
+    @Override
+    public Optional<IAchievement> get(final AchievementType type, final String id) {
+        final CompiledAchievementDefinition namespace = namespaceOf(id);
+        return namespace == null ? Optional.empty() : namespace.get(type, id);
+    }
+
+    @Override
+    public Optional<IAchievement> get(final String id) {
+        final CompiledAchievementDefinition namespace = namespaceOf(id);
+        return namespace == null ? Optional.empty() : namespace.get(id);
+    }
+}
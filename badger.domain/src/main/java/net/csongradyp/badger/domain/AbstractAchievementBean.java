@@ -4,7 +4,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
-public abstract class AbstractAchievementBean implements IAchievementBean {
+public abstract class AbstractAchievementBean implements IAchievementBean, Cloneable {
 
     private static final String KEY_FORMAT = "%s.%s";
     private String id;
@@ -74,4 +74,20 @@ public abstract class AbstractAchievementBean implements IAchievementBean {
     public String getTextKey() {
         return String.format(KEY_FORMAT, id, "text");
     }
+
+    /**
+     * Creates a copy of the achievement which can be renamed without touching this one.
+     * The subscription list is copied, triggers and relations are shared with this achievement.
+     *
+     * @return copy of the achievement of the same type.
+     */
+    public AbstractAchievementBean copy() {
+        try {
+            final AbstractAchievementBean copy = (AbstractAchievementBean) super.clone();
+            copy.subscriptions = subscriptions == null ? null : new ArrayList<>(subscriptions);
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -5,13 +5,13 @@ import java.util.Collection;
 import java.util.List;
 import net.csongradyp.badger.domain.AbstractAchievementBean;
 import net.csongradyp.badger.domain.AchievementType;
+import net.csongradyp.badger.domain.IRelation;
 import net.csongradyp.badger.domain.ITriggerableAchievementBean;
-import net.csongradyp.badger.domain.achievement.relation.Relation;
 import net.csongradyp.badger.domain.achievement.trigger.ITrigger;
 
 public class CompositeAchievementBean extends AbstractAchievementBean implements ITriggerableAchievementBean<ITrigger> {
 
-    private Relation relation;
+    private IRelation relation;
     private List<ITrigger> triggers;
 
     public CompositeAchievementBean() {
@@ -37,11 +37,11 @@ public class CompositeAchievementBean extends AbstractAchievementBean implements
         triggers.stream().forEach(this.triggers::add);
     }
 
-    public void setRelation(final Relation relation) {
+    public void setRelation(final IRelation relation) {
         this.relation = relation;
     }
 
-    public Relation getRelation() {
+    public IRelation getRelation() {
         return relation;
     }
 }
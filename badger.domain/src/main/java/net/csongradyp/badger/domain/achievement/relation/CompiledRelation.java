@@ -0,0 +1,40 @@
+package net.csongradyp.badger.domain.achievement.relation;
+
+import java.util.Date;
+import net.csongradyp.badger.domain.IRelation;
+import net.csongradyp.badger.provider.date.ClockReading;
+
+/**
+ * {@link IRelation} backed by a {@link RelationPredicate} produced by {@link RelationCompiler}.
+ */
+public class CompiledRelation implements IRelation {
+
+    private final RelationPredicate predicate;
+    private final IRelation source;
+
+    CompiledRelation(final RelationPredicate predicate, final IRelation source) {
+        this.predicate = predicate;
+        this.source = source;
+    }
+
+    @Override
+    public Boolean evaluate(final Long score, final Date date, final Date time) {
+        return test(score, ClockReading.dayOfYearOf(date), ClockReading.minuteOfDayOf(time));
+    }
+
+    @Override
+    public boolean evaluate(final long score, final ClockReading clock) {
+        return test(score, clock.getDayOfYear(), clock.getMinuteOfDay());
+    }
+
+    /**
+     * @return relation tree this relation was compiled from.
+     */
+    public IRelation getSource() {
+        return source;
+    }
+
+    public boolean test(final long score, final int dayOfYear, final int minuteOfDay) {
+        return predicate.test(score, dayOfYear, minuteOfDay);
+    }
+}
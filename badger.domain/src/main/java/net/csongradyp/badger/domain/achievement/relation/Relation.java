@@ -1,6 +1,7 @@
 package net.csongradyp.badger.domain.achievement.relation;
 
 import net.csongradyp.badger.domain.IRelation;
+import net.csongradyp.badger.provider.date.ClockReading;
 
 import java.util.Collection;
 import java.util.Date;
@@ -33,6 +34,10 @@ public class Relation implements IRelation {
 
     @Override
     public Boolean evaluate(final Long triggerValue, final Date date, final Date time) {
+        if (operator == RelationOperator.NOT) {
+            final Boolean childResult = children.isEmpty() ? null : children.iterator().next().evaluate(triggerValue, date, time);
+            return childResult == null ? null : !childResult;
+        }
         Boolean result = null;
         for (IRelation child : children) {
             final Boolean childResult = child.evaluate(triggerValue, date, time);
@@ -47,4 +52,24 @@ public class Relation implements IRelation {
         return result;
     }
 
+    @Override
+    public boolean evaluate(final long score, final ClockReading clock) {
+        if (operator == RelationOperator.NOT) {
+            return !children.isEmpty() && !children.iterator().next().evaluate(score, clock);
+        }
+        boolean result = false;
+        boolean first = true;
+        for (IRelation child : children) {
+            final boolean childResult = child.evaluate(score, clock);
+            if (first) {
+                result = childResult;
+                first = false;
+            } else if (operator == RelationOperator.AND) {
+                result &= childResult;
+            } else {
+                result |= childResult;
+            }
+        }
+        return result;
+    }
 }
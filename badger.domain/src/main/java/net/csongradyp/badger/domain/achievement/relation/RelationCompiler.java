@@ -0,0 +1,170 @@
+package net.csongradyp.badger.domain.achievement.relation;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.csongradyp.badger.domain.IRelation;
+import net.csongradyp.badger.domain.achievement.trigger.DateTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.ITrigger;
+import net.csongradyp.badger.domain.achievement.trigger.ScoreTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTriggerPair;
+
+/**
+ * Compiles {@link Relation} trees into short-circuit {@link RelationPredicate} trees.
+ * Trigger types are resolved once at compile time, so evaluation does not dispatch nor box.
+ * The compiled predicate returns the same result as {@link Relation#evaluate} for every input.
+ */
+public final class RelationCompiler {
+
+    private static final RelationPredicate FALSE = (score, dayOfYear, minuteOfDay) -> false;
+
+    private RelationCompiler() {
+    }
+
+    /**
+     * @param relation relation tree to compile.
+     * @return {@link CompiledRelation} of the given tree, or the tree itself when it contains custom relation or
+     * trigger implementations which cannot be compiled.
+     */
+    public static IRelation compile(final IRelation relation) {
+        if (relation instanceof CompiledRelation) {
+            return relation;
+        }
+        if (!isCompilable(relation)) {
+            return relation;
+        }
+        return new CompiledRelation(compileNode(relation), relation);
+    }
+
+    private static boolean isCompilable(final IRelation relation) {
+        if (relation instanceof Relation) {
+            return ((Relation) relation).getChildren().stream().allMatch(RelationCompiler::isCompilable);
+        }
+        if (relation instanceof RelationElement) {
+            return ((RelationElement) relation).getTriggers().stream().allMatch(RelationCompiler::isCompilable);
+        }
+        return false;
+    }
+
+    private static boolean isCompilable(final ITrigger trigger) {
+        final Class<?> type = trigger.getClass();
+        return type == ScoreTrigger.class || type == DateTrigger.class || type == TimeTrigger.class || type == TimeTriggerPair.class
+                || !isEvaluated(trigger);
+    }
+
+    private static boolean isEvaluated(final ITrigger trigger) {
+        switch (trigger.getType()) {
+            case DATE:
+            case TIME:
+            case TIME_RANGE:
+            case SCORE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static RelationPredicate compileNode(final IRelation relation) {
+        if (relation instanceof Relation) {
+            return compileRelation((Relation) relation);
+        }
+        return compileElement((RelationElement) relation);
+    }
+
+    private static RelationPredicate compileRelation(final Relation relation) {
+        final List<RelationPredicate> children = new ArrayList<>();
+        relation.getChildren().forEach(child -> children.add(compileNode(child)));
+        if (children.isEmpty()) {
+            return FALSE;
+        }
+        if (relation.getOperator() == RelationOperator.NOT) {
+            return not(children.get(0));
+        }
+        if (children.size() == 1) {
+            return children.get(0);
+        }
+        final RelationPredicate[] predicates = children.toArray(new RelationPredicate[children.size()]);
+        return relation.getOperator() == RelationOperator.AND ? and(predicates) : or(predicates);
+    }
+
+    private static RelationPredicate compileElement(final RelationElement element) {
+        final List<RelationPredicate> triggers = new ArrayList<>();
+        for (ITrigger trigger : element.getTriggers()) {
+            if (isEvaluated(trigger)) {
+                triggers.add(compileTrigger(trigger));
+            }
+        }
+        if (triggers.isEmpty()) {
+            return FALSE;
+        }
+        if (triggers.size() == 1) {
+            return triggers.get(0);
+        }
+        return or(triggers.toArray(new RelationPredicate[triggers.size()]));
+    }
+
+    private static RelationPredicate not(final RelationPredicate predicate) {
+        return (score, dayOfYear, minuteOfDay) -> !predicate.test(score, dayOfYear, minuteOfDay);
+    }
+
+    private static RelationPredicate and(final RelationPredicate[] predicates) {
+        return (score, dayOfYear, minuteOfDay) -> {
+            for (RelationPredicate predicate : predicates) {
+                if (!predicate.test(score, dayOfYear, minuteOfDay)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    private static RelationPredicate or(final RelationPredicate[] predicates) {
+        return (score, dayOfYear, minuteOfDay) -> {
+            for (RelationPredicate predicate : predicates) {
+                if (predicate.test(score, dayOfYear, minuteOfDay)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    private static RelationPredicate compileTrigger(final ITrigger trigger) {
+        if (trigger instanceof ScoreTrigger) {
+            return compileScore((ScoreTrigger) trigger);
+        }
+        if (trigger instanceof DateTrigger) {
+            final int triggerDay = ((DateTrigger) trigger).getDayOfYear();
+            return (score, dayOfYear, minuteOfDay) -> dayOfYear == triggerDay;
+        }
+        if (trigger instanceof TimeTrigger) {
+            final int triggerMinute = ((TimeTrigger) trigger).getMinuteOfDay();
+            return (score, dayOfYear, minuteOfDay) -> minuteOfDay == triggerMinute;
+        }
+        return compileTimeRange((TimeTriggerPair) trigger);
+    }
+
+    private static RelationPredicate compileScore(final ScoreTrigger trigger) {
+        final long value = trigger.getTrigger();
+        switch (trigger.getOperation()) {
+            case GREATER_THAN:
+                return (score, dayOfYear, minuteOfDay) -> score >= value;
+            case LESS_THAN:
+                return (score, dayOfYear, minuteOfDay) -> score <= value;
+            default:
+                return (score, dayOfYear, minuteOfDay) -> score == value;
+        }
+    }
+
+    private static RelationPredicate compileTimeRange(final TimeTriggerPair trigger) {
+        final int start = trigger.getStartMinute();
+        final int end = trigger.getEndMinute();
+        if (start < end) {
+            return (score, dayOfYear, minuteOfDay) -> minuteOfDay >= start && minuteOfDay <= end;
+        }
+        if (start == end) {
+            return (score, dayOfYear, minuteOfDay) -> minuteOfDay != start;
+        }
+        return (score, dayOfYear, minuteOfDay) -> minuteOfDay >= start || minuteOfDay <= end;
+    }
+}
@@ -2,7 +2,11 @@ package net.csongradyp.badger.domain.achievement.relation;
 
 import net.csongradyp.badger.domain.AchievementType;
 import net.csongradyp.badger.domain.IRelation;
+import net.csongradyp.badger.domain.achievement.trigger.DateTrigger;
 import net.csongradyp.badger.domain.achievement.trigger.ITrigger;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTriggerPair;
+import net.csongradyp.badger.provider.date.ClockReading;
 
 import java.util.Collection;
 import java.util.Date;
@@ -30,4 +34,34 @@ public class RelationElement implements IRelation {
         }
         return triggered;
     }
+
+    @Override
+    public boolean evaluate(final long score, final ClockReading clock) {
+        boolean triggered = false;
+        for (ITrigger trigger : triggers) {
+            triggered |= fire(trigger, score, clock);
+        }
+        return triggered;
+    }
+
+    private boolean fire(final ITrigger trigger, final long score, final ClockReading clock) {
+        if (trigger instanceof TimeTrigger) {
+            return ((TimeTrigger) trigger).fire(clock.getMinuteOfDay());
+        }
+        if (trigger instanceof TimeTriggerPair) {
+            return ((TimeTriggerPair) trigger).fire(clock.getMinuteOfDay());
+        }
+        if (trigger instanceof DateTrigger) {
+            return ((DateTrigger) trigger).fire(clock.getDayOfYear());
+        }
+        final AchievementType type = trigger.getType();
+        if (AchievementType.DATE == type || AchievementType.TIME == type || AchievementType.TIME_RANGE == type) {
+            return trigger.fire(new Date(clock.getTimeMillis()));
+        }
+        return AchievementType.SCORE == type && trigger.fire(score);
+    }
+
+    public Collection<ITrigger> getTriggers() {
+        return triggers;
+    }
 }
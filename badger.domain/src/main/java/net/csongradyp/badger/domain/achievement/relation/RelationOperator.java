@@ -1,8 +1,11 @@
 package net.csongradyp.badger.domain.achievement.relation;
 
+/**
+ * Operators of a {@link Relation}. {@link #NOT} is unary, it negates the single child of the relation.
+ */
 public enum RelationOperator {
 
-    AND("&"), OR("|");
+    AND("&"), OR("|"), NOT("!");
 
     private final String operator;
 
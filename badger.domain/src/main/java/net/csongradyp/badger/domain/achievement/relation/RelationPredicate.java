@@ -0,0 +1,16 @@
+package net.csongradyp.badger.domain.achievement.relation;
+
+/**
+ * Compiled form of a relation tree working on primitive inputs.
+ */
+@FunctionalInterface
+public interface RelationPredicate {
+
+    /**
+     * @param score       current event counter value.
+     * @param dayOfYear   date to check as day of a leap year, see {@link net.csongradyp.badger.provider.date.ClockReading}.
+     * @param minuteOfDay time to check as minutes elapsed since midnight.
+     * @return {@code true} if the relation is fulfilled.
+     */
+    boolean test(long score, int dayOfYear, int minuteOfDay);
+}
@@ -1,24 +1,31 @@
 package net.csongradyp.badger.domain.achievement.trigger;
 
 import net.csongradyp.badger.domain.AchievementType;
-import org.joda.time.DateTime;
-import org.joda.time.LocalDate;
+import net.csongradyp.badger.provider.date.ClockReading;
 
 import java.util.Date;
 
 public class DateTrigger implements ITrigger<Date> {
 
     private final Date date;
+    private final int dayOfYear;
 
     public DateTrigger(final Date date) {
         this.date = date;
+        dayOfYear = ClockReading.dayOfYearOf(date);
     }
 
     @Override
     public Boolean fire(final Date triggerValue) {
-        final LocalDate nowLocal = new DateTime(date).withYear(2000).toLocalDate();
-        final LocalDate triggerLocal = new DateTime(triggerValue).withYear(2000).toLocalDate();
-        return nowLocal.isEqual(triggerLocal);
+        return fire(ClockReading.dayOfYearOf(triggerValue));
+    }
+
+    /**
+     * @param dayOfYear day of the year to check, counted in a leap year as {@link ClockReading#getDayOfYear()}.
+     * @return {@code true} if the given day is the trigger day regardless of the year.
+     */
+    public boolean fire(final int dayOfYear) {
+        return this.dayOfYear == dayOfYear;
     }
 
     @Override
@@ -29,4 +36,8 @@ public class DateTrigger implements ITrigger<Date> {
     public Date getDate() {
         return date;
     }
+
+    public int getDayOfYear() {
+        return dayOfYear;
+    }
 }
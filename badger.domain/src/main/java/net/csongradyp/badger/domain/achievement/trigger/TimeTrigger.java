@@ -1,7 +1,7 @@
 package net.csongradyp.badger.domain.achievement.trigger;
 
 import net.csongradyp.badger.domain.AchievementType;
-import org.joda.time.DateTime;
+import net.csongradyp.badger.provider.date.ClockReading;
 import org.joda.time.LocalTime;
 
 import java.util.Date;
@@ -9,15 +9,24 @@ import java.util.Date;
 public class TimeTrigger implements ITrigger<Date> {
 
     private final LocalTime time;
+    private final int minuteOfDay;
 
     public TimeTrigger(final LocalTime time) {
         this.time = time;
+        minuteOfDay = time.getHourOfDay() * 60 + time.getMinuteOfHour();
     }
 
     @Override
     public Boolean fire(final Date triggerValue) {
-        final LocalTime trigger = new DateTime(triggerValue).toLocalTime();
-        return time.isEqual(trigger);
+        return fire(ClockReading.minuteOfDayOf(triggerValue));
+    }
+
+    /**
+     * @param minuteOfDay minute of the day to check.
+     * @return {@code true} if the given minute is the trigger minute.
+     */
+    public boolean fire(final int minuteOfDay) {
+        return this.minuteOfDay == minuteOfDay;
     }
 
     @Override
@@ -28,4 +37,8 @@ public class TimeTrigger implements ITrigger<Date> {
     public LocalTime getTime() {
         return time;
     }
+
+    public int getMinuteOfDay() {
+        return minuteOfDay;
+    }
 }
@@ -1,7 +1,7 @@
 package net.csongradyp.badger.domain.achievement.trigger;
 
 import net.csongradyp.badger.domain.AchievementType;
-import org.joda.time.DateTime;
+import net.csongradyp.badger.provider.date.ClockReading;
 import org.joda.time.LocalTime;
 
 import java.util.Date;
@@ -9,26 +9,36 @@ import java.util.Date;
 public class TimeTriggerPair implements ITrigger<Date> {
     private final LocalTime startTrigger;
     private final LocalTime endTrigger;
+    private final int startMinute;
+    private final int endMinute;
 
     public TimeTriggerPair(final LocalTime startTrigger, final LocalTime endTrigger) {
         this.startTrigger = startTrigger;
         this.endTrigger = endTrigger;
+        startMinute = startTrigger.getHourOfDay() * 60 + startTrigger.getMinuteOfHour();
+        endMinute = endTrigger.getHourOfDay() * 60 + endTrigger.getMinuteOfHour();
     }
 
     @Override
     public Boolean fire(final Date triggerValue) {
-        Boolean triggered;
-        final LocalTime currentTime = new DateTime(triggerValue).toLocalTime();
-        if (startTrigger.isBefore(endTrigger)) {
-            triggered = isInRange(startTrigger, endTrigger, currentTime);
-        } else {
-            triggered = !isInRange(endTrigger, startTrigger, currentTime);
-        }
-        return triggered;
+        return fire(ClockReading.minuteOfDayOf(triggerValue));
     }
 
-    private Boolean isInRange(final LocalTime startTrigger, final LocalTime endTrigger, final LocalTime currentTime) {
-        return (currentTime.isAfter(startTrigger) || currentTime.isEqual(startTrigger)) && (currentTime.isBefore(endTrigger) || currentTime.isEqual(endTrigger));
+    /**
+     * Ranges where the start is after the end wrap around midnight. Both the start and the end minute are part of
+     * the range. A range starting and ending in the same minute covers the rest of the day, that minute excluded.
+     *
+     * @param minuteOfDay minute of the day to check.
+     * @return {@code true} if the given minute is in the registered range.
+     */
+    public boolean fire(final int minuteOfDay) {
+        if (startMinute < endMinute) {
+            return minuteOfDay >= startMinute && minuteOfDay <= endMinute;
+        }
+        if (startMinute == endMinute) {
+            return minuteOfDay != startMinute;
+        }
+        return minuteOfDay >= startMinute || minuteOfDay <= endMinute;
     }
 
     @Override
@@ -43,4 +53,12 @@ public class TimeTriggerPair implements ITrigger<Date> {
     public LocalTime getEndTrigger() {
         return endTrigger;
     }
+
+    public int getStartMinute() {
+        return startMinute;
+    }
+
+    public int getEndMinute() {
+        return endMinute;
+    }
 }
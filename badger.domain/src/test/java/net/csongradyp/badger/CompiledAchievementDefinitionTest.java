@@ -0,0 +1,88 @@
+package net.csongradyp.badger;
+
+import net.csongradyp.badger.domain.AchievementType;
+import net.csongradyp.badger.domain.IAchievement;
+import net.csongradyp.badger.domain.achievement.ScoreAchievementBean;
+import net.csongradyp.badger.domain.achievement.SingleAchievementBean;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class CompiledAchievementDefinitionTest {
+
+    private static final String EVENT = "event";
+
+    private ScoreAchievementBean scoreAchievement;
+    private SingleAchievementBean singleAchievement;
+    private CompiledAchievementDefinition underTest;
+
+    @Before
+    public void setUp() {
+        scoreAchievement = new ScoreAchievementBean();
+        scoreAchievement.setId("score");
+        scoreAchievement.setSubscriptions(new String[]{EVENT});
+        singleAchievement = new SingleAchievementBean();
+        singleAchievement.setId("single");
+        singleAchievement.setCategory("manual");
+        final AchievementBundle bundle = new AchievementBundle();
+        bundle.setEvents(new String[]{EVENT, "unused"});
+        bundle.setAchievements(Arrays.asList(scoreAchievement, singleAchievement));
+        underTest = bundle.compile();
+    }
+
+    @Test
+    public void testGetReturnsAchievementWithGivenId() {
+        assertThat(underTest.get("score").get(), is(scoreAchievement));
+        assertThat(underTest.get("single").get(), is(singleAchievement));
+        assertThat(underTest.get("missing").isPresent(), is(false));
+    }
+
+    @Test
+    public void testGetByTypeReturnsAchievementOnlyForMatchingType() {
+        assertThat(underTest.get(AchievementType.SCORE, "score").get(), is(scoreAchievement));
+        assertThat(underTest.get(AchievementType.SINGLE, "score").isPresent(), is(false));
+    }
+
+    @Test
+    public void testGetAllReturnsTheSameCachedCollection() {
+        final Collection<IAchievement> all = underTest.getAll();
+
+        assertThat(all.size(), is(2));
+        assertThat(underTest.getAll(), is(sameInstance(all)));
+    }
+
+    @Test
+    public void testGetAchievementsSubscribedForReturnsSubscribedAchievements() {
+        assertThat(underTest.getAchievementsSubscribedFor(EVENT).size(), is(1));
+        assertThat(underTest.getAchievementsSubscribedFor(EVENT).iterator().next(), is(scoreAchievement));
+        assertThat(underTest.getAchievementsSubscribedFor("unused").isEmpty(), is(true));
+    }
+
+    @Test
+    public void testGetAllByEventsContainsEveryDeclaredEvent() {
+        final Map<String, Set<IAchievement>> allByEvents = underTest.getAllByEvents();
+
+        assertThat(allByEvents.keySet(), is(new HashSet<>(Arrays.asList(EVENT, "unused"))));
+    }
+
+    @Test
+    public void testGetAchievementsForCategoryReturnsAchievementsOfTheGivenCategory() {
+        assertThat(underTest.getAchievementsForCategory("manual").size(), is(1));
+        assertThat(underTest.getAchievementsForCategory("default").iterator().next(), is(scoreAchievement));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSetAchievementsThrowsExceptionAsDefinitionIsImmutable() {
+        underTest.setAchievements(Collections.emptyList());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGetAllReturnsUnmodifiableCollection() {
+        underTest.getAll().clear();
+    }
+}
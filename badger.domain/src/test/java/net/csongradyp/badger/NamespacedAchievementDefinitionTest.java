@@ -0,0 +1,142 @@
+package net.csongradyp.badger;
+
+import net.csongradyp.badger.domain.AchievementType;
+import net.csongradyp.badger.domain.IAchievement;
+import net.csongradyp.badger.domain.achievement.ScoreAchievementBean;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class NamespacedAchievementDefinitionTest {
+
+    private static final String EVENT = "kill";
+    private static final String ID = "firstKill";
+
+    private ScoreAchievementBean arenaAchievement;
+    private NamespacedAchievementDefinition underTest;
+
+    @Before
+    public void setUp() {
+        arenaAchievement = achievement();
+        final Map<String, CompiledAchievementDefinition> namespaces = new LinkedHashMap<>();
+        namespaces.put("arena", NamespacedAchievementDefinition.compileNamespace("arena", definitionOf(arenaAchievement)));
+        namespaces.put("story", NamespacedAchievementDefinition.compileNamespace("story", definitionOf(achievement())));
+        underTest = new NamespacedAchievementDefinition(namespaces);
+    }
+
+    @Test
+    public void testCompileNamespaceQualifiesIdsAndSubscriptions() {
+        final IAchievement achievement = underTest.get("arena.firstKill").get();
+
+        assertThat(achievement, is(instanceOf(ScoreAchievementBean.class)));
+        assertThat(((ScoreAchievementBean) achievement).getSubscriptions(), is(Collections.singletonList("arena.kill")));
+        assertThat(achievement.getTitleKey(), is("arena.firstKill.title"));
+    }
+
+    @Test
+    public void testCompileNamespaceLeavesTheGivenDefinitionUnchanged() {
+        final AchievementDefinition definition = definitionOf(achievement());
+
+        NamespacedAchievementDefinition.compileNamespace("arena", definition);
+        final CompiledAchievementDefinition result = NamespacedAchievementDefinition.compileNamespace("arena", definition);
+
+        assertThat(result.get("arena.firstKill").isPresent(), is(true));
+        assertThat(result.getAchievementsSubscribedFor("arena.kill").iterator().next().getId(), is("arena.firstKill"));
+        assertThat(definition.get(ID).isPresent(), is(true));
+        assertThat(definition.getAll().iterator().next().getId(), is(ID));
+        assertThat(arenaAchievement.getSubscriptions(), is(Collections.singletonList(EVENT)));
+    }
+
+    @Test
+    public void testWithNamespaceKeepsTheCurrentDefinitionOfTheNamespace() {
+        final AchievementDefinition current = underTest.getNamespace("arena").get();
+
+        final NamespacedAchievementDefinition result = underTest.withNamespace("arena", current);
+
+        assertThat(result.getNamespace("arena").get(), is(sameInstance(current)));
+        assertThat(result.get("arena.firstKill").isPresent(), is(true));
+    }
+
+    @Test
+    public void testGetReturnsAchievementOfTheQualifiedNamespace() {
+        assertThat(underTest.get("arena.firstKill").get().getId(), is("arena.firstKill"));
+        assertThat(underTest.get("story.firstKill").get().getId(), is("story.firstKill"));
+        assertThat(underTest.get(AchievementType.SCORE, "story.firstKill").get(), is(sameInstance(underTest.get("story.firstKill").get())));
+        assertThat(underTest.get(ID).isPresent(), is(false));
+        assertThat(underTest.get("missing.firstKill").isPresent(), is(false));
+    }
+
+    @Test
+    public void testGetAchievementsSubscribedForReturnsAchievementsOfTheQualifiedEvent() {
+        assertThat(new ArrayList<>(underTest.getAchievementsSubscribedFor("arena.kill")), is(Collections.singletonList(underTest.get("arena.firstKill").get())));
+        assertThat(underTest.getAchievementsSubscribedFor(EVENT).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testGetAllContainsAchievementsOfEveryNamespace() {
+        assertThat(underTest.getAll(), is(Arrays.asList(underTest.get("arena.firstKill").get(), underTest.get("story.firstKill").get())));
+        assertThat(underTest.getAllByEvents().keySet(), is(new LinkedHashSet<>(Arrays.asList("arena.kill", "story.kill"))));
+        assertThat(underTest.getAchievementsForCategory("default").size(), is(2));
+    }
+
+    @Test
+    public void testWithNamespaceReplacesOnlyTheGivenNamespace() {
+        final IAchievement story = underTest.get("story.firstKill").get();
+
+        final NamespacedAchievementDefinition result = underTest.withNamespace("story", definitionOf(achievement()));
+
+        assertThat(result.get("story.firstKill").get(), is(not(sameInstance(story))));
+        assertThat(result.getNamespace("arena").get(), is(sameInstance(underTest.getNamespace("arena").get())));
+        assertThat(underTest.get("story.firstKill").get(), is(sameInstance(story)));
+    }
+
+    @Test
+    public void testWithoutNamespaceRemovesTheGivenNamespace() {
+        final NamespacedAchievementDefinition result = underTest.withoutNamespace("arena");
+
+        assertThat(result.getNamespaces(), is(Collections.singleton("story")));
+        assertThat(result.get("arena.firstKill").isPresent(), is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompileNamespaceThrowsExceptionWhenNamespaceContainsSeparator() {
+        NamespacedAchievementDefinition.compileNamespace("game.mode", definitionOf(achievement()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompileNamespaceThrowsExceptionForCustomAchievements() {
+        final IAchievement custom = mock(IAchievement.class);
+        final AchievementDefinition definition = mock(AchievementDefinition.class);
+        given(definition.getAll()).willReturn(Collections.singletonList(custom));
+
+        NamespacedAchievementDefinition.compileNamespace("arena", definition);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSetAchievementsThrowsExceptionAsDefinitionIsImmutable() {
+        underTest.setAchievements(Collections.emptyList());
+    }
+
+    private static ScoreAchievementBean achievement() {
+        final ScoreAchievementBean achievement = new ScoreAchievementBean();
+        achievement.setId(ID);
+        achievement.setSubscriptions(new String[]{EVENT});
+        return achievement;
+    }
+
+    private static AchievementDefinition definitionOf(final IAchievement achievement) {
+        final AchievementBundle bundle = new AchievementBundle();
+        bundle.setEvents(new String[]{EVENT});
+        bundle.setAchievements(Collections.singletonList(achievement));
+        return bundle;
+    }
+}
@@ -0,0 +1,143 @@
+package net.csongradyp.badger.domain.achievement.relation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import net.csongradyp.badger.domain.AchievementType;
+import net.csongradyp.badger.domain.IRelation;
+import net.csongradyp.badger.domain.achievement.trigger.DateTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.ITrigger;
+import net.csongradyp.badger.domain.achievement.trigger.ScoreTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTriggerPair;
+import net.csongradyp.badger.provider.date.ClockReading;
+import org.joda.time.DateTime;
+import org.joda.time.LocalTime;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RelationCompilerTest {
+
+    private static final DateTime BASE = new DateTime(2014, 6, 14, 0, 0);
+
+    @Mock
+    private ITrigger<Object> mockTrigger;
+
+    private final Random random = new Random(42L);
+
+    @Test
+    public void testCompiledRelationReturnsTheSameResultAsTheRelationTree() {
+        for (int tree = 0; tree < 200; tree++) {
+            final Relation relation = randomRelation(3);
+            final IRelation compiled = RelationCompiler.compile(relation);
+            assertThat(compiled, is(instanceOf(CompiledRelation.class)));
+            for (int input = 0; input < 50; input++) {
+                final Long score = (long) random.nextInt(20);
+                final Date date = BASE.plusDays(random.nextInt(3)).toDate();
+                final Date time = BASE.plusMinutes(random.nextInt(4) * 30).toDate();
+                assertThat(compiled.evaluate(score, date, time), is(relation.evaluate(score, date, time)));
+            }
+        }
+    }
+
+    @Test
+    public void testClockReadingEvaluationReturnsTheSameResultAsDateEvaluation() {
+        for (int tree = 0; tree < 200; tree++) {
+            final Relation relation = randomRelation(3);
+            final IRelation compiled = RelationCompiler.compile(relation);
+            for (int input = 0; input < 50; input++) {
+                final long score = random.nextInt(20);
+                final Date now = BASE.plusDays(random.nextInt(3)).plusMinutes(random.nextInt(4) * 30).toDate();
+                final boolean expected = relation.evaluate(score, now, now);
+                assertThat(relation.evaluate(score, ClockReading.of(now.getTime())), is(expected));
+                assertThat(compiled.evaluate(score, ClockReading.of(now.getTime())), is(expected));
+            }
+        }
+    }
+
+    @Test
+    public void testCompiledAndRelationShortCircuitsOnFirstFalseChild() {
+        final Relation relation = new Relation();
+        relation.setOperator(RelationOperator.AND);
+        relation.addChild(new RelationElement(Collections.singletonList(new ScoreTrigger(1L))));
+        relation.addChild(new RelationElement(Collections.singletonList(new ScoreTrigger(2L))));
+
+        final IRelation compiled = RelationCompiler.compile(relation);
+
+        assertThat(compiled.evaluate(1L, new Date(), new Date()), is(false));
+        assertThat(compiled.evaluate(3L, new Date(), new Date()), is(false));
+    }
+
+    @Test
+    public void testCompiledNotRelationNegatesItsChild() {
+        final Relation relation = new Relation();
+        relation.setOperator(RelationOperator.NOT);
+        relation.addChild(new RelationElement(Collections.singletonList(new ScoreTrigger(1L))));
+
+        final IRelation compiled = RelationCompiler.compile(relation);
+
+        assertThat(compiled.evaluate(1L, ClockReading.of(0L)), is(false));
+        assertThat(compiled.evaluate(2L, ClockReading.of(0L)), is(true));
+    }
+
+    @Test
+    public void testCompileReturnsTheGivenRelationWhenItContainsCustomTriggers() {
+        given(mockTrigger.getType()).willReturn(AchievementType.SCORE);
+        final Relation relation = new Relation();
+        relation.addChild(new RelationElement(Collections.singletonList(mockTrigger)));
+
+        final IRelation result = RelationCompiler.compile(relation);
+
+        assertThat(result, is(sameInstance(relation)));
+    }
+
+    private Relation randomRelation(final int depth) {
+        final Relation relation = new Relation();
+        relation.setOperator(RelationOperator.values()[random.nextInt(RelationOperator.values().length)]);
+        final int children = relation.getOperator() == RelationOperator.NOT ? 1 : 1 + random.nextInt(3);
+        for (int i = 0; i < children; i++) {
+            if (depth > 0 && random.nextInt(3) == 0) {
+                relation.addChild(randomRelation(depth - 1));
+            } else {
+                relation.addChild(new RelationElement(randomTriggers()));
+            }
+        }
+        return relation;
+    }
+
+    private List<ITrigger> randomTriggers() {
+        final List<ITrigger> triggers = new ArrayList<>();
+        final int count = 1 + random.nextInt(2);
+        for (int i = 0; i < count; i++) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    final ScoreTrigger.Operation operation = ScoreTrigger.Operation.values()[random.nextInt(3)];
+                    triggers.add(new ScoreTrigger((long) random.nextInt(20), operation));
+                    break;
+                case 1:
+                    triggers.add(new DateTrigger(BASE.minusYears(random.nextInt(5)).plusDays(random.nextInt(3)).toDate()));
+                    break;
+                case 2:
+                    triggers.add(new TimeTrigger(new LocalTime(random.nextInt(2), random.nextInt(2) * 30)));
+                    break;
+                default:
+                    final List<LocalTime> bounds = Arrays.asList(LocalTime.MIDNIGHT.plusMinutes(random.nextInt(4) * 30), LocalTime.MIDNIGHT.plusMinutes(random.nextInt(4) * 30));
+                    triggers.add(new TimeTriggerPair(bounds.get(0), bounds.get(1)));
+                    break;
+            }
+        }
+        return triggers;
+    }
+}
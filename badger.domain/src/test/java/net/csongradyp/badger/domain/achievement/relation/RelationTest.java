@@ -101,4 +101,14 @@ public class RelationTest {
         assertThat(result, is(false));
     }
 
+    @Test
+    public void testEvaluateWithNotRelationReturnsNegatedResultOfTheUnderlyingChild() throws Exception {
+        underTest.setOperator(RelationOperator.NOT);
+        underTest.addChild(new RelationElement(Collections.singletonList(mockTrigger)));
+        given(mockTrigger.getType()).willReturn(AchievementType.SCORE);
+        given(mockTrigger.fire(any())).willReturn(true, false);
+
+        assertThat(underTest.evaluate(1L, new Date(), new Date()), is(false));
+        assertThat(underTest.evaluate(1L, new Date(), new Date()), is(true));
+    }
 }
@@ -1,6 +1,7 @@
 package net.csongradyp.badger.domain.achievement.trigger;
 
 import net.csongradyp.badger.domain.AchievementType;
+import net.csongradyp.badger.provider.date.ClockReading;
 import org.joda.time.DateTime;
 import org.junit.Test;
 
@@ -42,4 +43,13 @@ public class DateTriggerTest {
         final DateTrigger trigger = new DateTrigger(date);
         assertThat(trigger.getDate(), is(date));
     }
+
+    @Test
+    public void testTriggerFiresOnTheSameDayOfEveryYear() throws Exception {
+        final DateTrigger trigger = new DateTrigger(new DateTime(2014, 12, 24, 0, 0).toDate());
+
+        assertThat(trigger.fire(new DateTime(2016, 12, 24, 18, 0).toDate()), is(true));
+        assertThat(trigger.fire(ClockReading.dayOfYear(12, 24)), is(true));
+        assertThat(trigger.fire(ClockReading.dayOfYear(12, 25)), is(false));
+    }
 }
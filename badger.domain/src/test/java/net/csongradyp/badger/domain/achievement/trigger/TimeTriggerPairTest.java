@@ -65,4 +65,31 @@ public class TimeTriggerPairTest {
         assertThat(underTest.getStartTrigger(), is(startTrigger));
         assertThat(underTest.getEndTrigger(), is(endTrigger));
     }
+
+    @Test
+    public void testFireIncludesStartAndEndMinuteOfTheRange() throws Exception {
+        assertThat(underTest.fire(8 * 60), is(true));
+        assertThat(underTest.fire(12 * 60), is(true));
+        assertThat(underTest.fire(12 * 60 + 1), is(false));
+    }
+
+    @Test
+    public void testFireReturnsTrueForTheRestOfTheDayWhenStartAndEndAreTheSame() throws Exception {
+        underTest = new TimeTriggerPair(new LocalTime(8, 0), new LocalTime(8, 0));
+
+        assertThat(underTest.fire(8 * 60), is(false));
+        assertThat(underTest.fire(8 * 60 - 1), is(true));
+        assertThat(underTest.fire(8 * 60 + 1), is(true));
+        assertThat(underTest.fire(new LocalTime(20, 0).toDateTimeToday().toDate()), is(true));
+    }
+
+    @Test
+    public void testFireIncludesStartAndEndMinuteOfTheReversedRange() throws Exception {
+        underTest = new TimeTriggerPair(new LocalTime(22, 0), new LocalTime(2, 0));
+
+        assertThat(underTest.fire(22 * 60), is(true));
+        assertThat(underTest.fire(0), is(true));
+        assertThat(underTest.fire(2 * 60), is(true));
+        assertThat(underTest.fire(2 * 60 + 1), is(false));
+    }
 }
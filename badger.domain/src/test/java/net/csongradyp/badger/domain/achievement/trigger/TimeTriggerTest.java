@@ -41,4 +41,14 @@ public class TimeTriggerTest {
         final TimeTrigger trigger = new TimeTrigger(time);
         assertThat(trigger.getTime(), is(time));
     }
+
+    @Test
+    public void testTriggerFiresForEveryInstantOfTheTriggerMinute() throws Exception {
+        final LocalTime time = new LocalTime(12, 12);
+        final TimeTrigger trigger = new TimeTrigger(time);
+
+        assertThat(trigger.fire(time.plusSeconds(59).toDateTimeToday().toDate()), is(true));
+        assertThat(trigger.fire(12 * 60 + 12), is(true));
+        assertThat(trigger.fire(12 * 60 + 13), is(false));
+    }
 }
@@ -0,0 +1,253 @@
+package net.csongradyp.badger.event;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import net.csongradyp.badger.event.message.ScoreUpdatedEvent;
+import net.engio.mbassy.bus.MBassador;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded queue which delivers published events on the configured {@link Executor}.
+ * At most one drain task runs at a time and events are delivered in publication order, so every subscriber receives
+ * events in the same order as they were published. If the executor rejects the drain task, queued events are delivered
+ * on the publishing thread.
+ */
+public class AsyncDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncDispatcher.class);
+
+    private final Executor executor;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Deque<Envelope> queue;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition idle = lock.newCondition();
+    private boolean draining;
+    private Thread drainThread;
+
+    private final AtomicLong dispatchedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private volatile long lastDispatchLag;
+    private volatile long maxDispatchLag;
+
+    public AsyncDispatcher(final Executor executor, final int capacity, final OverflowPolicy overflowPolicy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Dispatch queue capacity must be positive: " + capacity);
+        }
+        this.executor = executor;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        queue = new ArrayDeque<>(capacity);
+    }
+
+    <T> void dispatch(final MBassador<T> bus, final T message) {
+        final Envelope envelope = new Envelope(bus, message);
+        boolean startDrain = false;
+        lock.lock();
+        try {
+            if (!enqueue(envelope)) {
+                return;
+            }
+            if (!draining) {
+                draining = true;
+                startDrain = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (startDrain) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                LOG.warn("Dispatch executor rejected the drain task, delivering queued events on the publishing thread", e);
+                drain();
+            }
+        }
+    }
+
+    private boolean enqueue(final Envelope envelope) {
+        // handlers publishing from the drain thread would wait for themselves, so they may exceed the capacity
+        while (queue.size() >= capacity && Thread.currentThread() != drainThread) {
+            if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+                queue.pollFirst();
+                droppedCount.incrementAndGet();
+            } else if (overflowPolicy == OverflowPolicy.COALESCE && coalesce(envelope)) {
+                coalescedCount.incrementAndGet();
+                return false;
+            } else if (!draining) {
+                // no drain task runs to make room, the publisher starts one right after enqueueing
+                break;
+            } else {
+                notFull.awaitUninterruptibly();
+            }
+        }
+        queue.addLast(envelope);
+        return true;
+    }
+
+    private boolean coalesce(final Envelope envelope) {
+        if (envelope.coalescingKey == null) {
+            return false;
+        }
+        final Iterator<Envelope> iterator = queue.descendingIterator();
+        while (iterator.hasNext()) {
+            final Envelope queued = iterator.next();
+            if (envelope.coalescingKey.equals(queued.coalescingKey)) {
+                queued.message = envelope.message;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drain() {
+        boolean drained = false;
+        try {
+            Envelope envelope;
+            while ((envelope = next()) != null) {
+                final long lag = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - envelope.enqueuedAt);
+                lastDispatchLag = lag;
+                if (lag > maxDispatchLag) {
+                    maxDispatchLag = lag;
+                }
+                try {
+                    envelope.publish();
+                } catch (RuntimeException e) {
+                    LOG.error("Event dispatch failed for {}", envelope.message, e);
+                }
+                dispatchedCount.incrementAndGet();
+            }
+            drained = true;
+        } finally {
+            if (!drained) {
+                stopDraining();
+            }
+        }
+    }
+
+    private Envelope next() {
+        lock.lock();
+        try {
+            final Envelope envelope = queue.pollFirst();
+            if (envelope == null) {
+                stopDraining();
+            } else {
+                drainThread = Thread.currentThread();
+                notFull.signalAll();
+            }
+            return envelope;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lets the next published event start a new drain task, also after a drain task failed with an {@link Error}.
+     */
+    private void stopDraining() {
+        lock.lock();
+        try {
+            draining = false;
+            drainThread = null;
+            idle.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every queued event is delivered.
+     *
+     * @param timeout maximum time to wait in milliseconds.
+     * @return {@code true} if the queue was drained in time.
+     */
+    public boolean awaitIdle(final long timeout) throws InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeout);
+        lock.lock();
+        try {
+            while (draining) {
+                if (remaining <= 0L) {
+                    return false;
+                }
+                remaining = idle.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * @return milliseconds the last delivered event spent in the queue.
+     */
+    public long getLastDispatchLag() {
+        return lastDispatchLag;
+    }
+
+    /**
+     * @return highest number of milliseconds an event spent in the queue.
+     */
+    public long getMaxDispatchLag() {
+        return maxDispatchLag;
+    }
+
+    public long getDispatchedCount() {
+        return dispatchedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    private static final class Envelope {
+
+        private final MBassador bus;
+        private final String coalescingKey;
+        private final long enqueuedAt;
+        private Object message;
+
+        private Envelope(final MBassador bus, final Object message) {
+            this.bus = bus;
+            this.message = message;
+            coalescingKey = message instanceof ScoreUpdatedEvent ? ((ScoreUpdatedEvent) message).getEvent() : null;
+            enqueuedAt = System.nanoTime();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void publish() {
+            bus.publish(message);
+        }
+    }
+}
@@ -3,6 +3,9 @@ package net.csongradyp.badger.event;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PreDestroy;
 import javax.inject.Named;
 import net.csongradyp.badger.event.exception.SubscriptionException;
 import net.csongradyp.badger.event.handler.IAchievementUnlockedHandler;
@@ -18,24 +21,102 @@ import org.slf4j.LoggerFactory;
 public class EventBus {
 
     private static final Logger LOG = LoggerFactory.getLogger(EventBus.class);
+    private static final long SHUTDOWN_DRAIN_TIMEOUT = 5000L;
 
     private final MBassador<ScoreUpdatedEvent> scoreUpdateBus;
     private final MBassador<IAchievementUnlockedEvent> unlockedBus;
     private final Collection<AchievementUnlockedHandlerWrapper> unlockedSubscribers = new ArrayList<>();
     private final Collection<ScoreUpdateHandlerWrapper> scoreUpdateSubscribers = new ArrayList<>();
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    final Thread shutdownHook;
+    private volatile AsyncDispatcher asyncDispatcher;
 
     public EventBus() {
         scoreUpdateBus = new MBassador<>();
         unlockedBus = new MBassador<>();
-        registerShutdownHook(scoreUpdateBus, unlockedBus);
+        shutdownHook = new Thread(this::stop, "badger-event-bus-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
     }
 
-    private void registerShutdownHook(final MBassador<?>... mBassadors) {
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            for (MBassador eventBus : mBassadors) {
-                eventBus.shutdown();
-            }
-        }));
+    /**
+     * Delivers the queued events, shuts the buses down and removes the JVM shutdown hook, so a shut down bus is not
+     * kept alive until the JVM exits. Calling it again has no effect.
+     */
+    @PreDestroy
+    public void shutdown() {
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // the JVM is already exiting and runs the hook anyway
+        }
+        stop();
+    }
+
+    private void stop() {
+        if (stopped.compareAndSet(false, true)) {
+            awaitDispatch(SHUTDOWN_DRAIN_TIMEOUT);
+            asyncDispatcher = null;
+            scoreUpdateBus.shutdown();
+            unlockedBus.shutdown();
+        }
+    }
+
+    /**
+     * Delivers subsequently published events on the given executor instead of the publishing thread.
+     * Subscribers receive events in publication order.
+     *
+     * @param executor       Executor which runs the delivery of queued events.
+     * @param capacity       Maximum number of queued events.
+     * @param overflowPolicy Behaviour when an event is published to a full queue.
+     */
+    public void enableAsyncDispatch(final Executor executor, final int capacity, final OverflowPolicy overflowPolicy) {
+        awaitDispatch(SHUTDOWN_DRAIN_TIMEOUT);
+        asyncDispatcher = new AsyncDispatcher(executor, capacity, overflowPolicy);
+    }
+
+    /**
+     * Switches back to synchronous delivery after delivering every queued event.
+     */
+    public void disableAsyncDispatch() {
+        awaitDispatch(SHUTDOWN_DRAIN_TIMEOUT);
+        asyncDispatcher = null;
+    }
+
+    /**
+     * Waits until every asynchronously queued event is delivered.
+     *
+     * @param timeout maximum time to wait in milliseconds.
+     * @return {@code true} if there is no pending event.
+     */
+    public boolean awaitDispatch(final long timeout) {
+        final AsyncDispatcher dispatcher = asyncDispatcher;
+        if (dispatcher == null) {
+            return true;
+        }
+        try {
+            return dispatcher.awaitIdle(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Returns the asynchronous dispatcher which exposes queue depth and dispatch lag metrics.
+     *
+     * @return Dispatcher if asynchronous dispatch is enabled.
+     */
+    public Optional<AsyncDispatcher> getAsyncDispatcher() {
+        return Optional.ofNullable(asyncDispatcher);
+    }
+
+    private <T> void publish(final MBassador<T> bus, final T message) {
+        final AsyncDispatcher dispatcher = asyncDispatcher;
+        if (dispatcher == null) {
+            bus.publish(message);
+        } else {
+            dispatcher.dispatch(bus, message);
+        }
     }
 
     public void subscribeOnUnlock(final AchievementUnlockedHandlerWrapper handler) {
@@ -62,8 +143,8 @@ public class EventBus {
     }
 
     public void publishUnlocked(final IAchievementUnlockedEvent achievement) {
-        unlockedBus.publish(achievement);
-        LOG.info("Achievement unlocked event published. Achievement - title: {}, level: {}", achievement.getTitle(), achievement.getLevel());
+        publish(unlockedBus, achievement);
+        LOG.info("Achievement unlocked event published. Achievement - id: {}, level: {}", achievement.getId(), achievement.getLevel());
     }
 
     public void subscribeOnScoreChanged(final ScoreUpdateHandlerWrapper handler) {
@@ -95,7 +176,7 @@ public class EventBus {
     }
 
     public void publishScoreChanged(final ScoreUpdatedEvent scoreUpdatedEvent) {
-        scoreUpdateBus.publish(scoreUpdatedEvent);
+        publish(scoreUpdateBus, scoreUpdatedEvent);
         LOG.info("Achievement score {} updated with value {}", scoreUpdatedEvent.getEvent(), scoreUpdatedEvent.getValue());
     }
 
@@ -0,0 +1,21 @@
+package net.csongradyp.badger.event;
+
+/**
+ * Defines what happens when an event is published while the asynchronous dispatch queue of {@link EventBus} is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * The publishing thread waits until the queue has free capacity.
+     */
+    BLOCK,
+    /**
+     * The oldest queued event is discarded to make room for the new one.
+     */
+    DROP_OLDEST,
+    /**
+     * A queued score update of the same event is replaced by the new value. Falls back to {@link #BLOCK} when there is
+     * nothing to replace.
+     */
+    COALESCE
+}
@@ -19,7 +19,7 @@ public class AchievementUnlockedHandlerWrapper implements IAchievementUnlockedHa
     }
 
     @Override
-    @Handler(rejectSubtypes = true)
+    @Handler
     public void onUnlocked(final AchievementUnlockedEvent achievementUnlockedEvent) {
         wrapped.onUnlocked(achievementUnlockedEvent);
     }
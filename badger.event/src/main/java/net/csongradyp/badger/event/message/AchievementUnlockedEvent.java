@@ -32,6 +32,47 @@ public class AchievementUnlockedEvent implements IAchievementUnlockedEvent {
         category = "default";
     }
 
+    /**
+     * Creates a copy of the given event with the title and description in another language.
+     *
+     * @param event unlocked event to copy.
+     * @param title localized title of the achievement.
+     * @param text  localized description of the achievement.
+     */
+    public AchievementUnlockedEvent(final IAchievementUnlockedEvent event, final String title, final String text) {
+        this.id = event.getId();
+        this.title = title;
+        this.text = text;
+        this.acquireDate = event.getAcquireDate();
+        this.triggerValue = event.getTriggerValue();
+        this.level = event.getLevel();
+        owners = new HashSet<>(event.getOwners());
+        eventType = event.getEventType();
+        category = event.getCategory();
+    }
+
+    /**
+     * Creates an event without title, description and trigger value.
+     * Subclasses which resolve these on first access override the related getters.
+     *
+     * @param id          ID of the unlocked achievement.
+     * @param category    category of the unlocked achievement.
+     * @param acquireDate unlock date of the achievement.
+     * @param level       unlocked level of the achievement.
+     * @param owners      owners of the unlocked achievement.
+     */
+    protected AchievementUnlockedEvent(final String id, final String category, final Date acquireDate, final Integer level, final Set<String> owners) {
+        this.id = id;
+        this.title = null;
+        this.text = null;
+        this.acquireDate = acquireDate;
+        this.triggerValue = null;
+        this.level = level;
+        this.owners = owners;
+        eventType = AchievementEventType.UNLOCK;
+        this.category = category;
+    }
+
     /**
      * Returns the ID of the unlocked achievement.
      *
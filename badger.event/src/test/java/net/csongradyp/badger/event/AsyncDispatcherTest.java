@@ -0,0 +1,149 @@
+package net.csongradyp.badger.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import net.csongradyp.badger.event.handler.wrapper.ScoreUpdateHandlerWrapper;
+import net.csongradyp.badger.event.message.ScoreUpdatedEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class AsyncDispatcherTest {
+
+    private ExecutorService executor;
+    private CountDownLatch release;
+    private List<Long> received;
+
+    private EventBus underTest;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        release = new CountDownLatch(1);
+        received = Collections.synchronizedList(new ArrayList<>());
+        underTest = new EventBus();
+        underTest.subscribeOnScoreChanged(new ScoreUpdateHandlerWrapper(score -> {
+            awaitRelease();
+            received.add(score.getValue());
+        }));
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        underTest.disableAsyncDispatch();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testEventsAreDeliveredInPublicationOrder() {
+        underTest.enableAsyncDispatch(executor, 1000, OverflowPolicy.BLOCK);
+        release.countDown();
+        final List<Long> expected = new ArrayList<>();
+        for (long i = 0; i < 500; i++) {
+            underTest.publishScoreChanged(new ScoreUpdatedEvent("event", i));
+            expected.add(i);
+        }
+
+        assertThat(underTest.awaitDispatch(5000L), is(true));
+        assertThat(received, is(equalTo(expected)));
+        assertThat(underTest.getAsyncDispatcher().get().getDispatchedCount(), is(500L));
+        assertThat(underTest.getAsyncDispatcher().get().getQueueDepth(), is(0));
+    }
+
+    @Test
+    public void testDropOldestDiscardsOldestQueuedEvents() throws Exception {
+        underTest.enableAsyncDispatch(executor, 2, OverflowPolicy.DROP_OLDEST);
+        publishBlockedFirstEvent();
+        underTest.publishScoreChanged(new ScoreUpdatedEvent("event", 1L));
+        underTest.publishScoreChanged(new ScoreUpdatedEvent("event", 2L));
+        underTest.publishScoreChanged(new ScoreUpdatedEvent("event", 3L));
+        final AsyncDispatcher dispatcher = underTest.getAsyncDispatcher().get();
+        assertThat(dispatcher.getQueueDepth(), is(2));
+
+        release.countDown();
+
+        assertThat(underTest.awaitDispatch(5000L), is(true));
+        assertThat(received, is(equalTo(list(0L, 2L, 3L))));
+        assertThat(dispatcher.getDroppedCount(), is(1L));
+    }
+
+    @Test
+    public void testCoalesceReplacesQueuedScoreOfSameEvent() throws Exception {
+        underTest.enableAsyncDispatch(executor, 2, OverflowPolicy.COALESCE);
+        publishBlockedFirstEvent();
+        underTest.publishScoreChanged(new ScoreUpdatedEvent("event", 1L));
+        underTest.publishScoreChanged(new ScoreUpdatedEvent("other", 10L));
+        underTest.publishScoreChanged(new ScoreUpdatedEvent("event", 2L));
+        underTest.publishScoreChanged(new ScoreUpdatedEvent("event", 3L));
+        final AsyncDispatcher dispatcher = underTest.getAsyncDispatcher().get();
+
+        release.countDown();
+
+        assertThat(underTest.awaitDispatch(5000L), is(true));
+        assertThat(received, is(equalTo(list(0L, 3L, 10L))));
+        assertThat(dispatcher.getCoalescedCount(), is(2L));
+    }
+
+    @Test
+    public void testDispatchLagIsMeasured() throws Exception {
+        underTest.enableAsyncDispatch(executor, 10, OverflowPolicy.BLOCK);
+        publishBlockedFirstEvent();
+        underTest.publishScoreChanged(new ScoreUpdatedEvent("event", 1L));
+        Thread.sleep(50L);
+
+        release.countDown();
+
+        assertThat(underTest.awaitDispatch(5000L), is(true));
+        assertThat(underTest.getAsyncDispatcher().get().getMaxDispatchLag() >= 50L, is(true));
+    }
+
+    @Test
+    public void testEventsAreDeliveredOnPublishingThreadWhenExecutorRejectsDrain() {
+        executor.shutdown();
+        underTest.enableAsyncDispatch(executor, 1, OverflowPolicy.BLOCK);
+        release.countDown();
+
+        underTest.publishScoreChanged(new ScoreUpdatedEvent("event", 1L));
+        underTest.publishScoreChanged(new ScoreUpdatedEvent("event", 2L));
+
+        assertThat(received, is(equalTo(list(1L, 2L))));
+        assertThat(underTest.awaitDispatch(5000L), is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEnableAsyncDispatchRejectsNonPositiveCapacity() {
+        underTest.enableAsyncDispatch(executor, 0, OverflowPolicy.BLOCK);
+    }
+
+    private void publishBlockedFirstEvent() throws InterruptedException {
+        underTest.publishScoreChanged(new ScoreUpdatedEvent("event", 0L));
+        final AsyncDispatcher dispatcher = underTest.getAsyncDispatcher().get();
+        while (dispatcher.getQueueDepth() > 0) {
+            Thread.sleep(1L);
+        }
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<Long> list(final Long... values) {
+        final List<Long> list = new ArrayList<>();
+        Collections.addAll(list, values);
+        return list;
+    }
+}
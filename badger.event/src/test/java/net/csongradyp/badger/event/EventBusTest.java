@@ -4,6 +4,8 @@ import net.csongradyp.badger.event.handler.wrapper.AchievementUnlockedHandlerWra
 import net.csongradyp.badger.event.handler.wrapper.ScoreUpdateHandlerWrapper;
 import net.csongradyp.badger.event.message.AchievementUnlockedEvent;
 import net.csongradyp.badger.event.message.ScoreUpdatedEvent;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -62,6 +64,38 @@ public class EventBusTest {
         assertThat(underTest.getScoreUpdateSubscribers().contains(handlerWrapper), is(false));
     }
 
+    @Test
+    public void testShutdownDeliversQueuedEventsAndRemovesTheShutdownHook() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            underTest.enableAsyncDispatch(executor, 16, OverflowPolicy.BLOCK);
+            underTest.publishUnlocked(new AchievementUnlockedEvent("test", "title", "text", "1"));
+
+            underTest.shutdown();
+            underTest.shutdown();
+
+            assertThat(receivedAchievementUnlockedEvent, is(notNullValue()));
+            assertThat(underTest.getAsyncDispatcher().isPresent(), is(false));
+            assertThat(Runtime.getRuntime().removeShutdownHook(underTest.shutdownHook), is(false));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testPublishUnlockedDoesNotResolveTheTitle() throws Exception {
+        final AchievementUnlockedEvent event = new AchievementUnlockedEvent("test", null, null, "1") {
+            @Override
+            public String getTitle() {
+                throw new IllegalStateException("title is resolved lazily by the handlers only");
+            }
+        };
+
+        underTest.publishUnlocked(event);
+
+        assertThat(receivedAchievementUnlockedEvent, is(event));
+    }
+
     @Test
     public void testPublishUnlockedPublishesGivenEvent() throws Exception {
         final String id = "test";
@@ -21,4 +21,8 @@ public class CheckAspect {
     public void check(final AchievementCheck achievementCheck) {
         achievementController.checkAndUnlock();
     }
+
+    public void setAchievementController(final IAchievementController achievementController) {
+        this.achievementController = achievementController;
+    }
 }
@@ -58,4 +58,8 @@ public class TriggerAspect extends AchievementAspect {
         }
         return Optional.ofNullable(score);
     }
+
+    public void setAchievementController(final IAchievementController achievementController) {
+        this.achievementController = achievementController;
+    }
 }
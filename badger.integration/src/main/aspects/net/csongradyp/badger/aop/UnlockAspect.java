@@ -77,4 +77,8 @@ public class UnlockAspect extends AchievementAspect {
         }
         return "";
     }
+
+    public void setAchievementController(final IAchievementController achievementController) {
+        this.achievementController = achievementController;
+    }
 }
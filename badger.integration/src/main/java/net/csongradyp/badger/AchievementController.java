@@ -3,6 +3,9 @@ package net.csongradyp.badger;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
@@ -19,7 +22,9 @@ import net.csongradyp.badger.factory.UnlockedEventFactory;
 import net.csongradyp.badger.persistence.AchievementDao;
 import net.csongradyp.badger.persistence.EventDao;
 import net.csongradyp.badger.persistence.entity.AchievementEntity;
+import net.csongradyp.badger.persistence.exception.MissingEventCounterException;
 import net.csongradyp.badger.provider.unlock.AchievementUnlockProviderFacade;
+import net.csongradyp.badger.provider.unlock.TimerWheelScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,26 +43,36 @@ public class AchievementController implements IAchievementController {
     private AchievementUnlockProviderFacade achievementUnlockFinder;
     @Inject
     private EventBus eventBus;
+    @Inject
+    private TimerWheelScheduler timerWheelScheduler;
     private ResourceBundle resourceBundle;
 
-    private AchievementDefinition achievementDefinition;
+    private volatile AchievementDefinition achievementDefinition;
     private String internationalizationBaseName;
 
     public AchievementController() {
         achievementDefinition = new AchievementBundle();
     }
 
+    /**
+     * Replaces the achievement definition. Can be called while events are triggered: counters of the new events are
+     * registered first, then the definition is published at once, so running triggers finish on the previous one.
+     */
     @Override
-    public void setAchievementDefinition(final AchievementDefinition achievementDefinition) {
-        this.achievementDefinition = achievementDefinition;
+    public synchronized void setAchievementDefinition(final AchievementDefinition achievementDefinition) {
+        eventDao.registerEvents(achievementDefinition.getAllByEvents().keySet());
         achievementUnlockFinder.setAchievementDefinition(achievementDefinition);
+        this.achievementDefinition = achievementDefinition;
+        unlockedEventFactory.clearMessages();
+        timerWheelScheduler.schedule(achievementDefinition, this::unlock);
     }
 
     @Override
     public void setInternationalizationBaseName(final String internationalizationBaseName) {
-        final ResourceBundle resourceBundle = ResourceBundle.getBundle(internationalizationBaseName, Locale.ENGLISH);
-        setResourceBundle(resourceBundle);
+        resourceBundle = ResourceBundle.getBundle(internationalizationBaseName, Locale.ENGLISH);
         this.internationalizationBaseName = internationalizationBaseName;
+        unlockedEventFactory.setInternationalizationBaseName(internationalizationBaseName);
+        unlockedEventFactory.setLocale(Locale.ENGLISH);
     }
 
     @Override
@@ -72,7 +87,18 @@ public class AchievementController implements IAchievementController {
 
     @Override
     public void setLocale(final Locale locale) {
-        setResourceBundle(ResourceBundle.getBundle(internationalizationBaseName, locale));
+        resourceBundle = ResourceBundle.getBundle(internationalizationBaseName, locale);
+        unlockedEventFactory.setInternationalizationBaseName(internationalizationBaseName);
+        unlockedEventFactory.setLocale(locale);
+    }
+
+    @Override
+    public IAchievementUnlockedEvent localize(final IAchievementUnlockedEvent event, final Locale locale) {
+        final Optional<IAchievement> achievement = achievementDefinition.get(event.getId());
+        if (!achievement.isPresent()) {
+            return event;
+        }
+        return unlockedEventFactory.localize(event, achievement.get(), locale);
     }
 
     @Override
@@ -118,8 +144,15 @@ public class AchievementController implements IAchievementController {
 
     @Override
     public void checkAndUnlock() {
-        LOG.debug("Checking achievements to unlock");
-        final Collection<IAchievementUnlockedEvent> unlockableAchievements = achievementUnlockFinder.findAll();
+        LOG.debug("Checking changed achievements to unlock");
+        final Collection<Unlockable> unlockableAchievements = achievementUnlockFinder.findChanged();
+        unlockableAchievements.forEach(this::unlock);
+    }
+
+    @Override
+    public void checkAndUnlockAll() {
+        LOG.debug("Checking all achievements to unlock");
+        final Collection<Unlockable> unlockableAchievements = achievementUnlockFinder.findAll();
         unlockableAchievements.forEach(this::unlock);
     }
 
@@ -147,10 +180,11 @@ public class AchievementController implements IAchievementController {
 
     @Override
     public void triggerEvent(final String event, final Long score, final Collection<String> owners) {
-        if (isDifferentValueAsStored(event, score)) {
+        final Long previousScore = eventDao.scoreOf(event);
+        if (!previousScore.equals(score)) {
             LOG.debug("Achievement event named {} is triggered by owners {} with score: {}", event, owners, score);
             publishUpdatedScore(event, score);
-            final Collection<IAchievementUnlockedEvent> unlockables = achievementUnlockFinder.findUnlockables(event, score, owners);
+            final Collection<Unlockable> unlockables = achievementUnlockFinder.findUnlockables(event, previousScore, score, owners);
             unlockables.forEach(this::unlock);
         }
     }
@@ -161,27 +195,72 @@ public class AchievementController implements IAchievementController {
         eventBus.publishScoreChanged(updatedEvent);
     }
 
-    private boolean isDifferentValueAsStored(String event, Long score) {
-        final Long currentValue = eventDao.scoreOf(event);
-        return currentValue != score;
-    }
-
     @Override
     public void triggerEvent(final String event, final Collection<String> owners) {
         LOG.debug("Achievement event triggered: {} with owners {}", event, owners);
-        publishIncremented(event);
-        final Collection<IAchievementUnlockedEvent> unlockables = achievementUnlockFinder.findUnlockables(event, owners);
+        final Long currentValue = publishIncremented(event);
+        final Collection<Unlockable> unlockables = achievementUnlockFinder.findUnlockables(event, currentValue - 1, currentValue, owners);
         unlockables.forEach(this::unlock);
     }
 
     @Override
     public void triggerEvent(final String event) {
         LOG.info("Achievement event triggered: {}", event);
-        publishIncremented(event);
-        final Collection<IAchievementUnlockedEvent> unlockables = achievementUnlockFinder.findUnlockables(event);
+        final Long currentValue = publishIncremented(event);
+        final Collection<Unlockable> unlockables = achievementUnlockFinder.findUnlockables(event, currentValue - 1, currentValue, Collections.emptySet());
         unlockables.forEach(this::unlock);
     }
 
+    @Override
+    public Collection<IAchievementUnlockedEvent> triggerEvents(final Collection<TriggerRequest> requests) {
+        final Map<String, Long> newScores = new LinkedHashMap<>();
+        final Map<String, Long> deltas = new LinkedHashMap<>();
+        final Map<String, Set<String>> ownersByEvent = new LinkedHashMap<>();
+        for (TriggerRequest request : requests) {
+            final String event = request.getEvent();
+            if (request.getScore().isPresent()) {
+                newScores.put(event, request.getScore().get());
+                deltas.remove(event);
+            } else {
+                deltas.merge(event, 1L, Long::sum);
+            }
+            ownersByEvent.computeIfAbsent(event, key -> new HashSet<>()).addAll(request.getOwners());
+        }
+        LOG.debug("Batch of {} trigger requests coalesced to {} events", requests.size(), ownersByEvent.size());
+        final Map<String, Long> previousScores = currentScoresOf(newScores.keySet());
+        final Map<String, Long> updatedScores = eventDao.update(newScores, deltas);
+
+        final Collection<IAchievementUnlockedEvent> unlocked = new ArrayList<>();
+        updatedScores.forEach((event, score) -> {
+            final Long previousScore = previousScoreOf(event, score, newScores.keySet(), previousScores, deltas);
+            if (!score.equals(previousScore)) {
+                eventBus.publishScoreChanged(new ScoreUpdatedEvent(event, score));
+                achievementUnlockFinder.findUnlockables(event, previousScore, score, ownersByEvent.get(event))
+                        .forEach(unlockable -> unlock(unlockable).ifPresent(unlocked::add));
+            }
+        });
+        return unlocked;
+    }
+
+    private Long previousScoreOf(final String event, final Long score, final Set<String> setEvents, final Map<String, Long> storedScores, final Map<String, Long> deltas) {
+        if (setEvents.contains(event)) {
+            return storedScores.getOrDefault(event, Long.MIN_VALUE);
+        }
+        return score - deltas.get(event);
+    }
+
+    private Map<String, Long> currentScoresOf(final Collection<String> events) {
+        final Map<String, Long> scores = new HashMap<>();
+        for (String event : events) {
+            try {
+                scores.put(event, eventDao.scoreOf(event));
+            } catch (MissingEventCounterException e) {
+                LOG.debug("First score submitted for event {}", event);
+            }
+        }
+        return scores;
+    }
+
     private Long publishIncremented(final String event) {
         final Long currentValue = eventDao.increment(event);
         eventBus.publishScoreChanged(new ScoreUpdatedEvent(event, currentValue));
@@ -191,30 +270,24 @@ public class AchievementController implements IAchievementController {
     @Override
     public void unlock(final String achievementId, final String triggerValue, final Collection<String> owners) {
         final Optional<IAchievement> matchingAchievement = achievementDefinition.get(achievementId);
-        if (matchingAchievement.isPresent()) {
+        if (matchingAchievement.isPresent() && achievementDao.tryUnlock(achievementId, 1, new HashSet<>(owners))) {
             final AchievementUnlockedEvent achievementUnlockedEvent = unlockedEventFactory.createEvent(matchingAchievement.get(), triggerValue, owners);
-            unlock(achievementUnlockedEvent);
+            eventBus.publishUnlocked(achievementUnlockedEvent);
         }
     }
 
     @Override
     public void unlock(final String achievementId, final String triggerValue) {
-        final Optional<IAchievement> matchingAchievement = achievementDefinition.get(achievementId);
-        if (matchingAchievement.isPresent()) {
-            final AchievementUnlockedEvent achievementUnlockedEvent = unlockedEventFactory.createEvent(matchingAchievement.get(), triggerValue);
-            unlock(achievementUnlockedEvent);
-        }
+        unlock(achievementId, triggerValue, Collections.emptySet());
     }
 
-    private void unlock(final IAchievementUnlockedEvent achievement) {
-        if (!isLevelUnlocked(achievement.getId(), achievement.getLevel())) {
-            achievementDao.unlock(achievement.getId(), achievement.getLevel(), achievement.getOwners());
-            eventBus.publishUnlocked(achievement);
+    private Optional<IAchievementUnlockedEvent> unlock(final Unlockable unlockable) {
+        if (achievementDao.tryUnlock(unlockable.getId(), unlockable.getLevel(), unlockable.getOwners())) {
+            final IAchievementUnlockedEvent unlockedEvent = unlockedEventFactory.createEvent(unlockable);
+            eventBus.publishUnlocked(unlockedEvent);
+            return Optional.of(unlockedEvent);
         }
-    }
-
-    private Boolean isLevelUnlocked(final String id, final Integer level) {
-        return achievementDao.isUnlocked(id, level);
+        return Optional.empty();
     }
 
     @Override
@@ -257,4 +330,8 @@ public class AchievementController implements IAchievementController {
     void setEventBus(final EventBus eventBus) {
         this.eventBus = eventBus;
     }
+
+    void setTimerWheelScheduler(final TimerWheelScheduler timerWheelScheduler) {
+        this.timerWheelScheduler = timerWheelScheduler;
+    }
 }
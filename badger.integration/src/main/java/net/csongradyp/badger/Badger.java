@@ -1,39 +1,71 @@
 package net.csongradyp.badger;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import net.csongradyp.badger.domain.IAchievement;
 import net.csongradyp.badger.event.EventBus;
+import net.csongradyp.badger.event.IAchievementUnlockedEvent;
+import net.csongradyp.badger.event.OverflowPolicy;
 import net.csongradyp.badger.event.handler.IAchievementUnlockedHandler;
 import net.csongradyp.badger.event.handler.IScoreUpdateHandler;
 import net.csongradyp.badger.event.handler.wrapper.AchievementUnlockedHandlerWrapper;
 import net.csongradyp.badger.event.handler.wrapper.ScoreUpdateHandlerWrapper;
 import net.csongradyp.badger.parser.AchievementDefinitionFileParser;
+import net.csongradyp.badger.persistence.EventDao;
+import net.csongradyp.badger.persistence.ScoreDurability;
+import net.csongradyp.badger.persistence.counter.MappedCounterTable;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
 
 public class Badger {
 
-    private static final String CONTEXT_XML_PATH = "META-INF/beans.xml";
-
     private final AchievementDefinitionFileParser parser;
     private final IAchievementController controller;
     private final EventBus eventBus;
+    private final EventDao eventDao;
+    private final Runnable shutdown;
+    private final List<DefinitionFileWatcher> definitionWatchers = new ArrayList<>();
+    private NamespacedAchievementDefinition namespacedDefinition = NamespacedAchievementDefinition.empty();
 
     /**
-     * Default constructor to set up Spring environment.
+     * Sets up the Spring environment of the given storage backend.
      */
-    private Badger() {
-        final ConfigurableApplicationContext applicationContext = new ClassPathXmlApplicationContext(CONTEXT_XML_PATH);
+    private Badger(final StorageBackend storageBackend) {
+        final ConfigurableApplicationContext applicationContext = new ClassPathXmlApplicationContext(storageBackend.getContextXmlPath());
         applicationContext.registerShutdownHook();
         parser = applicationContext.getBean(AchievementDefinitionFileParser.class);
         controller = applicationContext.getBean(AchievementController.class);
         eventBus = applicationContext.getBean(EventBus.class);
+        eventDao = applicationContext.getBean(EventDao.class);
+        shutdown = applicationContext::close;
+    }
+
+    Badger(final AchievementDefinitionFileParser parser, final IAchievementController controller, final EventBus eventBus, final EventDao eventDao, final Runnable shutdown) {
+        this.parser = parser;
+        this.controller = controller;
+        this.eventBus = eventBus;
+        this.eventDao = eventDao;
+        this.shutdown = shutdown;
+    }
+
+    /**
+     * Creates a BadgeR engine without the Spring container, which starts faster and needs less memory.
+     *
+     * @return {@link BadgerBuilder} of the engine.
+     */
+    public static BadgerBuilder builder() {
+        return new BadgerBuilder();
     }
 
     /**
@@ -42,10 +74,32 @@ public class Badger {
      * @param definitionFile {@link File} instance which represents the achievement definition file.
      */
     public Badger(final File definitionFile) {
-        this();
+        this(definitionFile, StorageBackend.OBJECTDB);
+    }
+
+    /**
+     * Starts the BadgeR achievement engine without i18n support.
+     *
+     * @param definitionFile {@link File} instance which represents the achievement definition file.
+     * @param storageBackend {@link StorageBackend} to store event scores and unlocked achievements in.
+     */
+    public Badger(final File definitionFile, final StorageBackend storageBackend) {
+        this(storageBackend);
         controller.setAchievementDefinition(parser.parse(definitionFile));
     }
 
+    /**
+     * Starts the BadgeR achievement engine with several definition files, e.g. one per game mode. Each file is loaded
+     * into its own namespace: achievement ids and events are qualified with the namespace name, like {@code mode.kill}.
+     *
+     * @param definitionFiles achievement definition files by namespace name.
+     * @param storageBackend  {@link StorageBackend} to store event scores and unlocked achievements in.
+     */
+    public Badger(final Map<String, File> definitionFiles, final StorageBackend storageBackend) {
+        this(storageBackend);
+        setNamespacedDefinition(parser.parse(definitionFiles));
+    }
+
     /**
      * Starts the BadgeR achievement engine without i18n support.
      *
@@ -55,6 +109,16 @@ public class Badger {
         this(new File(definitionFilePath));
     }
 
+    /**
+     * Starts the BadgeR achievement engine without i18n support.
+     *
+     * @param definitionFilePath Absolute path of the achievement definition file location.
+     * @param storageBackend     {@link StorageBackend} to store event scores and unlocked achievements in.
+     */
+    public Badger(final String definitionFilePath, final StorageBackend storageBackend) {
+        this(new File(definitionFilePath), storageBackend);
+    }
+
     /**
      * @param baseName i18n properties file base name for internationalization support.<br/>
      *                 See more at <a href="http://csongradyp.github.io/badgeR/">BadgeR API documentation</a>.
@@ -79,6 +143,113 @@ public class Badger {
         controller.setLocale(locale);
     }
 
+    /**
+     * Renders an unlocked achievement event in another language, e.g. for players using different locales.
+     * Messages are resolved once per locale and achievement.
+     *
+     * @param event  unlocked achievement event.
+     * @param locale {@link java.util.Locale} of the title and description.
+     * @return copy of the event with localized title and description.
+     */
+    public IAchievementUnlockedEvent localize(final IAchievementUnlockedEvent event, final Locale locale) {
+        return controller.localize(event, locale);
+    }
+
+    /**
+     * Set when event counter changes are written to the database.
+     *
+     * @param durability    {@link ScoreDurability} policy. Default is {@code ScoreDurability.ASYNC}.
+     * @param flushInterval milliseconds between two batched writes when {@code ScoreDurability.ASYNC} is used.
+     */
+    public void setScoreDurability(final ScoreDurability durability, final long flushInterval) {
+        eventDao.setDurability(durability, flushInterval);
+    }
+
+    /**
+     * Keeps the event counters of the definition in a memory-mapped file instead of the heap. Counter updates are
+     * written back to the file by the operating system and forced to disk according to the score durability.
+     * Should be called before any event is triggered.
+     *
+     * @param counterFile file of the counter table. Event names are stored next to it in a {@code .events} file.
+     */
+    public void setCounterFile(final File counterFile) {
+        eventDao.setCounterTable(new MappedCounterTable(counterFile));
+    }
+
+    /**
+     * Delivers unlocked and score updated events to the subscribed handlers on the given executor.
+     * Handlers receive events in the order they were published. Events are delivered synchronously by default.
+     *
+     * @param executor       {@link Executor} which runs the registered handlers.
+     * @param capacity       maximum number of pending events.
+     * @param overflowPolicy {@link OverflowPolicy} applied when the pending event queue is full.
+     */
+    public void setAsyncDispatch(final Executor executor, final int capacity, final OverflowPolicy overflowPolicy) {
+        eventBus.enableAsyncDispatch(executor, capacity, overflowPolicy);
+    }
+
+    synchronized void setNamespacedDefinition(final NamespacedAchievementDefinition definition) {
+        namespacedDefinition = definition;
+        controller.setAchievementDefinition(definition);
+    }
+
+    /**
+     * Parses the definition file again into the given namespace. Other namespaces are kept as they are.
+     *
+     * @param namespace      namespace to add or replace.
+     * @param definitionFile achievement definition file of the namespace.
+     */
+    public void reloadNamespace(final String namespace, final File definitionFile) {
+        publishNamespace(namespace, parser.parse(definitionFile));
+    }
+
+    private synchronized void publishNamespace(final String namespace, final AchievementDefinition definition) {
+        setNamespacedDefinition(namespacedDefinition.withNamespace(namespace, definition));
+    }
+
+    /**
+     * Reloads the achievements when the definition file changes, without restarting the engine. The file is parsed in
+     * the background and triggers keep using the previous definition until the new one is ready. A definition with
+     * errors is logged and ignored.
+     *
+     * @param definitionFile achievement definition file to watch.
+     */
+    public void watchDefinition(final File definitionFile) {
+        watch(definitionFile, controller::setAchievementDefinition);
+    }
+
+    /**
+     * Reloads the namespace when its definition file changes, see {@link #watchDefinition(File)}.
+     *
+     * @param namespace      namespace of the definition file.
+     * @param definitionFile achievement definition file to watch.
+     */
+    public void watchDefinition(final String namespace, final File definitionFile) {
+        watch(definitionFile, definition -> publishNamespace(namespace, definition));
+    }
+
+    private synchronized void watch(final File definitionFile, final Consumer<AchievementDefinition> publisher) {
+        try {
+            definitionWatchers.add(new DefinitionFileWatcher(definitionFile, parser, publisher));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stops reloading the definition files.
+     */
+    public synchronized void stopWatchingDefinition() {
+        for (DefinitionFileWatcher watcher : definitionWatchers) {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        definitionWatchers.clear();
+    }
+
     /**
      * Returns all defined achievements without any sorting.
      *
@@ -158,6 +329,17 @@ public class Badger {
         controller.triggerEvent(event, owners);
     }
 
+    /**
+     * Triggers several events at once. Repeated events are coalesced, all counter changes are stored in one batch and
+     * achievements of every touched event are evaluated once against its final counter value.
+     *
+     * @param requests {@link TriggerRequest} instances in the order of their occurrence.
+     * @return All achievements unlocked by the batch.
+     */
+    public Collection<IAchievementUnlockedEvent> triggerEvents(final Collection<TriggerRequest> requests) {
+        return controller.triggerEvents(requests);
+    }
+
     /**
      * Returns the current value of the event counter.
      *
@@ -215,4 +397,13 @@ public class Badger {
     public IAchievementController getController() {
         return controller;
     }
+
+    /**
+     * Stops the background threads of the engine and writes pending changes to the store.
+     * Runs automatically when the JVM exits.
+     */
+    public void shutdown() {
+        stopWatchingDefinition();
+        shutdown.run();
+    }
 }
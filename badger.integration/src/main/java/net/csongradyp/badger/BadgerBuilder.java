@@ -0,0 +1,277 @@
+package net.csongradyp.badger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import net.csongradyp.badger.domain.AchievementType;
+import net.csongradyp.badger.domain.IAchievement;
+import net.csongradyp.badger.event.EventBus;
+import net.csongradyp.badger.factory.UnlockedEventFactory;
+import net.csongradyp.badger.parser.AchievementDefinitionFileParser;
+import net.csongradyp.badger.parser.IAchievementDefinitionFileParser;
+import net.csongradyp.badger.parser.api.RelationParser;
+import net.csongradyp.badger.parser.api.trigger.DateTriggerParser;
+import net.csongradyp.badger.parser.api.trigger.ITriggerParser;
+import net.csongradyp.badger.parser.api.trigger.ScoreTriggerParser;
+import net.csongradyp.badger.parser.api.trigger.TimeTriggerParser;
+import net.csongradyp.badger.parser.file.FileType;
+import net.csongradyp.badger.parser.ini.AchievementIniParser;
+import net.csongradyp.badger.parser.ini.trigger.ScoreRangeTriggerParser;
+import net.csongradyp.badger.parser.ini.trigger.TimeRangeTriggerParser;
+import net.csongradyp.badger.parser.json.AchievementJsonParser;
+import net.csongradyp.badger.persistence.AchievementDao;
+import net.csongradyp.badger.persistence.EventDao;
+import net.csongradyp.badger.persistence.IPersistenceStore;
+import net.csongradyp.badger.persistence.InMemoryPersistenceStore;
+import net.csongradyp.badger.provider.date.DateProvider;
+import net.csongradyp.badger.provider.unlock.AchievementUnlockProviderFacade;
+import net.csongradyp.badger.provider.unlock.IUnlockedProvider;
+import net.csongradyp.badger.provider.unlock.TimerWheelScheduler;
+import net.csongradyp.badger.provider.unlock.provider.CompositeUnlockedProvider;
+import net.csongradyp.badger.provider.unlock.provider.DateUnlockedProvider;
+import net.csongradyp.badger.provider.unlock.provider.ScoreRangeUnlockedProvider;
+import net.csongradyp.badger.provider.unlock.provider.ScoreUnlockedProvider;
+import net.csongradyp.badger.provider.unlock.provider.TimeRangeUnlockedProvider;
+import net.csongradyp.badger.provider.unlock.provider.TimeUnlockedProvider;
+import org.aspectj.lang.Aspects;
+import org.aspectj.lang.NoAspectBoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Wires the BadgeR engine directly, without Spring, classpath scanning or XML configuration.
+ * Event scores and unlocked achievements are kept in an {@link InMemoryPersistenceStore} unless another
+ * {@link IPersistenceStore} is given. The ObjectDB store needs the Spring container, use the {@link Badger}
+ * constructors for it.
+ */
+public class BadgerBuilder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BadgerBuilder.class);
+    private static final String[] ASPECTS = {
+            "net.csongradyp.badger.aop.UnlockAspect",
+            "net.csongradyp.badger.aop.CheckAspect",
+            "net.csongradyp.badger.aop.TriggerAspect"
+    };
+
+    private File definitionFile;
+    private final Map<String, File> namespaceFiles = new LinkedHashMap<>();
+    private IPersistenceStore persistenceStore;
+    private boolean watchDefinition;
+
+    BadgerBuilder() {
+    }
+
+    /**
+     * @param definitionFile achievement definition file to load.
+     */
+    public BadgerBuilder definition(final File definitionFile) {
+        this.definitionFile = definitionFile;
+        return this;
+    }
+
+    /**
+     * @param definitionFilePath path of the achievement definition file to load.
+     */
+    public BadgerBuilder definition(final String definitionFilePath) {
+        return definition(new File(definitionFilePath));
+    }
+
+    /**
+     * Loads the definition file into a namespace, see {@link Badger#Badger(Map, StorageBackend)}. Can be called for
+     * several namespaces, all of them are parsed in parallel.
+     *
+     * @param namespace      name of the namespace.
+     * @param definitionFile achievement definition file of the namespace.
+     */
+    public BadgerBuilder definition(final String namespace, final File definitionFile) {
+        namespaceFiles.put(namespace, definitionFile);
+        return this;
+    }
+
+    /**
+     * @param persistenceStore store of event scores and unlocked achievements. Closed on shutdown if it is
+     *                         {@link Closeable}.
+     */
+    public BadgerBuilder persistenceStore(final IPersistenceStore persistenceStore) {
+        this.persistenceStore = persistenceStore;
+        return this;
+    }
+
+    /**
+     * Reloads the achievements when the definition file changes. See {@link Badger#watchDefinition(File)}.
+     */
+    public BadgerBuilder watchDefinition() {
+        this.watchDefinition = true;
+        return this;
+    }
+
+    public Badger build() {
+        final IPersistenceStore store = persistenceStore == null ? new InMemoryPersistenceStore() : persistenceStore;
+        final DateProvider dateProvider = new DateProvider();
+
+        final EventDao eventDao = new EventDao();
+        eventDao.setPersistenceStore(store);
+        eventDao.startFlushing();
+        final AchievementDao achievementDao = new AchievementDao();
+        achievementDao.setPersistenceStore(store);
+        achievementDao.loadUnlockedLevels();
+
+        final AchievementUnlockProviderFacade unlockFinder = new AchievementUnlockProviderFacade();
+        unlockFinder.setEventDao(eventDao);
+        unlockFinder.setAchievementDao(achievementDao);
+        unlockFinder.setDateProvider(dateProvider);
+        unlockFinder.setUnlockedProviders(createUnlockedProviders(dateProvider, achievementDao));
+        final UnlockedEventFactory unlockedEventFactory = new UnlockedEventFactory();
+        unlockedEventFactory.setDateProvider(dateProvider);
+        final TimerWheelScheduler timerWheelScheduler = new TimerWheelScheduler();
+        timerWheelScheduler.setDateProvider(dateProvider);
+        timerWheelScheduler.setAchievementDao(achievementDao);
+        final EventBus eventBus = new EventBus();
+
+        final AchievementController controller = new AchievementController();
+        controller.setEventDao(eventDao);
+        controller.setAchievementDao(achievementDao);
+        controller.setAchievementUnlockFinder(unlockFinder);
+        controller.setUnlockedEventFactory(unlockedEventFactory);
+        controller.setEventBus(eventBus);
+        controller.setTimerWheelScheduler(timerWheelScheduler);
+        bindAspects(controller);
+
+        final AtomicBoolean stopped = new AtomicBoolean();
+        final Runnable stop = () -> {
+            if (stopped.compareAndSet(false, true)) {
+                timerWheelScheduler.shutdown();
+                eventBus.shutdown();
+                eventDao.shutdown();
+                close(store);
+            }
+        };
+        final Thread shutdownHook = new Thread(stop, "badger-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        final Runnable shutdown = () -> {
+            removeShutdownHook(shutdownHook);
+            stop.run();
+        };
+
+        final AchievementDefinitionFileParser parser = createParser(dateProvider);
+        final Badger badger = new Badger(parser, controller, eventBus, eventDao, shutdown);
+        if (definitionFile != null) {
+            controller.setAchievementDefinition(parser.parse(definitionFile));
+            if (watchDefinition) {
+                badger.watchDefinition(definitionFile);
+            }
+        } else if (!namespaceFiles.isEmpty()) {
+            badger.setNamespacedDefinition(parser.parse(namespaceFiles));
+            if (watchDefinition) {
+                namespaceFiles.forEach(badger::watchDefinition);
+            }
+        }
+        return badger;
+    }
+
+    /**
+     * Releases the engine referenced by the hook once it is shut down explicitly.
+     */
+    private static void removeShutdownHook(final Thread shutdownHook) {
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // the JVM is already exiting and runs the hook anyway
+        }
+    }
+
+    private static Map<AchievementType, IUnlockedProvider<IAchievement>> createUnlockedProviders(final DateProvider dateProvider, final AchievementDao achievementDao) {
+        final CompositeUnlockedProvider compositeProvider = new CompositeUnlockedProvider();
+        compositeProvider.setDateProvider(dateProvider);
+        compositeProvider.setAchievementDao(achievementDao);
+        final ScoreUnlockedProvider scoreProvider = new ScoreUnlockedProvider();
+        scoreProvider.setAchievementDao(achievementDao);
+        final ScoreRangeUnlockedProvider scoreRangeProvider = new ScoreRangeUnlockedProvider();
+        scoreRangeProvider.setAchievementDao(achievementDao);
+        final DateUnlockedProvider dateUnlockedProvider = new DateUnlockedProvider();
+        dateUnlockedProvider.setDateProvider(dateProvider);
+        dateUnlockedProvider.setAchievementDao(achievementDao);
+        final TimeUnlockedProvider timeProvider = new TimeUnlockedProvider();
+        timeProvider.setDateProvider(dateProvider);
+        timeProvider.setAchievementDao(achievementDao);
+        final TimeRangeUnlockedProvider timeRangeProvider = new TimeRangeUnlockedProvider();
+        timeRangeProvider.setDateProvider(dateProvider);
+        timeRangeProvider.setAchievementDao(achievementDao);
+
+        final Map<AchievementType, IUnlockedProvider<IAchievement>> providers = new HashMap<>();
+        providers.put(AchievementType.COMPOSITE, generic(compositeProvider));
+        providers.put(AchievementType.SCORE, generic(scoreProvider));
+        providers.put(AchievementType.SCORE_RANGE, generic(scoreRangeProvider));
+        providers.put(AchievementType.DATE, generic(dateUnlockedProvider));
+        providers.put(AchievementType.TIME, generic(timeProvider));
+        providers.put(AchievementType.TIME_RANGE, generic(timeRangeProvider));
+        return providers;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static IUnlockedProvider<IAchievement> generic(final IUnlockedProvider<? extends IAchievement> provider) {
+        return (IUnlockedProvider<IAchievement>) provider;
+    }
+
+    private static AchievementDefinitionFileParser createParser(final DateProvider dateProvider) {
+        final RelationParser relationParser = new RelationParser();
+        final ScoreTriggerParser scoreTriggerParser = new ScoreTriggerParser();
+        final DateTriggerParser dateTriggerParser = new DateTriggerParser(dateProvider);
+        final TimeTriggerParser timeTriggerParser = new TimeTriggerParser(dateProvider);
+
+        final Map<AchievementType, ITriggerParser> iniTriggerParsers = new HashMap<>();
+        iniTriggerParsers.put(AchievementType.SCORE, scoreTriggerParser);
+        iniTriggerParsers.put(AchievementType.SCORE_RANGE, new ScoreRangeTriggerParser());
+        iniTriggerParsers.put(AchievementType.DATE, dateTriggerParser);
+        iniTriggerParsers.put(AchievementType.TIME, timeTriggerParser);
+        iniTriggerParsers.put(AchievementType.TIME_RANGE, new TimeRangeTriggerParser(dateProvider));
+        final AchievementIniParser iniParser = new AchievementIniParser();
+        iniParser.setTriggerParsers(iniTriggerParsers);
+        iniParser.setRelationParser(relationParser);
+
+        final Map<AchievementType, ITriggerParser> jsonTriggerParsers = new HashMap<>();
+        jsonTriggerParsers.put(AchievementType.SCORE, scoreTriggerParser);
+        jsonTriggerParsers.put(AchievementType.DATE, dateTriggerParser);
+        jsonTriggerParsers.put(AchievementType.TIME, timeTriggerParser);
+        final AchievementJsonParser jsonParser = new AchievementJsonParser();
+        jsonParser.setJsonTriggerParsers(jsonTriggerParsers);
+        jsonParser.setDateProvider(dateProvider);
+        jsonParser.setRelationParser(relationParser);
+
+        final Map<FileType, IAchievementDefinitionFileParser> definitionFileParsers = new HashMap<>();
+        definitionFileParsers.put(FileType.INI, iniParser);
+        definitionFileParsers.put(FileType.JSON, jsonParser);
+        final AchievementDefinitionFileParser parser = new AchievementDefinitionFileParser();
+        parser.setDefinitionFileParsers(definitionFileParsers);
+        return parser;
+    }
+
+    /**
+     * Connects the annotation aspects to the controller when they are woven into the application.
+     * The aspects are compiled by ajc after this class, so they are looked up by name.
+     */
+    private static void bindAspects(final IAchievementController controller) {
+        try {
+            for (String aspectName : ASPECTS) {
+                final Object aspect = Aspects.aspectOf(Class.forName(aspectName));
+                aspect.getClass().getMethod("setAchievementController", IAchievementController.class).invoke(aspect, controller);
+            }
+        } catch (ReflectiveOperationException | NoAspectBoundException e) {
+            LOG.debug("Annotation aspects are not woven, annotation support is disabled", e);
+        }
+    }
+
+    private static void close(final IPersistenceStore store) {
+        if (store instanceof Closeable) {
+            try {
+                ((Closeable) store).close();
+            } catch (IOException e) {
+                LOG.error("Failed to close persistence store", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package net.csongradyp.badger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import net.csongradyp.badger.parser.IAchievementDefinitionFileParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reloads the achievement definition when its file changes. The file is parsed and indexed on the watcher thread,
+ * triggers keep running on the previous definition until the new one is published. A definition which cannot be
+ * parsed is logged and the previous one stays in use.
+ */
+public class DefinitionFileWatcher implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DefinitionFileWatcher.class);
+    static final long QUIET_PERIOD = 200L;
+
+    private final File definitionFile;
+    private final IAchievementDefinitionFileParser parser;
+    private final Consumer<AchievementDefinition> publisher;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    /**
+     * Starts watching the definition file.
+     *
+     * @param definitionFile achievement definition file.
+     * @param parser         parses the changed file.
+     * @param publisher      receives the new definition, e.g. {@link IAchievementController#setAchievementDefinition}.
+     * @throws IOException if the directory of the file cannot be watched.
+     */
+    public DefinitionFileWatcher(final File definitionFile, final IAchievementDefinitionFileParser parser, final Consumer<AchievementDefinition> publisher) throws IOException {
+        this.definitionFile = definitionFile.getAbsoluteFile();
+        this.parser = parser;
+        this.publisher = publisher;
+        watchService = FileSystems.getDefault().newWatchService();
+        this.definitionFile.getParentFile().toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(this::watch, "badger-definition-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void watch() {
+        final Path fileName = definitionFile.toPath().getFileName();
+        try {
+            while (true) {
+                if (isDefinitionChanged(watchService.take(), fileName)) {
+                    awaitQuietPeriod(fileName);
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            LOG.debug("Stopped watching definition file {}", definitionFile);
+        }
+    }
+
+    /**
+     * Editors write a file in several steps, the file is parsed only when no change arrived for {@link #QUIET_PERIOD}.
+     */
+    private void awaitQuietPeriod(final Path fileName) throws InterruptedException {
+        WatchKey key;
+        while ((key = watchService.poll(QUIET_PERIOD, TimeUnit.MILLISECONDS)) != null) {
+            isDefinitionChanged(key, fileName);
+        }
+    }
+
+    private static boolean isDefinitionChanged(final WatchKey key, final Path fileName) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context());
+        }
+        key.reset();
+        return changed;
+    }
+
+    void reload() {
+        if (!definitionFile.isFile()) {
+            return;
+        }
+        try {
+            final AchievementDefinition definition = parser.parse(definitionFile);
+            publisher.accept(definition);
+            LOG.info("Achievement definition reloaded from {}", definitionFile);
+        } catch (RuntimeException e) {
+            LOG.error("Achievement definition {} cannot be reloaded, the previous one stays in use", definitionFile, e);
+        }
+    }
+
+    /**
+     * Stops watching the definition file.
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        thread.interrupt();
+    }
+}
@@ -0,0 +1,30 @@
+package net.csongradyp.badger;
+
+/**
+ * Persistence backends the engine can store event scores and unlocked achievements in.
+ */
+public enum StorageBackend {
+
+    /**
+     * ObjectDB database file {@code badger.db} in the working directory.
+     */
+    OBJECTDB("META-INF/beans.xml"),
+    /**
+     * Append-only log with periodic snapshots in the {@code badger-wal} directory of the working directory.
+     */
+    WAL("META-INF/wal-beans.xml"),
+    /**
+     * Lock-free in-memory store. Scores and unlocked achievements are lost when the application stops.
+     */
+    IN_MEMORY("META-INF/memory-beans.xml");
+
+    private final String contextXmlPath;
+
+    StorageBackend(final String contextXmlPath) {
+        this.contextXmlPath = contextXmlPath;
+    }
+
+    String getContextXmlPath() {
+        return contextXmlPath;
+    }
+}
@@ -0,0 +1,76 @@
+package net.csongradyp.badger.factory;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Locale;
+import net.csongradyp.badger.Unlockable;
+import net.csongradyp.badger.domain.AchievementType;
+import net.csongradyp.badger.domain.IAchievement;
+import net.csongradyp.badger.event.message.AchievementUnlockedEvent;
+import net.csongradyp.badger.provider.date.IDateProvider;
+
+/**
+ * Unlock event created from a stored {@link Unlockable}.
+ * It keeps the achievement and the raw trigger value only; the localized title and text and the trigger value string
+ * are resolved on first access, so handlers reading only the id do not pay for them.
+ */
+final class DeferredAchievementUnlockedEvent extends AchievementUnlockedEvent {
+
+    private final IAchievement achievement;
+    private final long triggerValue;
+    private final UnlockMessageCache messageCache;
+    private final Locale locale;
+    private final IDateProvider dateProvider;
+    private volatile UnlockMessage message;
+    private volatile String triggerValueString;
+
+    DeferredAchievementUnlockedEvent(final Unlockable unlockable, final UnlockMessageCache messageCache, final Locale locale, final IDateProvider dateProvider) {
+        super(unlockable.getId(), unlockable.getAchievement().getCategory(), new Date(dateProvider.currentTimeMillis()), unlockable.getLevel(), new HashSet<>(unlockable.getOwners()));
+        achievement = unlockable.getAchievement();
+        triggerValue = unlockable.getTriggerValue();
+        this.messageCache = messageCache;
+        this.locale = locale;
+        this.dateProvider = dateProvider;
+    }
+
+    @Override
+    public String getTitle() {
+        return message().getTitle();
+    }
+
+    @Override
+    public String getText() {
+        return message().getText();
+    }
+
+    private UnlockMessage message() {
+        UnlockMessage resolved = message;
+        if (resolved == null) {
+            resolved = messageCache.get(achievement, locale);
+            message = resolved;
+        }
+        return resolved;
+    }
+
+    @Override
+    public String getTriggerValue() {
+        String resolved = triggerValueString;
+        if (resolved == null) {
+            resolved = format(achievement.getType(), triggerValue);
+            triggerValueString = resolved;
+        }
+        return resolved;
+    }
+
+    private String format(final AchievementType type, final long value) {
+        switch (type) {
+            case TIME:
+            case TIME_RANGE:
+                return dateProvider.getTime(new Date(value));
+            case DATE:
+                return dateProvider.getDate(new Date(value));
+            default:
+                return String.valueOf(value);
+        }
+    }
+}
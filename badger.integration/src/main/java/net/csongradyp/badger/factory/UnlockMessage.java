@@ -0,0 +1,23 @@
+package net.csongradyp.badger.factory;
+
+/**
+ * Title and description of an achievement resolved for one locale.
+ */
+public final class UnlockMessage {
+
+    private final String title;
+    private final String text;
+
+    public UnlockMessage(final String title, final String text) {
+        this.title = title;
+        this.text = text;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
@@ -0,0 +1,107 @@
+package net.csongradyp.badger.factory;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import net.csongradyp.badger.domain.IAchievement;
+
+/**
+ * Localized achievement messages cached by locale and achievement id.
+ * Title and text keys are looked up in the resource bundle only once per locale and achievement, so unlocks can be
+ * rendered in several locales at the same time without swapping a shared bundle. A cache never changes its message
+ * source; a new cache is created instead.
+ */
+public final class UnlockMessageCache {
+
+    private final String baseName;
+    private final ResourceBundle resourceBundle;
+    private final ConcurrentMap<Locale, LocaleMessages> messagesByLocale = new ConcurrentHashMap<>();
+
+    private UnlockMessageCache(final String baseName, final ResourceBundle resourceBundle) {
+        this.baseName = baseName;
+        this.resourceBundle = resourceBundle;
+    }
+
+    /**
+     * @param baseName i18n properties file base name, bundles are loaded for every requested locale.
+     */
+    public static UnlockMessageCache forBaseName(final String baseName) {
+        return new UnlockMessageCache(baseName, null);
+    }
+
+    /**
+     * @param resourceBundle bundle used for every locale. Without bundle the i18n keys are returned as messages.
+     */
+    public static UnlockMessageCache forResourceBundle(final ResourceBundle resourceBundle) {
+        return new UnlockMessageCache(null, resourceBundle);
+    }
+
+    /**
+     * @param achievement achievement to look up.
+     * @param locale      language of the messages.
+     * @return title and text of the achievement in the given locale.
+     * @throws java.util.MissingResourceException if the bundle does not contain the title or text key.
+     */
+    public UnlockMessage get(final IAchievement achievement, final Locale locale) {
+        LocaleMessages messages = messagesByLocale.get(locale);
+        if (messages == null) {
+            messages = messagesByLocale.computeIfAbsent(locale, this::load);
+        }
+        return messages.get(achievement);
+    }
+
+    /**
+     * Resolves the messages of the given achievements ahead of the first unlock.
+     */
+    public void preload(final Collection<IAchievement> achievements, final Locale locale) {
+        achievements.forEach(achievement -> get(achievement, locale));
+    }
+
+    /**
+     * @return {@code true} if the messages are loaded from bundles of the given base name.
+     */
+    public boolean isBaseName(final String baseName) {
+        return baseName != null && baseName.equals(this.baseName);
+    }
+
+    /**
+     * @return new empty cache with the same message source.
+     */
+    public UnlockMessageCache emptyCopy() {
+        return new UnlockMessageCache(baseName, resourceBundle);
+    }
+
+    private LocaleMessages load(final Locale locale) {
+        if (resourceBundle != null) {
+            return new LocaleMessages(resourceBundle);
+        }
+        return new LocaleMessages(baseName == null ? null : ResourceBundle.getBundle(baseName, locale));
+    }
+
+    private static final class LocaleMessages {
+
+        private final ResourceBundle bundle;
+        private final ConcurrentMap<String, UnlockMessage> messagesById = new ConcurrentHashMap<>();
+
+        private LocaleMessages(final ResourceBundle bundle) {
+            this.bundle = bundle;
+        }
+
+        private UnlockMessage get(final IAchievement achievement) {
+            final UnlockMessage message = messagesById.get(achievement.getId());
+            if (message != null) {
+                return message;
+            }
+            return messagesById.computeIfAbsent(achievement.getId(), id -> resolve(achievement));
+        }
+
+        private UnlockMessage resolve(final IAchievement achievement) {
+            if (bundle == null) {
+                return new UnlockMessage(achievement.getTitleKey(), achievement.getTextKey());
+            }
+            return new UnlockMessage(bundle.getString(achievement.getTitleKey()), bundle.getString(achievement.getTextKey()));
+        }
+    }
+}
@@ -2,11 +2,16 @@ package net.csongradyp.badger.factory;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Locale;
 import java.util.ResourceBundle;
+import javax.inject.Inject;
 import javax.inject.Named;
+import net.csongradyp.badger.Unlockable;
 import net.csongradyp.badger.domain.IAchievement;
 import net.csongradyp.badger.domain.IAchievementBean;
+import net.csongradyp.badger.event.IAchievementUnlockedEvent;
 import net.csongradyp.badger.event.message.AchievementUnlockedEvent;
+import net.csongradyp.badger.provider.date.IDateProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,7 +20,21 @@ public class UnlockedEventFactory {
 
     private static final Logger LOG = LoggerFactory.getLogger(UnlockedEventFactory.class);
 
-    private ResourceBundle resourceBundle;
+    @Inject
+    private IDateProvider dateProvider;
+    private volatile UnlockMessageCache messageCache = UnlockMessageCache.forResourceBundle(null);
+    private volatile Locale locale = Locale.ENGLISH;
+
+    /**
+     * Creates the event of a stored unlock. Messages and the trigger value string are resolved when first read.
+     *
+     * @param unlockable unlocked achievement level.
+     * @return unlock event in the current locale.
+     */
+    public AchievementUnlockedEvent createEvent(final Unlockable unlockable) {
+        LOG.info("Achievement created with id: {} level: {}", unlockable.getId(), unlockable.getLevel());
+        return new DeferredAchievementUnlockedEvent(unlockable, messageCache, locale, dateProvider);
+    }
 
     public AchievementUnlockedEvent createEvent(final IAchievementBean achievementBean, final Integer level, final Long triggeredValue) {
         final AchievementUnlockedEvent achievementUnlockedEvent = createEvent(achievementBean, String.valueOf(triggeredValue));
@@ -39,23 +58,62 @@ public class UnlockedEventFactory {
     }
 
     public AchievementUnlockedEvent createEvent(final IAchievement achievementBean, final String triggeredValue) {
-        final String title;
-        final String text;
-        if (resourceBundle != null) {
-            title = resourceBundle.getString(achievementBean.getTitleKey());
-            text = resourceBundle.getString(achievementBean.getTextKey());
-        } else {
-            title = achievementBean.getTitleKey();
-            text = achievementBean.getTextKey();
-        }
+        return createEvent(achievementBean, triggeredValue, locale);
+    }
+
+    public AchievementUnlockedEvent createEvent(final IAchievement achievementBean, final String triggeredValue, final Locale locale) {
+        final UnlockMessage message = messageCache.get(achievementBean, locale);
         LOG.info("Achievement created with id: {}", achievementBean.getId());
-        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(achievementBean.getId(), title, text, triggeredValue);
+        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(achievementBean.getId(), message.getTitle(), message.getText(), triggeredValue);
         unlockedEvent.setCategory(achievementBean.getCategory());
         return unlockedEvent;
     }
 
+    /**
+     * Renders an unlocked event in another language.
+     *
+     * @param event       unlocked event of the given achievement.
+     * @param achievement unlocked achievement.
+     * @param locale      language of the title and description.
+     * @return copy of the event with localized title and description.
+     */
+    public AchievementUnlockedEvent localize(final IAchievementUnlockedEvent event, final IAchievement achievement, final Locale locale) {
+        final UnlockMessage message = messageCache.get(achievement, locale);
+        return new AchievementUnlockedEvent(event, message.getTitle(), message.getText());
+    }
+
+    /**
+     * Uses the given bundle for every locale.
+     */
+    public void setDateProvider(final IDateProvider dateProvider) {
+        this.dateProvider = dateProvider;
+    }
+
     public void setResourceBundle(final ResourceBundle resourceBundle) {
-        this.resourceBundle = resourceBundle;
+        messageCache = UnlockMessageCache.forResourceBundle(resourceBundle);
+    }
+
+    /**
+     * Loads the bundles of the given base name per locale. Cached messages are kept if the base name is already used.
+     */
+    public void setInternationalizationBaseName(final String baseName) {
+        if (!messageCache.isBaseName(baseName)) {
+            messageCache = UnlockMessageCache.forBaseName(baseName);
+        }
+    }
+
+    /**
+     * Sets the language of created unlock events.
+     */
+    public void setLocale(final Locale locale) {
+        this.locale = locale;
+    }
+
+    /**
+     * Drops the cached messages, e.g. after the achievement definition was replaced.
+     */
+    public void clearMessages() {
+        messageCache = messageCache.emptyCopy();
     }
 
 }
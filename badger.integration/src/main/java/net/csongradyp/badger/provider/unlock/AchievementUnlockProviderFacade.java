@@ -1,31 +1,76 @@
 package net.csongradyp.badger.provider.unlock;
 
+import net.csongradyp.badger.AchievementBundle;
 import net.csongradyp.badger.AchievementDefinition;
 import net.csongradyp.badger.IAchievementUnlockFinderFacade;
+import net.csongradyp.badger.Unlockable;
 import net.csongradyp.badger.domain.AchievementType;
 import net.csongradyp.badger.domain.IAchievement;
-import net.csongradyp.badger.event.IAchievementUnlockedEvent;
+import net.csongradyp.badger.persistence.AchievementDao;
 import net.csongradyp.badger.persistence.EventDao;
+import net.csongradyp.badger.provider.date.IDateProvider;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
 import javax.inject.Named;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Named
 public class AchievementUnlockProviderFacade implements IAchievementUnlockFinderFacade {
 
+    private static final EnumSet<AchievementType> CLOCK_DEPENDENT_TYPES = EnumSet.of(AchievementType.TIME, AchievementType.TIME_RANGE, AchievementType.DATE, AchievementType.COMPOSITE);
+
     @Inject
     private EventDao eventDao;
+    @Inject
+    private AchievementDao achievementDao;
+    @Inject
+    private IDateProvider dateProvider;
     @Resource(name = "unlockedProviders")
     private Map<AchievementType, IUnlockedProvider<IAchievement>> unlockedProviders;
-    private AchievementDefinition achievementDefinition;
+    private volatile Snapshot snapshot = new Snapshot(new AchievementBundle());
+    private final Set<String> changedEvents = ConcurrentHashMap.newKeySet();
+    private boolean fullCheckPending = true;
+    private long lastCheckedMinute;
+
+    @Override
+    public synchronized Collection<Unlockable> findAll() {
+        changedEvents.clear();
+        fullCheckPending = false;
+        lastCheckedMinute = currentMinute();
+        return findUnlockables(snapshot.definition.getAll());
+    }
 
     @Override
-    public Collection<IAchievementUnlockedEvent> findAll() {
-        final Collection<IAchievementUnlockedEvent> unlockables = new ArrayList<>();
-        achievementDefinition.getAll().stream().forEach(achievementBean -> {
-            final Optional<IAchievementUnlockedEvent> achievement = getUnlockable(achievementBean);
+    public synchronized Collection<Unlockable> findChanged() {
+        if (fullCheckPending) {
+            return findAll();
+        }
+        final Snapshot current = snapshot;
+        final Set<IAchievement> affected = new LinkedHashSet<>();
+        final Iterator<String> changed = changedEvents.iterator();
+        while (changed.hasNext()) {
+            affected.addAll(current.definition.getAchievementsSubscribedFor(changed.next()));
+            changed.remove();
+        }
+        final long minute = currentMinute();
+        if (minute != lastCheckedMinute) {
+            affected.addAll(current.clockDependent);
+            if (current.rangeTriggerIndex.hasTimeRanges()) {
+                affected.addAll(current.rangeTriggerIndex.timeRangesContaining(dateProvider.currentReading().getMinuteOfDay()));
+            }
+            lastCheckedMinute = minute;
+        }
+        return affected.isEmpty() ? Collections.emptyList() : findUnlockables(affected);
+    }
+
+    private Collection<Unlockable> findUnlockables(final Collection<IAchievement> achievementBeans) {
+        final Collection<Unlockable> unlockables = new ArrayList<>();
+        achievementBeans.forEach(achievementBean -> {
+            final Optional<Unlockable> achievement = getUnlockable(achievementBean);
             if (achievement.isPresent()) {
                 unlockables.add(achievement.get());
             }
@@ -33,45 +78,90 @@ public class AchievementUnlockProviderFacade implements IAchievementUnlockFinder
         return unlockables;
     }
 
+    private long currentMinute() {
+        return TimeUnit.MILLISECONDS.toMinutes(dateProvider.currentTimeMillis());
+    }
+
     @Override
-    public Collection<IAchievementUnlockedEvent> findUnlockables(final String event) {
+    public Collection<Unlockable> findUnlockables(final String event) {
         final Long currentValue = eventDao.scoreOf(event);
         return findUnlockables(event, currentValue);
     }
 
     @Override
-    public Collection<IAchievementUnlockedEvent> findUnlockables(final String event, final Long newScore) {
+    public Collection<Unlockable> findUnlockables(final String event, final Long newScore) {
         return findUnlockables(event, newScore, Collections.emptySet());
     }
 
     @Override
-    public Collection<IAchievementUnlockedEvent> findUnlockables(final String event, final Collection<String> owners) {
+    public Collection<Unlockable> findUnlockables(final String event, final Collection<String> owners) {
         final Long currentValue = eventDao.scoreOf(event);
         return findUnlockables(event, currentValue, owners);
     }
 
     @Override
-    public Collection<IAchievementUnlockedEvent> findUnlockables(final String event, final Long score, final Collection<String> owners) {
-        final Collection<IAchievementUnlockedEvent> unlockables = new ArrayList<>();
-        final Collection<IAchievement> achievementBeans = achievementDefinition.getAchievementsSubscribedFor(event);
+    public Collection<Unlockable> findUnlockables(final String event, final Long score, final Collection<String> owners) {
+        final Snapshot current = snapshot;
+        final Collection<Unlockable> unlockables = new ArrayList<>();
+        final Collection<IAchievement> achievementBeans = current.definition.getAchievementsSubscribedFor(event);
         for (IAchievement achievementBean : achievementBeans) {
-            final Optional<IAchievementUnlockedEvent> achievement = getUnlockable(achievementBean, score);
-            if (achievement.isPresent()) {
-                final IAchievementUnlockedEvent toUnlock = achievement.get();
-                toUnlock.addOwners(owners);
-                unlockables.add(toUnlock);
+            if (!RangeTriggerIndex.isIndexed(achievementBean)) {
+                addUnlockable(achievementBean, score, owners, unlockables);
             }
         }
+        addUnlockables(current.rangeTriggerIndex.scoreRangesContaining(event, score), score, owners, unlockables);
+        addUnlockables(timeRangesContaining(current, event), score, owners, unlockables);
+        return unlockables;
+    }
+
+    @Override
+    public Collection<Unlockable> findUnlockables(final String event, final Long previousScore, final Long score, final Collection<String> owners) {
+        changedEvents.add(event);
+        final Snapshot current = snapshot;
+        final Collection<IAchievement> scores = current.scoreThresholdIndex.affected(event, previousScore, score, achievementDao::isUnlocked);
+        final Collection<IAchievement> scoreRanges = current.rangeTriggerIndex.scoreRangesContaining(event, score);
+        final Collection<IAchievement> timeRanges = timeRangesContaining(current, event);
+        final List<IAchievement> notIndexed = current.notIndexedByEvent.getOrDefault(event, Collections.emptyList());
+        if (scores.isEmpty() && scoreRanges.isEmpty() && timeRanges.isEmpty() && notIndexed.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final Collection<Unlockable> unlockables = new ArrayList<>();
+        addUnlockables(scores, score, owners, unlockables);
+        addUnlockables(scoreRanges, score, owners, unlockables);
+        addUnlockables(timeRanges, score, owners, unlockables);
+        addUnlockables(notIndexed, score, owners, unlockables);
         return unlockables;
     }
 
-    private Optional<IAchievementUnlockedEvent> getUnlockable(final IAchievement achievementBean, final Long currentValue) {
+    private Collection<IAchievement> timeRangesContaining(final Snapshot current, final String event) {
+        if (!current.rangeTriggerIndex.hasTimeRanges(event)) {
+            return Collections.emptyList();
+        }
+        return current.rangeTriggerIndex.timeRangesContaining(event, dateProvider.currentReading().getMinuteOfDay());
+    }
+
+    private void addUnlockables(final Collection<IAchievement> achievementBeans, final Long score, final Collection<String> owners, final Collection<Unlockable> unlockables) {
+        for (IAchievement achievementBean : achievementBeans) {
+            addUnlockable(achievementBean, score, owners, unlockables);
+        }
+    }
+
+    private void addUnlockable(final IAchievement achievementBean, final Long score, final Collection<String> owners, final Collection<Unlockable> unlockables) {
+        final Optional<Unlockable> achievement = getUnlockable(achievementBean, score);
+        if (achievement.isPresent()) {
+            final Unlockable toUnlock = achievement.get();
+            toUnlock.addOwners(owners);
+            unlockables.add(toUnlock);
+        }
+    }
+
+    private Optional<Unlockable> getUnlockable(final IAchievement achievementBean, final Long currentValue) {
         final IUnlockedProvider<IAchievement> unlockedProvider = unlockedProviders.get(achievementBean.getType());
         return unlockedProvider.getUnlockable(achievementBean, currentValue);
     }
 
     @Override
-    public Optional<IAchievementUnlockedEvent> getUnlockable(final IAchievement achievementBean) {
+    public Optional<Unlockable> getUnlockable(final IAchievement achievementBean) {
         final Long bestScore = getBestScoreOf(achievementBean.getSubscriptions());
         return getUnlockable(achievementBean, bestScore);
     }
@@ -87,15 +177,58 @@ public class AchievementUnlockProviderFacade implements IAchievementUnlockFinder
         return bestScore;
     }
 
+    /**
+     * Builds the indexes of the definition on the calling thread and publishes them at once. Lookups which are already
+     * running finish on the previous definition.
+     *
+     * @param achievementDefinition definition to look up unlockable achievements in.
+     */
     public void setAchievementDefinition(final AchievementDefinition achievementDefinition) {
-        this.achievementDefinition = achievementDefinition;
+        final Snapshot indexed = new Snapshot(achievementDefinition);
+        synchronized (this) {
+            snapshot = indexed;
+            changedEvents.clear();
+            fullCheckPending = true;
+        }
     }
 
-    void setEventDao(final EventDao eventDao) {
+    public void setEventDao(final EventDao eventDao) {
         this.eventDao = eventDao;
     }
 
-    void setUnlockedProviders(final Map<AchievementType, IUnlockedProvider<IAchievement>> unlockedProviders) {
+    public void setAchievementDao(final AchievementDao achievementDao) {
+        this.achievementDao = achievementDao;
+    }
+
+    public void setDateProvider(final IDateProvider dateProvider) {
+        this.dateProvider = dateProvider;
+    }
+
+    public void setUnlockedProviders(final Map<AchievementType, IUnlockedProvider<IAchievement>> unlockedProviders) {
         this.unlockedProviders = unlockedProviders;
     }
+
+    /**
+     * Definition together with its indexes, replaced as a whole when the definition changes.
+     */
+    private static final class Snapshot {
+
+        private final AchievementDefinition definition;
+        private final ScoreThresholdIndex scoreThresholdIndex;
+        private final RangeTriggerIndex rangeTriggerIndex;
+        private final Map<String, List<IAchievement>> notIndexedByEvent = new HashMap<>();
+        private final List<IAchievement> clockDependent;
+
+        private Snapshot(final AchievementDefinition definition) {
+            this.definition = definition;
+            definition.getAllByEvents().forEach((event, achievements) -> notIndexedByEvent.put(event, achievements.stream()
+                    .filter(achievement -> !ScoreThresholdIndex.isIndexed(achievement) && !RangeTriggerIndex.isIndexed(achievement))
+                    .collect(Collectors.toList())));
+            scoreThresholdIndex = new ScoreThresholdIndex(definition);
+            rangeTriggerIndex = new RangeTriggerIndex(definition);
+            clockDependent = definition.getAll().stream()
+                    .filter(achievement -> CLOCK_DEPENDENT_TYPES.contains(achievement.getType()) && !RangeTriggerIndex.isIndexed(achievement))
+                    .collect(Collectors.toList());
+        }
+    }
 }
@@ -1,10 +1,10 @@
 package net.csongradyp.badger.provider.unlock;
 
 import java.util.Optional;
+import net.csongradyp.badger.Unlockable;
 import net.csongradyp.badger.domain.IAchievement;
-import net.csongradyp.badger.event.IAchievementUnlockedEvent;
 
 public interface IUnlockedProvider<TYPE extends IAchievement> {
 
-    Optional<IAchievementUnlockedEvent> getUnlockable(TYPE achievement, Long score);
+    Optional<Unlockable> getUnlockable(TYPE achievement, Long score);
 }
@@ -0,0 +1,247 @@
+package net.csongradyp.badger.provider.unlock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import net.csongradyp.badger.AchievementDefinition;
+import net.csongradyp.badger.domain.IAchievement;
+import net.csongradyp.badger.domain.achievement.ScoreRangeAchievementBean;
+import net.csongradyp.badger.domain.achievement.TimeRangeAchievementBean;
+import net.csongradyp.badger.domain.achievement.trigger.ScoreTriggerPair;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTriggerPair;
+
+/**
+ * Interval trees of score range and time range triggers by event.
+ * Answers which range achievements contain a given score or minute of the day in {@code O(log n + k)}.
+ * Ranges wrapping around (start after end) are split into two intervals when the index is built. A time range starting
+ * and ending in the same minute is split around that minute.
+ */
+class RangeTriggerIndex {
+
+    private static final long LAST_MINUTE_OF_DAY = TimeUnit.DAYS.toMinutes(1) - 1;
+
+    private final Map<String, IntervalTree> scoreRangesByEvent = new HashMap<>();
+    private final Map<String, IntervalTree> timeRangesByEvent = new HashMap<>();
+    private final IntervalTree timeRanges;
+
+    RangeTriggerIndex() {
+        timeRanges = null;
+    }
+
+    RangeTriggerIndex(final AchievementDefinition achievementDefinition) {
+        achievementDefinition.getAllByEvents().forEach((event, achievements) -> {
+            final List<Interval> scoreIntervals = new ArrayList<>();
+            final List<Interval> timeIntervals = new ArrayList<>();
+            for (IAchievement achievement : achievements) {
+                collectScoreIntervals(achievement, scoreIntervals);
+                collectTimeIntervals(achievement, timeIntervals);
+            }
+            if (!scoreIntervals.isEmpty()) {
+                scoreRangesByEvent.put(event, IntervalTree.build(scoreIntervals));
+            }
+            if (!timeIntervals.isEmpty()) {
+                timeRangesByEvent.put(event, IntervalTree.build(timeIntervals));
+            }
+        });
+        final List<Interval> timeIntervals = new ArrayList<>();
+        for (IAchievement achievement : achievementDefinition.getAll()) {
+            collectTimeIntervals(achievement, timeIntervals);
+        }
+        timeRanges = IntervalTree.build(timeIntervals);
+    }
+
+    private void collectScoreIntervals(final IAchievement achievement, final List<Interval> intervals) {
+        if (achievement instanceof ScoreRangeAchievementBean) {
+            for (ScoreTriggerPair trigger : ((ScoreRangeAchievementBean) achievement).getTrigger()) {
+                final long start = trigger.getStartTrigger();
+                final long end = trigger.getEndTrigger();
+                if (start < end) {
+                    intervals.add(new Interval(start, end, achievement));
+                } else {
+                    if (end > Long.MIN_VALUE) {
+                        intervals.add(new Interval(Long.MIN_VALUE, end - 1, achievement));
+                    }
+                    if (start < Long.MAX_VALUE) {
+                        intervals.add(new Interval(start + 1, Long.MAX_VALUE, achievement));
+                    }
+                }
+            }
+        }
+    }
+
+    private void collectTimeIntervals(final IAchievement achievement, final List<Interval> intervals) {
+        if (achievement instanceof TimeRangeAchievementBean) {
+            for (TimeTriggerPair trigger : ((TimeRangeAchievementBean) achievement).getTrigger()) {
+                final int start = trigger.getStartMinute();
+                final int end = trigger.getEndMinute();
+                if (start < end) {
+                    intervals.add(new Interval(start, end, achievement));
+                } else if (start == end) {
+                    if (start > 0) {
+                        intervals.add(new Interval(0, start - 1, achievement));
+                    }
+                    if (start < LAST_MINUTE_OF_DAY) {
+                        intervals.add(new Interval(start + 1, LAST_MINUTE_OF_DAY, achievement));
+                    }
+                } else {
+                    intervals.add(new Interval(start, LAST_MINUTE_OF_DAY, achievement));
+                    intervals.add(new Interval(0, end, achievement));
+                }
+            }
+        }
+    }
+
+    /**
+     * @param achievement achievement to check.
+     * @return {@code true} if the achievement is a range achievement covered by this index.
+     */
+    static boolean isIndexed(final IAchievement achievement) {
+        return achievement instanceof ScoreRangeAchievementBean || achievement instanceof TimeRangeAchievementBean;
+    }
+
+    /**
+     * @param event name of the event.
+     * @param score counter value to check.
+     * @return score range achievements of the event with a range containing the given score.
+     */
+    Collection<IAchievement> scoreRangesContaining(final String event, final long score) {
+        return containing(scoreRangesByEvent.get(event), score);
+    }
+
+    /**
+     * @param event name of the event.
+     * @return {@code true} if the event has subscribed time range achievements.
+     */
+    boolean hasTimeRanges(final String event) {
+        return timeRangesByEvent.containsKey(event);
+    }
+
+    /**
+     * @param event       name of the event.
+     * @param minuteOfDay minute of the day to check.
+     * @return time range achievements of the event with a range containing the given minute.
+     */
+    Collection<IAchievement> timeRangesContaining(final String event, final int minuteOfDay) {
+        return containing(timeRangesByEvent.get(event), minuteOfDay);
+    }
+
+    /**
+     * @return {@code true} if the definition has time range achievements.
+     */
+    boolean hasTimeRanges() {
+        return timeRanges != null;
+    }
+
+    /**
+     * @param minuteOfDay minute of the day to check.
+     * @return time range achievements of every event with a range containing the given minute.
+     */
+    Collection<IAchievement> timeRangesContaining(final int minuteOfDay) {
+        return containing(timeRanges, minuteOfDay);
+    }
+
+    private static Collection<IAchievement> containing(final IntervalTree tree, final long point) {
+        if (tree == null) {
+            return Collections.emptyList();
+        }
+        final Set<IAchievement> containing = new LinkedHashSet<>();
+        tree.stab(point, containing);
+        return containing;
+    }
+
+    /**
+     * Centered interval tree. Every node keeps the intervals containing its center sorted by start and by end, the
+     * intervals entirely before and after the center are stored in the left and right subtrees.
+     */
+    private static final class IntervalTree {
+
+        private final long center;
+        private final Interval[] byStart;
+        private final Interval[] byEnd;
+        private final IntervalTree left;
+        private final IntervalTree right;
+
+        private IntervalTree(final long center, final List<Interval> overlapping, final IntervalTree left, final IntervalTree right) {
+            this.center = center;
+            byStart = overlapping.toArray(new Interval[overlapping.size()]);
+            Arrays.sort(byStart, Comparator.comparingLong(interval -> interval.start));
+            byEnd = overlapping.toArray(new Interval[overlapping.size()]);
+            Arrays.sort(byEnd, Comparator.comparingLong((Interval interval) -> interval.end).reversed());
+            this.left = left;
+            this.right = right;
+        }
+
+        private static IntervalTree build(final List<Interval> intervals) {
+            if (intervals.isEmpty()) {
+                return null;
+            }
+            final long center = medianEndpoint(intervals);
+            final List<Interval> before = new ArrayList<>();
+            final List<Interval> after = new ArrayList<>();
+            final List<Interval> overlapping = new ArrayList<>();
+            for (Interval interval : intervals) {
+                if (interval.end < center) {
+                    before.add(interval);
+                } else if (interval.start > center) {
+                    after.add(interval);
+                } else {
+                    overlapping.add(interval);
+                }
+            }
+            return new IntervalTree(center, overlapping, build(before), build(after));
+        }
+
+        private static long medianEndpoint(final List<Interval> intervals) {
+            final long[] endpoints = new long[intervals.size() * 2];
+            for (int i = 0; i < intervals.size(); i++) {
+                endpoints[2 * i] = intervals.get(i).start;
+                endpoints[2 * i + 1] = intervals.get(i).end;
+            }
+            Arrays.sort(endpoints);
+            return endpoints[intervals.size()];
+        }
+
+        private void stab(final long point, final Collection<IAchievement> containing) {
+            IntervalTree node = this;
+            while (node != null) {
+                if (point < node.center) {
+                    for (int i = 0; i < node.byStart.length && node.byStart[i].start <= point; i++) {
+                        containing.add(node.byStart[i].achievement);
+                    }
+                    node = node.left;
+                } else if (point > node.center) {
+                    for (int i = 0; i < node.byEnd.length && node.byEnd[i].end >= point; i++) {
+                        containing.add(node.byEnd[i].achievement);
+                    }
+                    node = node.right;
+                } else {
+                    for (Interval interval : node.byStart) {
+                        containing.add(interval.achievement);
+                    }
+                    node = null;
+                }
+            }
+        }
+    }
+
+    private static final class Interval {
+
+        private final long start;
+        private final long end;
+        private final IAchievement achievement;
+
+        private Interval(final long start, final long end, final IAchievement achievement) {
+            this.start = start;
+            this.end = end;
+            this.achievement = achievement;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package net.csongradyp.badger.provider.unlock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import net.csongradyp.badger.AchievementDefinition;
+import net.csongradyp.badger.domain.IAchievement;
+import net.csongradyp.badger.domain.achievement.ScoreAchievementBean;
+import net.csongradyp.badger.domain.achievement.trigger.ScoreTrigger;
+
+/**
+ * Sorted index of score trigger thresholds by event.
+ * Equals triggers change their result only at their thresholds, so they have to be evaluated only when a threshold lies
+ * between the previous and the current counter value (both inclusive). Greater than triggers are evaluated while the
+ * counter is not below their threshold and their level is still locked, so a level which was not unlocked at the
+ * crossing, e.g. because it was added by a reload or its unlock failed, is unlocked by the next change. Less than
+ * triggers may already hold for the first counter value, so they are evaluated whenever the counter is not above their
+ * threshold. Score ranges are looked up by {@link RangeTriggerIndex}.
+ */
+class ScoreThresholdIndex {
+
+    private final Map<String, EventThresholds> thresholdsByEvent = new HashMap<>();
+
+    ScoreThresholdIndex() {
+    }
+
+    ScoreThresholdIndex(final AchievementDefinition achievementDefinition) {
+        achievementDefinition.getAllByEvents().forEach((event, achievements) -> {
+            final List<Threshold> crossingThresholds = new ArrayList<>();
+            final List<Threshold> lowerBounds = new ArrayList<>();
+            final List<Threshold> upperBounds = new ArrayList<>();
+            for (IAchievement achievement : achievements) {
+                collectThresholds(achievement, crossingThresholds, lowerBounds, upperBounds);
+            }
+            if (!crossingThresholds.isEmpty() || !lowerBounds.isEmpty() || !upperBounds.isEmpty()) {
+                thresholdsByEvent.put(event, new EventThresholds(new SortedThresholds(crossingThresholds), new SortedThresholds(lowerBounds), new SortedThresholds(upperBounds)));
+            }
+        });
+    }
+
+    private void collectThresholds(final IAchievement achievement, final List<Threshold> crossingThresholds, final List<Threshold> lowerBounds, final List<Threshold> upperBounds) {
+        if (achievement instanceof ScoreAchievementBean) {
+            final List<ScoreTrigger> triggers = ((ScoreAchievementBean) achievement).getTrigger();
+            for (int i = 0; i < triggers.size(); i++) {
+                final ScoreTrigger trigger = triggers.get(i);
+                final Threshold threshold = new Threshold(trigger.getTrigger(), i + 1, achievement);
+                switch (trigger.getOperation()) {
+                    case LESS_THAN:
+                        upperBounds.add(threshold);
+                        break;
+                    case GREATER_THAN:
+                        lowerBounds.add(threshold);
+                        break;
+                    default:
+                        crossingThresholds.add(threshold);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param achievement achievement to check.
+     * @return {@code true} if the result of the achievement triggers are covered by this index.
+     */
+    static boolean isIndexed(final IAchievement achievement) {
+        return achievement instanceof ScoreAchievementBean;
+    }
+
+    /**
+     * Returns the indexed achievements of the given event which may be unlocked by the change: the ones with an equals
+     * threshold between the two values and the ones with a greater than or less than trigger holding for the current
+     * value. Greater than triggers of unlocked levels are skipped.
+     *
+     * @param event         name of the event.
+     * @param previousScore counter value before the change.
+     * @param score         counter value after the change.
+     * @param isUnlocked    tells whether the given level of the achievement with the given id is unlocked.
+     * @return achievements to evaluate, empty when none of them may be unlocked.
+     */
+    Collection<IAchievement> affected(final String event, final long previousScore, final long score, final BiPredicate<String, Integer> isUnlocked) {
+        final EventThresholds eventThresholds = thresholdsByEvent.get(event);
+        if (eventThresholds == null) {
+            return Collections.emptyList();
+        }
+        final Set<IAchievement> affected = new LinkedHashSet<>();
+        eventThresholds.crossing.collectBetween(Math.min(previousScore, score), Math.max(previousScore, score), affected);
+        eventThresholds.lowerBounds.collectLockedBetween(Long.MIN_VALUE, score, isUnlocked, affected);
+        eventThresholds.upperBounds.collectBetween(score, Long.MAX_VALUE, affected);
+        return affected.isEmpty() ? Collections.emptyList() : affected;
+    }
+
+    private static final class EventThresholds {
+
+        private final SortedThresholds crossing;
+        private final SortedThresholds lowerBounds;
+        private final SortedThresholds upperBounds;
+
+        private EventThresholds(final SortedThresholds crossing, final SortedThresholds lowerBounds, final SortedThresholds upperBounds) {
+            this.crossing = crossing;
+            this.lowerBounds = lowerBounds;
+            this.upperBounds = upperBounds;
+        }
+    }
+
+    private static final class SortedThresholds {
+
+        private final long[] values;
+        private final int[] levels;
+        private final IAchievement[] achievements;
+
+        private SortedThresholds(final List<Threshold> thresholds) {
+            thresholds.sort(Comparator.comparingLong(threshold -> threshold.value));
+            values = new long[thresholds.size()];
+            levels = new int[thresholds.size()];
+            achievements = new IAchievement[thresholds.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = thresholds.get(i).value;
+                levels[i] = thresholds.get(i).level;
+                achievements[i] = thresholds.get(i).achievement;
+            }
+        }
+
+        private void collectBetween(final long from, final long to, final Collection<IAchievement> collected) {
+            for (int i = firstIndexNotLessThan(from); i < values.length && values[i] <= to; i++) {
+                collected.add(achievements[i]);
+            }
+        }
+
+        private void collectLockedBetween(final long from, final long to, final BiPredicate<String, Integer> isUnlocked, final Collection<IAchievement> collected) {
+            for (int i = firstIndexNotLessThan(from); i < values.length && values[i] <= to; i++) {
+                if (!isUnlocked.test(achievements[i].getId(), levels[i])) {
+                    collected.add(achievements[i]);
+                }
+            }
+        }
+
+        private int firstIndexNotLessThan(final long value) {
+            final int index = Arrays.binarySearch(values, value);
+            if (index < 0) {
+                return -index - 1;
+            }
+            int first = index;
+            while (first > 0 && values[first - 1] == value) {
+                first--;
+            }
+            return first;
+        }
+    }
+
+    private static final class Threshold {
+
+        private final long value;
+        private final int level;
+        private final IAchievement achievement;
+
+        private Threshold(final long value, final int level, final IAchievement achievement) {
+            this.value = value;
+            this.level = level;
+            this.achievement = achievement;
+        }
+    }
+}
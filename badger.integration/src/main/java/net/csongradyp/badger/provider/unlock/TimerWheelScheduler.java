@@ -0,0 +1,270 @@
+package net.csongradyp.badger.provider.unlock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import net.csongradyp.badger.AchievementDefinition;
+import net.csongradyp.badger.Unlockable;
+import net.csongradyp.badger.domain.IAchievement;
+import net.csongradyp.badger.domain.achievement.DateAchievementBean;
+import net.csongradyp.badger.domain.achievement.TimeAchievementBean;
+import net.csongradyp.badger.domain.achievement.TimeRangeAchievementBean;
+import net.csongradyp.badger.domain.achievement.trigger.DateTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTriggerPair;
+import net.csongradyp.badger.persistence.AchievementDao;
+import net.csongradyp.badger.provider.date.ClockReading;
+import net.csongradyp.badger.provider.date.IDateProvider;
+import net.csongradyp.badger.provider.date.VirtualDateProvider;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Unlocks time, time range and date achievements at their trigger boundaries without waiting for a triggered event.
+ * Triggers are indexed in a wheel of minute-of-day and day-of-year slots. The scheduler wakes up at the next occupied
+ * slot of the {@link IDateProvider} clock and evaluates only the achievements of that slot.
+ * <p/>
+ * With a {@link VirtualDateProvider} no timer is started, the clock is driven by {@link #advanceTo(long)}.
+ */
+@Named
+public class TimerWheelScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TimerWheelScheduler.class);
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int DAYS_PER_YEAR = 366;
+    private static final long NO_WAKE_UP = Long.MAX_VALUE;
+
+    @Inject
+    private IDateProvider dateProvider;
+    @Inject
+    private AchievementDao achievementDao;
+
+    private Wheel wheel = new Wheel();
+    private Consumer<Unlockable> unlocker;
+    private int lastDayOfYear = -1;
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> scheduledWakeUp;
+
+    /**
+     * Indexes the time based achievements of the definition, unlocks the ones which are due right now and starts waiting
+     * for the next trigger boundary.
+     *
+     * @param achievementDefinition definition to index.
+     * @param unlocker              receives the due achievements.
+     */
+    public synchronized void schedule(final AchievementDefinition achievementDefinition, final Consumer<Unlockable> unlocker) {
+        this.wheel = new Wheel(achievementDefinition);
+        this.unlocker = unlocker;
+        lastDayOfYear = -1;
+        tick();
+    }
+
+    /**
+     * Unlocks the achievements due at the current instant of the clock and waits for the next trigger boundary.
+     * An achievement which fails to unlock is logged and skipped, it does not stop the others or the scheduling.
+     */
+    public synchronized void tick() {
+        if (unlocker == null) {
+            return;
+        }
+        final ClockReading clock = dateProvider.currentReading();
+        final Set<IAchievement> due = new LinkedHashSet<>(wheel.atMinute(clock.getMinuteOfDay()));
+        final int dayOfYear = clock.getDayOfYear();
+        if (dayOfYear != lastDayOfYear) {
+            due.addAll(wheel.onDay(dayOfYear));
+            if (lastDayOfYear == -1) {
+                due.addAll(wheel.rangesContaining(clock.getMinuteOfDay()));
+            }
+            lastDayOfYear = dayOfYear;
+        }
+        for (IAchievement achievement : due) {
+            try {
+                if (!achievementDao.isUnlocked(achievement.getId())) {
+                    unlocker.accept(new Unlockable(achievement, clock.getTimeMillis()));
+                }
+            } catch (RuntimeException e) {
+                LOG.error("Failed to unlock achievement {} at its time trigger", achievement.getId(), e);
+            }
+        }
+        scheduleWakeUp(clock.getTimeMillis());
+    }
+
+    /**
+     * Moves the virtual clock to the given instant, stopping at every trigger boundary on the way.
+     *
+     * @param instant milliseconds since the epoch.
+     * @throws IllegalStateException if the scheduler does not use a {@link VirtualDateProvider}.
+     */
+    public void advanceTo(final long instant) {
+        if (!(dateProvider instanceof VirtualDateProvider)) {
+            throw new IllegalStateException("Only a virtual clock can be advanced");
+        }
+        final VirtualDateProvider clock = (VirtualDateProvider) dateProvider;
+        long wakeUp = nextWakeUp();
+        while (wakeUp <= instant) {
+            clock.setTime(wakeUp);
+            tick();
+            wakeUp = nextWakeUp();
+        }
+        clock.setTime(instant);
+    }
+
+    /**
+     * @return instant of the next trigger boundary in milliseconds, {@link Long#MAX_VALUE} if nothing is scheduled.
+     */
+    public synchronized long nextWakeUp() {
+        return unlocker == null ? NO_WAKE_UP : nextWakeUp(dateProvider.currentTimeMillis());
+    }
+
+    private long nextWakeUp(final long now) {
+        if (wheel.isEmpty()) {
+            return NO_WAKE_UP;
+        }
+        final DateTime dateTime = new DateTime(now);
+        for (int minute = dateTime.getMinuteOfDay() + 1; minute < MINUTES_PER_DAY; minute++) {
+            if (wheel.hasMinute(minute)) {
+                try {
+                    return dateTime.withMillisOfDay((int) TimeUnit.MINUTES.toMillis(minute)).getMillis();
+                } catch (IllegalArgumentException e) {
+                    LOG.debug("Minute {} of the day is skipped by daylight saving time", minute);
+                }
+            }
+        }
+        return dateTime.toLocalDate().plusDays(1).toDateTimeAtStartOfDay(dateTime.getZone()).getMillis();
+    }
+
+    private void scheduleWakeUp(final long now) {
+        if (scheduledWakeUp != null) {
+            scheduledWakeUp.cancel(false);
+            scheduledWakeUp = null;
+        }
+        final long wakeUp = nextWakeUp(now);
+        if (wakeUp == NO_WAKE_UP || dateProvider instanceof VirtualDateProvider) {
+            return;
+        }
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "badger-timer-wheel");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        scheduledWakeUp = executor.schedule(this::tickQuietly, wakeUp - now, TimeUnit.MILLISECONDS);
+    }
+
+    private void tickQuietly() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            LOG.error("Scheduled time trigger evaluation failed", e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+            scheduledWakeUp = null;
+        }
+    }
+
+    public void setDateProvider(final IDateProvider dateProvider) {
+        this.dateProvider = dateProvider;
+    }
+
+    public void setAchievementDao(final AchievementDao achievementDao) {
+        this.achievementDao = achievementDao;
+    }
+
+    /**
+     * Minute-of-day and day-of-year slots of the indexed achievements.
+     */
+    private static final class Wheel {
+
+        private final List<List<IAchievement>> minutes = slots(MINUTES_PER_DAY);
+        private final List<List<IAchievement>> days = slots(DAYS_PER_YEAR + 1);
+        private final List<TimeRangeAchievementBean> ranges = new ArrayList<>();
+        private boolean empty = true;
+
+        private Wheel() {
+        }
+
+        private Wheel(final AchievementDefinition achievementDefinition) {
+            for (IAchievement achievement : achievementDefinition.getAll()) {
+                if (achievement instanceof TimeAchievementBean) {
+                    for (TimeTrigger trigger : ((TimeAchievementBean) achievement).getTrigger()) {
+                        add(minutes, trigger.getMinuteOfDay(), achievement);
+                    }
+                } else if (achievement instanceof TimeRangeAchievementBean) {
+                    ranges.add((TimeRangeAchievementBean) achievement);
+                    for (TimeTriggerPair trigger : ((TimeRangeAchievementBean) achievement).getTrigger()) {
+                        add(minutes, firstMinuteOf(trigger), achievement);
+                    }
+                } else if (achievement instanceof DateAchievementBean) {
+                    for (DateTrigger trigger : ((DateAchievementBean) achievement).getTrigger()) {
+                        add(days, trigger.getDayOfYear(), achievement);
+                    }
+                }
+            }
+        }
+
+        /**
+         * A range starting and ending in the same minute begins right after that minute.
+         */
+        private static int firstMinuteOf(final TimeTriggerPair trigger) {
+            final int start = trigger.getStartMinute();
+            return start == trigger.getEndMinute() ? (start + 1) % MINUTES_PER_DAY : start;
+        }
+
+        private static List<List<IAchievement>> slots(final int size) {
+            return new ArrayList<>(Collections.nCopies(size, Collections.<IAchievement>emptyList()));
+        }
+
+        private void add(final List<List<IAchievement>> slots, final int slot, final IAchievement achievement) {
+            if (slots.get(slot).isEmpty()) {
+                slots.set(slot, new ArrayList<>());
+            }
+            slots.get(slot).add(achievement);
+            empty = false;
+        }
+
+        private boolean isEmpty() {
+            return empty;
+        }
+
+        private boolean hasMinute(final int minute) {
+            return !minutes.get(minute).isEmpty();
+        }
+
+        private Collection<IAchievement> atMinute(final int minute) {
+            return minutes.get(minute);
+        }
+
+        private Collection<IAchievement> onDay(final int dayOfYear) {
+            return days.get(dayOfYear);
+        }
+
+        private Collection<IAchievement> rangesContaining(final int minuteOfDay) {
+            final List<IAchievement> containing = new ArrayList<>();
+            for (TimeRangeAchievementBean range : ranges) {
+                if (range.getTrigger().stream().anyMatch(trigger -> trigger.fire(minuteOfDay))) {
+                    containing.add(range);
+                }
+            }
+            return containing;
+        }
+    }
+}
@@ -1,13 +1,11 @@
 package net.csongradyp.badger.provider.unlock.provider;
 
-import java.util.Date;
 import java.util.Optional;
 import javax.inject.Inject;
 import javax.inject.Named;
+import net.csongradyp.badger.Unlockable;
 import net.csongradyp.badger.domain.achievement.CompositeAchievementBean;
-import net.csongradyp.badger.event.IAchievementUnlockedEvent;
-import net.csongradyp.badger.event.message.AchievementUnlockedEvent;
-import net.csongradyp.badger.factory.UnlockedEventFactory;
+import net.csongradyp.badger.provider.date.ClockReading;
 import net.csongradyp.badger.provider.date.IDateProvider;
 
 @Named
@@ -15,24 +13,16 @@ public class CompositeUnlockedProvider extends UnlockedProvider<CompositeAchieve
 
     @Inject
     private IDateProvider dateProvider;
-    @Inject
-    private UnlockedEventFactory unlockedEventFactory;
 
     @Override
-    public Optional<IAchievementUnlockedEvent> getUnlockable(final CompositeAchievementBean compositeAchievement, final Long score) {
-        final Date currentDate = dateProvider.currentDate();
-        final Date currentTime = dateProvider.currentTime();
-        if (compositeAchievement.getRelation().evaluate(score, currentDate, currentTime) & !isUnlocked(compositeAchievement.getId())) {
-            final AchievementUnlockedEvent achievementUnlockedEvent = unlockedEventFactory.createEvent(compositeAchievement, score.toString());
-            return Optional.of(achievementUnlockedEvent);
+    public Optional<Unlockable> getUnlockable(final CompositeAchievementBean compositeAchievement, final Long score) {
+        final ClockReading now = dateProvider.currentReading();
+        if (compositeAchievement.getRelation().evaluate(score, now) && !isUnlocked(compositeAchievement.getId())) {
+            return Optional.of(new Unlockable(compositeAchievement, score));
         }
         return Optional.empty();
     }
 
-    void setUnlockedEventFactory(final UnlockedEventFactory unlockedEventFactory) {
-        this.unlockedEventFactory = unlockedEventFactory;
-    }
-
     public void setDateProvider(final IDateProvider dateProvider) {
         this.dateProvider = dateProvider;
     }
@@ -1,15 +1,13 @@
 package net.csongradyp.badger.provider.unlock.provider;
 
+import net.csongradyp.badger.Unlockable;
 import net.csongradyp.badger.domain.achievement.TimeRangeAchievementBean;
 import net.csongradyp.badger.domain.achievement.trigger.TimeTriggerPair;
-import net.csongradyp.badger.event.IAchievementUnlockedEvent;
-import net.csongradyp.badger.event.message.AchievementUnlockedEvent;
-import net.csongradyp.badger.factory.UnlockedEventFactory;
+import net.csongradyp.badger.provider.date.ClockReading;
 import net.csongradyp.badger.provider.date.IDateProvider;
 
 import javax.inject.Inject;
 import javax.inject.Named;
-import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,17 +16,14 @@ public class TimeRangeUnlockedProvider extends UnlockedProvider<TimeRangeAchieve
 
     @Inject
     private IDateProvider dateProvider;
-    @Inject
-    private UnlockedEventFactory unlockedEventFactory;
 
     @Override
-    public Optional<IAchievementUnlockedEvent> getUnlockable(final TimeRangeAchievementBean timeAchievement, final Long score) {
+    public Optional<Unlockable> getUnlockable(final TimeRangeAchievementBean timeAchievement, final Long score) {
         final List<TimeTriggerPair> timeTriggers = timeAchievement.getTrigger();
+        final ClockReading now = dateProvider.currentReading();
         for (TimeTriggerPair timeTrigger : timeTriggers) {
-            final Date now = dateProvider.currentTime();
-            if(timeTrigger.fire(now) && !isUnlocked(timeAchievement.getId())) {
-                final AchievementUnlockedEvent achievementUnlockedEvent = unlockedEventFactory.createEvent(timeAchievement, dateProvider.currentTimeString());
-                return Optional.of(achievementUnlockedEvent);
+            if(timeTrigger.fire(now.getMinuteOfDay()) && !isUnlocked(timeAchievement.getId())) {
+                return Optional.of(new Unlockable(timeAchievement, now.getTimeMillis()));
             }
         }
         return Optional.empty();
@@ -37,8 +32,4 @@ public class TimeRangeUnlockedProvider extends UnlockedProvider<TimeRangeAchieve
     public void setDateProvider(final IDateProvider dateProvider) {
         this.dateProvider = dateProvider;
     }
-
-    void setUnlockedEventFactory(final UnlockedEventFactory unlockedEventFactory) {
-        this.unlockedEventFactory = unlockedEventFactory;
-    }
 }
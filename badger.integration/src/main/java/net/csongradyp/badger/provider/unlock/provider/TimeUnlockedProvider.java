@@ -1,15 +1,13 @@
 package net.csongradyp.badger.provider.unlock.provider;
 
+import net.csongradyp.badger.Unlockable;
 import net.csongradyp.badger.domain.achievement.TimeAchievementBean;
 import net.csongradyp.badger.domain.achievement.trigger.TimeTrigger;
-import net.csongradyp.badger.event.IAchievementUnlockedEvent;
-import net.csongradyp.badger.event.message.AchievementUnlockedEvent;
-import net.csongradyp.badger.factory.UnlockedEventFactory;
+import net.csongradyp.badger.provider.date.ClockReading;
 import net.csongradyp.badger.provider.date.IDateProvider;
 
 import javax.inject.Inject;
 import javax.inject.Named;
-import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,17 +16,13 @@ public class TimeUnlockedProvider extends UnlockedProvider<TimeAchievementBean>
 
     @Inject
     private IDateProvider dateProvider;
-    @Inject
-    private UnlockedEventFactory unlockedEventFactory;
 
-    public Optional<IAchievementUnlockedEvent> getUnlockable(final TimeAchievementBean timeAchievement, final Long score) {
+    public Optional<Unlockable> getUnlockable(final TimeAchievementBean timeAchievement, final Long score) {
         final List<TimeTrigger> timeTriggers = timeAchievement.getTrigger();
-        final String nowString = dateProvider.currentTimeString();
-        final Date now = dateProvider.currentTime();
+        final ClockReading now = dateProvider.currentReading();
         for (TimeTrigger timeTrigger : timeTriggers) {
-            if (timeTrigger.fire(now) && !isUnlocked(timeAchievement.getId())) {
-                final AchievementUnlockedEvent achievementUnlockedEvent = unlockedEventFactory.createEvent(timeAchievement, nowString);
-                return Optional.of(achievementUnlockedEvent);
+            if (timeTrigger.fire(now.getMinuteOfDay()) && !isUnlocked(timeAchievement.getId())) {
+                return Optional.of(new Unlockable(timeAchievement, now.getTimeMillis()));
             }
         }
         return Optional.empty();
@@ -37,8 +31,4 @@ public class TimeUnlockedProvider extends UnlockedProvider<TimeAchievementBean>
     public void setDateProvider(IDateProvider dateProvider) {
         this.dateProvider = dateProvider;
     }
-
-    void setUnlockedEventFactory(UnlockedEventFactory unlockedEventFactory) {
-        this.unlockedEventFactory = unlockedEventFactory;
-    }
 }
@@ -14,7 +14,7 @@ abstract class UnlockedProvider<TYPE extends IAchievement> implements IUnlockedP
         return achievementDao.isUnlocked(achievementId);
     }
 
-    void setAchievementDao(final AchievementDao achievementDao) {
+    public void setAchievementDao(final AchievementDao achievementDao) {
         this.achievementDao = achievementDao;
     }
 }
@@ -15,8 +15,10 @@ import java.util.ResourceBundle;
 import java.util.Set;
 import net.csongradyp.badger.domain.IAchievement;
 import net.csongradyp.badger.domain.achievement.ScoreAchievementBean;
+import net.csongradyp.badger.domain.achievement.SingleAchievementBean;
 import net.csongradyp.badger.event.AchievementEventType;
 import net.csongradyp.badger.event.EventBus;
+import net.csongradyp.badger.event.IAchievementUnlockedEvent;
 import net.csongradyp.badger.event.message.AchievementUnlockedEvent;
 import net.csongradyp.badger.event.message.ScoreUpdatedEvent;
 import net.csongradyp.badger.factory.UnlockedEventFactory;
@@ -25,6 +27,7 @@ import net.csongradyp.badger.persistence.AchievementDao;
 import net.csongradyp.badger.persistence.EventDao;
 import net.csongradyp.badger.persistence.entity.AchievementEntity;
 import net.csongradyp.badger.provider.unlock.AchievementUnlockProviderFacade;
+import net.csongradyp.badger.provider.unlock.TimerWheelScheduler;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -39,7 +42,9 @@ import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Matchers.anySet;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -65,6 +70,8 @@ public class AchievementControllerTest {
     private AchievementUnlockProviderFacade mockAchievementUnlockProviderFacade;
     @Mock
     private EventBus mockEventBus;
+    @Mock
+    private TimerWheelScheduler mockTimerWheelScheduler;
 
     private AchievementController underTest;
 
@@ -73,9 +80,10 @@ public class AchievementControllerTest {
         underTest = new AchievementController();
         underTest.setAchievementUnlockFinder(mockAchievementUnlockProviderFacade);
         underTest.setUnlockedEventFactory(mockUnlockedEventFactory);
-        underTest.setAchievementDefinition(mockAchievementDefinition);
+        underTest.setTimerWheelScheduler(mockTimerWheelScheduler);
         underTest.setAchievementDao(mockAchievementDao);
         underTest.setEventDao(mockEventDao);
+        underTest.setAchievementDefinition(mockAchievementDefinition);
         underTest.setEventBus(mockEventBus);
     }
 
@@ -113,10 +121,26 @@ public class AchievementControllerTest {
 
         underTest.setLocale(locale);
 
-        verify(mockUnlockedEventFactory, times(2)).setResourceBundle(any(ResourceBundle.class));
+        verify(mockUnlockedEventFactory, times(2)).setInternationalizationBaseName("msg");
+        verify(mockUnlockedEventFactory).setLocale(locale);
         assertThat(underTest.getResourceBundle().getLocale(), is(locale));
     }
 
+    @Test
+    public void testLocalizeRendersEventWithTheEventFactory() {
+        final Locale locale = new Locale("hu");
+        final SingleAchievementBean achievementBean = new SingleAchievementBean();
+        achievementBean.setId(ACHIEVEMENT_ID);
+        given(mockAchievementDefinition.get(ACHIEVEMENT_ID)).willReturn(Optional.of(achievementBean));
+        final AchievementUnlockedEvent event = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "title", "text", "");
+        final AchievementUnlockedEvent localized = new AchievementUnlockedEvent(event, "cim", "szoveg");
+        given(mockUnlockedEventFactory.localize(event, achievementBean, locale)).willReturn(localized);
+
+        final IAchievementUnlockedEvent result = underTest.localize(event, locale);
+
+        assertThat(result, is(localized));
+    }
+
     @Test
     public void testGetAllReturnsAllAchievementsFromAchievementDefinition() {
         final ArrayList<IAchievement> achievements = new ArrayList<>();
@@ -250,31 +274,45 @@ public class AchievementControllerTest {
         final String triggerValue = "value";
         final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", "");
         when(mockAchievementDefinition.get(ACHIEVEMENT_ID)).thenReturn(Optional.of(achievementBean));
-        when(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID, 1)).thenReturn(false);
-        when(mockUnlockedEventFactory.createEvent(achievementBean, triggerValue)).thenReturn(unlockedEvent);
+        when(mockAchievementDao.tryUnlock(eq(ACHIEVEMENT_ID), eq(1), anySet())).thenReturn(true);
+        when(mockUnlockedEventFactory.createEvent(achievementBean, triggerValue, Collections.emptySet())).thenReturn(unlockedEvent);
 
         underTest.unlock(ACHIEVEMENT_ID, triggerValue);
 
         verify(mockAchievementDefinition).get(ACHIEVEMENT_ID);
-        verify(mockAchievementDao).isUnlocked(ACHIEVEMENT_ID, 1);
-        verify(mockAchievementDao).unlock(ACHIEVEMENT_ID, 1, Collections.emptySet());
+        verify(mockAchievementDao).tryUnlock(ACHIEVEMENT_ID, 1, Collections.emptySet());
         verify(mockEventBus).publishUnlocked(unlockedEvent);
     }
 
     @Test
-    public void testCheckAndUnlockUnlocksAllPossibleAchievements() {
+    public void testCheckAndUnlockUnlocksAchievementsAffectedByChanges() {
         final ScoreAchievementBean achievementBean = new ScoreAchievementBean();
         achievementBean.setId(ACHIEVEMENT_ID);
-        final String triggerValue = "value";
+        final Unlockable unlockable = new Unlockable(achievementBean, 1L);
         final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", "");
-        when(mockAchievementUnlockProviderFacade.findAll()).thenReturn(Arrays.asList(unlockedEvent));
-        when(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID, 1)).thenReturn(false);
-        when(mockUnlockedEventFactory.createEvent(achievementBean, triggerValue)).thenReturn(unlockedEvent);
+        when(mockAchievementUnlockProviderFacade.findChanged()).thenReturn(Arrays.asList(unlockable));
+        when(mockAchievementDao.tryUnlock(eq(ACHIEVEMENT_ID), eq(1), anySet())).thenReturn(true);
+        when(mockUnlockedEventFactory.createEvent(unlockable)).thenReturn(unlockedEvent);
 
         underTest.checkAndUnlock();
 
-        verify(mockAchievementDao).isUnlocked(ACHIEVEMENT_ID, 1);
-        verify(mockAchievementDao).unlock(ACHIEVEMENT_ID, 1, Collections.emptySet());
+        verify(mockAchievementDao).tryUnlock(ACHIEVEMENT_ID, 1, Collections.emptySet());
+        verify(mockEventBus).publishUnlocked(unlockedEvent);
+    }
+
+    @Test
+    public void testCheckAndUnlockAllUnlocksAllPossibleAchievements() {
+        final ScoreAchievementBean achievementBean = new ScoreAchievementBean();
+        achievementBean.setId(ACHIEVEMENT_ID);
+        final Unlockable unlockable = new Unlockable(achievementBean, 1L);
+        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", "");
+        when(mockAchievementUnlockProviderFacade.findAll()).thenReturn(Arrays.asList(unlockable));
+        when(mockAchievementDao.tryUnlock(eq(ACHIEVEMENT_ID), eq(1), anySet())).thenReturn(true);
+        when(mockUnlockedEventFactory.createEvent(unlockable)).thenReturn(unlockedEvent);
+
+        underTest.checkAndUnlockAll();
+
+        verify(mockAchievementDao).tryUnlock(ACHIEVEMENT_ID, 1, Collections.emptySet());
         verify(mockEventBus).publishUnlocked(unlockedEvent);
     }
 
@@ -288,52 +326,51 @@ public class AchievementControllerTest {
         final ScoreAchievementBean achievementBean = new ScoreAchievementBean();
        achievementBean.setId(ACHIEVEMENT_ID);
         when(mockAchievementDefinition.get(ACHIEVEMENT_ID)).thenReturn(Optional.of(achievementBean));
-        when(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID, 1)).thenReturn(false);
+        when(mockAchievementDao.tryUnlock(eq(ACHIEVEMENT_ID), eq(1), anySet())).thenReturn(true);
         when(mockUnlockedEventFactory.createEvent(any(IAchievement.class), anyString(), anyCollection())).thenReturn(unlockedEvent);
 
         underTest.unlock(ACHIEVEMENT_ID, triggerValue, owners);
 
         verify(mockAchievementDefinition).get(ACHIEVEMENT_ID);
-        verify(mockAchievementDao).isUnlocked(ACHIEVEMENT_ID, 1);
-        verify(mockAchievementDao).unlock(ACHIEVEMENT_ID, 1, owners);
+        verify(mockAchievementDao).tryUnlock(ACHIEVEMENT_ID, 1, owners);
         verify(mockEventBus).publishUnlocked(unlockedEvent);
     }
 
     @Test
     public void testTriggerEventIncrementsEventScoreAndUnlocksAllPossibleAchievementsWithNewScore() {
         final long newScore = 42L;
-        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", "");
         final ScoreAchievementBean achievementBean = new ScoreAchievementBean();
         achievementBean.setId(ACHIEVEMENT_ID);
+        final Unlockable unlockable = new Unlockable(achievementBean, 1L);
+        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", "");
         when(mockEventDao.increment(EVENT_ID)).thenReturn(newScore);
-        when(mockAchievementUnlockProviderFacade.findUnlockables(EVENT_ID)).thenReturn(Collections.singletonList(unlockedEvent));
-        when(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID, 1)).thenReturn(false);
-        when(mockUnlockedEventFactory.createEvent(any(IAchievement.class), anyString(), anyCollection())).thenReturn(unlockedEvent);
+        when(mockAchievementUnlockProviderFacade.findUnlockables(EVENT_ID, newScore - 1, newScore, Collections.emptySet())).thenReturn(Collections.singletonList(unlockable));
+        when(mockAchievementDao.tryUnlock(eq(ACHIEVEMENT_ID), eq(1), anySet())).thenReturn(true);
+        when(mockUnlockedEventFactory.createEvent(unlockable)).thenReturn(unlockedEvent);
 
         underTest.triggerEvent(EVENT_ID);
 
         verify(mockEventDao).increment(EVENT_ID);
-        verify(mockAchievementDao).isUnlocked(ACHIEVEMENT_ID, 1);
-        verify(mockAchievementDao).unlock(ACHIEVEMENT_ID, 1, Collections.emptySet());
+        verify(mockAchievementDao).tryUnlock(ACHIEVEMENT_ID, 1, Collections.emptySet());
         verify(mockEventBus).publishUnlocked(unlockedEvent);
     }
 
     @Test
     public void testTriggerEventSetsEventScoreAndUnlocksAllPossibleAchievementsWithNewScore() {
         final long newScore = 42L;
-        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", "");
         final ScoreAchievementBean achievementBean = new ScoreAchievementBean();
         achievementBean.setId(ACHIEVEMENT_ID);
+        final Unlockable unlockable = new Unlockable(achievementBean, 1L);
+        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", "");
         when(mockEventDao.setScore(EVENT_ID, newScore)).thenReturn(newScore);
-        when(mockAchievementUnlockProviderFacade.findUnlockables(EVENT_ID, newScore, Collections.emptySet())).thenReturn(Collections.singletonList(unlockedEvent));
-        when(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID, 1)).thenReturn(false);
-        when(mockUnlockedEventFactory.createEvent(any(IAchievement.class), anyString(), anyCollection())).thenReturn(unlockedEvent);
+        when(mockAchievementUnlockProviderFacade.findUnlockables(EVENT_ID, 0L, newScore, Collections.emptySet())).thenReturn(Collections.singletonList(unlockable));
+        when(mockAchievementDao.tryUnlock(eq(ACHIEVEMENT_ID), eq(1), anySet())).thenReturn(true);
+        when(mockUnlockedEventFactory.createEvent(unlockable)).thenReturn(unlockedEvent);
 
         underTest.triggerEvent(EVENT_ID, newScore);
 
         verify(mockEventDao).setScore(EVENT_ID, newScore);
-        verify(mockAchievementDao).isUnlocked(ACHIEVEMENT_ID, 1);
-        verify(mockAchievementDao).unlock(ACHIEVEMENT_ID, 1, Collections.emptySet());
+        verify(mockAchievementDao).tryUnlock(ACHIEVEMENT_ID, 1, Collections.emptySet());
         verify(mockEventBus).publishUnlocked(unlockedEvent);
     }
 
@@ -341,22 +378,96 @@ public class AchievementControllerTest {
     public void testTriggerEventWithOwnersIncrementsEventScoreAndUnlocksAllPossibleAchievementsWithNewScore() {
         final long newScore = 42L;
         final List<String> owners = Arrays.asList("owner1", "owner2");
-        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", "");
         final ScoreAchievementBean achievementBean = new ScoreAchievementBean();
         achievementBean.setId(ACHIEVEMENT_ID);
+        final Unlockable unlockable = new Unlockable(achievementBean, 1L);
+        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", "");
         when(mockEventDao.increment(EVENT_ID)).thenReturn(newScore);
-        when(mockAchievementUnlockProviderFacade.findUnlockables(EVENT_ID, owners)).thenReturn(Collections.singletonList(unlockedEvent));
-        when(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID, 1)).thenReturn(false);
-        when(mockUnlockedEventFactory.createEvent(any(IAchievement.class), anyString(), anyCollection())).thenReturn(unlockedEvent);
+        when(mockAchievementUnlockProviderFacade.findUnlockables(EVENT_ID, newScore - 1, newScore, owners)).thenReturn(Collections.singletonList(unlockable));
+        when(mockAchievementDao.tryUnlock(eq(ACHIEVEMENT_ID), eq(1), anySet())).thenReturn(true);
+        when(mockUnlockedEventFactory.createEvent(unlockable)).thenReturn(unlockedEvent);
 
         underTest.triggerEvent(EVENT_ID, owners);
 
         verify(mockEventDao).increment(EVENT_ID);
-        verify(mockAchievementDao).isUnlocked(ACHIEVEMENT_ID, 1);
-        verify(mockAchievementDao).unlock(ACHIEVEMENT_ID, 1, Collections.emptySet());
+        verify(mockAchievementDao).tryUnlock(ACHIEVEMENT_ID, 1, Collections.emptySet());
         verify(mockEventBus).publishUnlocked(unlockedEvent);
     }
 
+    @Test
+    public void testTriggerEventsCoalescesRepeatedEventsAndEvaluatesThemOnceWithFinalScore() {
+        final ScoreAchievementBean achievementBean = new ScoreAchievementBean();
+        achievementBean.setId(ACHIEVEMENT_ID);
+        final Unlockable unlockable = new Unlockable(achievementBean, 1L);
+        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", "");
+        final Map<String, Long> expectedDeltas = new HashMap<>();
+        expectedDeltas.put(EVENT_ID, 3L);
+        final Map<String, Long> updatedScores = new HashMap<>();
+        updatedScores.put(EVENT_ID, 3L);
+        when(mockEventDao.update(Collections.emptyMap(), expectedDeltas)).thenReturn(updatedScores);
+        when(mockAchievementUnlockProviderFacade.findUnlockables(EVENT_ID, 0L, 3L, new HashSet<>(Arrays.asList("owner")))).thenReturn(Collections.singletonList(unlockable));
+        when(mockAchievementDao.tryUnlock(eq(ACHIEVEMENT_ID), eq(1), anySet())).thenReturn(true);
+        when(mockUnlockedEventFactory.createEvent(unlockable)).thenReturn(unlockedEvent);
+
+        final Collection<IAchievementUnlockedEvent> result = underTest.triggerEvents(Arrays.asList(
+                new TriggerRequest(EVENT_ID), new TriggerRequest(EVENT_ID, Arrays.asList("owner")), new TriggerRequest(EVENT_ID)));
+
+        verify(mockEventDao).update(Collections.emptyMap(), expectedDeltas);
+        verify(mockEventDao, never()).increment(anyString());
+        verify(mockAchievementUnlockProviderFacade, times(1)).findUnlockables(anyString(), any(Long.class), any(Long.class), anyCollection());
+        verify(mockEventBus).publishScoreChanged(any(ScoreUpdatedEvent.class));
+        verify(mockAchievementDao).tryUnlock(ACHIEVEMENT_ID, 1, Collections.emptySet());
+        assertThat(result.size(), is(1));
+        assertThat(result.iterator().next(), is(unlockedEvent));
+    }
+
+    @Test
+    public void testTriggerEventsDoesNotEvaluateEventsWhenScoreIsEqualToTheStoredOne() {
+        final Map<String, Long> newScores = new HashMap<>();
+        newScores.put(EVENT_ID, 10L);
+        when(mockEventDao.scoreOf(EVENT_ID)).thenReturn(10L);
+        when(mockEventDao.update(newScores, Collections.emptyMap())).thenReturn(newScores);
+
+        final Collection<IAchievementUnlockedEvent> result = underTest.triggerEvents(Arrays.asList(new TriggerRequest(EVENT_ID, 10L)));
+
+        verify(mockEventBus, never()).publishScoreChanged(any(ScoreUpdatedEvent.class));
+        verify(mockAchievementUnlockProviderFacade, never()).findUnlockables(anyString(), any(Long.class), any(Long.class), anyCollection());
+        assertThat(result.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testTriggerEventsDoesNotReturnAlreadyUnlockedAchievements() {
+        final ScoreAchievementBean achievementBean = new ScoreAchievementBean();
+        achievementBean.setId(ACHIEVEMENT_ID);
+        final Unlockable unlockable = new Unlockable(achievementBean, 1L);
+        final Map<String, Long> updatedScores = new HashMap<>();
+        updatedScores.put(EVENT_ID, 1L);
+        when(mockEventDao.update(any(Map.class), any(Map.class))).thenReturn(updatedScores);
+        when(mockAchievementUnlockProviderFacade.findUnlockables(EVENT_ID, 0L, 1L, Collections.emptySet())).thenReturn(Collections.singletonList(unlockable));
+        when(mockAchievementDao.tryUnlock(eq(ACHIEVEMENT_ID), eq(1), anySet())).thenReturn(false);
+
+        final Collection<IAchievementUnlockedEvent> result = underTest.triggerEvents(Arrays.asList(new TriggerRequest(EVENT_ID)));
+
+        verify(mockEventBus, never()).publishUnlocked(any(IAchievementUnlockedEvent.class));
+        verify(mockUnlockedEventFactory, never()).createEvent(any(Unlockable.class));
+        assertThat(result.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testUnlockDoesNotPublishUnlockedEventWhenLevelIsAlreadyUnlocked() {
+        final ScoreAchievementBean achievementBean = new ScoreAchievementBean();
+        achievementBean.setId(ACHIEVEMENT_ID);
+        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", "");
+        when(mockAchievementDefinition.get(ACHIEVEMENT_ID)).thenReturn(Optional.of(achievementBean));
+        when(mockUnlockedEventFactory.createEvent(achievementBean, "value")).thenReturn(unlockedEvent);
+        when(mockAchievementDao.tryUnlock(eq(ACHIEVEMENT_ID), eq(1), anySet())).thenReturn(false);
+
+        underTest.unlock(ACHIEVEMENT_ID, "value");
+
+        verify(mockEventBus, never()).publishUnlocked(any(IAchievementUnlockedEvent.class));
+        verify(mockUnlockedEventFactory, never()).createEvent(any(IAchievement.class), anyString(), anyCollection());
+    }
+
     @Test
     public void testIsUnlockedCallsUnderlyingDao() {
         underTest.isUnlocked(ACHIEVEMENT_ID);
@@ -0,0 +1,168 @@
+package net.csongradyp.badger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.csongradyp.badger.persistence.InMemoryPersistenceStore;
+import net.csongradyp.badger.persistence.exception.MissingEventCounterException;
+import net.csongradyp.badger.persistence.wal.WalPersistenceStore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class BadgerBuilderTest {
+
+    private static final String EVENT = "event";
+    private static final String DEFINITION = "[events]\nevent=kill\n\n[score/firstKill]\nsubscription=kill\ntrigger=%d\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testBuiltEngineCountsEventsInTheGivenStore() {
+        final InMemoryPersistenceStore store = new InMemoryPersistenceStore();
+        final Badger underTest = Badger.builder().persistenceStore(store).build();
+
+        underTest.triggerEvent(EVENT);
+        underTest.triggerEvent(EVENT, 5L);
+        underTest.triggerEvent(EVENT);
+        underTest.shutdown();
+
+        assertThat(underTest.getCurrentScore(EVENT), is(6L));
+        assertThat(store.getScore(EVENT), is(6L));
+    }
+
+    @Test
+    public void testShutdownWritesPendingScoresAndClosesTheStore() throws IOException {
+        final File directory = folder.newFolder("wal");
+        final Badger underTest = Badger.builder().persistenceStore(new WalPersistenceStore(directory)).build();
+        underTest.triggerEvent(EVENT);
+        underTest.triggerEvent(EVENT, 42L);
+
+        underTest.shutdown();
+
+        try (WalPersistenceStore reopened = new WalPersistenceStore(directory)) {
+            assertThat(reopened.getScore(EVENT), is(42L));
+        }
+    }
+
+    @Test
+    public void testRepeatedShutdownClosesTheStoreOnce() {
+        final AtomicInteger closed = new AtomicInteger();
+        final Badger underTest = Badger.builder().persistenceStore(new ClosableInMemoryStore(closed)).build();
+
+        underTest.shutdown();
+        underTest.shutdown();
+
+        assertThat(closed.get(), is(1));
+    }
+
+    @Test(expected = MissingEventCounterException.class)
+    public void testResetClearsScoresOfTheDefaultInMemoryStore() {
+        final Badger underTest = Badger.builder().build();
+        underTest.triggerEvent(EVENT);
+
+        underTest.reset();
+
+        try {
+            underTest.getCurrentScore(EVENT);
+        } finally {
+            underTest.shutdown();
+        }
+    }
+
+    @Test
+    public void testNamespacedDefinitionsAreLoadedAndReloadedIndependently() throws IOException {
+        final File arena = definitionFile("arena.ini", 1);
+        final File story = definitionFile("story.ini", 3);
+        final Badger underTest = Badger.builder().definition("arena", arena).definition("story", story).build();
+        try {
+            underTest.triggerEvent("arena.kill");
+            underTest.triggerEvent("story.kill");
+            assertThat(underTest.isUnlocked("arena.firstKill"), is(true));
+            assertThat(underTest.isUnlocked("story.firstKill"), is(false));
+
+            underTest.reloadNamespace("story", definitionFile("story.ini", 2));
+            underTest.triggerEvent("story.kill");
+
+            assertThat(underTest.isUnlocked("story.firstKill"), is(true));
+            assertThat(underTest.getAchievement("arena.firstKill").isPresent(), is(true));
+            assertThat(underTest.getCurrentScore("arena.kill"), is(1L));
+        } finally {
+            underTest.shutdown();
+        }
+    }
+
+    @Test
+    public void testReloadedGreaterThanAchievementIsUnlockedByNextTriggerWhenCounterIsAlreadyAboveIt() throws IOException {
+        final Badger underTest = Badger.builder().definition("story", definitionFile("story.ini", 100)).build();
+        try {
+            underTest.triggerEvent("story.kill");
+            underTest.triggerEvent("story.kill");
+            underTest.triggerEvent("story.kill");
+
+            underTest.reloadNamespace("story", definitionFile("story.ini", "[events]\nevent=kill\n\n[score/firstKill]\nsubscription=kill\ntrigger=2+\n"));
+            underTest.triggerEvent("story.kill");
+
+            assertThat(underTest.isUnlocked("story.firstKill"), is(true));
+        } finally {
+            underTest.shutdown();
+        }
+    }
+
+    @Test
+    public void testLessThanScoreAchievementIsUnlockedByFirstTrigger() throws IOException {
+        final File definition = definitionFile("lessThan.ini", "[events]\nevent=kill\n\n[score/fewKills]\nsubscription=kill\ntrigger=5-\n");
+        final Badger underTest = Badger.builder().definition(definition).build();
+        try {
+            underTest.triggerEvent("kill");
+
+            assertThat(underTest.isUnlocked("fewKills"), is(true));
+        } finally {
+            underTest.shutdown();
+        }
+    }
+
+    @Test
+    public void testWrappingScoreRangeAchievementIsUnlockedByFirstTrigger() throws IOException {
+        final File definition = definitionFile("wrap.ini", "[events]\nevent=kill\n\n[scoreRange/outside]\nsubscription=kill\ntrigger=10\ntrigger=3\n");
+        final Badger underTest = Badger.builder().definition(definition).build();
+        try {
+            underTest.triggerEvent("kill");
+
+            assertThat(underTest.isUnlocked("outside"), is(true));
+        } finally {
+            underTest.shutdown();
+        }
+    }
+
+    private File definitionFile(final String name, final int trigger) throws IOException {
+        return definitionFile(name, String.format(DEFINITION, trigger));
+    }
+
+    private File definitionFile(final String name, final String content) throws IOException {
+        final File file = new File(folder.getRoot(), name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static final class ClosableInMemoryStore extends InMemoryPersistenceStore implements Closeable {
+
+        private final AtomicInteger closed;
+
+        private ClosableInMemoryStore(final AtomicInteger closed) {
+            this.closed = closed;
+        }
+
+        @Override
+        public void close() {
+            closed.incrementAndGet();
+        }
+    }
+}
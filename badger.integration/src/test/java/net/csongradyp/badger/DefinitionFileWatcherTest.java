@@ -0,0 +1,92 @@
+package net.csongradyp.badger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import net.csongradyp.badger.parser.IAchievementDefinitionFileParser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DefinitionFileWatcherTest {
+
+    private static final int TIMEOUT = 10000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private IAchievementDefinitionFileParser mockParser;
+    @Mock
+    private IAchievementController mockController;
+    @Mock
+    private AchievementDefinition mockDefinition;
+
+    private File definitionFile;
+    private DefinitionFileWatcher underTest;
+
+    @Before
+    public void setUp() throws IOException {
+        definitionFile = folder.newFile("achievements.json");
+        underTest = new DefinitionFileWatcher(definitionFile, mockParser, mockController::setAchievementDefinition);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        underTest.close();
+    }
+
+    @Test
+    public void testChangedDefinitionFileIsParsedAndPublished() throws IOException {
+        given(mockParser.parse(definitionFile.getAbsoluteFile())).willReturn(mockDefinition);
+
+        write(definitionFile);
+
+        verify(mockController, timeout(TIMEOUT)).setAchievementDefinition(mockDefinition);
+    }
+
+    @Test
+    public void testDefinitionWithErrorsIsNotPublished() throws IOException {
+        given(mockParser.parse(any(File.class))).willThrow(new IllegalStateException("invalid"));
+
+        write(definitionFile);
+
+        verify(mockParser, timeout(TIMEOUT)).parse(definitionFile.getAbsoluteFile());
+        verify(mockController, never()).setAchievementDefinition(any(AchievementDefinition.class));
+    }
+
+    @Test
+    public void testChangesOfOtherFilesAreIgnored() throws IOException, InterruptedException {
+        write(folder.newFile("other.json"));
+        Thread.sleep(DefinitionFileWatcher.QUIET_PERIOD * 5);
+
+        verify(mockParser, never()).parse(any(File.class));
+    }
+
+    @Test
+    public void testClosedWatcherDoesNotReload() throws IOException, InterruptedException {
+        underTest.close();
+
+        write(definitionFile);
+        Thread.sleep(DefinitionFileWatcher.QUIET_PERIOD * 5);
+
+        verify(mockParser, never()).parse(any(File.class));
+    }
+
+    private static void write(final File file) throws IOException {
+        Files.write(file.toPath(), "{}".getBytes(StandardCharsets.UTF_8));
+    }
+}
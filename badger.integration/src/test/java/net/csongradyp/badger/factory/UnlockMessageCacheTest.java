@@ -0,0 +1,70 @@
+package net.csongradyp.badger.factory;
+
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import net.csongradyp.badger.domain.achievement.SingleAchievementBean;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class UnlockMessageCacheTest {
+
+    private SingleAchievementBean achievementBean;
+
+    @Before
+    public void setUp() {
+        achievementBean = new SingleAchievementBean();
+        achievementBean.setId("simple");
+    }
+
+    @Test
+    public void testGetReturnsSameMessageForSameLocaleAndAchievement() {
+        final UnlockMessageCache underTest = UnlockMessageCache.forBaseName("msg");
+
+        final UnlockMessage message = underTest.get(achievementBean, Locale.ENGLISH);
+
+        assertThat(message.getTitle(), is("Simple"));
+        assertThat(underTest.get(achievementBean, Locale.ENGLISH), is(sameInstance(message)));
+    }
+
+    @Test
+    public void testGetResolvesMessagesPerLocale() {
+        final UnlockMessageCache underTest = UnlockMessageCache.forBaseName("msg");
+        final Locale hungarian = new Locale("hu");
+
+        assertThat(underTest.get(achievementBean, hungarian).getTitle(), is(ResourceBundle.getBundle("msg", hungarian).getString("simple.title")));
+        assertThat(underTest.get(achievementBean, Locale.ENGLISH).getText(), is("simple text"));
+    }
+
+    @Test
+    public void testGetReturnsKeysWithoutResourceBundle() {
+        final UnlockMessageCache underTest = UnlockMessageCache.forResourceBundle(null);
+
+        final UnlockMessage message = underTest.get(achievementBean, Locale.ENGLISH);
+
+        assertThat(message.getTitle(), is("simple.title"));
+        assertThat(message.getText(), is("simple.text"));
+    }
+
+    @Test(expected = MissingResourceException.class)
+    public void testGetThrowsExceptionWhenKeyIsMissing() {
+        achievementBean.setId("unknown");
+
+        UnlockMessageCache.forBaseName("msg").get(achievementBean, Locale.ENGLISH);
+    }
+
+    @Test
+    public void testEmptyCopyKeepsMessageSource() {
+        final UnlockMessageCache underTest = UnlockMessageCache.forBaseName("msg");
+        final UnlockMessage message = underTest.get(achievementBean, Locale.ENGLISH);
+
+        final UnlockMessageCache copy = underTest.emptyCopy();
+
+        assertThat(copy.isBaseName("msg"), is(true));
+        assertThat(copy.get(achievementBean, Locale.ENGLISH) == message, is(false));
+    }
+}
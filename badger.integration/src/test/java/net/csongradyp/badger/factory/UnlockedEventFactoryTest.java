@@ -1,13 +1,24 @@
 package net.csongradyp.badger.factory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
+import net.csongradyp.badger.Unlockable;
 import net.csongradyp.badger.domain.achievement.ScoreAchievementBean;
+import net.csongradyp.badger.domain.achievement.TimeAchievementBean;
 import net.csongradyp.badger.event.AchievementEventType;
+import net.csongradyp.badger.event.EventBus;
+import net.csongradyp.badger.event.IAchievementUnlockedEvent;
+import net.csongradyp.badger.event.handler.wrapper.AchievementUnlockedHandlerWrapper;
 import net.csongradyp.badger.event.message.AchievementUnlockedEvent;
+import net.csongradyp.badger.provider.date.IDateProvider;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -15,16 +26,24 @@ import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
 public class UnlockedEventFactoryTest {
 
+    @Mock
+    private IDateProvider mockDateProvider;
+
     private UnlockedEventFactory underTest;
 
     @Before
     public void setUp() {
         underTest = new UnlockedEventFactory();
         underTest.setResourceBundle(null);
+        underTest.setDateProvider(mockDateProvider);
     }
 
     @Test
@@ -109,6 +128,106 @@ public class UnlockedEventFactoryTest {
         assertThat(event.getText(), is(localizedText));
     }
 
+    @Test
+    public void testCreateEventInGivenLocaleWithoutChangingTheDefaultLocale() {
+        underTest.setInternationalizationBaseName("msg");
+        final ScoreAchievementBean achievementBean = givenAchievementBean("simple", "some category");
+
+        final AchievementUnlockedEvent hungarian = underTest.createEvent(achievementBean, "", new Locale("hu"));
+        final AchievementUnlockedEvent english = underTest.createEvent(achievementBean, "");
+
+        assertThat(hungarian.getTitle(), is(ResourceBundle.getBundle("msg", new Locale("hu")).getString("simple.title")));
+        assertThat(english.getTitle(), is("Simple"));
+        assertThat(english.getText(), is("simple text"));
+    }
+
+    @Test
+    public void testSetLocaleChangesTheLanguageOfCreatedEvents() {
+        underTest.setInternationalizationBaseName("msg");
+        underTest.setLocale(new Locale("hu"));
+        final ScoreAchievementBean achievementBean = givenAchievementBean("simple", "some category");
+
+        final AchievementUnlockedEvent event = underTest.createEvent(achievementBean);
+
+        assertThat(event.getText(), is(ResourceBundle.getBundle("msg", new Locale("hu")).getString("simple.text")));
+    }
+
+    @Test
+    public void testLocalizeCopiesEventWithMessagesOfTheGivenLocale() {
+        underTest.setInternationalizationBaseName("msg");
+        final ScoreAchievementBean achievementBean = givenAchievementBean("simple", "some category");
+        final AchievementUnlockedEvent event = underTest.createEvent(achievementBean, "456", new String[]{"foo"});
+        event.setLevel(2);
+
+        final AchievementUnlockedEvent result = underTest.localize(event, achievementBean, new Locale("hu"));
+
+        assertThat(result.getTitle(), is(ResourceBundle.getBundle("msg", new Locale("hu")).getString("simple.title")));
+        assertThat(result.getId(), is(event.getId()));
+        assertThat(result.getTriggerValue(), is("456"));
+        assertThat(result.getLevel(), is(2));
+        assertThat(result.getAcquireDate(), is(event.getAcquireDate()));
+        assertThat(result.getOwners(), hasItems("foo"));
+        assertThat(event.getTitle(), is("Simple"));
+    }
+
+    @Test
+    public void testCreateEventFromUnlockableResolvesMessagesWhenRead() {
+        underTest.setInternationalizationBaseName("msg");
+        final Unlockable unlockable = new Unlockable(givenAchievementBean("simple", "some category"), 3, 456L);
+        unlockable.addOwners(Arrays.asList("foo", "bar"));
+
+        final IAchievementUnlockedEvent event = underTest.createEvent(unlockable);
+
+        assertThat(event.getId(), is("simple"));
+        assertThat(event.getCategory(), is("some category"));
+        assertThat(event.getLevel(), is(3));
+        assertThat(event.getOwners(), hasItems("foo", "bar"));
+        assertThat(event.getEventType(), is(AchievementEventType.UNLOCK));
+        assertThat(event.getTriggerValue(), is("456"));
+        assertThat(event.getTitle(), is("Simple"));
+        assertThat(event.getText(), is("simple text"));
+    }
+
+    @Test
+    public void testCreateEventFromUnlockableFormatsClockTriggerValueOnlyWhenRead() {
+        final TimeAchievementBean achievementBean = new TimeAchievementBean();
+        achievementBean.setId("time");
+        final long now = 1419325200000L;
+        given(mockDateProvider.getTime(new Date(now))).willReturn("10:00");
+
+        final IAchievementUnlockedEvent event = underTest.createEvent(new Unlockable(achievementBean, now));
+
+        verify(mockDateProvider, never()).getTime(any(Date.class));
+        assertThat(event.getTriggerValue(), is("10:00"));
+        assertThat(event.getTriggerValue(), is("10:00"));
+        verify(mockDateProvider).getTime(new Date(now));
+    }
+
+    @Test
+    public void testCreateEventFromUnlockableTakesAcquireDateFromDateProvider() {
+        final long now = 1419325200000L;
+        given(mockDateProvider.currentTimeMillis()).willReturn(now);
+
+        final IAchievementUnlockedEvent event = underTest.createEvent(new Unlockable(givenAchievementBean("simple", "some category"), 456L));
+
+        assertThat(event.getAcquireDate(), is(new Date(now)));
+    }
+
+    @Test
+    public void testEventCreatedFromUnlockableIsDeliveredToSubscribedHandler() {
+        final EventBus eventBus = new EventBus();
+        final List<AchievementUnlockedEvent> received = new ArrayList<>();
+        eventBus.subscribeOnUnlock(new AchievementUnlockedHandlerWrapper(received::add));
+        final Unlockable unlockable = new Unlockable(givenAchievementBean("simple", "some category"), 2, 456L);
+
+        eventBus.publishUnlocked(underTest.createEvent(unlockable));
+
+        assertThat(received.size(), is(1));
+        assertThat(received.get(0).getId(), is("simple"));
+        assertThat(received.get(0).getLevel(), is(2));
+        assertThat(received.get(0).getTriggerValue(), is("456"));
+    }
+
     private ScoreAchievementBean givenAchievementBean(String id, String category) {
         final ScoreAchievementBean achievementBean = new ScoreAchievementBean();
         achievementBean.setId(id);
@@ -7,13 +7,21 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import net.csongradyp.badger.AchievementBundle;
 import net.csongradyp.badger.AchievementDefinition;
+import net.csongradyp.badger.Unlockable;
 import net.csongradyp.badger.domain.AchievementType;
 import net.csongradyp.badger.domain.IAchievement;
 import net.csongradyp.badger.domain.achievement.ScoreAchievementBean;
-import net.csongradyp.badger.event.IAchievementUnlockedEvent;
-import net.csongradyp.badger.event.message.AchievementUnlockedEvent;
+import net.csongradyp.badger.domain.achievement.TimeAchievementBean;
+import net.csongradyp.badger.domain.achievement.TimeRangeAchievementBean;
+import net.csongradyp.badger.domain.achievement.trigger.ScoreTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTriggerPair;
+import net.csongradyp.badger.persistence.AchievementDao;
 import net.csongradyp.badger.persistence.EventDao;
+import net.csongradyp.badger.provider.date.ClockReading;
+import net.csongradyp.badger.provider.date.IDateProvider;
+import org.joda.time.LocalTime;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -24,6 +32,10 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
 public class AchievementUnlockProviderFacadeTest {
@@ -34,11 +46,15 @@ public class AchievementUnlockProviderFacadeTest {
     @Mock
     private EventDao mockEventDao;
     @Mock
+    private AchievementDao mockAchievementDao;
+    @Mock
     private AchievementDefinition mockAchievementDefinition;
     @Mock
     private Map<AchievementType, IUnlockedProvider<IAchievement>> mockUnlockedProviders;
     @Mock
     private IUnlockedProvider mockUnlockedProvider;
+    @Mock
+    private IDateProvider mockDateProvider;
 
     private AchievementUnlockProviderFacade underTest;
 
@@ -46,6 +62,8 @@ public class AchievementUnlockProviderFacadeTest {
     public void setUp() {
         underTest = new AchievementUnlockProviderFacade();
         underTest.setEventDao(mockEventDao);
+        underTest.setAchievementDao(mockAchievementDao);
+        underTest.setDateProvider(mockDateProvider);
         underTest.setAchievementDefinition(mockAchievementDefinition);
         underTest.setUnlockedProviders(mockUnlockedProviders);
     }
@@ -58,13 +76,13 @@ public class AchievementUnlockProviderFacadeTest {
         given(mockAchievementDefinition.getAll()).willReturn(Collections.singletonList(achievementBean));
         given(mockEventDao.scoreOf(EVENT_ID)).willReturn(score);
         given(mockUnlockedProviders.get(AchievementType.SCORE)).willReturn(mockUnlockedProvider);
-        final IAchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", "");
-        given(mockUnlockedProvider.getUnlockable(achievementBean, score)).willReturn(Optional.of(unlockedEvent));
+        final Unlockable unlockable = new Unlockable(achievementBean, 1L);
+        given(mockUnlockedProvider.getUnlockable(achievementBean, score)).willReturn(Optional.of(unlockable));
 
-        final Collection<IAchievementUnlockedEvent> result = underTest.findAll();
+        final Collection<Unlockable> result = underTest.findAll();
 
         assertThat(result.size(), is(equalTo(1)));
-        assertThat(result.iterator().next(), is(unlockedEvent));
+        assertThat(result.iterator().next(), is(unlockable));
     }
 
     @Test
@@ -75,13 +93,13 @@ public class AchievementUnlockProviderFacadeTest {
         achievementBean.setSubscriptions(new String[]{EVENT_ID});
         given(mockAchievementDefinition.getAchievementsSubscribedFor(EVENT_ID)).willReturn(Collections.singletonList(achievementBean));
         given(mockUnlockedProviders.get(AchievementType.SCORE)).willReturn(mockUnlockedProvider);
-        final IAchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", "");
-        given(mockUnlockedProvider.getUnlockable(achievementBean, score)).willReturn(Optional.of(unlockedEvent));
+        final Unlockable unlockable = new Unlockable(achievementBean, 1L);
+        given(mockUnlockedProvider.getUnlockable(achievementBean, score)).willReturn(Optional.of(unlockable));
 
-        final Collection<IAchievementUnlockedEvent> result = underTest.findUnlockables(EVENT_ID);
+        final Collection<Unlockable> result = underTest.findUnlockables(EVENT_ID);
 
         assertThat(result.size(), is(equalTo(1)));
-        assertThat(result.iterator().next(), is(unlockedEvent));
+        assertThat(result.iterator().next(), is(unlockable));
     }
 
     @Test
@@ -93,13 +111,179 @@ public class AchievementUnlockProviderFacadeTest {
         achievementBean.setSubscriptions(new String[]{EVENT_ID});
         given(mockAchievementDefinition.getAchievementsSubscribedFor(EVENT_ID)).willReturn(Collections.singletonList(achievementBean));
         given(mockUnlockedProviders.get(AchievementType.SCORE)).willReturn(mockUnlockedProvider);
-        final IAchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", "");
-        given(mockUnlockedProvider.getUnlockable(achievementBean, score)).willReturn(Optional.of(unlockedEvent));
+        final Unlockable unlockable = new Unlockable(achievementBean, 1L);
+        given(mockUnlockedProvider.getUnlockable(achievementBean, score)).willReturn(Optional.of(unlockable));
 
-        final Collection<IAchievementUnlockedEvent> result = underTest.findUnlockables(EVENT_ID, owners);
+        final Collection<Unlockable> result = underTest.findUnlockables(EVENT_ID, owners);
 
         assertThat(result.size(), is(equalTo(1)));
-        assertThat(result.iterator().next(), is(unlockedEvent));
+        assertThat(result.iterator().next(), is(unlockable));
         assertThat(result.iterator().next().getOwners(), is(equalTo(owners)));
     }
+
+    @Test
+    public void testFindUnlockablesWithPreviousScoreEvaluatesScoreAchievementsOnlyWhenThresholdIsCrossed() throws Exception {
+        final ScoreAchievementBean achievementBean = new ScoreAchievementBean();
+        achievementBean.setId(ACHIEVEMENT_ID);
+        achievementBean.setSubscriptions(new String[]{EVENT_ID});
+        achievementBean.setTrigger(Collections.singletonList(new ScoreTrigger(10L)));
+        final AchievementBundle bundle = new AchievementBundle();
+        bundle.setEvents(new String[]{EVENT_ID});
+        bundle.setAchievements(Collections.singletonList(achievementBean));
+        underTest.setAchievementDefinition(bundle);
+        given(mockUnlockedProviders.get(AchievementType.SCORE)).willReturn(mockUnlockedProvider);
+        final Unlockable unlockable = new Unlockable(achievementBean, 1L);
+        given(mockUnlockedProvider.getUnlockable(achievementBean, 10L)).willReturn(Optional.of(unlockable));
+
+        final Collection<Unlockable> notCrossed = underTest.findUnlockables(EVENT_ID, 7L, 8L, Collections.emptySet());
+        final Collection<Unlockable> crossed = underTest.findUnlockables(EVENT_ID, 9L, 10L, Collections.emptySet());
+
+        verify(mockUnlockedProvider, times(1)).getUnlockable(any(IAchievement.class), anyLong());
+        assertThat(notCrossed.isEmpty(), is(true));
+        assertThat(crossed.size(), is(equalTo(1)));
+        assertThat(crossed.iterator().next(), is(unlockable));
+    }
+
+    @Test
+    public void testFindUnlockablesWithPreviousScoreEvaluatesReachedGreaterThanAchievementsUntilTheirLevelIsUnlocked() throws Exception {
+        final ScoreAchievementBean achievementBean = new ScoreAchievementBean();
+        achievementBean.setId(ACHIEVEMENT_ID);
+        achievementBean.setSubscriptions(new String[]{EVENT_ID});
+        achievementBean.setTrigger(Collections.singletonList(new ScoreTrigger(10L, ScoreTrigger.Operation.GREATER_THAN)));
+        setDefinition(achievementBean);
+        given(mockUnlockedProviders.get(AchievementType.SCORE)).willReturn(mockUnlockedProvider);
+        given(mockUnlockedProvider.getUnlockable(any(IAchievement.class), anyLong())).willReturn(Optional.empty());
+
+        underTest.findUnlockables(EVENT_ID, 20L, 21L, Collections.emptySet());
+        given(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID, 1)).willReturn(true);
+        underTest.findUnlockables(EVENT_ID, 21L, 22L, Collections.emptySet());
+
+        verify(mockUnlockedProvider, times(1)).getUnlockable(any(IAchievement.class), anyLong());
+        verify(mockUnlockedProvider).getUnlockable(achievementBean, 21L);
+    }
+
+    @Test
+    public void testFindUnlockablesWithPreviousScoreEvaluatesTimeRangeAchievementsOnlyWhenClockIsInRange() throws Exception {
+        final TimeRangeAchievementBean achievementBean = new TimeRangeAchievementBean();
+        achievementBean.setId(ACHIEVEMENT_ID);
+        achievementBean.setSubscriptions(new String[]{EVENT_ID});
+        achievementBean.setTrigger(Collections.singletonList(new TimeTriggerPair(new LocalTime(22, 0), new LocalTime(2, 0))));
+        setDefinition(achievementBean);
+        given(mockUnlockedProviders.get(AchievementType.TIME_RANGE)).willReturn(mockUnlockedProvider);
+        given(mockUnlockedProvider.getUnlockable(any(IAchievement.class), anyLong())).willReturn(Optional.empty());
+        given(mockDateProvider.currentReading()).willReturn(ClockReading.of(new LocalTime(12, 0).toDateTimeToday().getMillis()));
+        underTest.findUnlockables(EVENT_ID, 0L, 1L, Collections.emptySet());
+        given(mockDateProvider.currentReading()).willReturn(ClockReading.of(new LocalTime(1, 0).toDateTimeToday().getMillis()));
+
+        underTest.findUnlockables(EVENT_ID, 1L, 2L, Collections.emptySet());
+
+        verify(mockUnlockedProvider, times(1)).getUnlockable(any(IAchievement.class), anyLong());
+        verify(mockUnlockedProvider).getUnlockable(achievementBean, 2L);
+    }
+
+    @Test
+    public void testFindChangedEvaluatesAllAchievementsOnFirstCall() throws Exception {
+        final ScoreAchievementBean achievementBean = scoreAchievement();
+        setDefinition(achievementBean);
+        final Unlockable unlockable = new Unlockable(achievementBean, 1L);
+        given(mockUnlockedProvider.getUnlockable(achievementBean, 1L)).willReturn(Optional.of(unlockable));
+
+        final Collection<Unlockable> result = underTest.findChanged();
+
+        assertThat(result.size(), is(equalTo(1)));
+        assertThat(result.iterator().next(), is(unlockable));
+    }
+
+    @Test
+    public void testFindChangedEvaluatesNothingWithoutChanges() throws Exception {
+        setDefinition(scoreAchievement());
+        underTest.findAll();
+
+        final Collection<Unlockable> result = underTest.findChanged();
+
+        assertThat(result.isEmpty(), is(true));
+        verify(mockUnlockedProvider, times(1)).getUnlockable(any(IAchievement.class), anyLong());
+    }
+
+    @Test
+    public void testFindChangedEvaluatesAchievementsSubscribedForChangedEvents() throws Exception {
+        final ScoreAchievementBean achievementBean = scoreAchievement();
+        final ScoreAchievementBean otherAchievementBean = new ScoreAchievementBean();
+        otherAchievementBean.setId("other");
+        otherAchievementBean.setSubscriptions(new String[]{"otherEvent"});
+        setDefinition(achievementBean, otherAchievementBean);
+        underTest.findAll();
+        underTest.findUnlockables(EVENT_ID, 0L, 1L, Collections.emptySet());
+        final Unlockable unlockable = new Unlockable(achievementBean, 1L);
+        given(mockUnlockedProvider.getUnlockable(achievementBean, 1L)).willReturn(Optional.of(unlockable));
+
+        final Collection<Unlockable> result = underTest.findChanged();
+        final Collection<Unlockable> secondResult = underTest.findChanged();
+
+        assertThat(result.size(), is(equalTo(1)));
+        assertThat(secondResult.isEmpty(), is(true));
+        verify(mockEventDao, times(1)).scoreOf("otherEvent");
+    }
+
+    @Test
+    public void testFindChangedEvaluatesTimeBasedAchievementsWhenClockMovedToAnotherMinute() throws Exception {
+        final ScoreAchievementBean scoreAchievementBean = scoreAchievement();
+        final TimeAchievementBean timeAchievementBean = new TimeAchievementBean();
+        timeAchievementBean.setId("time");
+        timeAchievementBean.setSubscriptions(new String[]{EVENT_ID});
+        given(mockUnlockedProviders.get(AchievementType.TIME)).willReturn(mockUnlockedProvider);
+        setDefinition(scoreAchievementBean, timeAchievementBean);
+        given(mockDateProvider.currentTimeMillis()).willReturn(0L);
+        underTest.findAll();
+        given(mockDateProvider.currentTimeMillis()).willReturn(60000L);
+
+        underTest.findChanged();
+
+        verify(mockUnlockedProvider, times(2)).getUnlockable(timeAchievementBean, 1L);
+        verify(mockUnlockedProvider, times(1)).getUnlockable(scoreAchievementBean, 1L);
+    }
+
+    @Test
+    public void testSetAchievementDefinitionRequestsFullCheck() throws Exception {
+        final ScoreAchievementBean achievementBean = scoreAchievement();
+        setDefinition(achievementBean);
+        underTest.findAll();
+
+        setDefinition(achievementBean);
+        underTest.findChanged();
+
+        verify(mockUnlockedProvider, times(2)).getUnlockable(achievementBean, 1L);
+    }
+
+    @Test
+    public void testFindUnlockablesWithPreviousScoreUsesReplacedDefinition() throws Exception {
+        final ScoreAchievementBean replaced = scoreAchievement();
+        setDefinition(replaced);
+        final ScoreAchievementBean replacement = scoreAchievement();
+        replacement.setId("replacement");
+        setDefinition(replacement);
+
+        underTest.findUnlockables(EVENT_ID, 0L, 1L, Collections.emptySet());
+
+        verify(mockUnlockedProvider, times(1)).getUnlockable(replacement, 1L);
+        verify(mockUnlockedProvider, times(0)).getUnlockable(replaced, 1L);
+    }
+
+    private ScoreAchievementBean scoreAchievement() {
+        final ScoreAchievementBean achievementBean = new ScoreAchievementBean();
+        achievementBean.setId(ACHIEVEMENT_ID);
+        achievementBean.setSubscriptions(new String[]{EVENT_ID});
+        achievementBean.setTrigger(Collections.singletonList(new ScoreTrigger(1L)));
+        given(mockEventDao.scoreOf(EVENT_ID)).willReturn(1L);
+        given(mockUnlockedProviders.get(AchievementType.SCORE)).willReturn(mockUnlockedProvider);
+        given(mockUnlockedProvider.getUnlockable(any(IAchievement.class), anyLong())).willReturn(Optional.empty());
+        return achievementBean;
+    }
+
+    private void setDefinition(final IAchievement... achievements) {
+        final AchievementBundle bundle = new AchievementBundle();
+        bundle.setEvents(new String[]{EVENT_ID, "otherEvent"});
+        bundle.setAchievements(Arrays.asList(achievements));
+        underTest.setAchievementDefinition(bundle);
+    }
 }
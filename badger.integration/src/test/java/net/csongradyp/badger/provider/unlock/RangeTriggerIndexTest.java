@@ -0,0 +1,141 @@
+package net.csongradyp.badger.provider.unlock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import net.csongradyp.badger.AchievementBundle;
+import net.csongradyp.badger.domain.IAchievement;
+import net.csongradyp.badger.domain.achievement.ScoreAchievementBean;
+import net.csongradyp.badger.domain.achievement.ScoreRangeAchievementBean;
+import net.csongradyp.badger.domain.achievement.TimeRangeAchievementBean;
+import net.csongradyp.badger.domain.achievement.trigger.ScoreTriggerPair;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTriggerPair;
+import org.joda.time.LocalTime;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class RangeTriggerIndexTest {
+
+    private static final String EVENT_ID = "event";
+
+    private ScoreRangeAchievementBean scoreRange;
+    private ScoreRangeAchievementBean reversedScoreRange;
+    private TimeRangeAchievementBean timeRange;
+    private TimeRangeAchievementBean reversedTimeRange;
+    private RangeTriggerIndex underTest;
+
+    @Before
+    public void setUp() {
+        scoreRange = scoreRange("scoreRange", new ScoreTriggerPair(50L, 60L));
+        reversedScoreRange = scoreRange("reversedScoreRange", new ScoreTriggerPair(100L, 10L));
+        timeRange = timeRange("timeRange", new TimeTriggerPair(new LocalTime(8, 0), new LocalTime(12, 0)));
+        reversedTimeRange = timeRange("reversedTimeRange", new TimeTriggerPair(new LocalTime(22, 0), new LocalTime(2, 0)));
+        final ScoreAchievementBean scoreAchievement = new ScoreAchievementBean();
+        scoreAchievement.setId("score");
+        scoreAchievement.setSubscriptions(new String[]{EVENT_ID});
+
+        final AchievementBundle bundle = new AchievementBundle();
+        bundle.setEvents(new String[]{EVENT_ID, "other"});
+        bundle.setAchievements(Arrays.asList(scoreRange, reversedScoreRange, timeRange, reversedTimeRange, scoreAchievement));
+        underTest = new RangeTriggerIndex(bundle);
+    }
+
+    @Test
+    public void testScoreRangesContainingReturnsRangesContainingTheScore() {
+        assertThat(underTest.scoreRangesContaining(EVENT_ID, 55L).size(), is(1));
+        assertThat(underTest.scoreRangesContaining(EVENT_ID, 55L), hasItem(scoreRange));
+        assertThat(underTest.scoreRangesContaining(EVENT_ID, 50L), hasItem(scoreRange));
+        assertThat(underTest.scoreRangesContaining(EVENT_ID, 60L), hasItem(scoreRange));
+        assertThat(underTest.scoreRangesContaining(EVENT_ID, 61L).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testScoreRangesContainingSplitsReversedRange() {
+        assertThat(underTest.scoreRangesContaining(EVENT_ID, 9L), hasItem(reversedScoreRange));
+        assertThat(underTest.scoreRangesContaining(EVENT_ID, 101L), hasItem(reversedScoreRange));
+        assertThat(underTest.scoreRangesContaining(EVENT_ID, 10L).isEmpty(), is(true));
+        assertThat(underTest.scoreRangesContaining(EVENT_ID, 100L).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testTimeRangesContainingSkipsOnlyTheMinuteOfARangeStartingAndEndingTogether() {
+        final TimeRangeAchievementBean sameMinuteRange = timeRange("sameMinuteRange", new TimeTriggerPair(new LocalTime(8, 0), new LocalTime(8, 0)));
+        final AchievementBundle bundle = new AchievementBundle();
+        bundle.setEvents(new String[]{EVENT_ID});
+        bundle.setAchievements(Arrays.asList(sameMinuteRange));
+        final RangeTriggerIndex index = new RangeTriggerIndex(bundle);
+
+        assertThat(index.timeRangesContaining(EVENT_ID, 8 * 60).isEmpty(), is(true));
+        assertThat(index.timeRangesContaining(EVENT_ID, 8 * 60 - 1), hasItem(sameMinuteRange));
+        assertThat(index.timeRangesContaining(EVENT_ID, 8 * 60 + 1), hasItem(sameMinuteRange));
+        assertThat(index.timeRangesContaining(EVENT_ID, 0), hasItem(sameMinuteRange));
+    }
+
+    @Test
+    public void testTimeRangesContainingSplitsReversedRange() {
+        assertThat(underTest.timeRangesContaining(EVENT_ID, 23 * 60).size(), is(1));
+        assertThat(underTest.timeRangesContaining(EVENT_ID, 23 * 60), hasItem(reversedTimeRange));
+        assertThat(underTest.timeRangesContaining(EVENT_ID, 60), hasItem(reversedTimeRange));
+        assertThat(underTest.timeRangesContaining(EVENT_ID, 10 * 60), hasItem(timeRange));
+        assertThat(underTest.timeRangesContaining(EVENT_ID, 13 * 60).isEmpty(), is(true));
+        assertThat(underTest.timeRangesContaining(23 * 60), hasItem(reversedTimeRange));
+    }
+
+    @Test
+    public void testEventsWithoutRangesHaveNoMatches() {
+        assertThat(underTest.hasTimeRanges(EVENT_ID), is(true));
+        assertThat(underTest.hasTimeRanges("other"), is(false));
+        assertThat(underTest.scoreRangesContaining("other", 55L).isEmpty(), is(true));
+        assertThat(underTest.timeRangesContaining("unknown", 600).isEmpty(), is(true));
+        assertThat(new RangeTriggerIndex().hasTimeRanges(), is(false));
+    }
+
+    @Test
+    public void testContainingReturnsTheSameAchievementsAsTheTriggers() {
+        final Random random = new Random(42L);
+        final List<IAchievement> achievements = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            final LocalTime start = new LocalTime(random.nextInt(24), random.nextInt(60));
+            final LocalTime end = new LocalTime(random.nextInt(24), random.nextInt(60));
+            achievements.add(timeRange("range" + i, new TimeTriggerPair(start, end)));
+        }
+        final AchievementBundle bundle = new AchievementBundle();
+        bundle.setEvents(new String[]{EVENT_ID});
+        bundle.setAchievements(achievements);
+        final RangeTriggerIndex index = new RangeTriggerIndex(bundle);
+
+        for (int minute = 0; minute < 24 * 60; minute++) {
+            final int point = minute;
+            final List<IAchievement> expected = achievements.stream()
+                    .filter(achievement -> ((TimeRangeAchievementBean) achievement).getTrigger().get(0).fire(point))
+                    .collect(Collectors.toList());
+            final Collection<IAchievement> result = index.timeRangesContaining(EVENT_ID, point);
+            assertThat(result.size(), is(equalTo(expected.size())));
+            assertThat(result.containsAll(expected), is(true));
+        }
+    }
+
+    private ScoreRangeAchievementBean scoreRange(final String id, final ScoreTriggerPair trigger) {
+        final ScoreRangeAchievementBean achievement = new ScoreRangeAchievementBean();
+        achievement.setId(id);
+        achievement.setSubscriptions(new String[]{EVENT_ID});
+        achievement.setTrigger(Arrays.asList(trigger));
+        return achievement;
+    }
+
+    private TimeRangeAchievementBean timeRange(final String id, final TimeTriggerPair trigger) {
+        final TimeRangeAchievementBean achievement = new TimeRangeAchievementBean();
+        achievement.setId(id);
+        achievement.setSubscriptions(new String[]{EVENT_ID});
+        achievement.setTrigger(Arrays.asList(trigger));
+        return achievement;
+    }
+}
@@ -0,0 +1,121 @@
+package net.csongradyp.badger.provider.unlock;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import net.csongradyp.badger.AchievementBundle;
+import net.csongradyp.badger.domain.IAchievement;
+import net.csongradyp.badger.domain.achievement.ScoreAchievementBean;
+import net.csongradyp.badger.domain.achievement.ScoreRangeAchievementBean;
+import net.csongradyp.badger.domain.achievement.SingleAchievementBean;
+import net.csongradyp.badger.domain.achievement.trigger.ScoreTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.ScoreTriggerPair;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ScoreThresholdIndexTest {
+
+    private static final String EVENT_ID = "event";
+
+    private ScoreAchievementBean scoreAchievement;
+    private ScoreAchievementBean lessThanAchievement;
+    private ScoreRangeAchievementBean rangeAchievement;
+    private final Set<String> unlockedLevels = new HashSet<>();
+    private final BiPredicate<String, Integer> isUnlocked = (id, level) -> unlockedLevels.contains(id + ":" + level);
+    private ScoreThresholdIndex underTest;
+
+    @Before
+    public void setUp() {
+        scoreAchievement = new ScoreAchievementBean();
+        scoreAchievement.setId("score");
+        scoreAchievement.setSubscriptions(new String[]{EVENT_ID});
+        scoreAchievement.setTrigger(Arrays.asList(new ScoreTrigger(10L, ScoreTrigger.Operation.GREATER_THAN), new ScoreTrigger(100L)));
+        lessThanAchievement = new ScoreAchievementBean();
+        lessThanAchievement.setId("lessThan");
+        lessThanAchievement.setSubscriptions(new String[]{EVENT_ID});
+        lessThanAchievement.setTrigger(Arrays.asList(new ScoreTrigger(5L, ScoreTrigger.Operation.LESS_THAN)));
+        rangeAchievement = new ScoreRangeAchievementBean();
+        rangeAchievement.setId("range");
+        rangeAchievement.setSubscriptions(new String[]{EVENT_ID});
+        rangeAchievement.setTrigger(Arrays.asList(new ScoreTriggerPair(50L, 60L)));
+        final SingleAchievementBean singleAchievement = new SingleAchievementBean();
+        singleAchievement.setId("single");
+        singleAchievement.setSubscriptions(new String[]{EVENT_ID});
+
+        final AchievementBundle bundle = new AchievementBundle();
+        bundle.setEvents(new String[]{EVENT_ID, "other"});
+        bundle.setAchievements(Arrays.asList(scoreAchievement, lessThanAchievement, rangeAchievement, singleAchievement));
+        underTest = new ScoreThresholdIndex(bundle);
+    }
+
+    @Test
+    public void testAffectedReturnsEmptyWhenNoThresholdIsBetweenTheValuesAndReachedLevelsAreUnlocked() {
+        unlockedLevels.add("score:1");
+
+        assertThat(affected(EVENT_ID, 11L, 12L).isEmpty(), is(true));
+        assertThat(affected(EVENT_ID, 61L, 99L).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testAffectedReturnsAchievementWithLockedLevelWhenGreaterThanThresholdIsAlreadyReached() {
+        assertThat(affected(EVENT_ID, 11L, 12L), hasItem(scoreAchievement));
+        assertThat(affected(EVENT_ID, 12L, 11L), hasItem(scoreAchievement));
+        assertThat(affected(EVENT_ID, 0L, 9L).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testAffectedReturnsAchievementWhenThresholdIsReached() {
+        final Collection<IAchievement> result = affected(EVENT_ID, 9L, 10L);
+
+        assertThat(result.size(), is(1));
+        assertThat(result, hasItem(scoreAchievement));
+    }
+
+    @Test
+    public void testAffectedReturnsAchievementsWhenCounterDecreases() {
+        unlockedLevels.add("score:1");
+
+        final Collection<IAchievement> result = affected(EVENT_ID, 101L, 100L);
+
+        assertThat(result.size(), is(1));
+        assertThat(result, hasItem(scoreAchievement));
+    }
+
+    @Test
+    public void testAffectedReturnsEveryAchievementOnlyOnceWhenSeveralThresholdsAreCrossed() {
+        final Collection<IAchievement> result = affected(EVENT_ID, 0L, 1000L);
+
+        assertThat(result.size(), is(1));
+        assertThat(result, hasItem(scoreAchievement));
+    }
+
+    @Test
+    public void testAffectedReturnsLessThanAchievementWhileCounterIsNotAboveThreshold() {
+        assertThat(affected(EVENT_ID, 0L, 1L), hasItem(lessThanAchievement));
+        assertThat(affected(EVENT_ID, Long.MIN_VALUE, 5L), hasItem(lessThanAchievement));
+        assertThat(affected(EVENT_ID, 5L, 6L).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testAffectedReturnsEmptyForEventWithoutScoreAchievements() {
+        assertThat(affected("other", 0L, 1000L).isEmpty(), is(true));
+        assertThat(affected("unknown", 0L, 1000L).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testIsIndexedReturnsTrueOnlyForScoreAchievements() {
+        assertThat(ScoreThresholdIndex.isIndexed(scoreAchievement), is(true));
+        assertThat(ScoreThresholdIndex.isIndexed(rangeAchievement), is(false));
+        assertThat(ScoreThresholdIndex.isIndexed(new SingleAchievementBean()), is(false));
+    }
+
+    private Collection<IAchievement> affected(final String event, final long previousScore, final long score) {
+        return underTest.affected(event, previousScore, score, isUnlocked);
+    }
+}
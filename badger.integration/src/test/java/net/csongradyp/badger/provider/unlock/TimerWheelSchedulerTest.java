@@ -0,0 +1,200 @@
+package net.csongradyp.badger.provider.unlock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import net.csongradyp.badger.AchievementBundle;
+import net.csongradyp.badger.Unlockable;
+import net.csongradyp.badger.domain.IAchievement;
+import net.csongradyp.badger.domain.achievement.DateAchievementBean;
+import net.csongradyp.badger.domain.achievement.TimeAchievementBean;
+import net.csongradyp.badger.domain.achievement.TimeRangeAchievementBean;
+import net.csongradyp.badger.domain.achievement.trigger.DateTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTriggerPair;
+import net.csongradyp.badger.persistence.AchievementDao;
+import net.csongradyp.badger.provider.date.DateProvider;
+import net.csongradyp.badger.provider.date.VirtualDateProvider;
+import org.joda.time.DateTime;
+import org.joda.time.LocalTime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TimerWheelSchedulerTest {
+
+    private static final DateTime START = new DateTime(2014, 12, 23, 8, 0);
+
+    @Mock
+    private AchievementDao mockAchievementDao;
+    private VirtualDateProvider clock;
+    private List<Unlockable> unlocked;
+
+    private TimerWheelScheduler underTest;
+
+    @Before
+    public void setUp() {
+        clock = new VirtualDateProvider(START.getMillis());
+        unlocked = new ArrayList<>();
+        underTest = new TimerWheelScheduler();
+        underTest.setDateProvider(clock);
+        underTest.setAchievementDao(mockAchievementDao);
+    }
+
+    @After
+    public void tearDown() {
+        underTest.shutdown();
+    }
+
+    @Test
+    public void testTimeAchievementIsUnlockedAtItsTriggerMinute() {
+        final TimeAchievementBean achievement = timeAchievement("time", new LocalTime(10, 30));
+        underTest.schedule(definition(achievement), unlocked::add);
+        assertThat(unlocked.isEmpty(), is(true));
+        assertThat(underTest.nextWakeUp(), is(equalTo(START.withTime(10, 30, 0, 0).getMillis())));
+
+        underTest.advanceTo(START.withTime(11, 0, 0, 0).getMillis());
+
+        assertThat(unlocked.size(), is(equalTo(1)));
+        assertThat(unlocked.get(0).getId(), is(equalTo("time")));
+        assertThat(unlocked.get(0).getTriggerValue(), is(equalTo(START.withTime(10, 30, 0, 0).getMillis())));
+        assertThat(clock.currentTimeMillis(), is(equalTo(START.withTime(11, 0, 0, 0).getMillis())));
+    }
+
+    @Test
+    public void testOnlyDueAchievementsAreEvaluated() {
+        final TimeAchievementBean morning = timeAchievement("morning", new LocalTime(9, 0));
+        final TimeAchievementBean evening = timeAchievement("evening", new LocalTime(21, 0));
+        underTest.schedule(definition(morning, evening), unlocked::add);
+
+        underTest.advanceTo(START.withTime(12, 0, 0, 0).getMillis());
+
+        assertThat(unlocked.size(), is(equalTo(1)));
+        verify(mockAchievementDao).isUnlocked("morning");
+        verify(mockAchievementDao, never()).isUnlocked("evening");
+    }
+
+    @Test
+    public void testDateAchievementIsUnlockedAtMidnightOfItsDay() {
+        final DateAchievementBean achievement = new DateAchievementBean();
+        achievement.setId("christmas");
+        achievement.setTrigger(Collections.singletonList(new DateTrigger(new DateTime(1970, 12, 24, 0, 0).toDate())));
+        underTest.schedule(definition(achievement), unlocked::add);
+        assertThat(underTest.nextWakeUp(), is(equalTo(START.plusDays(1).withTimeAtStartOfDay().getMillis())));
+
+        underTest.advanceTo(START.plusDays(1).withTime(1, 0, 0, 0).getMillis());
+
+        assertThat(unlocked.size(), is(equalTo(1)));
+        assertThat(unlocked.get(0).getTriggerValue(), is(equalTo(START.plusDays(1).withTimeAtStartOfDay().getMillis())));
+    }
+
+    @Test
+    public void testTimeRangeAchievementIsUnlockedWhenScheduledWithinTheRange() {
+        final TimeRangeAchievementBean achievement = timeRangeAchievement("night", new LocalTime(20, 0), new LocalTime(8, 30));
+
+        underTest.schedule(definition(achievement), unlocked::add);
+
+        assertThat(unlocked.size(), is(equalTo(1)));
+        assertThat(unlocked.get(0).getTriggerValue(), is(equalTo(START.getMillis())));
+    }
+
+    @Test
+    public void testTimeRangeAchievementIsUnlockedAtTheStartOfTheRange() {
+        final TimeRangeAchievementBean achievement = timeRangeAchievement("lunch", new LocalTime(12, 0), new LocalTime(13, 0));
+        underTest.schedule(definition(achievement), unlocked::add);
+        assertThat(unlocked.isEmpty(), is(true));
+
+        underTest.advanceTo(START.withTime(12, 30, 0, 0).getMillis());
+
+        assertThat(unlocked.size(), is(equalTo(1)));
+        assertThat(unlocked.get(0).getTriggerValue(), is(equalTo(START.withTime(12, 0, 0, 0).getMillis())));
+    }
+
+    @Test
+    public void testUnlockedAchievementIsNotUnlockedAgain() {
+        final TimeAchievementBean achievement = timeAchievement("time", new LocalTime(10, 30));
+        given(mockAchievementDao.isUnlocked("time")).willReturn(true);
+        underTest.schedule(definition(achievement), unlocked::add);
+
+        underTest.advanceTo(START.plusDays(2).getMillis());
+
+        assertThat(unlocked.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testTimeAchievementIsUnlockedEveryDayUntilItIsPersisted() {
+        final TimeAchievementBean achievement = timeAchievement("time", new LocalTime(10, 30));
+        underTest.schedule(definition(achievement), unlocked::add);
+
+        underTest.advanceTo(START.plusDays(2).getMillis());
+
+        assertThat(unlocked.size(), is(equalTo(2)));
+    }
+
+    @Test
+    public void testFailedUnlockDoesNotStopTheOtherAchievementsAndTheNextWakeUp() {
+        final TimeAchievementBean failing = timeAchievement("failing", new LocalTime(10, 30));
+        final TimeAchievementBean sameMinute = timeAchievement("sameMinute", new LocalTime(10, 30));
+        final TimeAchievementBean later = timeAchievement("later", new LocalTime(11, 0));
+        underTest.schedule(definition(failing, sameMinute, later), unlockable -> {
+            if ("failing".equals(unlockable.getId())) {
+                throw new IllegalStateException("store is down");
+            }
+            unlocked.add(unlockable);
+        });
+
+        underTest.advanceTo(START.withTime(10, 30, 0, 0).getMillis());
+        assertThat(underTest.nextWakeUp(), is(equalTo(START.withTime(11, 0, 0, 0).getMillis())));
+        underTest.advanceTo(START.withTime(12, 0, 0, 0).getMillis());
+
+        assertThat(unlocked.size(), is(equalTo(2)));
+        assertThat(unlocked.get(0).getId(), is(equalTo("sameMinute")));
+        assertThat(unlocked.get(1).getId(), is(equalTo("later")));
+    }
+
+    @Test
+    public void testNothingIsScheduledWithoutTimeBasedAchievements() {
+        underTest.schedule(definition(), unlocked::add);
+
+        assertThat(underTest.nextWakeUp(), is(equalTo(Long.MAX_VALUE)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAdvanceToThrowsExceptionWithoutVirtualClock() {
+        underTest.setDateProvider(new DateProvider());
+
+        underTest.advanceTo(START.getMillis());
+    }
+
+    private static TimeAchievementBean timeAchievement(final String id, final LocalTime time) {
+        final TimeAchievementBean achievement = new TimeAchievementBean();
+        achievement.setId(id);
+        achievement.setTrigger(Collections.singletonList(new TimeTrigger(time)));
+        return achievement;
+    }
+
+    private static TimeRangeAchievementBean timeRangeAchievement(final String id, final LocalTime start, final LocalTime end) {
+        final TimeRangeAchievementBean achievement = new TimeRangeAchievementBean();
+        achievement.setId(id);
+        achievement.setTrigger(Collections.singletonList(new TimeTriggerPair(start, end)));
+        return achievement;
+    }
+
+    private static AchievementBundle definition(final IAchievement... achievements) {
+        final AchievementBundle definition = new AchievementBundle();
+        definition.setAchievements(Arrays.asList(achievements));
+        return definition;
+    }
+}
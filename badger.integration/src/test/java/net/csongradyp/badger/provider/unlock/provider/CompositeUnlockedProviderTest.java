@@ -1,13 +1,11 @@
 package net.csongradyp.badger.provider.unlock.provider;
 
-import java.util.Date;
 import java.util.Optional;
+import net.csongradyp.badger.Unlockable;
 import net.csongradyp.badger.domain.achievement.CompositeAchievementBean;
 import net.csongradyp.badger.domain.achievement.relation.Relation;
-import net.csongradyp.badger.event.IAchievementUnlockedEvent;
-import net.csongradyp.badger.event.message.AchievementUnlockedEvent;
-import net.csongradyp.badger.factory.UnlockedEventFactory;
 import net.csongradyp.badger.persistence.AchievementDao;
+import net.csongradyp.badger.provider.date.ClockReading;
 import net.csongradyp.badger.provider.date.IDateProvider;
 import org.junit.Before;
 import org.junit.Test;
@@ -20,6 +18,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
 
 @RunWith(MockitoJUnitRunner.class)
 public class CompositeUnlockedProviderTest {
@@ -28,8 +27,6 @@ public class CompositeUnlockedProviderTest {
     @Mock(answer = Answers.RETURNS_SMART_NULLS)
     private IDateProvider mockDateProvider;
     @Mock
-    private UnlockedEventFactory mockUnlockedEventFactory;
-    @Mock
     protected AchievementDao mockAchievementDao;
     @Mock
     private Relation mockRelation;
@@ -39,7 +36,6 @@ public class CompositeUnlockedProviderTest {
     @Before
     public void setUp() {
         underTest = new CompositeUnlockedProvider();
-        underTest.setUnlockedEventFactory(mockUnlockedEventFactory);
         underTest.setAchievementDao(mockAchievementDao);
         underTest.setDateProvider(mockDateProvider);
     }
@@ -47,24 +43,22 @@ public class CompositeUnlockedProviderTest {
     @Test
     public void testGetUnlockableReturnsUnlockEventWhenTriggerRelationEvaluationReturnsTrueAndAchievementIsNotUnlocked() throws Exception {
         final CompositeAchievementBean achievementBean = givenCompositeAchievementBean();
-        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", "");
-        given(mockRelation.evaluate(any(Long.class), any(Date.class), any(Date.class))).willReturn(true);
+        given(mockRelation.evaluate(anyLong(), any(ClockReading.class))).willReturn(true);
         given(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID)).willReturn(false);
-        given(mockUnlockedEventFactory.createEvent(achievementBean, "0")).willReturn(unlockedEvent);
 
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(achievementBean, 0L);
+        final Optional<Unlockable> result = underTest.getUnlockable(achievementBean, 0L);
 
         assertThat(result.isPresent(), is(true));
-        assertThat(result.get(), is(unlockedEvent));
+        assertThat(result.get().getAchievement(), is(achievementBean));
     }
 
     @Test
     public void testGetUnlockableReturnsEmptyWhenTriggerRelationEvaluationReturnsFalseAndAchievementIsNotUnlocked() throws Exception {
         final CompositeAchievementBean achievementBean = givenCompositeAchievementBean();
-        given(mockRelation.evaluate(any(Long.class), any(Date.class), any(Date.class))).willReturn(false);
+        given(mockRelation.evaluate(anyLong(), any(ClockReading.class))).willReturn(false);
         given(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID)).willReturn(false);
 
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(achievementBean, 0L);
+        final Optional<Unlockable> result = underTest.getUnlockable(achievementBean, 0L);
 
         assertThat(result.isPresent(), is(false));
     }
@@ -72,10 +66,10 @@ public class CompositeUnlockedProviderTest {
     @Test
     public void testGetUnlockableReturnsEmptyWhenTriggerRelationEvaluationReturnsTrueAndAchievementIsUnlocked() throws Exception {
         final CompositeAchievementBean achievementBean = givenCompositeAchievementBean();
-        given(mockRelation.evaluate(any(Long.class), any(Date.class), any(Date.class))).willReturn(true);
+        given(mockRelation.evaluate(anyLong(), any(ClockReading.class))).willReturn(true);
         given(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID)).willReturn(true);
 
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(achievementBean, 0L);
+        final Optional<Unlockable> result = underTest.getUnlockable(achievementBean, 0L);
 
         assertThat(result.isPresent(), is(false));
     }
@@ -83,10 +77,10 @@ public class CompositeUnlockedProviderTest {
     @Test
     public void testGetUnlockableReturnsEmptyWhenTriggerRelationEvaluationReturnsFalseAndAchievementIsUnlocked() throws Exception {
         final CompositeAchievementBean achievementBean = givenCompositeAchievementBean();
-        given(mockRelation.evaluate(any(Long.class), any(Date.class), any(Date.class))).willReturn(false);
+        given(mockRelation.evaluate(anyLong(), any(ClockReading.class))).willReturn(false);
         given(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID)).willReturn(true);
 
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(achievementBean, 0L);
+        final Optional<Unlockable> result = underTest.getUnlockable(achievementBean, 0L);
 
         assertThat(result.isPresent(), is(false));
     }
@@ -1,14 +1,14 @@
 package net.csongradyp.badger.provider.unlock.provider;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import net.csongradyp.badger.Unlockable;
 import net.csongradyp.badger.domain.achievement.DateAchievementBean;
 import net.csongradyp.badger.domain.achievement.trigger.DateTrigger;
-import net.csongradyp.badger.event.IAchievementUnlockedEvent;
-import net.csongradyp.badger.event.message.AchievementUnlockedEvent;
-import net.csongradyp.badger.factory.UnlockedEventFactory;
 import net.csongradyp.badger.persistence.AchievementDao;
+import net.csongradyp.badger.provider.date.ClockReading;
 import net.csongradyp.badger.provider.date.DateProvider;
 import net.csongradyp.badger.provider.date.IDateProvider;
 import org.joda.time.DateTime;
@@ -18,10 +18,10 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
-import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
 
 @RunWith(MockitoJUnitRunner.class)
 public class DateUnlockedProviderTest {
@@ -30,8 +30,6 @@ public class DateUnlockedProviderTest {
     @Mock
     private IDateProvider mockDateProvider;
     @Mock
-    private UnlockedEventFactory mockUnlockedEventFactory;
-    @Mock
     protected AchievementDao mockAchievementDao;
 
     private DateUnlockedProvider underTest;
@@ -40,7 +38,6 @@ public class DateUnlockedProviderTest {
     public void setUp() {
         underTest = new DateUnlockedProvider();
         underTest.setDateProvider(mockDateProvider);
-        underTest.setUnlockedEventFactory(mockUnlockedEventFactory);
         underTest.setAchievementDao(mockAchievementDao);
     }
 
@@ -50,16 +47,14 @@ public class DateUnlockedProviderTest {
         final DateAchievementBean dateAchievementBean = new DateAchievementBean();
         dateAchievementBean.setId(ACHIEVEMENT_ID);
         dateAchievementBean.setTrigger(givenDateTrigger(date));
-        given(mockDateProvider.currentDate()).willReturn(new DateTime(2015, 2, 14, 0, 0).toDate());
-        given(mockDateProvider.currentDateString()).willReturn(date);
+        given(mockDateProvider.currentReading()).willReturn(ClockReading.of(new DateTime(2015, 2, 14, 0, 0).getMillis()));
+        given(mockDateProvider.getDate(any(Date.class))).willReturn(date);
         given(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID)).willReturn(false);
-        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", date);
-        given(mockUnlockedEventFactory.createEvent(dateAchievementBean, date)).willReturn(unlockedEvent);
 
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(dateAchievementBean, 0L);
+        final Optional<Unlockable> result = underTest.getUnlockable(dateAchievementBean, 0L);
 
         assertThat(result.isPresent(), is(true));
-        assertThat(result.get(), is(equalTo(unlockedEvent)));
+        assertThat(result.get().getAchievement(), is(dateAchievementBean));
     }
 
     @Test
@@ -68,10 +63,10 @@ public class DateUnlockedProviderTest {
         final DateAchievementBean dateAchievementBean = new DateAchievementBean();
         dateAchievementBean.setId(ACHIEVEMENT_ID);
         dateAchievementBean.setTrigger(givenDateTrigger(date));
-        given(mockDateProvider.currentDate()).willReturn(new DateTime(2015, 2, 14, 0, 0).toDate());
+        given(mockDateProvider.currentReading()).willReturn(ClockReading.of(new DateTime(2015, 2, 14, 0, 0).getMillis()));
         given(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID)).willReturn(true);
 
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(dateAchievementBean, 0L);
+        final Optional<Unlockable> result = underTest.getUnlockable(dateAchievementBean, 0L);
 
         assertThat(result.isPresent(), is(false));
     }
@@ -82,10 +77,10 @@ public class DateUnlockedProviderTest {
         final DateAchievementBean dateAchievementBean = new DateAchievementBean();
         dateAchievementBean.setId(ACHIEVEMENT_ID);
         dateAchievementBean.setTrigger(givenDateTrigger(trigger));
-        given(mockDateProvider.currentDate()).willReturn(new DateTime(2015, 2, 14, 0, 0).toDate());
+        given(mockDateProvider.currentReading()).willReturn(ClockReading.of(new DateTime(2015, 2, 14, 0, 0).getMillis()));
         given(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID)).willReturn(false);
 
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(dateAchievementBean, 0L);
+        final Optional<Unlockable> result = underTest.getUnlockable(dateAchievementBean, 0L);
 
         assertThat(result.isPresent(), is(false));
     }
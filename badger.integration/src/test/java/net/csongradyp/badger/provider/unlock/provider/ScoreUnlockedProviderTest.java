@@ -3,11 +3,9 @@ package net.csongradyp.badger.provider.unlock.provider;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import net.csongradyp.badger.Unlockable;
 import net.csongradyp.badger.domain.achievement.ScoreAchievementBean;
 import net.csongradyp.badger.domain.achievement.trigger.ScoreTrigger;
-import net.csongradyp.badger.event.IAchievementUnlockedEvent;
-import net.csongradyp.badger.event.message.AchievementUnlockedEvent;
-import net.csongradyp.badger.factory.UnlockedEventFactory;
 import net.csongradyp.badger.persistence.AchievementDao;
 import org.junit.Before;
 import org.junit.Test;
@@ -25,8 +23,6 @@ public class ScoreUnlockedProviderTest {
     private static final String ACHIEVEMENT_ID = "id";
     private static final long TEN = 10L;
     @Mock
-    private UnlockedEventFactory mockUnlockedEventFactory;
-    @Mock
     protected AchievementDao mockAchievementDao;
 
     private ScoreUnlockedProvider underTest;
@@ -34,7 +30,6 @@ public class ScoreUnlockedProviderTest {
     @Before
     public void setUp() {
         underTest = new ScoreUnlockedProvider();
-        underTest.setUnlockedEventFactory(mockUnlockedEventFactory);
         underTest.setAchievementDao(mockAchievementDao);
     }
 
@@ -42,65 +37,60 @@ public class ScoreUnlockedProviderTest {
     public void testGetUnlockableReturnsUnlockableAchievementWhenTheGivenScoreEqualsTheTriggerDefinedWithEquality() {
         final ScoreAchievementBean scoreAchievementBean = givenScoreAchievementBean(10L, ScoreTrigger.Operation.EQUALS);
         given(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID)).willReturn(false);
-        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", String.valueOf(TEN));
-        given(mockUnlockedEventFactory.createEvent(scoreAchievementBean, 1, TEN)).willReturn(unlockedEvent);
 
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(scoreAchievementBean, TEN);
+        final Optional<Unlockable> result = underTest.getUnlockable(scoreAchievementBean, TEN);
 
         assertThat(result.isPresent(), is(true));
-        assertThat(result.get(), is(unlockedEvent));
+        assertThat(result.get().getAchievement(), is(scoreAchievementBean));
+        assertThat(result.get().getTriggerValue(), is(TEN));
     }
 
     @Test
     public void testGetUnlockableReturnsUnlockableAchievementWhenTheGivenScoreIsGreaterThanTheTriggerDefinedWithPlus() {
         final ScoreAchievementBean scoreAchievementBean = givenScoreAchievementBean(5L, ScoreTrigger.Operation.GREATER_THAN);
         given(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID)).willReturn(false);
-        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", String.valueOf(TEN));
-        given(mockUnlockedEventFactory.createEvent(scoreAchievementBean, 1, TEN)).willReturn(unlockedEvent);
 
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(scoreAchievementBean, TEN);
+        final Optional<Unlockable> result = underTest.getUnlockable(scoreAchievementBean, TEN);
 
         assertThat(result.isPresent(), is(true));
-        assertThat(result.get(), is(unlockedEvent));
+        assertThat(result.get().getAchievement(), is(scoreAchievementBean));
+        assertThat(result.get().getTriggerValue(), is(TEN));
     }
 
     @Test
     public void testGetUnlockableReturnsUnlockableAchievementWhenTheGivenScoreIsEqualToTheTriggerDefinedWithPlus() {
         final ScoreAchievementBean counterAchievementBean = givenScoreAchievementBean(10L, ScoreTrigger.Operation.GREATER_THAN);
         given(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID)).willReturn(false);
-        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", String.valueOf(TEN));
-        given(mockUnlockedEventFactory.createEvent(counterAchievementBean, 1, TEN)).willReturn(unlockedEvent);
 
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(counterAchievementBean, TEN);
+        final Optional<Unlockable> result = underTest.getUnlockable(counterAchievementBean, TEN);
 
         assertThat(result.isPresent(), is(true));
-        assertThat(result.get(), is(unlockedEvent));
+        assertThat(result.get().getAchievement(), is(counterAchievementBean));
+        assertThat(result.get().getTriggerValue(), is(TEN));
     }
 
     @Test
     public void testGetUnlockableReturnsUnlockableAchievementWhenTheGivenScoreIsLessThanTheTriggerDefinedWithMinus() {
         final ScoreAchievementBean scoreAchievementBean = givenScoreAchievementBean(20L, ScoreTrigger.Operation.LESS_THAN);
         given(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID)).willReturn(false);
-        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", String.valueOf(TEN));
-        given(mockUnlockedEventFactory.createEvent(scoreAchievementBean, 1, TEN)).willReturn(unlockedEvent);
 
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(scoreAchievementBean, TEN);
+        final Optional<Unlockable> result = underTest.getUnlockable(scoreAchievementBean, TEN);
 
         assertThat(result.isPresent(), is(true));
-        assertThat(result.get(), is(unlockedEvent));
+        assertThat(result.get().getAchievement(), is(scoreAchievementBean));
+        assertThat(result.get().getTriggerValue(), is(TEN));
     }
 
     @Test
     public void testGetUnlockableReturnsUnlockableAchievementWhenTheGivenScoreIsEqualToTheTriggerDefinedWithMinus() {
         final ScoreAchievementBean scoreAchievementBean = givenScoreAchievementBean(10L, ScoreTrigger.Operation.LESS_THAN);
         given(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID)).willReturn(false);
-        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", String.valueOf(TEN));
-        given(mockUnlockedEventFactory.createEvent(scoreAchievementBean, 1, TEN)).willReturn(unlockedEvent);
 
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(scoreAchievementBean, TEN);
+        final Optional<Unlockable> result = underTest.getUnlockable(scoreAchievementBean, TEN);
 
         assertThat(result.isPresent(), is(true));
-        assertThat(result.get(), is(unlockedEvent));
+        assertThat(result.get().getAchievement(), is(scoreAchievementBean));
+        assertThat(result.get().getTriggerValue(), is(TEN));
     }
 
     @Test
@@ -108,7 +98,7 @@ public class ScoreUnlockedProviderTest {
         final ScoreAchievementBean scoreAchievementBean = givenScoreAchievementBean(9L, ScoreTrigger.Operation.LESS_THAN);
         given(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID)).willReturn(false);
 
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(scoreAchievementBean, TEN);
+        final Optional<Unlockable> result = underTest.getUnlockable(scoreAchievementBean, TEN);
 
         assertThat(result.isPresent(), is(false));
     }
@@ -118,7 +108,7 @@ public class ScoreUnlockedProviderTest {
         final ScoreAchievementBean scoreAchievementBean = givenScoreAchievementBean(11L, ScoreTrigger.Operation.GREATER_THAN);
         given(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID)).willReturn(false);
 
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(scoreAchievementBean, TEN);
+        final Optional<Unlockable> result = underTest.getUnlockable(scoreAchievementBean, TEN);
 
         assertThat(result.isPresent(), is(false));
     }
@@ -1,14 +1,14 @@
 package net.csongradyp.badger.provider.unlock.provider;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import net.csongradyp.badger.Unlockable;
 import net.csongradyp.badger.domain.achievement.TimeRangeAchievementBean;
 import net.csongradyp.badger.domain.achievement.trigger.TimeTriggerPair;
-import net.csongradyp.badger.event.IAchievementUnlockedEvent;
-import net.csongradyp.badger.event.message.AchievementUnlockedEvent;
-import net.csongradyp.badger.factory.UnlockedEventFactory;
 import net.csongradyp.badger.persistence.AchievementDao;
+import net.csongradyp.badger.provider.date.ClockReading;
 import net.csongradyp.badger.provider.date.DateProvider;
 import net.csongradyp.badger.provider.date.IDateProvider;
 import org.joda.time.LocalTime;
@@ -21,6 +21,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
 
 @RunWith(MockitoJUnitRunner.class)
 public class TimeRangeUnlockedProviderTest {
@@ -29,8 +30,6 @@ public class TimeRangeUnlockedProviderTest {
     @Mock
     private IDateProvider mockDateProvider;
     @Mock
-    private UnlockedEventFactory mockUnlockedEventFactory;
-    @Mock
     protected AchievementDao mockAchievementDao;
 
     private TimeRangeUnlockedProvider underTest;
@@ -39,41 +38,40 @@ public class TimeRangeUnlockedProviderTest {
     public void setUp() {
         underTest = new TimeRangeUnlockedProvider();
         underTest.setDateProvider(mockDateProvider);
-        underTest.setUnlockedEventFactory(mockUnlockedEventFactory);
         underTest.setAchievementDao(mockAchievementDao);
     }
 
     @Test
     public void testGetUnlockableReturnsEmptyWhenCurrentTimeIsNotWithinTheGivenRange() throws Exception {
         final TimeRangeAchievementBean timeRangeAchievementBean = givenTimeAchievementBean("08:00", "09:00");
-        given(mockDateProvider.currentTime()).willReturn(new LocalTime(7, 31).toDateTimeToday().toDate());
-        given(mockDateProvider.currentTimeString()).willReturn("");
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(timeRangeAchievementBean, 0L);
+        given(mockDateProvider.currentReading()).willReturn(ClockReading.of(new LocalTime(7, 31).toDateTimeToday().getMillis()));
+        given(mockDateProvider.getTime(any(Date.class))).willReturn("");
+        final Optional<Unlockable> result = underTest.getUnlockable(timeRangeAchievementBean, 0L);
         assertThat(result.isPresent(), is(false));
 
-        final Optional<IAchievementUnlockedEvent> result2 = underTest.getUnlockable(timeRangeAchievementBean, 0L);
+        final Optional<Unlockable> result2 = underTest.getUnlockable(timeRangeAchievementBean, 0L);
         assertThat(result2.isPresent(), is(false));
 
-        final Optional<IAchievementUnlockedEvent> result3 = underTest.getUnlockable(timeRangeAchievementBean, 0L);
+        final Optional<Unlockable> result3 = underTest.getUnlockable(timeRangeAchievementBean, 0L);
         assertThat(result3.isPresent(), is(false));
     }
 
     @Test
     public void testGetUnlockableReturnsEmptyWhenCurrentTimeIsNotWithinTheReversedGivenRange() {
         final TimeRangeAchievementBean timeRangeAchievementBean = givenTimeAchievementBean("09:00", "09:02");
-        given(mockDateProvider.currentTime()).willReturn(new LocalTime(8, 31).toDateTimeToday().toDate());
-        given(mockDateProvider.currentTimeString()).willReturn("");
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(timeRangeAchievementBean, 0L);
+        given(mockDateProvider.currentReading()).willReturn(ClockReading.of(new LocalTime(8, 31).toDateTimeToday().getMillis()));
+        given(mockDateProvider.getTime(any(Date.class))).willReturn("");
+        final Optional<Unlockable> result = underTest.getUnlockable(timeRangeAchievementBean, 0L);
         assertThat(result.isPresent(), is(false));
 
-        given(mockDateProvider.currentTime()).willReturn(new LocalTime(9, 31).toDateTimeToday().toDate());
-        given(mockDateProvider.currentTimeString()).willReturn("");
-        final Optional<IAchievementUnlockedEvent> result2 = underTest.getUnlockable(timeRangeAchievementBean, 0L);
+        given(mockDateProvider.currentReading()).willReturn(ClockReading.of(new LocalTime(9, 31).toDateTimeToday().getMillis()));
+        given(mockDateProvider.getTime(any(Date.class))).willReturn("");
+        final Optional<Unlockable> result2 = underTest.getUnlockable(timeRangeAchievementBean, 0L);
         assertThat(result2.isPresent(), is(false));
 
-        given(mockDateProvider.currentTime()).willReturn(new LocalTime(22, 31).toDateTimeToday().toDate());
-        given(mockDateProvider.currentTimeString()).willReturn("");
-        final Optional<IAchievementUnlockedEvent> result3 = underTest.getUnlockable(timeRangeAchievementBean, 0L);
+        given(mockDateProvider.currentReading()).willReturn(ClockReading.of(new LocalTime(22, 31).toDateTimeToday().getMillis()));
+        given(mockDateProvider.getTime(any(Date.class))).willReturn("");
+        final Optional<Unlockable> result3 = underTest.getUnlockable(timeRangeAchievementBean, 0L);
         assertThat(result3.isPresent(), is(false));
     }
 
@@ -81,30 +79,26 @@ public class TimeRangeUnlockedProviderTest {
     public void testGetUnlockableReturnsnlockableAchievementWhenWhenCurrentTimeIsWithinTheGivenRange() throws Exception {
         final TimeRangeAchievementBean timeRangeAchievementBean = givenTimeAchievementBean("08:00", "09:00");
         final String currentTime = "08:31";
-        given(mockDateProvider.currentTime()).willReturn(new LocalTime(8, 31).toDateTimeToday().toDate());
-        given(mockDateProvider.currentTimeString()).willReturn(currentTime);
-        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", currentTime);
-        given(mockUnlockedEventFactory.createEvent(timeRangeAchievementBean, currentTime)).willReturn(unlockedEvent);
+        given(mockDateProvider.currentReading()).willReturn(ClockReading.of(new LocalTime(8, 31).toDateTimeToday().getMillis()));
+        given(mockDateProvider.getTime(any(Date.class))).willReturn(currentTime);
 
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(timeRangeAchievementBean, 0L);
+        final Optional<Unlockable> result = underTest.getUnlockable(timeRangeAchievementBean, 0L);
 
         assertThat(result.isPresent(), is(true));
-        assertThat(result.get(), is(unlockedEvent));
+        assertThat(result.get().getAchievement(), is(timeRangeAchievementBean));
     }
 
     @Test
     public void testGetUnlockableReturnsnlockableAchievementWhenWhenCurrentTimeIsWithinReversedGivenRange() throws Exception {
         final TimeRangeAchievementBean timeRangeAchievementBean = givenTimeAchievementBean("09:00", "08:00");
         final String currentTime = "11:00";
-        given(mockDateProvider.currentTime()).willReturn(new LocalTime(11, 0).toDateTimeToday().toDate());
-        given(mockDateProvider.currentTimeString()).willReturn(currentTime);
-        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", currentTime);
-        given(mockUnlockedEventFactory.createEvent(timeRangeAchievementBean, currentTime)).willReturn(unlockedEvent);
+        given(mockDateProvider.currentReading()).willReturn(ClockReading.of(new LocalTime(11, 0).toDateTimeToday().getMillis()));
+        given(mockDateProvider.getTime(any(Date.class))).willReturn(currentTime);
 
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(timeRangeAchievementBean, 0L);
+        final Optional<Unlockable> result = underTest.getUnlockable(timeRangeAchievementBean, 0L);
 
         assertThat(result.isPresent(), is(true));
-        assertThat(result.get(), is(unlockedEvent));
+        assertThat(result.get().getAchievement(), is(timeRangeAchievementBean));
     }
 
     private TimeRangeAchievementBean givenTimeAchievementBean(final String start, final String end) {
@@ -1,14 +1,14 @@
 package net.csongradyp.badger.provider.unlock.provider;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import net.csongradyp.badger.Unlockable;
 import net.csongradyp.badger.domain.achievement.TimeAchievementBean;
 import net.csongradyp.badger.domain.achievement.trigger.TimeTrigger;
-import net.csongradyp.badger.event.IAchievementUnlockedEvent;
-import net.csongradyp.badger.event.message.AchievementUnlockedEvent;
-import net.csongradyp.badger.factory.UnlockedEventFactory;
 import net.csongradyp.badger.persistence.AchievementDao;
+import net.csongradyp.badger.provider.date.ClockReading;
 import net.csongradyp.badger.provider.date.DateProvider;
 import net.csongradyp.badger.provider.date.IDateProvider;
 import org.joda.time.DateTime;
@@ -21,6 +21,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
 
 @RunWith(MockitoJUnitRunner.class)
 public class TimeUnlockedProviderTest {
@@ -29,8 +30,6 @@ public class TimeUnlockedProviderTest {
     @Mock
     private IDateProvider mockDateProvider;
     @Mock
-    private UnlockedEventFactory mockUnlockedEventFactory;
-    @Mock
     protected AchievementDao mockAchievementDao;
 
     private TimeUnlockedProvider underTest;
@@ -39,7 +38,6 @@ public class TimeUnlockedProviderTest {
     public void setUp() {
         underTest = new TimeUnlockedProvider();
         underTest.setDateProvider(mockDateProvider);
-        underTest.setUnlockedEventFactory(mockUnlockedEventFactory);
         underTest.setAchievementDao(mockAchievementDao);
     }
 
@@ -47,27 +45,25 @@ public class TimeUnlockedProviderTest {
     public void testUnlockableReturnsUnlockableAchievementWhenOneOfTheGivenTimeAchievementTriggerIsEqualToTheCurrentTimeInMinutePrecisionAndAchievementIsNotUnlocked() {
         final String time = "23:14";
         final TimeAchievementBean timeAchievementBean = givenTimeAchievementBean(time);
-        given(mockDateProvider.currentTime()).willReturn(new DateTime(2015, 1, 1, 23, 14).toDate());
-        given(mockDateProvider.currentTimeString()).willReturn(time);
+        given(mockDateProvider.currentReading()).willReturn(ClockReading.of(new DateTime(2015, 1, 1, 23, 14).getMillis()));
+        given(mockDateProvider.getTime(any(Date.class))).willReturn(time);
         given(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID)).willReturn(false);
-        final AchievementUnlockedEvent unlockedEvent = new AchievementUnlockedEvent(ACHIEVEMENT_ID, "", "", time);
-        given(mockUnlockedEventFactory.createEvent(timeAchievementBean, time)).willReturn(unlockedEvent);
 
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(timeAchievementBean, 0L);
+        final Optional<Unlockable> result = underTest.getUnlockable(timeAchievementBean, 0L);
 
         assertThat(result.isPresent(), is(true));
-        assertThat(result.get(), is(unlockedEvent));
+        assertThat(result.get().getAchievement(), is(timeAchievementBean));
     }
 
     @Test
     public void testUnlockableReturnsEmptyWhenOneOfTheGivenTimeAchievementTriggerIsEqualToTheCurrentTimeInMinutePrecisionAndIsAlreadyUnlocked() {
         final String time = "23:14";
         final TimeAchievementBean timeAchievementBean = givenTimeAchievementBean(time);
-        given(mockDateProvider.currentTime()).willReturn(new DateTime(2015, 1, 1, 23, 14).toDate());
-        given(mockDateProvider.currentTimeString()).willReturn(time);
+        given(mockDateProvider.currentReading()).willReturn(ClockReading.of(new DateTime(2015, 1, 1, 23, 14).getMillis()));
+        given(mockDateProvider.getTime(any(Date.class))).willReturn(time);
         given(mockAchievementDao.isUnlocked(ACHIEVEMENT_ID)).willReturn(true);
 
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(timeAchievementBean, 0L);
+        final Optional<Unlockable> result = underTest.getUnlockable(timeAchievementBean, 0L);
 
         assertThat(result.isPresent(), is(false));
     }
@@ -75,10 +71,10 @@ public class TimeUnlockedProviderTest {
     @Test
     public void testUnlockableReturnsEmptyWhenNoTriggerIsMatchingTheCurrentTime() {
         final TimeAchievementBean timeAchievementBean = givenTimeAchievementBean("23:14");
-        given(mockDateProvider.currentTime()).willReturn(new DateTime(2015, 1, 1, 23, 15).toDate());
-        given(mockDateProvider.currentTimeString()).willReturn("23:15");
+        given(mockDateProvider.currentReading()).willReturn(ClockReading.of(new DateTime(2015, 1, 1, 23, 15).getMillis()));
+        given(mockDateProvider.getTime(any(Date.class))).willReturn("23:15");
 
-        final Optional<IAchievementUnlockedEvent> result = underTest.getUnlockable(timeAchievementBean, 0L);
+        final Optional<Unlockable> result = underTest.getUnlockable(timeAchievementBean, 0L);
 
         assertThat(result.isPresent(), is(false));
     }
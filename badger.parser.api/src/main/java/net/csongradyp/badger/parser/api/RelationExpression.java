@@ -0,0 +1,181 @@
+package net.csongradyp.badger.parser.api;
+
+import net.csongradyp.badger.domain.AchievementType;
+import net.csongradyp.badger.domain.IRelation;
+import net.csongradyp.badger.domain.achievement.relation.Relation;
+import net.csongradyp.badger.domain.achievement.relation.RelationElement;
+import net.csongradyp.badger.domain.achievement.relation.RelationOperator;
+import net.csongradyp.badger.domain.achievement.trigger.ITrigger;
+import net.csongradyp.badger.exception.MalformedAchievementRelationDefinition;
+
+import java.util.*;
+
+/**
+ * Syntax tree of a relation expression, independent of the triggers of an achievement, so it can be shared between
+ * achievements with the same expression. The expression is tokenized and parsed in one pass by precedence climbing:
+ * {@code !} binds stronger than {@code &}, which binds stronger than {@code |}. Operands are achievement type names.
+ */
+final class RelationExpression {
+
+    private static final int OR_PRECEDENCE = 1;
+    private static final int AND_PRECEDENCE = 2;
+    private static final Map<String, AchievementType> OPERAND_TYPES = new HashMap<>();
+
+    static {
+        for (AchievementType type : AchievementType.values()) {
+            if (type != AchievementType.COMPOSITE) {
+                OPERAND_TYPES.put(type.getType().toLowerCase(), type);
+            }
+        }
+    }
+
+    private final RelationOperator operator;
+    private final AchievementType type;
+    private final List<RelationExpression> operands;
+
+    private RelationExpression(final AchievementType type) {
+        this.operator = null;
+        this.type = type;
+        this.operands = Collections.emptyList();
+    }
+
+    private RelationExpression(final RelationOperator operator, final List<RelationExpression> operands) {
+        this.operator = operator;
+        this.type = null;
+        this.operands = Collections.unmodifiableList(operands);
+    }
+
+    /**
+     * @throws MalformedAchievementRelationDefinition if the expression is not a valid relation.
+     */
+    static RelationExpression parse(final String expression) {
+        final Parser parser = new Parser(expression);
+        final RelationExpression result = parser.parseExpression(OR_PRECEDENCE);
+        parser.expectEnd();
+        return result;
+    }
+
+    /**
+     * Builds the relation tree of an achievement. Operands without triggers of their type are left out.
+     *
+     * @param triggersByType triggers of the achievement by type.
+     * @return relation tree, or {@code null} if no operand has triggers.
+     */
+    IRelation bind(final Map<AchievementType, ? extends Collection<ITrigger>> triggersByType) {
+        if (type != null) {
+            final Collection<ITrigger> triggers = triggersByType.get(type);
+            return triggers == null || triggers.isEmpty() ? null : new RelationElement(triggers);
+        }
+        final Relation relation = new Relation();
+        relation.setOperator(operator);
+        for (RelationExpression operand : operands) {
+            final IRelation child = operand.bind(triggersByType);
+            if (child != null) {
+                relation.addChild(child);
+            }
+        }
+        return operator == RelationOperator.NOT && relation.getChildren().isEmpty() ? null : relation;
+    }
+
+    private static int precedenceOf(final RelationOperator operator) {
+        return operator == RelationOperator.AND ? AND_PRECEDENCE : OR_PRECEDENCE;
+    }
+
+    private static final class Parser {
+
+        private final String expression;
+        private int position;
+
+        private Parser(final String expression) {
+            this.expression = expression;
+        }
+
+        private RelationExpression parseExpression(final int minPrecedence) {
+            RelationExpression left = parseUnary();
+            RelationOperator operator = peekBinaryOperator();
+            while (operator != null && precedenceOf(operator) >= minPrecedence) {
+                final List<RelationExpression> operands = new ArrayList<>();
+                operands.add(left);
+                while (peekBinaryOperator() == operator) {
+                    position++;
+                    operands.add(parseExpression(precedenceOf(operator) + 1));
+                }
+                left = new RelationExpression(operator, operands);
+                operator = peekBinaryOperator();
+            }
+            return left;
+        }
+
+        private RelationExpression parseUnary() {
+            skipWhitespace();
+            if (position == expression.length()) {
+                throw malformed("Relation ends unexpectedly");
+            }
+            final char next = expression.charAt(position);
+            if (next == '!') {
+                position++;
+                return new RelationExpression(RelationOperator.NOT, Collections.singletonList(parseUnary()));
+            }
+            if (next == '(') {
+                position++;
+                final RelationExpression group = parseExpression(OR_PRECEDENCE);
+                skipWhitespace();
+                if (position == expression.length() || expression.charAt(position) != ')') {
+                    throw malformed("Missing close bracket");
+                }
+                position++;
+                return group;
+            }
+            if (Character.isLetter(next)) {
+                return parseOperand();
+            }
+            throw malformed(next == ')' ? "Missing open bracket" : "Unexpected character '" + next + "'");
+        }
+
+        private RelationExpression parseOperand() {
+            final int start = position;
+            while (position < expression.length() && Character.isLetter(expression.charAt(position))) {
+                position++;
+            }
+            final String name = expression.substring(start, position);
+            final AchievementType type = OPERAND_TYPES.get(name.toLowerCase());
+            if (type == null) {
+                position = start;
+                throw malformed("Unknown achievement type '" + name + "'");
+            }
+            return new RelationExpression(type);
+        }
+
+        private RelationOperator peekBinaryOperator() {
+            skipWhitespace();
+            if (position < expression.length()) {
+                final char next = expression.charAt(position);
+                if (next == '&') {
+                    return RelationOperator.AND;
+                }
+                if (next == '|') {
+                    return RelationOperator.OR;
+                }
+            }
+            return null;
+        }
+
+        private void expectEnd() {
+            skipWhitespace();
+            if (position < expression.length()) {
+                final char next = expression.charAt(position);
+                throw malformed(next == ')' ? "Missing open bracket" : "Unexpected character '" + next + "'");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+                position++;
+            }
+        }
+
+        private MalformedAchievementRelationDefinition malformed(final String reason) {
+            return new MalformedAchievementRelationDefinition(reason + " at position " + position + " of relation: " + expression);
+        }
+    }
+}
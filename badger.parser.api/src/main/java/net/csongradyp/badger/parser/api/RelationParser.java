@@ -3,80 +3,64 @@ package net.csongradyp.badger.parser.api;
 import net.csongradyp.badger.domain.AchievementType;
 import net.csongradyp.badger.domain.IRelation;
 import net.csongradyp.badger.domain.achievement.relation.Relation;
-import net.csongradyp.badger.domain.achievement.relation.RelationElement;
-import net.csongradyp.badger.domain.achievement.relation.RelationOperator;
+import net.csongradyp.badger.domain.achievement.relation.RelationCompiler;
 import net.csongradyp.badger.domain.achievement.trigger.ITrigger;
 import net.csongradyp.badger.exception.MalformedAchievementRelationDefinition;
 
-import javax.inject.Inject;
 import javax.inject.Named;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Stack;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+/**
+ * Parses relation expressions like {@code score & !(date | time)} into {@link Relation} trees. Every expression is
+ * parsed once, which also validates it; achievements with the same expression share the parsed syntax tree.
+ */
 @Named
 public class RelationParser {
 
-    @Inject
-    private RelationValidator relationValidator;
+    private static final int MAX_CACHED_EXPRESSIONS = 4096;
+
+    private final Map<String, RelationExpression> expressions = new ConcurrentHashMap<>();
 
     public Relation parse(final String relationExpression, final Collection<ITrigger> triggers) {
         if(relationExpression == null) {
             throw new MalformedAchievementRelationDefinition("Relation expression should be present!");
         }
-        String normalizedRelation = relationExpression.toLowerCase().replaceAll("\\s", "");
-        relationValidator.validate(normalizedRelation);
-        final Stack<Relation> relationStack = new Stack<>();
-        relationStack.push(new Relation());
-        while (!normalizedRelation.isEmpty()) {
-            if (normalizedRelation.startsWith( RelationOperator.AND.getOperator())) {
-                final Relation currentRelation = relationStack.peek();
-                setOperator(currentRelation, RelationOperator.AND);
-                normalizedRelation = normalizedRelation.substring(1);
-            } else if (normalizedRelation.startsWith(RelationOperator.OR.getOperator())) {
-                final Relation currentRelation = relationStack.peek();
-                setOperator(currentRelation, RelationOperator.OR);
-                normalizedRelation = normalizedRelation.substring(1);
-            } else if (normalizedRelation.startsWith("(")) {
-                relationStack.push(new Relation());
-                normalizedRelation = normalizedRelation.substring(1);
-            } else if (normalizedRelation.startsWith(")")) {
-                final IRelation relationGroup = relationStack.pop();
-                relationStack.peek().addChild(relationGroup);
-                normalizedRelation = normalizedRelation.substring(1);
-            } else {
-                Integer nextIndex = getNextElementStartIndex(normalizedRelation);
-                final String achievementTypeString = normalizedRelation.substring(0, nextIndex);
-                final AchievementType achievementType = AchievementType.parse(achievementTypeString);
-                final Collection<ITrigger> typeTriggers = triggers.stream().filter(t -> t.getType() == achievementType).collect(Collectors.toList());
-                if (typeTriggers != null && !typeTriggers.isEmpty()) {
-                    relationStack.peek().addChild(new RelationElement(typeTriggers));
-                }
-                normalizedRelation = normalizedRelation.substring(nextIndex);
-            }
+        final Map<AchievementType, List<ITrigger>> triggersByType = triggers.stream()
+                .collect(Collectors.groupingBy(ITrigger::getType, () -> new EnumMap<>(AchievementType.class), Collectors.toList()));
+        final IRelation relation = intern(relationExpression).bind(triggersByType);
+        if (relation instanceof Relation) {
+            return (Relation) relation;
         }
-        return relationStack.pop();
-    }
-
-    private void setOperator(final Relation currentRelation, final RelationOperator operator) {
-        if(currentRelation.getOperator() != null && currentRelation.getOperator() != operator) {
-            throw new MalformedAchievementRelationDefinition("Not a valid relation sequence");
+        final Relation root = new Relation();
+        if (relation != null) {
+            root.addChild(relation);
         }
-        currentRelation.setOperator(operator);
+        return root;
     }
 
-    private Integer getNextElementStartIndex( String normalizedRelation ) {
-        final int and = normalizedRelation.contains( RelationOperator.AND.getOperator()) ? normalizedRelation.indexOf(RelationOperator.AND.getOperator()) : normalizedRelation.length();
-        final int or = normalizedRelation.contains(RelationOperator.OR.getOperator()) ? normalizedRelation.indexOf(RelationOperator.OR.getOperator()) : normalizedRelation.length();
-        final int open = normalizedRelation.contains("(") ? normalizedRelation.indexOf("(") : normalizedRelation.length();
-        final int close = normalizedRelation.contains(")") ? normalizedRelation.indexOf(")") : normalizedRelation.length();
-        return Collections.min( Arrays.asList( and, or, open, close ) );
+    private RelationExpression intern(final String relationExpression) {
+        final RelationExpression expression = expressions.get(relationExpression);
+        if (expression != null) {
+            return expression;
+        }
+        if (expressions.size() >= MAX_CACHED_EXPRESSIONS) {
+            return RelationExpression.parse(relationExpression);
+        }
+        return expressions.computeIfAbsent(relationExpression, RelationExpression::parse);
     }
 
-    public void setRelationValidator(final RelationValidator relationValidator) {
-        this.relationValidator = relationValidator;
+    /**
+     * Parses the relation expression and compiles the result into a short-circuit predicate tree.
+     *
+     * @see RelationCompiler
+     */
+    public IRelation compile(final String relationExpression, final Collection<ITrigger> triggers) {
+        return RelationCompiler.compile(parse(relationExpression, triggers));
     }
 
 }
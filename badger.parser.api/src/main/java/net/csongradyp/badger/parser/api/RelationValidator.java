@@ -2,45 +2,20 @@ package net.csongradyp.badger.parser.api;
 
 
 import net.csongradyp.badger.exception.MalformedAchievementRelationDefinition;
-import org.springframework.util.StringUtils;
 
 import javax.inject.Named;
 
+/**
+ * Validates relation expressions for callers outside of {@link RelationParser}, which validates by parsing.
+ */
 @Named
 public class RelationValidator {
 
-    private static final String SYNTACTICS_REGEX = "^(?:(?![&|]).)(\\(*\\w*[&|]+\\w*\\)*)*(?:(?![&|]).)$";
-
+    /**
+     * @param relation relation expression of achievement types combined with {@code &}, {@code |}, {@code !} and brackets.
+     * @throws MalformedAchievementRelationDefinition if the expression is not a valid relation.
+     */
     public void validate(final String relation) {
-        String normalizedRelation = relation.toLowerCase().replaceAll("\\s", "");
-        ValidateSyntactics(normalizedRelation);
-        validateSemantics(normalizedRelation);
-    }
-
-    private void ValidateSyntactics(final String normalizedRelation) {
-        if (!normalizedRelation.matches(SYNTACTICS_REGEX)) {
-            throw new MalformedAchievementRelationDefinition("Relation contains unwanted characters.");
-        }
-        validateBracketCount(normalizedRelation);
-    }
-
-    private void validateSemantics(final String normalizedRelation) {
-        final String sequenceString = normalizedRelation.toLowerCase()
-                                                        .replaceAll("\\s", "")
-                                                        .replaceAll( "(date|timerange|time|scorerange|score|single)", "")
-                                                        .replaceAll("[&|()]", "");
-        if(!sequenceString.isEmpty()) {
-            throw new MalformedAchievementRelationDefinition("Relation contains unwanted characters.");
-        }
-    }
-
-    private void validateBracketCount(final String normalizedRelation) {
-        final int openBracketNumber = StringUtils.countOccurrencesOf(normalizedRelation, "(");
-        final int closeBracketNumber = StringUtils.countOccurrencesOf(normalizedRelation, ")");
-        if (openBracketNumber > closeBracketNumber) {
-            throw new MalformedAchievementRelationDefinition("Missing close bracket");
-        } else if (openBracketNumber < closeBracketNumber) {
-            throw new MalformedAchievementRelationDefinition("Missing open bracket");
-        }
+        RelationExpression.parse(relation);
     }
 }
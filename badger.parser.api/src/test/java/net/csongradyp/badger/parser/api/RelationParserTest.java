@@ -3,6 +3,7 @@ package net.csongradyp.badger.parser.api;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Iterator;
 import net.csongradyp.badger.domain.IRelation;
 import net.csongradyp.badger.domain.achievement.relation.Relation;
 import net.csongradyp.badger.domain.achievement.relation.RelationElement;
@@ -15,29 +16,20 @@ import net.csongradyp.badger.exception.MalformedAchievementRelationDefinition;
 import org.joda.time.LocalTime;
 import org.junit.Before;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.mockito.Mock;
-import org.mockito.runners.MockitoJUnitRunner;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
-import static org.mockito.Matchers.anyString;
-import static org.mockito.Mockito.doThrow;
 
-@RunWith(MockitoJUnitRunner.class)
 public class RelationParserTest {
 
     public static final String ID = "test";
-    @Mock
-    private RelationValidator mockRelationValidator;
-    @Mock
     private RelationParser underTest;
 
     @Before
     public void setUp() throws Exception {
         underTest = new RelationParser();
-        underTest.setRelationValidator(mockRelationValidator);
     }
 
     @Test
@@ -75,14 +67,61 @@ public class RelationParserTest {
         }
     }
 
+    @Test
+    public void testParseBindsAndStrongerThanOrWhenNoBracketsArePresent() {
+        final Relation relation = underTest.parse("date & time | score", givenTriggers());
+
+        assertThat(relation.getOperator(), equalTo(RelationOperator.OR));
+        final Iterator<IRelation> children = relation.getChildren().iterator();
+        final IRelation and = children.next();
+        assertThat(and, instanceOf(Relation.class));
+        assertThat(((Relation) and).getOperator(), equalTo(RelationOperator.AND));
+        assertThat(((Relation) and).getChildren().size(), equalTo(2));
+        assertThat(children.next(), instanceOf(RelationElement.class));
+    }
+
+    @Test
+    public void testParseReturnsNegatedRelationForNotOperator() {
+        final Relation relation = underTest.parse("score & !(date | time)", givenTriggers());
+
+        assertThat(relation.getOperator(), equalTo(RelationOperator.AND));
+        final Iterator<IRelation> children = relation.getChildren().iterator();
+        children.next();
+        final Relation not = (Relation) children.next();
+        assertThat(not.getOperator(), equalTo(RelationOperator.NOT));
+        assertThat(((Relation) not.getChildren().iterator().next()).getOperator(), equalTo(RelationOperator.OR));
+        assertThat(relation.evaluate(1L, new Date(0L), new Date(0L)), is(true));
+    }
+
+    @Test
+    public void testParseBindsTheGivenTriggersToTheSharedExpression() {
+        final String definition = "score | date";
+        final Collection<ITrigger> otherTriggers = new ArrayList<>();
+        otherTriggers.add(new ScoreTrigger(5L));
+
+        final Relation relation = underTest.parse(definition, givenTriggers());
+        final Relation other = underTest.parse(definition, otherTriggers);
+
+        assertThat(relation.getChildren().size(), equalTo(2));
+        assertThat(other.getChildren().size(), equalTo(1));
+        assertThat(other.evaluate(5L, new Date(), new Date()), is(true));
+    }
+
+    private static Collection<ITrigger> givenTriggers() {
+        final Collection<ITrigger> triggers = new ArrayList<>();
+        triggers.add(new DateTrigger(new Date(86400000L * 100)));
+        triggers.add(new TimeTrigger(new LocalTime(11, 11)));
+        triggers.add(new ScoreTrigger(1L));
+        return triggers;
+    }
+
     @Test(expected = MalformedAchievementRelationDefinition.class)
     public void testParseThrowsExceptionWhenGivenExpressionIsNull() {
         underTest.parse(null, new ArrayList<>());
     }
 
     @Test(expected = MalformedAchievementRelationDefinition.class)
-    public void testParseThrowsExceptionWhenGivenExpressionValidationFails() {
-        doThrow(new MalformedAchievementRelationDefinition("")).when(mockRelationValidator).validate(anyString());
-        underTest.parse("something wrong", new ArrayList<>());
+    public void testParseThrowsExceptionWhenGivenExpressionIsMalformed() {
+        underTest.parse("score & (date", new ArrayList<>());
     }
 }
@@ -50,4 +50,18 @@ public class RelationValidatorTest {
         underTest.validate(missingBracketRelation);
     }
 
+    @Test
+    public void testValidateAcceptsMixedOperatorsAndNegationWithoutBrackets() {
+        underTest.validate("!score & date | timeRange & !(time | scoreRange)");
+    }
+
+    @Test(expected = MalformedAchievementRelationDefinition.class)
+    public void testValidateThrowsExceptionWhenNegationHasNoOperand() {
+        underTest.validate("score & !");
+    }
+
+    @Test(expected = MalformedAchievementRelationDefinition.class)
+    public void testValidateThrowsExceptionWhenCompositeIsUsedAsOperand() {
+        underTest.validate("score & composite");
+    }
 }
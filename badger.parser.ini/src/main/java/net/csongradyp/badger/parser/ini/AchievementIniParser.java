@@ -8,6 +8,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 import javax.annotation.Resource;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -16,10 +17,10 @@ import net.csongradyp.badger.AchievementDefinition;
 import net.csongradyp.badger.domain.AchievementType;
 import net.csongradyp.badger.domain.IAchievement;
 import net.csongradyp.badger.domain.IAchievementBean;
+import net.csongradyp.badger.domain.IRelation;
 import net.csongradyp.badger.domain.ITriggerableAchievementBean;
 import net.csongradyp.badger.domain.achievement.CompositeAchievementBean;
 import net.csongradyp.badger.domain.achievement.SingleAchievementBean;
-import net.csongradyp.badger.domain.achievement.relation.Relation;
 import net.csongradyp.badger.domain.achievement.trigger.ITrigger;
 import net.csongradyp.badger.exception.AchievementNotFoundException;
 import net.csongradyp.badger.exception.MalformedAchievementDefinition;
@@ -39,77 +40,66 @@ public class AchievementIniParser implements IAchievementDefinitionFileParser {
     @Resource(name = "triggerParsers")
     private Map<AchievementType, ITriggerParser> triggerParsers;
 
-    private Ini ini;
-
     @Override
     public AchievementDefinition parse(final File achievementFile) {
         try {
-            ini = new Ini(achievementFile);
-            ini.getConfig().setMultiOption(true);
-            validateEventDefinition();
+            return createDefinition(new Ini(achievementFile));
         } catch (IOException e) {
             throw new MalformedAchievementDefinition(ACHIEVEMENT_INI_FILE_ERROR, e);
         }
-        return createDefinitions();
     }
 
     @Override
     public AchievementDefinition parse(final String achievementFileLocation) {
-        try {
-            ini = new Ini(new File(achievementFileLocation));
-            ini.getConfig().setMultiOption(true);
-            validateEventDefinition();
-        } catch (IOException e) {
-            throw new MalformedAchievementDefinition(ACHIEVEMENT_INI_FILE_ERROR, e);
-        }
-        return createDefinitions();
+        return parse(new File(achievementFileLocation));
     }
 
     @Override
     public AchievementDefinition parse(final URL achievementFile) {
         try {
-            ini = new Ini(achievementFile);
-            ini.getConfig().setMultiOption(true);
-            validateEventDefinition();
+            return createDefinition(new Ini(achievementFile));
         } catch (IOException e) {
             throw new MalformedAchievementDefinition(ACHIEVEMENT_INI_FILE_ERROR, e);
         }
-        return createDefinitions();
     }
 
-    private AchievementDefinition createDefinitions() {
-        final AchievementDefinition achievementBundle = new AchievementBundle();
-        achievementBundle.setEvents(parseEvents());
-        final Collection<IAchievement> achievements = parseAchievements();
-        achievementBundle.setAchievements(achievements);
-        return achievementBundle;
+    private AchievementDefinition createDefinition(final Ini ini) {
+        ini.getConfig().setMultiOption(true);
+        validateEventDefinition(ini);
+        final AchievementBundle achievementBundle = new AchievementBundle();
+        achievementBundle.setEvents(parseEvents(ini));
+        achievementBundle.setAchievements(parseAchievements(ini));
+        return achievementBundle.compile();
     }
 
-    private void validateEventDefinition() {
+    private void validateEventDefinition(final Ini ini) {
         final Profile.Section eventSection = ini.get("events");
         if (eventSection == null || eventSection.childrenNames() == null) {
             throw new MalformedAchievementDefinition("[events] declaration is missing in achievement descriptor ini file!");
         }
     }
 
-    private String[] parseEvents() {
+    private String[] parseEvents(final Ini ini) {
         return ini.get("events").getAll("event", String[].class);
     }
 
-    private Collection<IAchievement> parseAchievements() {
-        final Collection<IAchievement> achievements = new ArrayList<>();
-        final AchievementType[] types = AchievementType.values();
-        for (AchievementType type : types) {
+    /**
+     * Every {@code [type/id]} section is parsed as an independent task on the common fork-join pool. The result keeps
+     * the order of the types and of the sections within the file.
+     */
+    private Collection<IAchievement> parseAchievements(final Ini ini) {
+        final List<AchievementSection> sections = new ArrayList<>();
+        for (AchievementType type : AchievementType.values()) {
             final Profile.Section typeSection = ini.get(type.getType());
             if (exists(typeSection)) {
-                final String[] AchievementIds = typeSection.childrenNames();
-                for (String achievementId : AchievementIds) {
-                    IAchievement achievementBean = parse(achievementId, type, typeSection.getChild(achievementId));
-                    achievements.add(achievementBean);
+                for (String achievementId : typeSection.childrenNames()) {
+                    sections.add(new AchievementSection(achievementId, type, typeSection.getChild(achievementId)));
                 }
             }
         }
-        return achievements;
+        return sections.parallelStream()
+                .map(section -> parse(section.id, section.type, section.section))
+                .collect(Collectors.toList());
     }
 
     private IAchievement parse(final String id, final AchievementType type, final Profile.Section section) {
@@ -141,7 +131,7 @@ public class AchievementIniParser implements IAchievementDefinitionFileParser {
         achievement.setId(id);
         parseEvents(section, achievement);
         parseTriggers(section, achievement);
-        final Relation relation = parseRelation(section, achievement.getTrigger());
+        final IRelation relation = parseRelation(section, achievement.getTrigger());
         achievement.setRelation(relation);
         achievement.setCategory(section.get("category"));
         return achievement;
@@ -168,9 +158,9 @@ public class AchievementIniParser implements IAchievementDefinitionFileParser {
         achievement.addTrigger(triggerParsers.get(type).parse(Arrays.asList(timeRangeTriggers)));
     }
 
-    private Relation parseRelation(Profile.Section section, List<ITrigger> triggers) {
+    private IRelation parseRelation(Profile.Section section, List<ITrigger> triggers) {
         final String relationExpression = section.get("relation");
-        return relationParser.parse(relationExpression, triggers);
+        return relationParser.compile(relationExpression, triggers);
     }
 
     private IAchievementBean parseBean(final String id, final Profile.Section section, final ITriggerableAchievementBean achievement) {
@@ -187,11 +177,24 @@ public class AchievementIniParser implements IAchievementDefinitionFileParser {
         return section != null && section.childrenNames() != null;
     }
 
-    void setTriggerParsers(final Map<AchievementType, ITriggerParser> triggerParsers) {
+    public void setTriggerParsers(final Map<AchievementType, ITriggerParser> triggerParsers) {
         this.triggerParsers = triggerParsers;
     }
 
-    void setRelationParser(RelationParser relationParser) {
+    public void setRelationParser(RelationParser relationParser) {
         this.relationParser = relationParser;
     }
+
+    private static final class AchievementSection {
+
+        private final String id;
+        private final AchievementType type;
+        private final Profile.Section section;
+
+        private AchievementSection(final String id, final AchievementType type, final Profile.Section section) {
+            this.id = id;
+            this.type = type;
+            this.section = section;
+        }
+    }
 }
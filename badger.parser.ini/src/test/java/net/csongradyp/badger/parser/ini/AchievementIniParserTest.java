@@ -2,10 +2,16 @@ package net.csongradyp.badger.parser.ini;
 
 import java.io.File;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 import net.csongradyp.badger.AchievementDefinition;
 import net.csongradyp.badger.domain.AchievementType;
 import net.csongradyp.badger.domain.IAchievement;
@@ -94,7 +100,7 @@ public class AchievementIniParserTest {
 
         final AchievementDefinition result = underTest.parse(achievementFile);
 
-        verify(mockRelationParser, times(2)).parse(anyString(), anyCollection());
+        verify(mockRelationParser, times(2)).compile(anyString(), anyCollection());
         final Optional<IAchievement> simple = result.get(AchievementType.SINGLE, "simple");
         assertThat(simple.isPresent(), is(true));
         assertThat(simple.get().getSubscriptions(), is(equalTo(Collections.<String>emptyList())));
@@ -148,4 +154,34 @@ public class AchievementIniParserTest {
         assertThat(composite2.getSubscriptions().size(), is(equalTo(1)));
         assertThat(composite2.getSubscriptions().get(0), is("sample2"));
     }
+
+    @Test
+    public void testParseReturnsAchievementsInFileOrderOfEveryType() throws Exception {
+        final File achievementFile = new File(getClass().getClassLoader().getResource("test.ini").getPath());
+
+        final AchievementDefinition result = underTest.parse(achievementFile);
+
+        final List<String> ids = result.getAll().stream().map(IAchievement::getId).collect(Collectors.toList());
+        assertThat(ids, is(equalTo(Arrays.asList("date-test", "time-test", "time-range-test", "first", "simple", "composite-dateTime", "composite-dateCounter"))));
+        assertThat(new ArrayList<>(result.getAchievementsSubscribedFor("sample2")).get(0).getId(), is("time-range-test"));
+    }
+
+    @Test
+    public void testParseCanParseFilesConcurrently() throws Exception {
+        final File achievementFile = new File(getClass().getClassLoader().getResource("test.ini").getPath());
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<AchievementDefinition>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> underTest.parse(achievementFile)));
+            }
+
+            for (Future<AchievementDefinition> result : results) {
+                assertThat(result.get().getAll().size(), is(7));
+                assertThat(result.get().getAllByEvents().keySet().size(), is(2));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
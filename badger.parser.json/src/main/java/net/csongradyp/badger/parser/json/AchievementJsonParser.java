@@ -5,12 +5,12 @@ import net.csongradyp.badger.AchievementDefinition;
 import net.csongradyp.badger.domain.AchievementType;
 import net.csongradyp.badger.domain.IAchievement;
 import net.csongradyp.badger.domain.IAchievementBean;
+import net.csongradyp.badger.domain.IRelation;
 import net.csongradyp.badger.domain.ITriggerableAchievementBean;
 import net.csongradyp.badger.domain.achievement.CompositeAchievementBean;
 import net.csongradyp.badger.domain.achievement.ScoreRangeAchievementBean;
 import net.csongradyp.badger.domain.achievement.SingleAchievementBean;
 import net.csongradyp.badger.domain.achievement.TimeRangeAchievementBean;
-import net.csongradyp.badger.domain.achievement.relation.Relation;
 import net.csongradyp.badger.domain.achievement.trigger.ITrigger;
 import net.csongradyp.badger.domain.achievement.trigger.ScoreTriggerPair;
 import net.csongradyp.badger.domain.achievement.trigger.TimeTriggerPair;
@@ -21,14 +21,20 @@ import net.csongradyp.badger.parser.api.RelationParser;
 import net.csongradyp.badger.parser.api.trigger.ITriggerParser;
 import net.csongradyp.badger.parser.json.domain.*;
 import net.csongradyp.badger.provider.date.DateProvider;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonParser;
 import org.codehaus.jackson.map.ObjectMapper;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
 import javax.inject.Named;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -44,53 +50,80 @@ public class AchievementJsonParser implements IAchievementDefinitionFileParser {
     @Resource(name = "jsonTriggerParsers")
     private Map<AchievementType, ITriggerParser> jsonTriggerParsers;
     private final ObjectMapper mapper;
+    private final JsonFactory jsonFactory;
+    private boolean streaming = true;
     @Inject
     private RelationParser relationParser;
 
     public AchievementJsonParser() {
         mapper = new ObjectMapper();
+        jsonFactory = new JsonFactory();
     }
 
     @Override
     public AchievementDefinition parse(final File achievementFile) {
-        final AchievementDefinition achievementDefinition = new AchievementBundle();
+        if (streaming) {
+            try (InputStream inputStream = new FileInputStream(achievementFile)) {
+                return parse(inputStream);
+            } catch (IOException e) {
+                throw new MalformedAchievementDefinition(FILE_ERROR, e);
+            }
+        }
         try {
-            final AchievementDefinitionJson achievementDefinitionJson = mapper.readValue(achievementFile, AchievementDefinitionJson.class);
-            achievementDefinition.setEvents(achievementDefinitionJson.getEvents());
-            final AchievementsJson achievements = achievementDefinitionJson.getAchievements();
-            achievementDefinition.setAchievements(parseAchievements(achievements));
+            return bind(mapper.readValue(achievementFile, AchievementDefinitionJson.class));
         } catch (IOException e) {
             throw new MalformedAchievementDefinition(FILE_ERROR, e);
         }
-        return achievementDefinition;
     }
 
     @Override
     public AchievementDefinition parse(final String achievementFileLocation) {
-        final AchievementDefinition achievementDefinition = new AchievementBundle();
+        return parse(new File(achievementFileLocation));
+    }
+
+    @Override
+    public AchievementDefinition parse(final URL achievementFile) {
+        if (streaming) {
+            try (InputStream inputStream = achievementFile.openStream()) {
+                return parse(inputStream);
+            } catch (IOException e) {
+                throw new MalformedAchievementDefinition(FILE_ERROR, e);
+            }
+        }
         try {
-            final AchievementDefinitionJson achievementDefinitionJson = mapper.readValue(new File(achievementFileLocation), AchievementDefinitionJson.class);
-            achievementDefinition.setEvents(achievementDefinitionJson.getEvents());
-            final AchievementsJson achievements = achievementDefinitionJson.getAchievements();
-            achievementDefinition.setAchievements(parseAchievements(achievements));
+            return bind(mapper.readValue(achievementFile, AchievementDefinitionJson.class));
         } catch (IOException e) {
             throw new MalformedAchievementDefinition(FILE_ERROR, e);
         }
-        return achievementDefinition;
     }
 
-    @Override
-    public AchievementDefinition parse(final URL achievementFile) {
-        final AchievementDefinition achievementDefinition = new AchievementBundle();
-        try {
-            final AchievementDefinitionJson achievementDefinitionJson = mapper.readValue(achievementFile, AchievementDefinitionJson.class);
-            achievementDefinition.setEvents(achievementDefinitionJson.getEvents());
-            final AchievementsJson achievements = achievementDefinitionJson.getAchievements();
-            achievementDefinition.setAchievements(parseAchievements(achievements));
+    /**
+     * Reads the definition with the streaming parser, regardless of {@link #setStreaming(boolean)}.
+     *
+     * @param inputStream UTF-8 encoded json content, closed after parsing.
+     */
+    public AchievementDefinition parse(final InputStream inputStream) {
+        try (JsonParser json = jsonFactory.createJsonParser(inputStream)) {
+            return new AchievementJsonReader(json, jsonTriggerParsers, dateProvider, relationParser).read();
         } catch (IOException e) {
             throw new MalformedAchievementDefinition(FILE_ERROR, e);
         }
-        return achievementDefinition;
+    }
+
+    /**
+     * @param channel UTF-8 encoded json content, closed after parsing.
+     * @see #parse(InputStream)
+     */
+    public AchievementDefinition parse(final ReadableByteChannel channel) {
+        return parse(Channels.newInputStream(channel));
+    }
+
+    private AchievementDefinition bind(final AchievementDefinitionJson achievementDefinitionJson) {
+        final AchievementBundle achievementDefinition = new AchievementBundle();
+        achievementDefinition.setEvents(achievementDefinitionJson.getEvents());
+        final AchievementsJson achievements = achievementDefinitionJson.getAchievements();
+        achievementDefinition.setAchievements(parseAchievements(achievements));
+        return achievementDefinition.compile();
     }
 
     private Collection<IAchievement> parseAchievements(final AchievementsJson achievements) {
@@ -145,7 +178,7 @@ public class AchievementJsonParser implements IAchievementDefinitionFileParser {
                 throw new MalformedAchievementDefinition("Missing relation definition for: " + json.getId());
             }
             bean.setTrigger(triggers);
-            final Relation relation = relationParser.parse(json.getRelation(), triggers);
+            final IRelation relation = relationParser.compile(json.getRelation(), triggers);
             bean.setRelation(relation);
 
             return bean;
@@ -204,15 +237,23 @@ public class AchievementJsonParser implements IAchievementDefinitionFileParser {
         bean.setSubscription(json.getSubscription());
     }
 
-    void setJsonTriggerParsers(final Map<AchievementType, ITriggerParser> jsonTriggerParsers) {
+    public void setJsonTriggerParsers(final Map<AchievementType, ITriggerParser> jsonTriggerParsers) {
         this.jsonTriggerParsers = jsonTriggerParsers;
     }
 
-    void setDateProvider(final DateProvider dateProvider) {
+    public void setDateProvider(final DateProvider dateProvider) {
         this.dateProvider = dateProvider;
     }
 
-    void setRelationParser(RelationParser relationParser) {
+    public void setRelationParser(RelationParser relationParser) {
         this.relationParser = relationParser;
     }
+
+    /**
+     * @param streaming whether files are read token by token or bound to an object tree first. Streaming is the
+     *                  default, binding is kept for comparison.
+     */
+    public void setStreaming(final boolean streaming) {
+        this.streaming = streaming;
+    }
 }
@@ -0,0 +1,373 @@
+package net.csongradyp.badger.parser.json;
+
+import net.csongradyp.badger.AchievementBundle;
+import net.csongradyp.badger.AchievementDefinition;
+import net.csongradyp.badger.domain.AchievementType;
+import net.csongradyp.badger.domain.IAchievement;
+import net.csongradyp.badger.domain.IAchievementBean;
+import net.csongradyp.badger.domain.ITriggerableAchievementBean;
+import net.csongradyp.badger.domain.achievement.CompositeAchievementBean;
+import net.csongradyp.badger.domain.achievement.trigger.ITrigger;
+import net.csongradyp.badger.domain.achievement.trigger.ScoreTriggerPair;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTriggerPair;
+import net.csongradyp.badger.exception.MalformedAchievementDefinition;
+import net.csongradyp.badger.parser.api.AchievementFactory;
+import net.csongradyp.badger.parser.api.RelationParser;
+import net.csongradyp.badger.parser.api.trigger.ITriggerParser;
+import net.csongradyp.badger.provider.date.DateProvider;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Reads an achievement definition token by token, without binding the document to an object tree.
+ * <p>
+ * Achievement beans are created and their plain attributes are set while reading. Parsing of the trigger values and
+ * the relation of each achievement is deferred until the whole document is read, and runs in parallel for large
+ * definitions since the achievements are independent of each other.
+ */
+class AchievementJsonReader {
+
+    static final int PARALLEL_THRESHOLD = 1024;
+
+    private static final String EVENTS = "events";
+    private static final String ACHIEVEMENTS = "achievements";
+    private static final String ID = "id";
+    private static final String CATEGORY = "category";
+    private static final String SUBSCRIPTION = "subscription";
+    private static final String TRIGGER = "trigger";
+    private static final String RELATION = "relation";
+    private static final String START = "start";
+    private static final String END = "end";
+
+    private final JsonParser json;
+    private final Map<AchievementType, ITriggerParser> triggerParsers;
+    private final DateProvider dateProvider;
+    private final RelationParser relationParser;
+    private final List<Supplier<IAchievement>> achievements = new ArrayList<>();
+
+    AchievementJsonReader(final JsonParser json, final Map<AchievementType, ITriggerParser> triggerParsers, final DateProvider dateProvider, final RelationParser relationParser) {
+        this.json = json;
+        this.triggerParsers = triggerParsers;
+        this.dateProvider = dateProvider;
+        this.relationParser = relationParser;
+    }
+
+    AchievementDefinition read() throws IOException {
+        List<String> events = null;
+        expect(nextToken(), JsonToken.START_OBJECT);
+        while (nextToken() == JsonToken.FIELD_NAME) {
+            final String field = json.getCurrentName();
+            nextToken();
+            if (EVENTS.equals(field)) {
+                events = readStrings();
+            } else if (ACHIEVEMENTS.equals(field)) {
+                readAchievements();
+            } else {
+                throw unknownField(field);
+            }
+        }
+        if (events == null) {
+            throw new MalformedAchievementDefinition("[events] declaration is missing in achievement descriptor json file!");
+        }
+        final AchievementBundle achievementDefinition = new AchievementBundle();
+        achievementDefinition.setEvents(events);
+        achievementDefinition.setAchievements(completeAchievements());
+        return achievementDefinition.compile();
+    }
+
+    private List<IAchievement> completeAchievements() {
+        if (achievements.size() < PARALLEL_THRESHOLD) {
+            return achievements.stream().map(Supplier::get).collect(Collectors.toList());
+        }
+        return achievements.parallelStream().map(Supplier::get).collect(Collectors.toList());
+    }
+
+    private void readAchievements() throws IOException {
+        if (json.getCurrentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        expect(json.getCurrentToken(), JsonToken.START_OBJECT);
+        while (nextToken() == JsonToken.FIELD_NAME) {
+            final String field = json.getCurrentName();
+            final AchievementType type = typeOf(field);
+            if (nextToken() == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            expect(json.getCurrentToken(), JsonToken.START_ARRAY);
+            while (nextToken() != JsonToken.END_ARRAY) {
+                achievements.add(type == AchievementType.COMPOSITE ? readCompositeAchievement() : readAchievement(type));
+            }
+        }
+    }
+
+    private AchievementType typeOf(final String field) {
+        for (AchievementType type : AchievementType.values()) {
+            if (type.getType().equals(field)) {
+                return type;
+            }
+        }
+        throw unknownField(field);
+    }
+
+    private Supplier<IAchievement> readAchievement(final AchievementType type) throws IOException {
+        expect(json.getCurrentToken(), JsonToken.START_OBJECT);
+        final IAchievementBean bean = AchievementFactory.create(type);
+        List<String> triggers = null;
+        List<String[]> timeRanges = null;
+        List<ScoreTriggerPair> scoreRanges = null;
+        while (nextToken() == JsonToken.FIELD_NAME) {
+            final String field = json.getCurrentName();
+            nextToken();
+            if (readBasicAttribute(field, bean)) {
+                continue;
+            }
+            if (!TRIGGER.equals(field)) {
+                throw unknownField(field);
+            }
+            if (type == AchievementType.SCORE_RANGE) {
+                scoreRanges = readScoreRanges();
+            } else if (type == AchievementType.TIME_RANGE) {
+                timeRanges = readTimeRanges();
+            } else {
+                triggers = readStrings();
+            }
+        }
+        return completion(type, bean, triggers, timeRanges, scoreRanges);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Supplier<IAchievement> completion(final AchievementType type, final IAchievementBean bean, final List<String> triggers,
+                                              final List<String[]> timeRanges, final List<ScoreTriggerPair> scoreRanges) {
+        switch (type) {
+            case SCORE:
+            case DATE:
+            case TIME:
+                return () -> {
+                    ((ITriggerableAchievementBean) bean).setTrigger(parseTriggers(type, triggers));
+                    return bean;
+                };
+            case SCORE_RANGE:
+                return () -> {
+                    ((ITriggerableAchievementBean) bean).setTrigger(nonNull(scoreRanges));
+                    return bean;
+                };
+            case TIME_RANGE:
+                return () -> {
+                    ((ITriggerableAchievementBean) bean).setTrigger(parseTimeRanges(timeRanges));
+                    return bean;
+                };
+            default:
+                return () -> bean;
+        }
+    }
+
+    private Supplier<IAchievement> readCompositeAchievement() throws IOException {
+        expect(json.getCurrentToken(), JsonToken.START_OBJECT);
+        final CompositeAchievementBean bean = new CompositeAchievementBean();
+        String relation = null;
+        List<String> scoreTriggers = null;
+        List<String> dateTriggers = null;
+        List<String> timeTriggers = null;
+        List<ScoreTriggerPair> scoreRangeTriggers = null;
+        List<String[]> timeRangeTriggers = null;
+        while (nextToken() == JsonToken.FIELD_NAME) {
+            final String field = json.getCurrentName();
+            nextToken();
+            if (readBasicAttribute(field, bean)) {
+                continue;
+            }
+            switch (field) {
+                case RELATION:
+                    relation = readString();
+                    break;
+                case "scoreTrigger":
+                    scoreTriggers = readStrings();
+                    break;
+                case "dateTrigger":
+                    dateTriggers = readStrings();
+                    break;
+                case "timeTrigger":
+                    timeTriggers = readStrings();
+                    break;
+                case "scoreRangeTrigger":
+                    scoreRangeTriggers = readScoreRanges();
+                    break;
+                case "timeRangeTrigger":
+                    timeRangeTriggers = readTimeRanges();
+                    break;
+                default:
+                    throw unknownField(field);
+            }
+        }
+        final String relationExpression = relation;
+        final List<String> scores = scoreTriggers;
+        final List<String> dates = dateTriggers;
+        final List<String> times = timeTriggers;
+        final List<ScoreTriggerPair> scoreRanges = scoreRangeTriggers;
+        final List<String[]> timeRanges = timeRangeTriggers;
+        return () -> {
+            final List<ITrigger> triggers = new ArrayList<>();
+            if (scores != null) {
+                triggers.addAll(parseTriggers(AchievementType.SCORE, scores));
+            }
+            if (dates != null) {
+                triggers.addAll(parseTriggers(AchievementType.DATE, dates));
+            }
+            if (times != null) {
+                triggers.addAll(parseTriggers(AchievementType.TIME, times));
+            }
+            if (scoreRanges != null) {
+                triggers.addAll(scoreRanges);
+            }
+            if (timeRanges != null) {
+                triggers.addAll(parseTimeRanges(timeRanges));
+            }
+            if (relationExpression == null) {
+                throw new MalformedAchievementDefinition("Missing relation definition for: " + bean.getId());
+            }
+            bean.setTrigger(triggers);
+            bean.setRelation(relationParser.compile(relationExpression, triggers));
+            return bean;
+        };
+    }
+
+    private boolean readBasicAttribute(final String field, final IAchievementBean bean) throws IOException {
+        switch (field) {
+            case ID:
+                bean.setId(readString());
+                return true;
+            case CATEGORY:
+                bean.setCategory(readString());
+                return true;
+            case SUBSCRIPTION:
+                bean.setSubscription(readStrings());
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ITrigger> parseTriggers(final AchievementType type, final List<String> triggers) {
+        final ITriggerParser<ITrigger> triggerParser = triggerParsers.get(type);
+        return triggerParser.parse(nonNull(triggers));
+    }
+
+    private List<TimeTriggerPair> parseTimeRanges(final List<String[]> timeRanges) {
+        final List<TimeTriggerPair> triggers = new ArrayList<>();
+        for (String[] range : nonNull(timeRanges)) {
+            triggers.add(new TimeTriggerPair(dateProvider.parseTime(range[0]), dateProvider.parseTime(range[1])));
+        }
+        return triggers;
+    }
+
+    private List<ScoreTriggerPair> readScoreRanges() throws IOException {
+        if (json.getCurrentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(json.getCurrentToken(), JsonToken.START_ARRAY);
+        final List<ScoreTriggerPair> ranges = new ArrayList<>();
+        while (nextToken() != JsonToken.END_ARRAY) {
+            final String[] range = readRange();
+            ranges.add(new ScoreTriggerPair(toLong(range[0]), toLong(range[1])));
+        }
+        return ranges;
+    }
+
+    private List<String[]> readTimeRanges() throws IOException {
+        if (json.getCurrentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(json.getCurrentToken(), JsonToken.START_ARRAY);
+        final List<String[]> ranges = new ArrayList<>();
+        while (nextToken() != JsonToken.END_ARRAY) {
+            ranges.add(readRange());
+        }
+        return ranges;
+    }
+
+    private String[] readRange() throws IOException {
+        expect(json.getCurrentToken(), JsonToken.START_OBJECT);
+        final String[] range = new String[2];
+        while (nextToken() == JsonToken.FIELD_NAME) {
+            final String field = json.getCurrentName();
+            nextToken();
+            if (START.equals(field)) {
+                range[0] = readString();
+            } else if (END.equals(field)) {
+                range[1] = readString();
+            } else {
+                throw unknownField(field);
+            }
+        }
+        return range;
+    }
+
+    private Long toLong(final String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new MalformedAchievementDefinition("Invalid score range value: " + value, e);
+        }
+    }
+
+    private List<String> readStrings() throws IOException {
+        if (json.getCurrentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(json.getCurrentToken(), JsonToken.START_ARRAY);
+        final List<String> values = new ArrayList<>();
+        while (nextToken() != JsonToken.END_ARRAY) {
+            values.add(readString());
+        }
+        return values;
+    }
+
+    private String readString() throws IOException {
+        final JsonToken token = json.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            throw unexpected(token);
+        }
+        return json.getText();
+    }
+
+    private JsonToken nextToken() throws IOException {
+        final JsonToken token = json.nextToken();
+        if (token == null) {
+            throw new MalformedAchievementDefinition("Unexpected end of achievement descriptor json at " + json.getCurrentLocation());
+        }
+        return token;
+    }
+
+    private static <T> List<T> nonNull(final List<T> values) {
+        return values == null ? Collections.emptyList() : values;
+    }
+
+    private void expect(final JsonToken token, final JsonToken expected) {
+        if (token != expected) {
+            throw unexpected(token);
+        }
+    }
+
+    private MalformedAchievementDefinition unexpected(final JsonToken token) {
+        return new MalformedAchievementDefinition("Unexpected " + token + " at " + json.getTokenLocation());
+    }
+
+    private MalformedAchievementDefinition unknownField(final String field) {
+        return new MalformedAchievementDefinition("Unknown field '" + field + "' at " + json.getTokenLocation());
+    }
+}
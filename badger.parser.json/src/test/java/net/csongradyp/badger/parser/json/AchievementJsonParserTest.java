@@ -1,8 +1,12 @@
 package net.csongradyp.badger.parser.json;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Optional;
 import net.csongradyp.badger.AchievementDefinition;
@@ -17,7 +21,6 @@ import net.csongradyp.badger.domain.achievement.trigger.TimeTrigger;
 import net.csongradyp.badger.domain.achievement.trigger.TimeTriggerPair;
 import net.csongradyp.badger.exception.MalformedAchievementDefinition;
 import net.csongradyp.badger.parser.api.RelationParser;
-import net.csongradyp.badger.parser.api.RelationValidator;
 import net.csongradyp.badger.parser.api.trigger.DateTriggerParser;
 import net.csongradyp.badger.parser.api.trigger.ITriggerParser;
 import net.csongradyp.badger.parser.api.trigger.ScoreTriggerParser;
@@ -59,7 +62,6 @@ public class AchievementJsonParserTest {
         underTest.setJsonTriggerParsers(mockJsonTriggerParsers);
         underTest.setDateProvider(new DateProvider());
         final RelationParser relationParser = new RelationParser();
-        relationParser.setRelationValidator(new RelationValidator());
         underTest.setRelationParser(relationParser);
 
         given(mockJsonTriggerParsers.get(AchievementType.SCORE)).willReturn(scoreTriggerParser);
@@ -105,6 +107,63 @@ public class AchievementJsonParserTest {
         assertResult(result);
     }
 
+    @Test
+    public void testParseFromInputStream() {
+        final InputStream jsonStream = getClass().getClassLoader().getResourceAsStream(JSON_FILE);
+        final AchievementDefinition result = underTest.parse(jsonStream);
+        assertResult(result);
+    }
+
+    @Test
+    public void testParseFromChannel() throws IOException {
+        final URL jsonFile = getClass().getClassLoader().getResource(JSON_FILE);
+        final AchievementDefinition result = underTest.parse(FileChannel.open(new File(jsonFile.getFile()).toPath()));
+        assertResult(result);
+    }
+
+    @Test
+    public void testParseWithoutStreamingFromFile() {
+        underTest.setStreaming(false);
+        final URL jsonFile = getClass().getClassLoader().getResource(JSON_FILE);
+        final AchievementDefinition result = underTest.parse(new File(jsonFile.getFile()));
+        assertResult(result);
+    }
+
+    @Test
+    public void testParseBuildsEveryAchievementOfLargeDefinition() {
+        final StringBuilder json = new StringBuilder("{\"events\":[\"sample\"],\"achievements\":{\"score\":[");
+        final int count = 2 * AchievementJsonReader.PARALLEL_THRESHOLD;
+        for (int i = 0; i < count; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"id\":\"score-").append(i).append("\",\"subscription\":[\"sample\"],\"trigger\":[").append(i).append("]}");
+        }
+        json.append("]}}");
+
+        final AchievementDefinition result = underTest.parse(toStream(json.toString()));
+
+        assertThat(result.getAll().size(), is(count));
+        final ITriggerableAchievementBean<ScoreTrigger> score = (ITriggerableAchievementBean<ScoreTrigger>) result.get("score-42").get();
+        assertThat(score.getTrigger().get(0).getTrigger(), is(42L));
+    }
+
+    @Test(expected = MalformedAchievementDefinition.class)
+    public void testParseThrowsExceptionWhenEventsAreMissing() {
+        underTest.parse(toStream("{\"achievements\":{}}"));
+    }
+
+    @Test(expected = MalformedAchievementDefinition.class)
+    public void testParseThrowsExceptionWhenUnknownFieldIsGiven() {
+        underTest.parse(toStream("{\"events\":[],\"achievements\":{\"single\":[{\"id\":\"a\",\"name\":\"b\"}]}}"));
+    }
+
+    @Test(expected = MalformedAchievementDefinition.class)
+    public void testParseThrowsExceptionWhenJsonIsTruncated() {
+        underTest.parse(toStream("{\"events\":[\"sample\"],\"achievements\":{\"single\":["));
+    }
+
+    private static InputStream toStream(final String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
     private void assertResult(AchievementDefinition result) {
         assertThat(result.getAll().size(), is(equalTo(7)));
         assertThat(result.getAllByEvents().keySet().size(), is(equalTo(3)));
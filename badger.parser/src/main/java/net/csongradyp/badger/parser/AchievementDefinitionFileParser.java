@@ -2,10 +2,15 @@ package net.csongradyp.badger.parser;
 
 import java.io.File;
 import java.net.URL;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.stream.Collectors;
 import javax.annotation.Resource;
 import javax.inject.Named;
 import net.csongradyp.badger.AchievementDefinition;
+import net.csongradyp.badger.CompiledAchievementDefinition;
+import net.csongradyp.badger.NamespacedAchievementDefinition;
+import net.csongradyp.badger.parser.cache.DefinitionCache;
 import net.csongradyp.badger.parser.file.FileType;
 import org.apache.commons.io.FilenameUtils;
 
@@ -14,6 +19,8 @@ public class AchievementDefinitionFileParser implements IAchievementDefinitionFi
 
     @Resource(name = "definitionFileParsers")
     private Map<FileType, IAchievementDefinitionFileParser> definitionFileParsers;
+    private final DefinitionCache definitionCache = new DefinitionCache();
+    private boolean cacheEnabled = true;
 
     @Override
     public AchievementDefinition parse(final URL achievementFile) {
@@ -29,7 +36,25 @@ public class AchievementDefinitionFileParser implements IAchievementDefinitionFi
     @Override
     public AchievementDefinition parse(final File achievementFile) {
         FileType fileType = getType(achievementFile);
-        return definitionFileParsers.get(fileType).parse(achievementFile);
+        final IAchievementDefinitionFileParser parser = definitionFileParsers.get(fileType);
+        if (cacheEnabled) {
+            return definitionCache.parse(achievementFile, parser::parse);
+        }
+        return parser.parse(achievementFile);
+    }
+
+    /**
+     * Parses and indexes the definition files in parallel, each into its own namespace.
+     *
+     * @param definitionFiles definition files by namespace.
+     * @return definition of all namespaces, see {@link NamespacedAchievementDefinition}.
+     */
+    public NamespacedAchievementDefinition parse(final Map<String, File> definitionFiles) {
+        final Map<String, CompiledAchievementDefinition> namespaces = definitionFiles.entrySet().parallelStream()
+                .collect(Collectors.toMap(Map.Entry::getKey,
+                        entry -> NamespacedAchievementDefinition.compileNamespace(entry.getKey(), parse(entry.getValue())),
+                        (first, second) -> first, LinkedHashMap::new));
+        return new NamespacedAchievementDefinition(namespaces);
     }
 
     private FileType getType(final File achievementFile) {
@@ -40,4 +65,11 @@ public class AchievementDefinitionFileParser implements IAchievementDefinitionFi
     public void setDefinitionFileParsers(final Map<FileType, IAchievementDefinitionFileParser> definitionFileParsers) {
         this.definitionFileParsers = definitionFileParsers;
     }
+
+    /**
+     * @param cacheEnabled whether parsed definition files are cached next to the file, see {@link DefinitionCache}.
+     */
+    public void setCacheEnabled(final boolean cacheEnabled) {
+        this.cacheEnabled = cacheEnabled;
+    }
 }
@@ -0,0 +1,147 @@
+package net.csongradyp.badger.parser.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.TimeZone;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import net.csongradyp.badger.AchievementDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static net.csongradyp.badger.parser.cache.DefinitionFormat.*;
+
+/**
+ * Binary cache of parsed achievement definitions. The cache of a definition file is kept next to it with the
+ * {@link #SUFFIX} suffix and is keyed by the SHA-256 hash of the file content, so an edited definition is parsed
+ * again. Dates and times are stored as instants, therefore the default time zone is part of the key as well.
+ * <p>
+ * A missing, stale or corrupted cache falls back to the parser and is rewritten. Definitions with custom
+ * achievement, trigger or relation implementations are not cached.
+ */
+public class DefinitionCache {
+
+    public static final String SUFFIX = ".cache";
+
+    private static final Logger LOG = LoggerFactory.getLogger(DefinitionCache.class);
+    private static final int TRAILER_SIZE = Long.BYTES;
+
+    /**
+     * @param source definition file.
+     * @param parser parses the definition file on cache miss.
+     * @return cached definition if the cache matches the content of the source file, otherwise the parsed one.
+     */
+    public AchievementDefinition parse(final File source, final Function<File, AchievementDefinition> parser) {
+        if (!source.isFile()) {
+            return parser.apply(source);
+        }
+        final File cacheFile = cacheFileOf(source);
+        final byte[] key;
+        try {
+            key = keyOf(source);
+        } catch (IOException e) {
+            LOG.warn("Definition file {} cannot be hashed, cache is skipped", source, e);
+            return parser.apply(source);
+        }
+        final Optional<AchievementDefinition> cached = load(cacheFile, key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        final AchievementDefinition definition = parser.apply(source);
+        store(cacheFile, key, definition);
+        return definition;
+    }
+
+    public static File cacheFileOf(final File source) {
+        return new File(source.getPath() + SUFFIX);
+    }
+
+    Optional<AchievementDefinition> load(final File cacheFile, final byte[] key) {
+        if (!cacheFile.isFile()) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(cacheFile.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < HEADER_SIZE + TRAILER_SIZE || size > Integer.MAX_VALUE) {
+                LOG.warn("Definition cache {} is corrupted", cacheFile);
+                return Optional.empty();
+            }
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return Optional.empty();
+            }
+            final byte[] storedKey = new byte[KEY_SIZE];
+            buffer.get(storedKey);
+            if (!Arrays.equals(key, storedKey)) {
+                return Optional.empty();
+            }
+            final ByteBuffer body = buffer.slice();
+            body.limit(body.capacity() - TRAILER_SIZE);
+            if (buffer.getLong((int) size - TRAILER_SIZE) != checksumOf(body.duplicate())) {
+                LOG.warn("Definition cache {} is corrupted", cacheFile);
+                return Optional.empty();
+            }
+            return Optional.of(DefinitionReader.read(body));
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Definition cache {} cannot be read", cacheFile, e);
+            return Optional.empty();
+        }
+    }
+
+    void store(final File cacheFile, final byte[] key, final AchievementDefinition definition) {
+        final byte[] body;
+        try {
+            body = DefinitionWriter.write(definition);
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.debug("Definition cannot be cached", e);
+            return;
+        }
+        final ByteBuffer content = ByteBuffer.allocate(HEADER_SIZE + body.length + TRAILER_SIZE);
+        content.putInt(MAGIC).putInt(VERSION).put(key).put(body).putLong(checksumOf(ByteBuffer.wrap(body)));
+        final Path target = cacheFile.toPath().toAbsolutePath();
+        Path temporary = null;
+        try {
+            temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            Files.write(temporary, content.array());
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOG.warn("Definition cache {} cannot be written", cacheFile, e);
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ignored) {
+                    // the original failure is reported
+                }
+            }
+        }
+    }
+
+    static byte[] keyOf(final File source) throws IOException {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(Files.readAllBytes(source.toPath()));
+            digest.update(TimeZone.getDefault().getID().getBytes(StandardCharsets.UTF_8));
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long checksumOf(final ByteBuffer body) {
+        final CRC32 crc = new CRC32();
+        crc.update(body);
+        return crc.getValue();
+    }
+}
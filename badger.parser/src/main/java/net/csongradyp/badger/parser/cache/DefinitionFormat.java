@@ -0,0 +1,28 @@
+package net.csongradyp.badger.parser.cache;
+
+/**
+ * Layout constants of the definition cache file.
+ * <p>
+ * A cache file starts with {@link #MAGIC}, {@link #VERSION} and the {@link #KEY_SIZE} bytes long key of the source
+ * file, followed by the body written by {@link DefinitionWriter} and the CRC32 checksum of the body.
+ */
+final class DefinitionFormat {
+
+    static final int MAGIC = 0x42444746;
+    static final int VERSION = 2;
+    static final int KEY_SIZE = 32;
+    static final int HEADER_SIZE = 2 * Integer.BYTES + KEY_SIZE;
+
+    static final byte SCORE_TRIGGER = 1;
+    static final byte SCORE_RANGE_TRIGGER = 2;
+    static final byte DATE_TRIGGER = 3;
+    static final byte TIME_TRIGGER = 4;
+    static final byte TIME_RANGE_TRIGGER = 5;
+
+    static final byte NO_RELATION = 0;
+    static final byte RELATION = 1;
+    static final byte RELATION_ELEMENT = 2;
+
+    private DefinitionFormat() {
+    }
+}
@@ -0,0 +1,203 @@
+package net.csongradyp.badger.parser.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.csongradyp.badger.AchievementDefinition;
+import net.csongradyp.badger.CompiledAchievementDefinition;
+import net.csongradyp.badger.domain.AchievementType;
+import net.csongradyp.badger.domain.IAchievement;
+import net.csongradyp.badger.domain.IAchievementBean;
+import net.csongradyp.badger.domain.IRelation;
+import net.csongradyp.badger.domain.ITriggerableAchievementBean;
+import net.csongradyp.badger.domain.achievement.CompositeAchievementBean;
+import net.csongradyp.badger.domain.achievement.DateAchievementBean;
+import net.csongradyp.badger.domain.achievement.ScoreAchievementBean;
+import net.csongradyp.badger.domain.achievement.ScoreRangeAchievementBean;
+import net.csongradyp.badger.domain.achievement.SingleAchievementBean;
+import net.csongradyp.badger.domain.achievement.TimeAchievementBean;
+import net.csongradyp.badger.domain.achievement.TimeRangeAchievementBean;
+import net.csongradyp.badger.domain.achievement.relation.Relation;
+import net.csongradyp.badger.domain.achievement.relation.RelationCompiler;
+import net.csongradyp.badger.domain.achievement.relation.RelationElement;
+import net.csongradyp.badger.domain.achievement.relation.RelationOperator;
+import net.csongradyp.badger.domain.achievement.trigger.DateTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.ITrigger;
+import net.csongradyp.badger.domain.achievement.trigger.ScoreTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.ScoreTriggerPair;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTriggerPair;
+import org.joda.time.LocalTime;
+
+import static net.csongradyp.badger.parser.cache.DefinitionFormat.*;
+
+/**
+ * Decodes the body of a cache file written by {@link DefinitionWriter}. Strings are decoded once from the string
+ * table and shared by every achievement referencing them.
+ */
+@SuppressWarnings("unchecked")
+final class DefinitionReader {
+
+    private static final AchievementType[] TYPES = AchievementType.values();
+    private static final ScoreTrigger.Operation[] OPERATIONS = ScoreTrigger.Operation.values();
+    private static final RelationOperator[] OPERATORS = RelationOperator.values();
+
+    private final ByteBuffer in;
+    private final String[] strings;
+
+    private DefinitionReader(final ByteBuffer in) {
+        this.in = in;
+        strings = new String[in.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            final byte[] bytes = new byte[in.getInt()];
+            in.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * @param in body of a cache file.
+     * @throws RuntimeException if the body is malformed.
+     */
+    static AchievementDefinition read(final ByteBuffer in) {
+        return new DefinitionReader(in).readDefinition();
+    }
+
+    static IAchievementBean createAchievement(final AchievementType type) {
+        switch (type) {
+            case DATE:
+                return new DateAchievementBean();
+            case TIME:
+                return new TimeAchievementBean();
+            case TIME_RANGE:
+                return new TimeRangeAchievementBean();
+            case SCORE:
+                return new ScoreAchievementBean();
+            case SCORE_RANGE:
+                return new ScoreRangeAchievementBean();
+            case SINGLE:
+                return new SingleAchievementBean();
+            case COMPOSITE:
+                return new CompositeAchievementBean();
+            default:
+                throw new IllegalArgumentException("Invalid achievement type: " + type);
+        }
+    }
+
+    private AchievementDefinition readDefinition() {
+        final String[] events = new String[in.getInt()];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = readString();
+        }
+        final IAchievement[] achievements = new IAchievement[in.getInt()];
+        for (int i = 0; i < achievements.length; i++) {
+            achievements[i] = readAchievement();
+        }
+        final Map<String, Set<IAchievement>> achievementsByEvent = new LinkedHashMap<>();
+        for (String event : events) {
+            final int count = in.getInt();
+            final Set<IAchievement> subscribed = new LinkedHashSet<>();
+            for (int i = 0; i < count; i++) {
+                subscribed.add(achievements[in.getInt()]);
+            }
+            achievementsByEvent.put(event, subscribed);
+        }
+        return new CompiledAchievementDefinition(Arrays.asList(achievements), achievementsByEvent);
+    }
+
+    private IAchievement readAchievement() {
+        final IAchievementBean achievement = createAchievement(TYPES[in.get()]);
+        achievement.setId(readString());
+        achievement.setCategory(readString());
+        final int maxLevel = in.getInt();
+        achievement.setSubscription(readStrings());
+        if (achievement instanceof ITriggerableAchievementBean) {
+            ((ITriggerableAchievementBean<ITrigger>) achievement).setTrigger(readTriggers());
+        }
+        if (achievement instanceof CompositeAchievementBean) {
+            ((CompositeAchievementBean) achievement).setRelation(RelationCompiler.compile(readRelation()));
+        }
+        // trigger setters derive the level count from the triggers, the stored value wins
+        achievement.setMaxLevel(maxLevel < 0 ? null : maxLevel);
+        return achievement;
+    }
+
+    private List<ITrigger> readTriggers() {
+        final int count = in.getInt();
+        if (count < 0) {
+            return null;
+        }
+        final List<ITrigger> triggers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            triggers.add(readTrigger());
+        }
+        return triggers;
+    }
+
+    private ITrigger readTrigger() {
+        final byte tag = in.get();
+        switch (tag) {
+            case SCORE_TRIGGER:
+                final long score = in.getLong();
+                return new ScoreTrigger(score, OPERATIONS[in.get()]);
+            case SCORE_RANGE_TRIGGER:
+                final long startScore = in.getLong();
+                return new ScoreTriggerPair(startScore, in.getLong());
+            case DATE_TRIGGER:
+                return new DateTrigger(new Date(in.getLong()));
+            case TIME_TRIGGER:
+                return new TimeTrigger(LocalTime.fromMillisOfDay(in.getInt()));
+            case TIME_RANGE_TRIGGER:
+                final LocalTime startTime = LocalTime.fromMillisOfDay(in.getInt());
+                return new TimeTriggerPair(startTime, LocalTime.fromMillisOfDay(in.getInt()));
+            default:
+                throw new IllegalStateException("Unknown trigger tag: " + tag);
+        }
+    }
+
+    private IRelation readRelation() {
+        final byte tag = in.get();
+        switch (tag) {
+            case NO_RELATION:
+                return null;
+            case RELATION:
+                final Relation relation = new Relation();
+                final byte operator = in.get();
+                if (operator >= 0) {
+                    relation.setOperator(OPERATORS[operator]);
+                }
+                for (int count = in.getInt(); count > 0; count--) {
+                    relation.addChild(readRelation());
+                }
+                return relation;
+            case RELATION_ELEMENT:
+                return new RelationElement(readTriggers());
+            default:
+                throw new IllegalStateException("Unknown relation tag: " + tag);
+        }
+    }
+
+    private List<String> readStrings() {
+        final int count = in.getInt();
+        if (count < 0) {
+            return null;
+        }
+        final List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString());
+        }
+        return values;
+    }
+
+    private String readString() {
+        final int index = in.getInt();
+        return index < 0 ? null : strings[index];
+    }
+}
@@ -0,0 +1,183 @@
+package net.csongradyp.badger.parser.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import net.csongradyp.badger.AchievementDefinition;
+import net.csongradyp.badger.domain.IAchievement;
+import net.csongradyp.badger.domain.IRelation;
+import net.csongradyp.badger.domain.ITriggerableAchievementBean;
+import net.csongradyp.badger.domain.achievement.CompositeAchievementBean;
+import net.csongradyp.badger.domain.achievement.relation.CompiledRelation;
+import net.csongradyp.badger.domain.achievement.relation.Relation;
+import net.csongradyp.badger.domain.achievement.relation.RelationElement;
+import net.csongradyp.badger.domain.achievement.trigger.DateTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.ITrigger;
+import net.csongradyp.badger.domain.achievement.trigger.ScoreTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.ScoreTriggerPair;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTriggerPair;
+
+import static net.csongradyp.badger.parser.cache.DefinitionFormat.*;
+
+/**
+ * Encodes an {@link AchievementDefinition} into the body of a cache file: the string table followed by the events,
+ * the achievements and the event index. Every string is written once and referenced by its index, {@code -1} stands for {@code null}.
+ */
+final class DefinitionWriter {
+
+    private final Map<String, Integer> strings = new LinkedHashMap<>();
+    private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(content);
+
+    /**
+     * @throws IllegalArgumentException if the definition contains achievement, trigger or relation implementations
+     *                                  the format does not support.
+     */
+    static byte[] write(final AchievementDefinition definition) throws IOException {
+        final DefinitionWriter writer = new DefinitionWriter();
+        writer.writeDefinition(definition);
+        return writer.toByteArray();
+    }
+
+    private void writeDefinition(final AchievementDefinition definition) throws IOException {
+        final Map<String, ? extends Collection<IAchievement>> achievementsByEvent = definition.getAllByEvents();
+        out.writeInt(achievementsByEvent.size());
+        for (String event : achievementsByEvent.keySet()) {
+            writeString(event);
+        }
+        final Collection<IAchievement> achievements = definition.getAll();
+        final Map<IAchievement, Integer> ordinals = new IdentityHashMap<>();
+        out.writeInt(achievements.size());
+        for (IAchievement achievement : achievements) {
+            ordinals.put(achievement, ordinals.size());
+            writeAchievement(achievement);
+        }
+        for (Collection<IAchievement> subscribed : achievementsByEvent.values()) {
+            out.writeInt(subscribed.size());
+            for (IAchievement achievement : subscribed) {
+                out.writeInt(ordinals.get(achievement));
+            }
+        }
+    }
+
+    private void writeAchievement(final IAchievement achievement) throws IOException {
+        if (achievement.getClass() != DefinitionReader.createAchievement(achievement.getType()).getClass()) {
+            throw new IllegalArgumentException("Achievement cannot be cached: " + achievement.getClass().getName());
+        }
+        out.writeByte(achievement.getType().ordinal());
+        writeString(achievement.getId());
+        writeString(achievement.getCategory());
+        out.writeInt(achievement.getMaxLevel() == null ? -1 : achievement.getMaxLevel());
+        writeStrings(achievement.getSubscriptions());
+        if (achievement instanceof ITriggerableAchievementBean) {
+            writeTriggers(((ITriggerableAchievementBean<?>) achievement).getTrigger());
+        }
+        if (achievement instanceof CompositeAchievementBean) {
+            writeRelation(((CompositeAchievementBean) achievement).getRelation());
+        }
+    }
+
+    private void writeTriggers(final Collection<?> triggers) throws IOException {
+        if (triggers == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(triggers.size());
+        for (Object trigger : triggers) {
+            writeTrigger((ITrigger) trigger);
+        }
+    }
+
+    private void writeTrigger(final ITrigger trigger) throws IOException {
+        final Class<?> type = trigger.getClass();
+        if (type == ScoreTrigger.class) {
+            out.writeByte(SCORE_TRIGGER);
+            out.writeLong(((ScoreTrigger) trigger).getTrigger());
+            out.writeByte(((ScoreTrigger) trigger).getOperation().ordinal());
+        } else if (type == ScoreTriggerPair.class) {
+            out.writeByte(SCORE_RANGE_TRIGGER);
+            out.writeLong(((ScoreTriggerPair) trigger).getStartTrigger());
+            out.writeLong(((ScoreTriggerPair) trigger).getEndTrigger());
+        } else if (type == DateTrigger.class) {
+            out.writeByte(DATE_TRIGGER);
+            out.writeLong(((DateTrigger) trigger).getDate().getTime());
+        } else if (type == TimeTrigger.class) {
+            out.writeByte(TIME_TRIGGER);
+            out.writeInt(((TimeTrigger) trigger).getTime().getMillisOfDay());
+        } else if (type == TimeTriggerPair.class) {
+            out.writeByte(TIME_RANGE_TRIGGER);
+            out.writeInt(((TimeTriggerPair) trigger).getStartTrigger().getMillisOfDay());
+            out.writeInt(((TimeTriggerPair) trigger).getEndTrigger().getMillisOfDay());
+        } else {
+            throw new IllegalArgumentException("Trigger cannot be cached: " + type.getName());
+        }
+    }
+
+    private void writeRelation(final IRelation relation) throws IOException {
+        if (relation == null) {
+            out.writeByte(NO_RELATION);
+        } else if (relation instanceof CompiledRelation) {
+            writeRelation(((CompiledRelation) relation).getSource());
+        } else if (relation.getClass() == Relation.class) {
+            final Relation node = (Relation) relation;
+            out.writeByte(RELATION);
+            out.writeByte(node.getOperator() == null ? -1 : node.getOperator().ordinal());
+            out.writeInt(node.getChildren().size());
+            for (IRelation child : node.getChildren()) {
+                writeRelation(child);
+            }
+        } else if (relation.getClass() == RelationElement.class) {
+            out.writeByte(RELATION_ELEMENT);
+            writeTriggers(((RelationElement) relation).getTriggers());
+        } else {
+            throw new IllegalArgumentException("Relation cannot be cached: " + relation.getClass().getName());
+        }
+    }
+
+    private void writeStrings(final List<String> values) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(value);
+        }
+    }
+
+    private void writeString(final String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        Integer index = strings.get(value);
+        if (index == null) {
+            index = strings.size();
+            strings.put(value, index);
+        }
+        out.writeInt(index);
+    }
+
+    private byte[] toByteArray() throws IOException {
+        out.flush();
+        final ByteArrayOutputStream result = new ByteArrayOutputStream(content.size() + strings.size() * 16);
+        final DataOutputStream table = new DataOutputStream(result);
+        table.writeInt(strings.size());
+        for (String value : new ArrayList<>(strings.keySet())) {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            table.writeInt(bytes.length);
+            table.write(bytes);
+        }
+        content.writeTo(table);
+        table.flush();
+        return result.toByteArray();
+    }
+}
@@ -2,9 +2,16 @@ package net.csongradyp.badger.parser;
 
 import java.io.File;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import net.csongradyp.badger.AchievementBundle;
 import net.csongradyp.badger.AchievementDefinition;
+import net.csongradyp.badger.NamespacedAchievementDefinition;
+import net.csongradyp.badger.domain.achievement.SingleAchievementBean;
 import net.csongradyp.badger.parser.excpetion.UnsupportedAchievementDefinitionFileType;
 import net.csongradyp.badger.parser.file.FileType;
 import org.junit.Before;
@@ -62,6 +69,32 @@ public class AchievementDefinitionFileParserTest {
         assertThat(result, is(mockAchievementDefinition));
     }
 
+    @Test
+    public void testParseLoadsEveryDefinitionFileIntoItsNamespace() throws Exception {
+        underTest.setCacheEnabled(false);
+        given(mockFileParser.parse(new File("arena.ini"))).willReturn(definitionWith("first"));
+        given(mockFileParser.parse(new File("story.ini"))).willReturn(definitionWith("first"));
+        final Map<String, File> definitionFiles = new LinkedHashMap<>();
+        definitionFiles.put("story", new File("story.ini"));
+        definitionFiles.put("arena", new File("arena.ini"));
+
+        final NamespacedAchievementDefinition result = underTest.parse(definitionFiles);
+
+        assertThat(new ArrayList<>(result.getNamespaces()), is(Arrays.asList("story", "arena")));
+        assertThat(result.get("arena.first").isPresent(), is(true));
+        assertThat(result.get("story.first").isPresent(), is(true));
+        assertThat(result.getAll().size(), is(2));
+    }
+
+    private static AchievementDefinition definitionWith(final String id) {
+        final SingleAchievementBean achievement = new SingleAchievementBean();
+        achievement.setId(id);
+        final AchievementBundle bundle = new AchievementBundle();
+        bundle.setEvents(Collections.emptyList());
+        bundle.setAchievements(Collections.singletonList(achievement));
+        return bundle;
+    }
+
     @Test(expected = UnsupportedAchievementDefinitionFileType.class)
     public void testParseThrowsExceptionWhenGivenFileTypeIsNotsupported() throws Exception {
         underTest.parse("definitionfile.txt");
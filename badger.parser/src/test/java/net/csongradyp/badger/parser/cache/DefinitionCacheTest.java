@@ -0,0 +1,260 @@
+package net.csongradyp.badger.parser.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import net.csongradyp.badger.AchievementBundle;
+import net.csongradyp.badger.AchievementDefinition;
+import net.csongradyp.badger.domain.AchievementType;
+import net.csongradyp.badger.domain.IAchievement;
+import net.csongradyp.badger.domain.achievement.CompositeAchievementBean;
+import net.csongradyp.badger.domain.achievement.DateAchievementBean;
+import net.csongradyp.badger.domain.achievement.ScoreAchievementBean;
+import net.csongradyp.badger.domain.achievement.ScoreRangeAchievementBean;
+import net.csongradyp.badger.domain.achievement.SingleAchievementBean;
+import net.csongradyp.badger.domain.achievement.TimeAchievementBean;
+import net.csongradyp.badger.domain.achievement.TimeRangeAchievementBean;
+import net.csongradyp.badger.domain.achievement.relation.CompiledRelation;
+import net.csongradyp.badger.domain.achievement.relation.Relation;
+import net.csongradyp.badger.domain.achievement.relation.RelationCompiler;
+import net.csongradyp.badger.domain.achievement.relation.RelationElement;
+import net.csongradyp.badger.domain.achievement.relation.RelationOperator;
+import net.csongradyp.badger.domain.achievement.trigger.DateTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.ITrigger;
+import net.csongradyp.badger.domain.achievement.trigger.ScoreTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.ScoreTriggerPair;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTrigger;
+import net.csongradyp.badger.domain.achievement.trigger.TimeTriggerPair;
+import net.csongradyp.badger.provider.date.ClockReading;
+import org.joda.time.LocalTime;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class DefinitionCacheTest {
+
+    private static final String EVENT = "event";
+    private static final String OTHER_EVENT = "other";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File source;
+    private AtomicInteger parseCount;
+    private DefinitionCache underTest;
+
+    @Before
+    public void setUp() throws IOException {
+        source = folder.newFile("achievements.ini");
+        Files.write(source.toPath(), "content".getBytes(StandardCharsets.UTF_8));
+        parseCount = new AtomicInteger();
+        underTest = new DefinitionCache();
+    }
+
+    private Function<File, AchievementDefinition> parser(final AchievementDefinition definition) {
+        return file -> {
+            parseCount.incrementAndGet();
+            return definition;
+        };
+    }
+
+    @Test
+    public void testParseReturnsCachedDefinitionWithSameContentWhenSourceIsUnchanged() {
+        final AchievementDefinition definition = givenDefinition();
+        underTest.parse(source, parser(definition));
+
+        final AchievementDefinition result = underTest.parse(source, parser(definition));
+
+        assertThat(parseCount.get(), is(1));
+        assertThat(result, is(not(sameInstance(definition))));
+        assertThat(result.getAll().size(), is(definition.getAll().size()));
+        assertThat(result.getAllByEvents().keySet(), is(definition.getAllByEvents().keySet()));
+        assertThat(result.getAchievementsSubscribedFor(EVENT).size(), is(6));
+        assertThat(result.getAchievementsSubscribedFor(OTHER_EVENT).size(), is(1));
+        for (IAchievement achievement : definition.getAll()) {
+            final IAchievement cached = result.get(achievement.getType(), achievement.getId()).get();
+            assertThat(cached.getClass() == achievement.getClass(), is(true));
+            assertThat(cached.getCategory(), is(achievement.getCategory()));
+            assertThat(cached.getMaxLevel(), is(achievement.getMaxLevel()));
+            assertThat(cached.getSubscriptions(), is(achievement.getSubscriptions()));
+        }
+    }
+
+    @Test
+    public void testParseRestoresTriggersAndRelations() {
+        final AchievementDefinition definition = givenDefinition();
+        underTest.parse(source, parser(definition));
+
+        final AchievementDefinition result = underTest.parse(source, parser(definition));
+
+        final ScoreTrigger score = ((ScoreAchievementBean) result.get("score").get()).getTrigger().get(1);
+        assertThat(score.getTrigger(), is(20L));
+        assertThat(score.getOperation(), is(ScoreTrigger.Operation.LESS_THAN));
+        final ScoreTriggerPair range = ((ScoreRangeAchievementBean) result.get("scoreRange").get()).getTrigger().get(0);
+        assertThat(range.getStartTrigger(), is(5L));
+        assertThat(range.getEndTrigger(), is(8L));
+        assertThat(((DateAchievementBean) result.get("date").get()).getTrigger().get(0).getDate(), is(new Date(86400000L)));
+        assertThat(((TimeAchievementBean) result.get("time").get()).getTrigger().get(0).getTime(), is(new LocalTime(10, 30)));
+        final TimeTriggerPair timeRange = ((TimeRangeAchievementBean) result.get("timeRange").get()).getTrigger().get(0);
+        assertThat(timeRange.getStartTrigger(), is(new LocalTime(8, 0)));
+        assertThat(timeRange.getEndTrigger(), is(new LocalTime(9, 15)));
+        final CompositeAchievementBean composite = (CompositeAchievementBean) result.get("composite").get();
+        assertThat(composite.getTrigger().size(), is(2));
+        assertThat(composite.getRelation(), is(instanceOf(CompiledRelation.class)));
+        assertThat(composite.getRelation().evaluate(15L, ClockReading.of(0L)), is(true));
+        assertThat(composite.getRelation().evaluate(5L, ClockReading.of(0L)), is(false));
+    }
+
+    @Test
+    public void testParseRestoresNegatedRelations() {
+        final CompositeAchievementBean composite = new CompositeAchievementBean();
+        composite.setId("notTen");
+        final ITrigger ten = new ScoreTrigger(10L);
+        composite.setTrigger(Collections.singletonList(ten));
+        final Relation not = new Relation();
+        not.setOperator(RelationOperator.NOT);
+        not.addChild(new RelationElement(Collections.singletonList(ten)));
+        composite.setRelation(RelationCompiler.compile(not));
+        final AchievementBundle bundle = new AchievementBundle();
+        bundle.setEvents(Collections.emptyList());
+        bundle.setAchievements(Collections.singletonList(composite));
+        underTest.parse(source, parser(bundle.compile()));
+
+        final AchievementDefinition result = underTest.parse(source, parser(bundle.compile()));
+
+        assertThat(parseCount.get(), is(1));
+        final CompositeAchievementBean cached = (CompositeAchievementBean) result.get("notTen").get();
+        assertThat(cached.getRelation().evaluate(10L, ClockReading.of(0L)), is(false));
+        assertThat(cached.getRelation().evaluate(11L, ClockReading.of(0L)), is(true));
+    }
+
+    @Test
+    public void testParseParsesAgainWhenSourceIsChanged() throws IOException {
+        final AchievementDefinition definition = givenDefinition();
+        underTest.parse(source, parser(definition));
+        Files.write(source.toPath(), "changed".getBytes(StandardCharsets.UTF_8));
+
+        final AchievementDefinition result = underTest.parse(source, parser(definition));
+
+        assertThat(parseCount.get(), is(2));
+        assertThat(result, is(sameInstance(definition)));
+    }
+
+    @Test
+    public void testParseParsesAgainAndRewritesCacheWhenCacheIsCorrupted() throws IOException {
+        final AchievementDefinition definition = givenDefinition();
+        underTest.parse(source, parser(definition));
+        final File cacheFile = DefinitionCache.cacheFileOf(source);
+        try (RandomAccessFile file = new RandomAccessFile(cacheFile, "rw")) {
+            file.seek(file.length() / 2);
+            file.write(~file.read());
+        }
+
+        final AchievementDefinition result = underTest.parse(source, parser(definition));
+        underTest.parse(source, parser(definition));
+
+        assertThat(result, is(sameInstance(definition)));
+        assertThat(parseCount.get(), is(2));
+    }
+
+    @Test
+    public void testParseWritesCacheThroughItsOwnTemporaryFile() throws IOException {
+        final File cacheFile = DefinitionCache.cacheFileOf(source);
+        final File foreignTemporary = new File(cacheFile.getPath() + ".tmp");
+        assertThat(foreignTemporary.mkdir(), is(true));
+        final AchievementDefinition definition = givenDefinition();
+
+        underTest.parse(source, parser(definition));
+        underTest.parse(source, parser(definition));
+
+        assertThat(parseCount.get(), is(1));
+        assertThat(folder.getRoot().list().length, is(3));
+    }
+
+    @Test
+    public void testParseDoesNotCacheDefinitionWithCustomAchievements() {
+        final IAchievement custom = mock(IAchievement.class);
+        given(custom.getId()).willReturn("custom");
+        given(custom.getType()).willReturn(AchievementType.SINGLE);
+        final AchievementDefinition definition = mock(AchievementDefinition.class);
+        given(definition.getAll()).willReturn(Collections.singletonList(custom));
+
+        underTest.parse(source, parser(definition));
+
+        assertThat(DefinitionCache.cacheFileOf(source).exists(), is(false));
+    }
+
+    @Test
+    public void testParseSkipsCacheWhenSourceDoesNotExist() {
+        final File missing = new File(folder.getRoot(), "missing.ini");
+
+        underTest.parse(missing, parser(givenDefinition()));
+
+        assertThat(DefinitionCache.cacheFileOf(missing).exists(), is(false));
+    }
+
+    private static AchievementDefinition givenDefinition() {
+        final ScoreAchievementBean score = new ScoreAchievementBean();
+        score.setId("score");
+        score.setCategory("scores");
+        score.setSubscriptions(new String[]{EVENT, OTHER_EVENT});
+        score.setTrigger(Arrays.asList(new ScoreTrigger(10L), new ScoreTrigger(20L, ScoreTrigger.Operation.LESS_THAN)));
+
+        final ScoreRangeAchievementBean scoreRange = new ScoreRangeAchievementBean();
+        scoreRange.setId("scoreRange");
+        scoreRange.setSubscriptions(new String[]{EVENT});
+        scoreRange.setTrigger(Collections.singletonList(new ScoreTriggerPair(5L, 8L)));
+
+        final DateAchievementBean date = new DateAchievementBean();
+        date.setId("date");
+        date.setSubscriptions(new String[]{EVENT});
+        date.setTrigger(Collections.singletonList(new DateTrigger(new Date(86400000L))));
+
+        final TimeAchievementBean time = new TimeAchievementBean();
+        time.setId("time");
+        time.setSubscriptions(new String[]{EVENT});
+        time.setTrigger(Collections.singletonList(new TimeTrigger(new LocalTime(10, 30))));
+
+        final TimeRangeAchievementBean timeRange = new TimeRangeAchievementBean();
+        timeRange.setId("timeRange");
+        timeRange.setSubscriptions(new String[]{EVENT});
+        timeRange.setTrigger(Collections.singletonList(new TimeTriggerPair(new LocalTime(8, 0), new LocalTime(9, 15))));
+
+        final CompositeAchievementBean composite = new CompositeAchievementBean();
+        composite.setId("composite");
+        composite.setSubscriptions(new String[]{EVENT});
+        final ITrigger atLeastTen = new ScoreTrigger(10L, ScoreTrigger.Operation.GREATER_THAN);
+        final ITrigger belowTwenty = new ScoreTrigger(20L, ScoreTrigger.Operation.LESS_THAN);
+        composite.setTrigger(Arrays.asList(atLeastTen, belowTwenty));
+        final Relation relation = new Relation();
+        relation.setOperator(RelationOperator.AND);
+        relation.addChild(new RelationElement(Collections.singletonList(atLeastTen)));
+        relation.addChild(new RelationElement(Collections.singletonList(belowTwenty)));
+        composite.setRelation(RelationCompiler.compile(relation));
+
+        final SingleAchievementBean single = new SingleAchievementBean();
+        single.setId("single");
+        single.setMaxLevel(3);
+
+        final AchievementBundle bundle = new AchievementBundle();
+        bundle.setEvents(new String[]{EVENT, OTHER_EVENT});
+        bundle.setAchievements(Arrays.asList(score, scoreRange, date, time, timeRange, composite, single));
+        return bundle.compile();
+    }
+}
@@ -2,14 +2,18 @@ package net.csongradyp.badger.persistence;
 
 import net.csongradyp.badger.persistence.entity.AchievementEntity;
 import net.csongradyp.badger.persistence.exception.UnlockedAchievementNotFoundException;
-import net.csongradyp.badger.persistence.repository.AchievementRepository;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.inject.Named;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * DAO for achievements to database communication.
+ * DAO for achievements to {@link IPersistenceStore} communication.
+ * Unlock checks are answered from an in-memory index of the highest unlocked level per achievement which is loaded
+ * once from the store and kept in sync on unlock and delete.
  *
  * @author Peter_Csongrady
  */
@@ -17,7 +21,29 @@ import java.util.*;
 public class AchievementDao {
 
     @Inject
-    private AchievementRepository achievementRepository;
+    private IPersistenceStore persistenceStore;
+
+    private final ConcurrentMap<String, Integer> unlockedLevels = new ConcurrentHashMap<>();
+    private volatile boolean unlockedLevelsLoaded;
+
+    @PostConstruct
+    public void loadUnlockedLevels() {
+        synchronized (unlockedLevels) {
+            if (!unlockedLevelsLoaded) {
+                for (AchievementEntity achievement : persistenceStore.getAllUnlocked()) {
+                    unlockedLevels.put(achievement.getId(), achievement.getLevel());
+                }
+                unlockedLevelsLoaded = true;
+            }
+        }
+    }
+
+    private ConcurrentMap<String, Integer> unlockedLevels() {
+        if (!unlockedLevelsLoaded) {
+            loadUnlockedLevels();
+        }
+        return unlockedLevels;
+    }
 
     public void unlock(final String achievementId) {
         unlock(achievementId, 1, new HashSet<>());
@@ -28,29 +54,75 @@ public class AchievementDao {
     }
 
     public void unlock(final String achievementId, final Integer level, final Set<String> owners) {
-        final AchievementEntity achievement = new AchievementEntity();
-        achievement.setId(achievementId);
-        achievement.setLevel(level);
-        achievement.addOwners(owners);
-        achievementRepository.save(achievement);
+        persistenceStore.setLevel(achievementId, level, owners);
+        unlockedLevels().put(achievementId, level);
+    }
+
+    /**
+     * Unlocks the given level of the achievement unless the same or a higher level is already unlocked.
+     * The check and the state change are a single compare-and-set on the unlocked level index, so concurrent callers
+     * for the same achievement and level cannot both succeed. The store only ever raises the stored level, so a lower
+     * level written after a concurrently claimed higher one does not overwrite it. The unlock fails if the store
+     * already holds the level although no higher level was claimed here, e.g. when another process unlocked it.
+     *
+     * @param achievementId name of Achievement.
+     * @param level         level to unlock.
+     * @param owners        owners of the unlocked achievement.
+     * @return {@code true} if this call unlocked the level.
+     */
+    public boolean tryUnlock(final String achievementId, final Integer level, final Set<String> owners) {
+        final ConcurrentMap<String, Integer> levels = unlockedLevels();
+        while (true) {
+            final Integer current = levels.get(achievementId);
+            if (current != null && current >= level) {
+                return false;
+            }
+            final boolean claimed = current == null ? levels.putIfAbsent(achievementId, level) == null : levels.replace(achievementId, current, level);
+            if (claimed) {
+                return persistUnlocked(achievementId, level, owners, current);
+            }
+        }
+    }
+
+    private boolean persistUnlocked(final String achievementId, final Integer level, final Set<String> owners, final Integer previousLevel) {
+        try {
+            if (persistenceStore.raiseLevel(achievementId, level, owners)) {
+                return true;
+            }
+        } catch (RuntimeException e) {
+            rollback(achievementId, level, previousLevel);
+            throw e;
+        }
+        final Integer indexedLevel = unlockedLevels.get(achievementId);
+        return indexedLevel != null && indexedLevel > level;
+    }
+
+    private void rollback(final String achievementId, final Integer level, final Integer previousLevel) {
+        if (previousLevel == null) {
+            unlockedLevels.remove(achievementId, level);
+        } else {
+            unlockedLevels.replace(achievementId, level, previousLevel);
+        }
     }
 
     public void deleteAll() {
-        achievementRepository.deleteAll();
+        synchronized (unlockedLevels) {
+            persistenceStore.deleteUnlocked();
+            unlockedLevels.clear();
+            unlockedLevelsLoaded = true;
+        }
     }
 
     public Collection<AchievementEntity> getAllByOwner(final String owner) {
-        final Set<String> owners = new HashSet<>();
-        owners.add(owner);
-        return achievementRepository.findByOwnersIn(owners);
+        return persistenceStore.getUnlockedByOwner(owner);
     }
 
     public Long getNumberOfUnlocked() {
-        return achievementRepository.count();
+        return persistenceStore.countUnlocked();
     }
 
     public Collection<AchievementEntity> getAll() {
-        return achievementRepository.findAll();
+        return persistenceStore.getAllUnlocked();
     }
 
     /**
@@ -60,12 +132,12 @@ public class AchievementDao {
      * @return {@code true} if the achievement is already unlocked.
      */
     public Boolean isUnlocked(final String id) {
-        return achievementRepository.findOne(id) != null;
+        return unlockedLevels().containsKey(id);
     }
 
     public Boolean isUnlocked(final String id, final Integer level) {
-        final AchievementEntity achievementEntity = achievementRepository.findOne(id);
-        return achievementEntity != null && level <= achievementEntity.getLevel();
+        final Integer unlockedLevel = unlockedLevels().get(id);
+        return unlockedLevel != null && level <= unlockedLevel;
     }
 
     /**
@@ -77,14 +149,14 @@ public class AchievementDao {
      * @throws UnlockedAchievementNotFoundException when achievement with given id is not unlocked.
      */
     public Date getAcquireDate(final String id) {
-        final AchievementEntity achievement = achievementRepository.findOne(id);
+        final AchievementEntity achievement = persistenceStore.getUnlocked(id);
         if (achievement != null) {
             return achievement.getAcquireDate();
         }
         throw new UnlockedAchievementNotFoundException(id);
     }
 
-    void setAchievementRepository(final AchievementRepository achievementRepository) {
-        this.achievementRepository = achievementRepository;
+    public void setPersistenceStore(final IPersistenceStore persistenceStore) {
+        this.persistenceStore = persistenceStore;
     }
 }
@@ -1,55 +1,346 @@
 package net.csongradyp.badger.persistence;
 
-import net.csongradyp.badger.persistence.entity.EventEntity;
-import net.csongradyp.badger.persistence.exception.MissingEventCounterException;
-import net.csongradyp.badger.persistence.repository.EventRepository;
-
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
+import net.csongradyp.badger.persistence.counter.MappedCounterTable;
+import net.csongradyp.badger.persistence.exception.MissingEventCounterException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Keeps event scores in an in-memory table which is authoritative at runtime.
+ * Counters are loaded from the {@link IPersistenceStore} on first access and written back according to the configured
+ * {@link ScoreDurability} policy.
+ * <p>
+ * With a {@link MappedCounterTable} the counters of the defined events live off-heap in the memory-mapped table instead,
+ * which is written back by the operating system and flushed according to the same policy.
+ */
 @Named
 public class EventDao {
 
+    private static final Logger LOG = LoggerFactory.getLogger(EventDao.class);
+    public static final long DEFAULT_FLUSH_INTERVAL = 1000L;
+
     @Inject
-    private EventRepository eventRepository;
+    private IPersistenceStore persistenceStore;
+
+    private final ConcurrentMap<String, AtomicLong> scores = new ConcurrentHashMap<>();
+    private final Set<String> dirtyEvents = ConcurrentHashMap.newKeySet();
+    private final Set<String> definedEvents = ConcurrentHashMap.newKeySet();
+    private volatile MappedCounterTable counterTable;
+    private ScoreDurability durability = ScoreDurability.ASYNC;
+    private long flushInterval = DEFAULT_FLUSH_INTERVAL;
+    private ScheduledExecutorService flushExecutor;
+    private ScheduledFuture<?> scheduledFlush;
+
+    @PostConstruct
+    public synchronized void startFlushing() {
+        if (durability == ScoreDurability.ASYNC && scheduledFlush == null) {
+            scheduleFlush();
+        }
+    }
 
     public Long increment(final String event) {
-        EventEntity score = getEventEntity(event);
-        score.incrementScore();
-        eventRepository.save(score);
-        return score.getScore();
+        final int slot = slotOf(event);
+        if (slot >= 0) {
+            final long newScore = counterTable.add(slot, 1L);
+            tableChanged();
+            return newScore;
+        }
+        final AtomicLong score = counterOf(event);
+        final long newScore = score.incrementAndGet();
+        changed(Collections.singleton(event));
+        return newScore;
     }
 
     public Long setScore(final String event, final Long newScore) {
-        EventEntity score = getEventEntity(event);
-        score.setScore(newScore);
-        eventRepository.save(score);
-        return score.getScore();
+        final int slot = slotOf(event);
+        if (slot >= 0) {
+            counterTable.set(slot, newScore);
+            tableChanged();
+            return newScore;
+        }
+        final AtomicLong score = counterOf(event);
+        score.set(newScore);
+        changed(Collections.singleton(event));
+        return newScore;
     }
 
-    private EventEntity getEventEntity(String event) {
-        EventEntity score = eventRepository.findOne(event);
-        if (score == null) {
-            score = new EventEntity();
-            score.setId(event);
-            score.setScore(0L);
+    /**
+     * Applies several counter changes at once. For every event the new score is set first (if present) then the
+     * delta is added (if present). All changed counters are written to the store in one batch.
+     *
+     * @param newScores Absolute scores to set by event.
+     * @param deltas    Values to add to the counters by event.
+     * @return Resulting score of every touched event.
+     */
+    public Map<String, Long> update(final Map<String, Long> newScores, final Map<String, Long> deltas) {
+        final Map<String, Long> result = new LinkedHashMap<>();
+        final Set<String> events = new LinkedHashSet<>(newScores.keySet());
+        events.addAll(deltas.keySet());
+        final Collection<String> heapEvents = new ArrayList<>(events.size());
+        boolean tableChanged = false;
+        for (String event : events) {
+            final Long delta = deltas.get(event);
+            final int slot = slotOf(event);
+            if (slot >= 0) {
+                if (newScores.containsKey(event)) {
+                    counterTable.set(slot, newScores.get(event));
+                }
+                result.put(event, delta == null ? counterTable.get(slot) : counterTable.add(slot, delta));
+                tableChanged = true;
+                continue;
+            }
+            final AtomicLong score = counterOf(event);
+            if (newScores.containsKey(event)) {
+                score.set(newScores.get(event));
+            }
+            result.put(event, delta == null ? score.get() : score.addAndGet(delta));
+            heapEvents.add(event);
+        }
+        if (tableChanged) {
+            tableChanged();
         }
-        return score;
+        if (!heapEvents.isEmpty()) {
+            changed(heapEvents);
+        }
+        return result;
+    }
+
+    private AtomicLong counterOf(final String event) {
+        return scores.computeIfAbsent(event, id -> {
+            final Long stored = persistenceStore.getScore(id);
+            return new AtomicLong(stored == null ? 0L : stored);
+        });
     }
 
     public Long scoreOf(final String event) {
-        final EventEntity score = eventRepository.findOne(event);
-        if (score != null) {
-            return score.getScore();
+        final int slot = slotOf(event);
+        if (slot >= 0) {
+            final long value = counterTable.get(slot);
+            if (value == MappedCounterTable.UNSET) {
+                throw new MissingEventCounterException(event);
+            }
+            return value;
+        }
+        AtomicLong score = scores.get(event);
+        if (score == null) {
+            final Long stored = persistenceStore.getScore(event);
+            if (stored == null) {
+                throw new MissingEventCounterException(event);
+            }
+            final AtomicLong loaded = scores.putIfAbsent(event, new AtomicLong(stored));
+            score = loaded == null ? scores.get(event) : loaded;
+        }
+        return score.get();
+    }
+
+    private int slotOf(final String event) {
+        final MappedCounterTable table = counterTable;
+        return table == null ? -1 : table.slotOf(event);
+    }
+
+    private void tableChanged() {
+        if (durability == ScoreDurability.SYNC) {
+            counterTable.force();
+        }
+    }
+
+    private void changed(final Collection<String> events) {
+        switch (durability) {
+            case SYNC:
+                // values are read under the lock so concurrent writers cannot persist a stale score last
+                synchronized (this) {
+                    persistenceStore.setScores(snapshotOf(events));
+                }
+                break;
+            case ASYNC:
+                dirtyEvents.addAll(events);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Writes every score changed since the last flush to the store in one batch.
+     */
+    public synchronized void flush() {
+        if (durability == ScoreDurability.MEMORY_ONLY) {
+            return;
+        }
+        if (counterTable != null) {
+            counterTable.force();
+        }
+        if (dirtyEvents.isEmpty()) {
+            return;
+        }
+        final Collection<String> events = new ArrayList<>();
+        for (String event : dirtyEvents) {
+            // removal precedes the read, so an update racing with the flush marks the event dirty again
+            dirtyEvents.remove(event);
+            events.add(event);
         }
-        throw new MissingEventCounterException(event);
+        final Map<String, Long> batch = snapshotOf(events);
+        if (!batch.isEmpty()) {
+            persistenceStore.setScores(batch);
+            LOG.debug("{} event scores flushed", batch.size());
+        }
+    }
+
+    private Map<String, Long> snapshotOf(final Collection<String> events) {
+        final Map<String, Long> snapshot = new LinkedHashMap<>();
+        for (String event : events) {
+            final AtomicLong score = scores.get(event);
+            if (score != null) {
+                snapshot.put(event, score.get());
+            }
+        }
+        return snapshot;
     }
 
     public void deleteAll() {
-        eventRepository.deleteAll();
+        synchronized (this) {
+            dirtyEvents.clear();
+            scores.clear();
+            if (counterTable != null) {
+                counterTable.clear();
+            }
+        }
+        persistenceStore.deleteScores();
+    }
+
+    /**
+     * Registers the events of the loaded achievement definition. They get a slot in the counter table if one is used.
+     *
+     * @param events defined event names.
+     */
+    public synchronized void registerEvents(final Collection<String> events) {
+        definedEvents.addAll(events);
+        if (counterTable != null) {
+            moveToTable(events);
+        }
+    }
+
+    /**
+     * Keeps the counters of the defined events in the given table from now on. Scores already known are copied into
+     * the table. Should be set before events are triggered, concurrent updates of a moving counter may be lost.
+     * The table is closed on {@link #shutdown()}.
+     *
+     * @param counterTable memory-mapped counter table.
+     */
+    public synchronized void setCounterTable(final MappedCounterTable counterTable) {
+        flush();
+        this.counterTable = counterTable;
+        moveToTable(definedEvents);
+    }
+
+    private void moveToTable(final Collection<String> events) {
+        for (String event : events) {
+            int slot = counterTable.slotOf(event);
+            final boolean registered = slot >= 0;
+            if (!registered) {
+                slot = counterTable.register(event);
+            }
+            if (slot < 0) {
+                LOG.warn("Counter table is full, score of event {} is kept on heap", event);
+                continue;
+            }
+            final AtomicLong score = scores.remove(event);
+            dirtyEvents.remove(event);
+            final Long known = score == null ? null : score.get();
+            final Long stored = known == null && !registered ? persistenceStore.getScore(event) : known;
+            if (stored != null) {
+                counterTable.set(slot, stored);
+            }
+        }
+    }
+
+    /**
+     * Sets when score changes are written to the store.
+     *
+     * @param durability    {@link ScoreDurability} policy to apply. Default is {@link ScoreDurability#ASYNC}.
+     * @param flushInterval Milliseconds between two batch writes in {@link ScoreDurability#ASYNC} mode.
+     */
+    public synchronized void setDurability(final ScoreDurability durability, final long flushInterval) {
+        flush();
+        this.durability = durability;
+        this.flushInterval = flushInterval;
+        cancelScheduledFlush();
+        if (durability == ScoreDurability.ASYNC) {
+            scheduleFlush();
+        }
+    }
+
+    public ScoreDurability getDurability() {
+        return durability;
+    }
+
+    private void scheduleFlush() {
+        if (flushExecutor == null) {
+            flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "badger-score-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        scheduledFlush = flushExecutor.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOG.error("Failed to flush event scores", e);
+        }
+    }
+
+    private void cancelScheduledFlush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+    }
+
+    /**
+     * Writes pending score changes to the store and stops the background flush.
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        cancelScheduledFlush();
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+            flushExecutor = null;
+        }
+        flush();
+        if (counterTable != null) {
+            try {
+                counterTable.close();
+            } catch (IOException e) {
+                LOG.error("Failed to close counter table", e);
+            }
+            counterTable = null;
+        }
     }
 
-    void setEventRepository(EventRepository eventRepository) {
-        this.eventRepository = eventRepository;
+    public void setPersistenceStore(final IPersistenceStore persistenceStore) {
+        this.persistenceStore = persistenceStore;
     }
 }
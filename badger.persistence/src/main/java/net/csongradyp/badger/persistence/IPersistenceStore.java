@@ -0,0 +1,83 @@
+package net.csongradyp.badger.persistence;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import net.csongradyp.badger.persistence.entity.AchievementEntity;
+
+/**
+ * Storage of event scores and unlocked achievements behind {@link EventDao} and {@link AchievementDao}.
+ * The DAOs keep the runtime state in memory and use the store to load it and to write changes through.
+ */
+public interface IPersistenceStore {
+
+    /**
+     * @param event name of the event.
+     * @return stored score of the event or {@code null} if the event has no counter.
+     */
+    Long getScore(String event);
+
+    /**
+     * @return every stored score by event.
+     */
+    Map<String, Long> getScores();
+
+    /**
+     * Stores the given scores in one batch.
+     *
+     * @param scores absolute scores by event.
+     */
+    void setScores(Map<String, Long> scores);
+
+    /**
+     * Adds the given value to the stored score of the event. Missing counters start from zero.
+     *
+     * @param event name of the event.
+     * @param delta value to add.
+     * @return the new score.
+     */
+    long addScore(String event, long delta);
+
+    void deleteScores();
+
+    /**
+     * Stores the level of the achievement only if it is locked or a lower level is stored, so the stored level never
+     * decreases whatever order concurrent unlocks are written in. The level and the owners are changed atomically.
+     *
+     * @param achievementId name of the achievement.
+     * @param level         level to store.
+     * @param owners        owners of the unlocked achievement.
+     * @return {@code true} if the level was stored, {@code false} if the same or a higher level is already stored.
+     */
+    boolean raiseLevel(String achievementId, Integer level, Set<String> owners);
+
+    /**
+     * Stores the level of the achievement regardless of the currently stored one.
+     *
+     * @param achievementId name of the achievement.
+     * @param level         level to store.
+     * @param owners        owners of the unlocked achievement.
+     */
+    void setLevel(String achievementId, Integer level, Set<String> owners);
+
+    /**
+     * @param achievementId name of the achievement.
+     * @return the unlocked achievement or {@code null} if it is locked.
+     */
+    AchievementEntity getUnlocked(String achievementId);
+
+    /**
+     * @return every unlocked achievement.
+     */
+    Collection<AchievementEntity> getAllUnlocked();
+
+    /**
+     * @param owner name of the owner.
+     * @return unlocked achievements of the given owner.
+     */
+    Collection<AchievementEntity> getUnlockedByOwner(String owner);
+
+    long countUnlocked();
+
+    void deleteUnlocked();
+}
@@ -0,0 +1,126 @@
+package net.csongradyp.badger.persistence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import net.csongradyp.badger.persistence.entity.AchievementEntity;
+
+/**
+ * Lock-free {@link IPersistenceStore} keeping everything on the heap. Nothing survives a restart.
+ * Unlocked achievements are stored as entities which are never modified after they are put into the map, so a
+ * level change is a single compare-and-set on the map entry.
+ */
+public class InMemoryPersistenceStore implements IPersistenceStore {
+
+    private final ConcurrentMap<String, AtomicLong> scores = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AchievementEntity> achievements = new ConcurrentHashMap<>();
+
+    @Override
+    public Long getScore(final String event) {
+        final AtomicLong score = scores.get(event);
+        return score == null ? null : score.get();
+    }
+
+    @Override
+    public Map<String, Long> getScores() {
+        final Map<String, Long> result = new LinkedHashMap<>();
+        scores.forEach((event, score) -> result.put(event, score.get()));
+        return result;
+    }
+
+    @Override
+    public void setScores(final Map<String, Long> newScores) {
+        newScores.forEach((event, score) -> counterOf(event).set(score));
+    }
+
+    @Override
+    public long addScore(final String event, final long delta) {
+        return counterOf(event).addAndGet(delta);
+    }
+
+    private AtomicLong counterOf(final String event) {
+        return scores.computeIfAbsent(event, id -> new AtomicLong());
+    }
+
+    @Override
+    public void deleteScores() {
+        scores.clear();
+    }
+
+    @Override
+    public boolean raiseLevel(final String achievementId, final Integer level, final Set<String> owners) {
+        final AchievementEntity unlocked = createEntity(achievementId, level, owners);
+        while (true) {
+            final AchievementEntity current = achievements.get(achievementId);
+            if (current == null) {
+                if (achievements.putIfAbsent(achievementId, unlocked) == null) {
+                    return true;
+                }
+            } else if (current.getLevel() >= level) {
+                return false;
+            } else if (achievements.replace(achievementId, current, unlocked)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void setLevel(final String achievementId, final Integer level, final Set<String> owners) {
+        achievements.put(achievementId, createEntity(achievementId, level, owners));
+    }
+
+    private AchievementEntity createEntity(final String achievementId, final Integer level, final Set<String> owners) {
+        final AchievementEntity achievement = new AchievementEntity();
+        achievement.setId(achievementId);
+        achievement.setLevel(level);
+        achievement.addOwners(owners);
+        return achievement;
+    }
+
+    @Override
+    public AchievementEntity getUnlocked(final String achievementId) {
+        final AchievementEntity achievement = achievements.get(achievementId);
+        return achievement == null ? null : copyOf(achievement);
+    }
+
+    @Override
+    public Collection<AchievementEntity> getAllUnlocked() {
+        final Collection<AchievementEntity> result = new ArrayList<>();
+        for (AchievementEntity achievement : achievements.values()) {
+            result.add(copyOf(achievement));
+        }
+        return result;
+    }
+
+    @Override
+    public Collection<AchievementEntity> getUnlockedByOwner(final String owner) {
+        final Collection<AchievementEntity> result = new ArrayList<>();
+        for (AchievementEntity achievement : achievements.values()) {
+            if (achievement.getOwners().contains(owner)) {
+                result.add(copyOf(achievement));
+            }
+        }
+        return result;
+    }
+
+    private AchievementEntity copyOf(final AchievementEntity achievement) {
+        final AchievementEntity copy = createEntity(achievement.getId(), achievement.getLevel(), achievement.getOwners());
+        copy.setAcquireDate(achievement.getAcquireDate());
+        return copy;
+    }
+
+    @Override
+    public long countUnlocked() {
+        return achievements.size();
+    }
+
+    @Override
+    public void deleteUnlocked() {
+        achievements.clear();
+    }
+}
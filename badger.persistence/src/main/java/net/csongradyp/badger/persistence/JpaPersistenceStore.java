@@ -0,0 +1,158 @@
+package net.csongradyp.badger.persistence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.inject.Inject;
+import org.springframework.transaction.annotation.Transactional;
+import net.csongradyp.badger.persistence.entity.AchievementEntity;
+import net.csongradyp.badger.persistence.entity.EventEntity;
+import net.csongradyp.badger.persistence.repository.AchievementRepository;
+import net.csongradyp.badger.persistence.repository.EventRepository;
+
+/**
+ * {@link IPersistenceStore} backed by the Spring Data JPA repositories.
+ * Score additions and level raises of stored rows are conditional update statements, so they are atomic for every
+ * process sharing the database. Creating the first row of an event or achievement is serialized per id within
+ * the process only.
+ */
+public class JpaPersistenceStore implements IPersistenceStore {
+
+    private static final int INSERT_LOCK_STRIPES = 64;
+
+    private final Object[] insertLocks = new Object[INSERT_LOCK_STRIPES];
+
+    @Inject
+    private EventRepository eventRepository;
+    @Inject
+    private AchievementRepository achievementRepository;
+
+    public JpaPersistenceStore() {
+        for (int i = 0; i < insertLocks.length; i++) {
+            insertLocks[i] = new Object();
+        }
+    }
+
+    @Override
+    public Long getScore(final String event) {
+        final EventEntity entity = eventRepository.findOne(event);
+        return entity == null ? null : entity.getScore();
+    }
+
+    @Override
+    public Map<String, Long> getScores() {
+        final Map<String, Long> scores = new LinkedHashMap<>();
+        for (EventEntity entity : eventRepository.findAll()) {
+            scores.put(entity.getId(), entity.getScore());
+        }
+        return scores;
+    }
+
+    @Override
+    public void setScores(final Map<String, Long> scores) {
+        final Collection<EventEntity> entities = new ArrayList<>(scores.size());
+        scores.forEach((event, score) -> entities.add(createEventEntity(event, score)));
+        eventRepository.save(entities);
+    }
+
+    @Override
+    public long addScore(final String event, final long delta) {
+        if (eventRepository.addScore(event, delta) == 0) {
+            synchronized (insertLockOf(event)) {
+                if (eventRepository.addScore(event, delta) == 0) {
+                    eventRepository.save(createEventEntity(event, delta));
+                    return delta;
+                }
+            }
+        }
+        return getScore(event);
+    }
+
+    private EventEntity createEventEntity(final String event, final Long score) {
+        final EventEntity entity = new EventEntity();
+        entity.setId(event);
+        entity.setScore(score);
+        return entity;
+    }
+
+    @Override
+    public void deleteScores() {
+        eventRepository.deleteAll();
+    }
+
+    /**
+     * Runs in one transaction: the conditional update locks the row until the owners are replaced and committed, so
+     * the level and the owners of a concurrent unlock cannot interleave.
+     */
+    @Override
+    @Transactional
+    public boolean raiseLevel(final String achievementId, final Integer level, final Set<String> owners) {
+        if (achievementRepository.raiseLevel(achievementId, level, new Date()) == 0) {
+            synchronized (insertLockOf(achievementId)) {
+                if (achievementRepository.findOne(achievementId) == null) {
+                    setLevel(achievementId, level, owners);
+                    return true;
+                }
+            }
+            if (achievementRepository.raiseLevel(achievementId, level, new Date()) == 0) {
+                return false;
+            }
+        }
+        final AchievementEntity achievement = achievementRepository.findOne(achievementId);
+        achievement.setOwners(new HashSet<>(owners));
+        achievementRepository.save(achievement);
+        return true;
+    }
+
+    private Object insertLockOf(final String id) {
+        return insertLocks[(id.hashCode() & Integer.MAX_VALUE) % insertLocks.length];
+    }
+
+    @Override
+    public void setLevel(final String achievementId, final Integer level, final Set<String> owners) {
+        final AchievementEntity achievement = new AchievementEntity();
+        achievement.setId(achievementId);
+        achievement.setLevel(level);
+        achievement.addOwners(owners);
+        achievementRepository.save(achievement);
+    }
+
+    @Override
+    public AchievementEntity getUnlocked(final String achievementId) {
+        return achievementRepository.findOne(achievementId);
+    }
+
+    @Override
+    public Collection<AchievementEntity> getAllUnlocked() {
+        return achievementRepository.findAll();
+    }
+
+    @Override
+    public Collection<AchievementEntity> getUnlockedByOwner(final String owner) {
+        final Set<String> owners = new HashSet<>();
+        owners.add(owner);
+        return achievementRepository.findByOwnersIn(owners);
+    }
+
+    @Override
+    public long countUnlocked() {
+        return achievementRepository.count();
+    }
+
+    @Override
+    public void deleteUnlocked() {
+        achievementRepository.deleteAll();
+    }
+
+    void setEventRepository(final EventRepository eventRepository) {
+        this.eventRepository = eventRepository;
+    }
+
+    void setAchievementRepository(final AchievementRepository achievementRepository) {
+        this.achievementRepository = achievementRepository;
+    }
+}
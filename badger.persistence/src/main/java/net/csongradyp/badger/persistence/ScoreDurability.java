@@ -0,0 +1,20 @@
+package net.csongradyp.badger.persistence;
+
+/**
+ * Defines when the in-memory event scores held by {@link EventDao} are written to the underlying store.
+ */
+public enum ScoreDurability {
+
+    /**
+     * Every score change is written to the store before the call returns.
+     */
+    SYNC,
+    /**
+     * Score changes are collected and written to the store in batches on a fixed interval and on shutdown.
+     */
+    ASYNC,
+    /**
+     * Scores are kept in memory only, nothing is written to the store.
+     */
+    MEMORY_ONLY
+}
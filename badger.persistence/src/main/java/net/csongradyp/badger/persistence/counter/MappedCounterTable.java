@@ -0,0 +1,232 @@
+package net.csongradyp.badger.persistence.counter;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Fixed-layout table of {@code long} event counters in a memory-mapped file. Every registered event owns a dense slot
+ * of the table, its value lives off-heap and is written back to the file by the operating system.
+ * <p>
+ * Slots are assigned in registration order and the event names are appended to a {@code .events} file next to the
+ * table, so the same event finds its slot again after a restart. A slot which was never written holds {@link #UNSET}.
+ * Slots are guarded by striped locks.
+ */
+public class MappedCounterTable implements Closeable {
+
+    public static final int DEFAULT_CAPACITY = 65536;
+    public static final long UNSET = Long.MIN_VALUE;
+
+    private static final int MAGIC = 0x42444743;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path namesFile;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final ConcurrentMap<String, Integer> slots = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public MappedCounterTable(final File file) {
+        this(file, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Opens the table, creating it if missing. An existing table keeps its slots and grows to the given capacity.
+     *
+     * @param file     counter table file.
+     * @param capacity maximum number of counters.
+     */
+    public MappedCounterTable(final File file, final int capacity) {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        namesFile = new File(file.getPath() + ".events").toPath();
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            final int storedCapacity = channel.size() < HEADER_SIZE ? 0 : readCapacity(file);
+            this.capacity = Math.max(capacity, storedCapacity);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) this.capacity * Long.BYTES);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(Integer.BYTES, this.capacity);
+            for (int slot = storedCapacity; slot < this.capacity; slot++) {
+                buffer.putLong(offsetOf(slot), UNSET);
+            }
+            loadNames();
+        } catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            closeQuietly();
+            throw e;
+        }
+    }
+
+    private int readCapacity(final File file) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        if (header.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Not a counter table " + file);
+        }
+        return header.getInt(Integer.BYTES);
+    }
+
+    private void closeQuietly() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // the original failure is reported
+        }
+    }
+
+    private void loadNames() throws IOException {
+        if (!Files.exists(namesFile)) {
+            return;
+        }
+        final byte[] names = Files.readAllBytes(namesFile);
+        int length = names.length;
+        while (length > 0 && names[length - 1] != '\n') {
+            length--;
+        }
+        if (length < names.length) {
+            // a name without line end is an incomplete registration of a crash, later names must not be appended to it
+            try (FileChannel namesChannel = FileChannel.open(namesFile, StandardOpenOption.WRITE)) {
+                namesChannel.truncate(length);
+            }
+        }
+        final String content = new String(names, 0, length, StandardCharsets.UTF_8);
+        int start = 0;
+        for (int end = content.indexOf('\n'); end >= 0; end = content.indexOf('\n', start)) {
+            slots.putIfAbsent(content.substring(start, end), slots.size());
+            start = end + 1;
+        }
+    }
+
+    /**
+     * Assigns the next free slot to the event unless it already owns one.
+     *
+     * @param event event name.
+     * @return slot of the event or {@code -1} if the table is full.
+     */
+    public synchronized int register(final String event) {
+        final Integer slot = slots.get(event);
+        if (slot != null) {
+            return slot;
+        }
+        if (slots.size() == capacity) {
+            return -1;
+        }
+        try {
+            Files.write(namesFile, (event + '\n').getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final int newSlot = slots.size();
+        slots.put(event, newSlot);
+        return newSlot;
+    }
+
+    /**
+     * @return slot of the event or {@code -1} if it is not registered.
+     */
+    public int slotOf(final String event) {
+        final Integer slot = slots.get(event);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * @return value of the slot or {@link #UNSET} if it was never written.
+     */
+    public long get(final int slot) {
+        synchronized (lockOf(slot)) {
+            return buffer.getLong(offsetOf(slot));
+        }
+    }
+
+    public void set(final int slot, final long value) {
+        synchronized (lockOf(slot)) {
+            buffer.putLong(offsetOf(slot), value);
+        }
+    }
+
+    /**
+     * Adds the delta to the slot. An unset slot counts as zero.
+     *
+     * @return new value of the slot.
+     */
+    public long add(final int slot, final long delta) {
+        final int offset = offsetOf(slot);
+        synchronized (lockOf(slot)) {
+            final long value = buffer.getLong(offset);
+            final long newValue = value == UNSET ? delta : value + delta;
+            buffer.putLong(offset, newValue);
+            return newValue;
+        }
+    }
+
+    /**
+     * @return every set counter by event name.
+     */
+    public Map<String, Long> getAll() {
+        final Map<String, Long> values = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> slot : slots.entrySet()) {
+            final long value = get(slot.getValue());
+            if (value != UNSET) {
+                values.put(slot.getKey(), value);
+            }
+        }
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * Unsets every counter. Registered events keep their slots.
+     */
+    public void clear() {
+        for (int slot : slots.values()) {
+            set(slot, UNSET);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Writes the changed pages of the table to the file.
+     */
+    public void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private Object lockOf(final int slot) {
+        return locks[slot & (LOCK_STRIPES - 1)];
+    }
+
+    private static int offsetOf(final int slot) {
+        return HEADER_SIZE + slot * Long.BYTES;
+    }
+}
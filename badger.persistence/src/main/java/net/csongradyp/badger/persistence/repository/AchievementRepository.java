@@ -2,12 +2,27 @@ package net.csongradyp.badger.persistence.repository;
 
 import net.csongradyp.badger.persistence.entity.AchievementEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.Set;
 
 public interface AchievementRepository extends JpaRepository<AchievementEntity, String> {
 
     Collection<AchievementEntity> findByOwnersIn(final Set<String> owners);
 
+    /**
+     * Stores the level only if a lower level is stored, in a single update statement.
+     *
+     * @return number of updated rows, zero if the achievement is not stored or the same or a higher level is stored.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("update AchievementEntity a set a.level = :level, a.acquireDate = :acquireDate where a.id = :id and a.level < :level")
+    int raiseLevel(@Param("id") final String id, @Param("level") final Integer level, @Param("acquireDate") final Date acquireDate);
+
 }
@@ -2,7 +2,21 @@ package net.csongradyp.badger.persistence.repository;
 
 import net.csongradyp.badger.persistence.entity.EventEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface EventRepository extends JpaRepository<EventEntity, String> {
 
+    /**
+     * Adds the delta to the stored score in a single update statement.
+     *
+     * @return number of updated rows, zero if the event has no stored score.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("update EventEntity e set e.score = e.score + :delta where e.id = :id")
+    int addScore(@Param("id") final String id, @Param("delta") final Long delta);
+
 }
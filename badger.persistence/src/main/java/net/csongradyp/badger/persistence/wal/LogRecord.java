@@ -0,0 +1,89 @@
+package net.csongradyp.badger.persistence.wal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Binary payloads of the log records. Every payload starts with the record type followed by its fields;
+ * strings are stored as their UTF-8 length and bytes.
+ */
+final class LogRecord {
+
+    static final byte SCORE_SET = 1;
+    static final byte SCORE_ADD = 2;
+    static final byte UNLOCK = 3;
+    static final byte DELETE_SCORES = 4;
+    static final byte DELETE_UNLOCKED = 5;
+
+    private LogRecord() {
+    }
+
+    static ByteBuffer scoreSet(final String event, final long score) {
+        return score(SCORE_SET, event, score);
+    }
+
+    static ByteBuffer scoreAdd(final String event, final long delta) {
+        return score(SCORE_ADD, event, delta);
+    }
+
+    private static ByteBuffer score(final byte type, final String event, final long value) {
+        final byte[] eventBytes = bytesOf(event);
+        final ByteBuffer payload = ByteBuffer.allocate(1 + sizeOf(eventBytes) + Long.BYTES);
+        payload.put(type);
+        putBytes(payload, eventBytes);
+        payload.putLong(value);
+        payload.flip();
+        return payload;
+    }
+
+    static ByteBuffer unlock(final String achievementId, final int level, final long acquireTime, final Collection<String> owners) {
+        final byte[] idBytes = bytesOf(achievementId);
+        final List<byte[]> ownerBytes = new ArrayList<>(owners.size());
+        int size = 1 + sizeOf(idBytes) + Integer.BYTES + Long.BYTES + Integer.BYTES;
+        for (String owner : owners) {
+            final byte[] bytes = bytesOf(owner);
+            ownerBytes.add(bytes);
+            size += sizeOf(bytes);
+        }
+        final ByteBuffer payload = ByteBuffer.allocate(size);
+        payload.put(UNLOCK);
+        putBytes(payload, idBytes);
+        payload.putInt(level);
+        payload.putLong(acquireTime);
+        payload.putInt(ownerBytes.size());
+        for (byte[] bytes : ownerBytes) {
+            putBytes(payload, bytes);
+        }
+        payload.flip();
+        return payload;
+    }
+
+    static ByteBuffer delete(final byte type) {
+        final ByteBuffer payload = ByteBuffer.allocate(1);
+        payload.put(type);
+        payload.flip();
+        return payload;
+    }
+
+    static String getString(final ByteBuffer payload) {
+        final byte[] bytes = new byte[payload.getInt()];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytesOf(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int sizeOf(final byte[] bytes) {
+        return Integer.BYTES + bytes.length;
+    }
+
+    private static void putBytes(final ByteBuffer payload, final byte[] bytes) {
+        payload.putInt(bytes.length);
+        payload.put(bytes);
+    }
+}
@@ -0,0 +1,126 @@
+package net.csongradyp.badger.persistence.wal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-mapped log file of a fixed size. Records are framed by their payload length and CRC32 checksum; a zero
+ * length marks the end of the written records. A record with an invalid length or checksum is a torn write of a
+ * crash and ends the log.
+ */
+final class LogSegment implements Closeable {
+
+    static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    private final long sequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private LogSegment(final long sequence, final FileChannel channel, final MappedByteBuffer buffer) {
+        this.sequence = sequence;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Maps the segment file, creating or extending it to the given size. The write position is at the start of the
+     * segment until {@link #replay(Consumer)} is called.
+     */
+    static LogSegment open(final Path path, final long sequence, final int size) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final long mappedSize = Math.max(size, channel.size());
+            return new LogSegment(sequence, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Passes the payload of every valid record to the consumer and moves the write position after the last one.
+     * The remainder of a torn record is cleared so it cannot be mistaken for a record later.
+     *
+     * @param consumer receives read-only payloads.
+     * @return {@code true} if the log ended cleanly, {@code false} if it ended with a torn record.
+     */
+    boolean replay(final Consumer<ByteBuffer> consumer) {
+        buffer.position(0);
+        while (buffer.remaining() >= HEADER_SIZE) {
+            final int start = buffer.position();
+            final int length = buffer.getInt(start);
+            if (length == 0) {
+                return true;
+            }
+            final int checksum = buffer.getInt(start + Integer.BYTES);
+            if (length < 0 || length > buffer.remaining() - HEADER_SIZE || checksum != checksumOf(start + HEADER_SIZE, length)) {
+                clearFrom(start);
+                return false;
+            }
+            final ByteBuffer payload = buffer.duplicate();
+            payload.position(start + HEADER_SIZE);
+            payload.limit(start + HEADER_SIZE + length);
+            consumer.accept(payload.slice().asReadOnlyBuffer());
+            buffer.position(start + HEADER_SIZE + length);
+        }
+        return true;
+    }
+
+    private int checksumOf(final int offset, final int length) {
+        final ByteBuffer payload = buffer.duplicate();
+        payload.position(offset);
+        payload.limit(offset + length);
+        final CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private void clearFrom(final int offset) {
+        buffer.position(offset);
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) 0);
+        }
+        buffer.position(offset);
+    }
+
+    /**
+     * @param payload record payload to append.
+     * @return {@code false} if the segment has no room left for the record.
+     */
+    boolean append(final ByteBuffer payload) {
+        final int length = payload.remaining();
+        if (buffer.remaining() < HEADER_SIZE + length) {
+            return false;
+        }
+        final int start = buffer.position();
+        final CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        buffer.position(start + HEADER_SIZE);
+        buffer.put(payload);
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+        // the length is written last, a record is not visible before it is complete
+        buffer.putInt(start, length);
+        return true;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+}
@@ -0,0 +1,22 @@
+package net.csongradyp.badger.persistence.wal;
+
+/**
+ * Defines when the appended log records of {@link WalPersistenceStore} are forced to the storage device.
+ * Segments are always forced when they are full, before a snapshot and on close.
+ */
+public enum LogSyncPolicy {
+
+    /**
+     * Every change is forced to the device before the call returns.
+     */
+    ALWAYS,
+    /**
+     * Changes are forced on a fixed interval. A crash loses at most the changes of the last interval.
+     */
+    INTERVAL,
+    /**
+     * Writing the changes is left to the operating system. A crash of the process loses nothing, a crash of the
+     * machine may lose the changes not yet written by the operating system.
+     */
+    NEVER
+}
@@ -0,0 +1,128 @@
+package net.csongradyp.badger.persistence.wal;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import net.csongradyp.badger.persistence.entity.AchievementEntity;
+
+/**
+ * Full copy of the scores and unlocked achievements, valid up to the start of the segment it names.
+ * The file ends with the CRC32 checksum of its content and is written to a temporary file first, then moved in place.
+ */
+final class Snapshot {
+
+    private static final int MAGIC = 0x42444753;
+
+    private final long firstSegment;
+    private final Map<String, Long> scores;
+    private final Map<String, AchievementEntity> achievements;
+
+    private Snapshot(final long firstSegment, final Map<String, Long> scores, final Map<String, AchievementEntity> achievements) {
+        this.firstSegment = firstSegment;
+        this.scores = scores;
+        this.achievements = achievements;
+    }
+
+    /**
+     * @return sequence of the first segment to replay on top of the snapshot.
+     */
+    long getFirstSegment() {
+        return firstSegment;
+    }
+
+    Map<String, Long> getScores() {
+        return scores;
+    }
+
+    Map<String, AchievementEntity> getAchievements() {
+        return achievements;
+    }
+
+    static void write(final Path file, final long firstSegment, final Map<String, Long> scores, final Collection<AchievementEntity> achievements) throws IOException {
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final OutputStream channelStream = Channels.newOutputStream(channel);
+            final CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(channelStream), new CRC32());
+            final DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeLong(firstSegment);
+            out.writeInt(scores.size());
+            for (Map.Entry<String, Long> score : scores.entrySet()) {
+                out.writeUTF(score.getKey());
+                out.writeLong(score.getValue());
+            }
+            out.writeInt(achievements.size());
+            for (AchievementEntity achievement : achievements) {
+                out.writeUTF(achievement.getId());
+                out.writeInt(achievement.getLevel());
+                out.writeLong(achievement.getAcquireDate().getTime());
+                out.writeInt(achievement.getOwners().size());
+                for (String owner : achievement.getOwners()) {
+                    out.writeUTF(owner);
+                }
+            }
+            out.flush();
+            new DataOutputStream(channelStream).writeLong(checked.getChecksum().getValue());
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @throws IllegalStateException if the file is corrupted.
+     */
+    static Snapshot read(final Path file) throws IOException {
+        final byte[] content = Files.readAllBytes(file);
+        final int length = content.length - Long.BYTES;
+        if (length < 0 || ByteBuffer.wrap(content).getLong(length) != checksumOf(content, length)) {
+            throw new IllegalStateException("Corrupted snapshot " + file);
+        }
+        final DataInputStream data = new DataInputStream(new ByteArrayInputStream(content, 0, length));
+        if (data.readInt() != MAGIC) {
+            throw new IllegalStateException("Not a snapshot " + file);
+        }
+        final long firstSegment = data.readLong();
+        final Map<String, Long> scores = new LinkedHashMap<>();
+        for (int i = data.readInt(); i > 0; i--) {
+            scores.put(data.readUTF(), data.readLong());
+        }
+        final Map<String, AchievementEntity> achievements = new LinkedHashMap<>();
+        for (int i = data.readInt(); i > 0; i--) {
+            final AchievementEntity achievement = new AchievementEntity();
+            achievement.setId(data.readUTF());
+            achievement.setLevel(data.readInt());
+            achievement.setAcquireDate(new Date(data.readLong()));
+            final Set<String> owners = new HashSet<>();
+            for (int j = data.readInt(); j > 0; j--) {
+                owners.add(data.readUTF());
+            }
+            achievement.setOwners(owners);
+            achievements.put(achievement.getId(), achievement);
+        }
+        return new Snapshot(firstSegment, scores, achievements);
+    }
+
+    private static long checksumOf(final byte[] content, final int length) {
+        final CRC32 crc = new CRC32();
+        crc.update(content, 0, length);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,492 @@
+package net.csongradyp.badger.persistence.wal;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import net.csongradyp.badger.persistence.IPersistenceStore;
+import net.csongradyp.badger.persistence.entity.AchievementEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link IPersistenceStore} appending every change as a compact binary record to a log of memory-mapped segments.
+ * The state is kept in memory; after the configured number of records a copy of the state is written into a snapshot
+ * on the background sync thread and the segments it covers are deleted. On start the latest snapshot is loaded and the
+ * records of the remaining segments are replayed up to the first torn record left by a crash.
+ * Changes are serialized on the store instance, reads do not lock.
+ */
+public class WalPersistenceStore implements IPersistenceStore, Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WalPersistenceStore.class);
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 100000;
+    public static final long DEFAULT_SYNC_INTERVAL = 1000L;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final long SNAPSHOT_CLOSE_TIMEOUT = 10000L;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ConcurrentMap<String, Long> scores = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AchievementEntity> achievements = new ConcurrentHashMap<>();
+    private LogSegment segment;
+    private int snapshotInterval = DEFAULT_SNAPSHOT_INTERVAL;
+    private int recordsSinceSnapshot;
+    private LogSyncPolicy syncPolicy = LogSyncPolicy.INTERVAL;
+    private long syncInterval = DEFAULT_SYNC_INTERVAL;
+    private ScheduledExecutorService syncExecutor;
+    private ScheduledFuture<?> scheduledSync;
+    private Future<?> pendingSnapshot;
+    private boolean closed;
+
+    public WalPersistenceStore(final File directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens the log in the given directory and restores the stored state. Appended records are forced to the
+     * storage device every {@link #DEFAULT_SYNC_INTERVAL} milliseconds until another policy is set.
+     *
+     * @param directory   directory of the segments and snapshots. Created if missing.
+     * @param segmentSize size of a segment file in bytes. A single record must fit into a segment.
+     */
+    public WalPersistenceStore(final File directory, final int segmentSize) {
+        this.directory = directory.toPath();
+        this.segmentSize = segmentSize;
+        try {
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        scheduleSync();
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        final TreeMap<Long, Path> snapshots = list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        long firstSegment = 0L;
+        if (!snapshots.isEmpty()) {
+            final Snapshot snapshot = Snapshot.read(snapshots.lastEntry().getValue());
+            scores.putAll(snapshot.getScores());
+            achievements.putAll(snapshot.getAchievements());
+            firstSegment = snapshot.getFirstSegment();
+        }
+        final TreeMap<Long, Path> segments = list(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        boolean ended = false;
+        for (Map.Entry<Long, Path> entry : segments.entrySet()) {
+            if (entry.getKey() < firstSegment || ended) {
+                Files.delete(entry.getValue());
+                continue;
+            }
+            if (segment != null) {
+                segment.close();
+            }
+            segment = LogSegment.open(entry.getValue(), entry.getKey(), segmentSize);
+            if (!segment.replay(this::apply)) {
+                LOG.warn("Log ends with a torn record in {}, later records are dropped", entry.getValue());
+                ended = true;
+            }
+        }
+        if (segment == null) {
+            segment = LogSegment.open(segmentPath(firstSegment), firstSegment, segmentSize);
+        }
+        try (DirectoryStream<Path> temporaries = Files.newDirectoryStream(directory, "*.tmp")) {
+            for (Path temporary : temporaries) {
+                Files.delete(temporary);
+            }
+        }
+        deleteSnapshotsBefore(firstSegment);
+    }
+
+    private TreeMap<Long, Path> list(final String prefix, final String suffix) throws IOException {
+        final TreeMap<Long, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : stream) {
+                final String name = file.getFileName().toString();
+                final String sequence = name.substring(prefix.length(), name.length() - suffix.length());
+                if (!sequence.isEmpty() && sequence.chars().allMatch(Character::isDigit)) {
+                    files.put(Long.parseLong(sequence), file);
+                }
+            }
+        }
+        return files;
+    }
+
+    private Path segmentPath(final long sequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    }
+
+    private Path snapshotPath(final long sequence) {
+        return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX));
+    }
+
+    private void apply(final ByteBuffer payload) {
+        final byte type = payload.get();
+        switch (type) {
+            case LogRecord.SCORE_SET:
+                scores.put(LogRecord.getString(payload), payload.getLong());
+                break;
+            case LogRecord.SCORE_ADD:
+                scores.merge(LogRecord.getString(payload), payload.getLong(), Long::sum);
+                break;
+            case LogRecord.UNLOCK:
+                final String achievementId = LogRecord.getString(payload);
+                final int level = payload.getInt();
+                final long acquireTime = payload.getLong();
+                final Set<String> owners = new HashSet<>();
+                for (int i = payload.getInt(); i > 0; i--) {
+                    owners.add(LogRecord.getString(payload));
+                }
+                achievements.put(achievementId, createEntity(achievementId, level, acquireTime, owners));
+                break;
+            case LogRecord.DELETE_SCORES:
+                scores.clear();
+                break;
+            case LogRecord.DELETE_UNLOCKED:
+                achievements.clear();
+                break;
+            default:
+                throw new IllegalStateException("Unknown log record type " + type);
+        }
+    }
+
+    private AchievementEntity createEntity(final String achievementId, final Integer level, final long acquireTime, final Collection<String> owners) {
+        final AchievementEntity achievement = new AchievementEntity();
+        achievement.setId(achievementId);
+        achievement.setLevel(level);
+        achievement.setAcquireDate(new Date(acquireTime));
+        achievement.addOwners(owners);
+        return achievement;
+    }
+
+    @Override
+    public Long getScore(final String event) {
+        return scores.get(event);
+    }
+
+    @Override
+    public Map<String, Long> getScores() {
+        return new LinkedHashMap<>(scores);
+    }
+
+    @Override
+    public synchronized void setScores(final Map<String, Long> newScores) {
+        ensureOpen();
+        newScores.forEach((event, score) -> append(LogRecord.scoreSet(event, score)));
+        scores.putAll(newScores);
+        commit();
+    }
+
+    @Override
+    public synchronized long addScore(final String event, final long delta) {
+        ensureOpen();
+        append(LogRecord.scoreAdd(event, delta));
+        final long newScore = scores.merge(event, delta, Long::sum);
+        commit();
+        return newScore;
+    }
+
+    @Override
+    public synchronized void deleteScores() {
+        ensureOpen();
+        append(LogRecord.delete(LogRecord.DELETE_SCORES));
+        scores.clear();
+        commit();
+    }
+
+    @Override
+    public synchronized boolean raiseLevel(final String achievementId, final Integer level, final Set<String> owners) {
+        ensureOpen();
+        final AchievementEntity current = achievements.get(achievementId);
+        if (current != null && current.getLevel() >= level) {
+            return false;
+        }
+        setLevel(achievementId, level, owners);
+        return true;
+    }
+
+    @Override
+    public synchronized void setLevel(final String achievementId, final Integer level, final Set<String> owners) {
+        ensureOpen();
+        final long acquireTime = System.currentTimeMillis();
+        append(LogRecord.unlock(achievementId, level, acquireTime, owners));
+        achievements.put(achievementId, createEntity(achievementId, level, acquireTime, owners));
+        commit();
+    }
+
+    @Override
+    public AchievementEntity getUnlocked(final String achievementId) {
+        final AchievementEntity achievement = achievements.get(achievementId);
+        return achievement == null ? null : copyOf(achievement);
+    }
+
+    @Override
+    public Collection<AchievementEntity> getAllUnlocked() {
+        final Collection<AchievementEntity> result = new ArrayList<>();
+        for (AchievementEntity achievement : achievements.values()) {
+            result.add(copyOf(achievement));
+        }
+        return result;
+    }
+
+    @Override
+    public Collection<AchievementEntity> getUnlockedByOwner(final String owner) {
+        final Collection<AchievementEntity> result = new ArrayList<>();
+        for (AchievementEntity achievement : achievements.values()) {
+            if (achievement.getOwners().contains(owner)) {
+                result.add(copyOf(achievement));
+            }
+        }
+        return result;
+    }
+
+    private AchievementEntity copyOf(final AchievementEntity achievement) {
+        return createEntity(achievement.getId(), achievement.getLevel(), achievement.getAcquireDate().getTime(), achievement.getOwners());
+    }
+
+    @Override
+    public long countUnlocked() {
+        return achievements.size();
+    }
+
+    @Override
+    public synchronized void deleteUnlocked() {
+        ensureOpen();
+        append(LogRecord.delete(LogRecord.DELETE_UNLOCKED));
+        achievements.clear();
+        commit();
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Persistence store is closed: " + directory);
+        }
+    }
+
+    private void append(final ByteBuffer payload) {
+        if (!segment.append(payload)) {
+            roll();
+            if (!segment.append(payload)) {
+                throw new IllegalArgumentException("Log record of " + payload.remaining() + " bytes does not fit into a segment");
+            }
+        }
+        recordsSinceSnapshot++;
+    }
+
+    private void commit() {
+        if (syncPolicy == LogSyncPolicy.ALWAYS) {
+            segment.force();
+        }
+        if (snapshotInterval > 0 && recordsSinceSnapshot >= snapshotInterval && syncExecutor != null && (pendingSnapshot == null || pendingSnapshot.isDone())) {
+            final SnapshotTask snapshot = prepareSnapshot();
+            pendingSnapshot = syncExecutor.submit(() -> {
+                try {
+                    snapshot.write();
+                } catch (IOException | RuntimeException e) {
+                    LOG.error("Snapshot before segment {} failed, covered segments are kept", snapshot.firstSegment, e);
+                }
+            });
+        }
+    }
+
+    private void roll() {
+        final long next = segment.getSequence() + 1;
+        try {
+            segment.close();
+            segment = LogSegment.open(segmentPath(next), next, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the full state into a snapshot, then deletes the segments and the older snapshots it covers.
+     * Waits for the snapshot, which is written on the background sync thread like the automatic ones.
+     */
+    public void snapshot() {
+        final Future<?> written;
+        synchronized (this) {
+            ensureOpen();
+            final SnapshotTask snapshot = prepareSnapshot();
+            written = syncExecutor.submit(() -> {
+                snapshot.write();
+                return null;
+            });
+            pendingSnapshot = written;
+        }
+        try {
+            written.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw new UncheckedIOException((IOException) e.getCause());
+            }
+            throw new IllegalStateException("Snapshot failed", e.getCause());
+        }
+    }
+
+    /**
+     * Starts a new segment and copies the state the snapshot has to contain. Called while holding the store monitor.
+     */
+    private SnapshotTask prepareSnapshot() {
+        roll();
+        recordsSinceSnapshot = 0;
+        return new SnapshotTask(segment.getSequence(), new HashMap<>(scores), new ArrayList<>(achievements.values()));
+    }
+
+    private void deleteSnapshotsBefore(final long firstSegment) throws IOException {
+        for (Path older : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).headMap(firstSegment).values()) {
+            Files.delete(older);
+        }
+    }
+
+    /**
+     * @param snapshotInterval number of records after which a snapshot is written. Zero or less disables snapshots.
+     */
+    public synchronized void setSnapshotInterval(final int snapshotInterval) {
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * Sets when appended records are forced to the storage device.
+     *
+     * @param syncPolicy   {@link LogSyncPolicy} to apply. Default is {@link LogSyncPolicy#INTERVAL}.
+     * @param syncInterval milliseconds between two forced writes in {@link LogSyncPolicy#INTERVAL} mode.
+     */
+    public synchronized void setSyncPolicy(final LogSyncPolicy syncPolicy, final long syncInterval) {
+        ensureOpen();
+        segment.force();
+        this.syncPolicy = syncPolicy;
+        this.syncInterval = syncInterval;
+        cancelScheduledSync();
+        if (syncPolicy == LogSyncPolicy.INTERVAL) {
+            scheduleSync();
+        }
+    }
+
+    public LogSyncPolicy getSyncPolicy() {
+        return syncPolicy;
+    }
+
+    private void scheduleSync() {
+        if (syncExecutor == null) {
+            syncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "badger-log-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        scheduledSync = syncExecutor.scheduleWithFixedDelay(this::sync, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void sync() {
+        segment.force();
+    }
+
+    private void cancelScheduledSync() {
+        if (scheduledSync != null) {
+            scheduledSync.cancel(false);
+            scheduledSync = null;
+        }
+    }
+
+    /**
+     * Forces the log to the storage device, stops the background sync and closes the active segment. Modifying the
+     * store afterwards throws {@link IllegalStateException}. Closing it again has no effect.
+     */
+    @PreDestroy
+    @Override
+    public void close() throws IOException {
+        final ScheduledExecutorService executor;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            cancelScheduledSync();
+            executor = syncExecutor;
+            syncExecutor = null;
+        }
+        if (executor != null) {
+            // a running sync task needs the store monitor, so pending snapshots are awaited without holding it
+            executor.shutdown();
+            try {
+                executor.awaitTermination(SNAPSHOT_CLOSE_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            segment.close();
+        }
+    }
+
+    /**
+     * Waits until the last started snapshot is written.
+     */
+    void awaitSnapshot() throws InterruptedException, ExecutionException {
+        final Future<?> snapshot;
+        synchronized (this) {
+            snapshot = pendingSnapshot;
+        }
+        if (snapshot != null) {
+            snapshot.get();
+        }
+    }
+
+    List<Long> getSegmentSequences() throws IOException {
+        return new ArrayList<>(list(SEGMENT_PREFIX, SEGMENT_SUFFIX).keySet());
+    }
+
+    /**
+     * Copy of the state taken when a snapshot was started. Written outside the store monitor.
+     */
+    private final class SnapshotTask {
+
+        private final long firstSegment;
+        private final Map<String, Long> scores;
+        private final Collection<AchievementEntity> achievements;
+
+        private SnapshotTask(final long firstSegment, final Map<String, Long> scores, final Collection<AchievementEntity> achievements) {
+            this.firstSegment = firstSegment;
+            this.scores = scores;
+            this.achievements = achievements;
+        }
+
+        private void write() throws IOException {
+            Snapshot.write(snapshotPath(firstSegment), firstSegment, scores, achievements);
+            for (Path covered : list(SEGMENT_PREFIX, SEGMENT_SUFFIX).headMap(firstSegment).values()) {
+                Files.delete(covered);
+            }
+            deleteSnapshotsBefore(firstSegment);
+            LOG.debug("Snapshot written before segment {}", firstSegment);
+        }
+    }
+}
@@ -12,11 +12,17 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -33,7 +39,9 @@ public class AchievementDaoTest {
     @Before
     public void setUp() {
         underTest = new AchievementDao();
-        underTest.setAchievementRepository(mockAchievementRepository);
+        final JpaPersistenceStore persistenceStore = new JpaPersistenceStore();
+        persistenceStore.setAchievementRepository(mockAchievementRepository);
+        underTest.setPersistenceStore(persistenceStore);
     }
 
     @Test
@@ -56,55 +64,75 @@ public class AchievementDaoTest {
 
     @Test
     public void testIsUnlockedReturnsTrueWhenAchievementIsPersistedWithGivenId() {
-        given(mockAchievementRepository.findOne(ACHIEVEMENT_ID)).willReturn(new AchievementEntity());
+        given(mockAchievementRepository.findAll()).willReturn(Arrays.asList(createEntity(1)));
 
         final Boolean result = underTest.isUnlocked(ACHIEVEMENT_ID);
 
-        verify(mockAchievementRepository).findOne(ACHIEVEMENT_ID);
+        verify(mockAchievementRepository).findAll();
         assertThat(result, is(true));
     }
 
     @Test
     public void testIsUnlockedReturnsTrueWhenAchievementIsPersistedWithGivenIdAndGivenLevelIsLessThanOrEqualToThePersistedOne() {
-        final AchievementEntity unlocked = new AchievementEntity();
-        unlocked.setLevel(6);
-        given(mockAchievementRepository.findOne(ACHIEVEMENT_ID)).willReturn(unlocked);
+        given(mockAchievementRepository.findAll()).willReturn(Arrays.asList(createEntity(6)));
 
         final Boolean resultLessLevel = underTest.isUnlocked(ACHIEVEMENT_ID, 3);
-
-        verify(mockAchievementRepository).findOne(ACHIEVEMENT_ID);
-        assertThat(resultLessLevel, is(true));
-
-        unlocked.setLevel(6);
-
         final Boolean resultEqualLevel = underTest.isUnlocked(ACHIEVEMENT_ID, 6);
 
-        verify(mockAchievementRepository, times(2)).findOne(ACHIEVEMENT_ID);
+        assertThat(resultLessLevel, is(true));
         assertThat(resultEqualLevel, is(true));
     }
 
     @Test
     public void testIsUnlockedReturnsFalseWhenAchievementIsPersistedWithGivenIdAndGivenLevelIsGreaterThanThePersistedOne() {
-        final AchievementEntity unlocked = new AchievementEntity();
-        unlocked.setLevel(6);
-        given(mockAchievementRepository.findOne(ACHIEVEMENT_ID)).willReturn(unlocked);
+        given(mockAchievementRepository.findAll()).willReturn(Arrays.asList(createEntity(6)));
 
         final Boolean result = underTest.isUnlocked(ACHIEVEMENT_ID, 7);
 
-        verify(mockAchievementRepository).findOne(ACHIEVEMENT_ID);
         assertThat(result, is(false));
     }
 
     @Test
     public void testIsUnlockedReturnsFalseWhenAchievementIsNotPersistedWithGivenId() {
-        given(mockAchievementRepository.findOne(ACHIEVEMENT_ID)).willReturn(null);
+        given(mockAchievementRepository.findAll()).willReturn(Collections.emptyList());
 
         final Boolean result = underTest.isUnlocked(ACHIEVEMENT_ID);
 
-        verify(mockAchievementRepository).findOne(ACHIEVEMENT_ID);
         assertThat(result, is(false));
     }
 
+    @Test
+    public void testIsUnlockedLoadsUnlockedAchievementsOnlyOnceAndNeverQueriesSingleEntities() {
+        given(mockAchievementRepository.findAll()).willReturn(Arrays.asList(createEntity(2)));
+
+        underTest.isUnlocked(ACHIEVEMENT_ID);
+        underTest.isUnlocked(ACHIEVEMENT_ID, 2);
+        underTest.isUnlocked("other", 1);
+
+        verify(mockAchievementRepository, times(1)).findAll();
+        verify(mockAchievementRepository, never()).findOne(anyString());
+    }
+
+    @Test
+    public void testIsUnlockedReflectsNewlyUnlockedLevel() {
+        given(mockAchievementRepository.findAll()).willReturn(Arrays.asList(createEntity(1)));
+
+        underTest.unlock(ACHIEVEMENT_ID, 3);
+
+        assertThat(underTest.isUnlocked(ACHIEVEMENT_ID, 3), is(true));
+        assertThat(underTest.isUnlocked(ACHIEVEMENT_ID, 4), is(false));
+    }
+
+    @Test
+    public void testIsUnlockedReturnsFalseAfterDeleteAll() {
+        given(mockAchievementRepository.findAll()).willReturn(Arrays.asList(createEntity(1)));
+        underTest.loadUnlockedLevels();
+
+        underTest.deleteAll();
+
+        assertThat(underTest.isUnlocked(ACHIEVEMENT_ID), is(false));
+    }
+
     @Test
     public void testGetNumberOfUnlockedReturnsTheNumberOfPersistedUnlockedAchievements() {
         long expectedValue = 5L;
@@ -182,4 +210,114 @@ public class AchievementDaoTest {
         assertThat(result, is(expectedResult));
     }
 
+    @Test
+    public void testTryUnlockSavesAchievementOnlyOnceForTheSameLevel() {
+        given(mockAchievementRepository.findAll()).willReturn(Collections.emptyList());
+        final Set<String> owners = new HashSet<>(Arrays.asList("owner"));
+
+        final boolean first = underTest.tryUnlock(ACHIEVEMENT_ID, 1, owners);
+        final boolean second = underTest.tryUnlock(ACHIEVEMENT_ID, 1, Collections.emptySet());
+
+        assertThat(first, is(true));
+        assertThat(second, is(false));
+        verify(mockAchievementRepository, times(1)).save(any(AchievementEntity.class));
+    }
+
+    @Test
+    public void testTryUnlockUnlocksHigherLevelOfAlreadyUnlockedAchievement() {
+        given(mockAchievementRepository.findAll()).willReturn(Arrays.asList(createEntity(1)));
+        given(mockAchievementRepository.raiseLevel(eq(ACHIEVEMENT_ID), eq(2), any(Date.class))).willReturn(1);
+        given(mockAchievementRepository.findOne(ACHIEVEMENT_ID)).willReturn(createEntity(2));
+
+        final boolean result = underTest.tryUnlock(ACHIEVEMENT_ID, 2, Collections.singleton("owner"));
+
+        assertThat(result, is(true));
+        assertThat(underTest.isUnlocked(ACHIEVEMENT_ID, 2), is(true));
+        final ArgumentCaptor<AchievementEntity> saved = ArgumentCaptor.forClass(AchievementEntity.class);
+        verify(mockAchievementRepository).save(saved.capture());
+        assertThat(saved.getValue().getOwners(), is(Collections.singleton("owner")));
+    }
+
+    @Test
+    public void testTryUnlockKeepsLowerLevelWhenHigherLevelIsStoredFirst() {
+        given(mockAchievementRepository.findAll()).willReturn(Arrays.asList(createEntity(1)));
+        given(mockAchievementRepository.findOne(ACHIEVEMENT_ID)).willReturn(createEntity(3));
+        given(mockAchievementRepository.raiseLevel(eq(ACHIEVEMENT_ID), eq(3), any(Date.class))).willReturn(1);
+        given(mockAchievementRepository.raiseLevel(eq(ACHIEVEMENT_ID), eq(2), any(Date.class))).willAnswer(invocation -> {
+            underTest.tryUnlock(ACHIEVEMENT_ID, 3, Collections.emptySet());
+            return 0;
+        });
+
+        final boolean result = underTest.tryUnlock(ACHIEVEMENT_ID, 2, Collections.emptySet());
+
+        assertThat(result, is(true));
+        assertThat(underTest.isUnlocked(ACHIEVEMENT_ID, 3), is(true));
+    }
+
+    @Test
+    public void testTryUnlockFailsWhenStoreAlreadyHoldsTheLevel() {
+        given(mockAchievementRepository.findAll()).willReturn(Arrays.asList(createEntity(1)));
+        given(mockAchievementRepository.findOne(ACHIEVEMENT_ID)).willReturn(createEntity(3));
+
+        final boolean result = underTest.tryUnlock(ACHIEVEMENT_ID, 2, Collections.emptySet());
+
+        assertThat(result, is(false));
+        verify(mockAchievementRepository, never()).save(any(AchievementEntity.class));
+    }
+
+    @Test
+    public void testTryUnlockFailsWhenLockedAchievementIsStoredByAnotherProcess() {
+        given(mockAchievementRepository.findAll()).willReturn(Collections.emptyList());
+        given(mockAchievementRepository.findOne(ACHIEVEMENT_ID)).willReturn(createEntity(1));
+
+        final boolean result = underTest.tryUnlock(ACHIEVEMENT_ID, 1, Collections.emptySet());
+
+        assertThat(result, is(false));
+        verify(mockAchievementRepository, never()).save(any(AchievementEntity.class));
+    }
+
+    @Test
+    public void testTryUnlockRevertsUnlockedLevelWhenSaveFails() {
+        given(mockAchievementRepository.findAll()).willReturn(Collections.emptyList());
+        given(mockAchievementRepository.save(any(AchievementEntity.class))).willThrow(new IllegalStateException());
+
+        try {
+            underTest.tryUnlock(ACHIEVEMENT_ID, 1, Collections.emptySet());
+        } catch (IllegalStateException e) {
+            assertThat(underTest.isUnlocked(ACHIEVEMENT_ID), is(false));
+            return;
+        }
+        throw new AssertionError("Exception expected");
+    }
+
+    @Test
+    public void testTryUnlockSucceedsOnlyOnceForConcurrentCallers() throws InterruptedException {
+        given(mockAchievementRepository.findAll()).willReturn(Collections.emptyList());
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger unlocked = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                start.await();
+                if (underTest.tryUnlock(ACHIEVEMENT_ID, 1, Collections.emptySet())) {
+                    unlocked.incrementAndGet();
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+
+        assertThat(unlocked.get(), is(1));
+    }
+
+    private AchievementEntity createEntity(final Integer level) {
+        final AchievementEntity entity = new AchievementEntity();
+        entity.setId(ACHIEVEMENT_ID);
+        entity.setLevel(level);
+        return entity;
+    }
 }
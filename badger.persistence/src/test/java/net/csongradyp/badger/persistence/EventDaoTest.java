@@ -1,10 +1,18 @@
 package net.csongradyp.badger.persistence;
 
+import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import net.csongradyp.badger.persistence.counter.MappedCounterTable;
 import net.csongradyp.badger.persistence.entity.EventEntity;
 import net.csongradyp.badger.persistence.exception.MissingEventCounterException;
 import net.csongradyp.badger.persistence.repository.EventRepository;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
@@ -15,23 +23,32 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
 public class EventDaoTest {
 
     private static final String EVENT_ID = "test";
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
     @Mock
     private EventRepository mockEventRepository;
     @Captor
-    ArgumentCaptor<EventEntity> argumentCaptor;
+    ArgumentCaptor<Collection<EventEntity>> batchCaptor;
 
     private EventDao underTest;
 
     @Before
     public void setUp() {
         underTest = new EventDao();
-        underTest.setEventRepository(mockEventRepository);
+        final JpaPersistenceStore persistenceStore = new JpaPersistenceStore();
+        persistenceStore.setEventRepository(mockEventRepository);
+        underTest.setPersistenceStore(persistenceStore);
+        underTest.setDurability(ScoreDurability.SYNC, EventDao.DEFAULT_FLUSH_INTERVAL);
     }
 
     @Test
@@ -40,63 +57,79 @@ public class EventDaoTest {
         verify(mockEventRepository).deleteAll();
     }
 
+    @Test(expected = MissingEventCounterException.class)
+    public void testDeleteAllClearsInMemoryScores() {
+        given(mockEventRepository.findOne(EVENT_ID)).willReturn(null);
+        underTest.increment(EVENT_ID);
+
+        underTest.deleteAll();
+
+        underTest.scoreOf(EVENT_ID);
+    }
+
     @Test
     public void testIncrementSavesAndReturnsIncrementedValueOfTheEventWithTheGivenId() {
-        final EventEntity eventEntity = new EventEntity();
         final long currentScore = 72L;
-        eventEntity.setScore(currentScore);
-        given(mockEventRepository.findOne(EVENT_ID)).willReturn(eventEntity);
+        given(mockEventRepository.findOne(EVENT_ID)).willReturn(createEntity(currentScore));
 
         final Long resultScore = underTest.increment(EVENT_ID);
 
         verify(mockEventRepository).findOne(EVENT_ID);
-        verify(mockEventRepository).save(eventEntity);
+        verify(mockEventRepository).save(batchCaptor.capture());
+        final EventEntity savedEntity = batchCaptor.getValue().iterator().next();
         assertThat(resultScore, is(equalTo(currentScore + 1)));
+        assertThat(savedEntity.getId(), is(equalTo(EVENT_ID)));
+        assertThat(savedEntity.getScore(), is(equalTo(currentScore + 1)));
     }
 
     @Test
     public void testIncrementReturnsOneWhenTheEventIsTriggeredAtFirstTime() {
         given(mockEventRepository.findOne(EVENT_ID)).willReturn(null);
-        given(mockEventRepository.save(argumentCaptor.capture())).willReturn(null);
 
         final Long resultScore = underTest.increment(EVENT_ID);
 
         verify(mockEventRepository).findOne(EVENT_ID);
-        final EventEntity savedEntity = argumentCaptor.getValue();
-        verify(mockEventRepository).save(savedEntity);
+        verify(mockEventRepository).save(batchCaptor.capture());
         assertThat(resultScore, is(equalTo(1L)));
-        assertThat(savedEntity.getScore(), is(equalTo(1L)));
+        assertThat(batchCaptor.getValue().iterator().next().getScore(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testIncrementLoadsEventScoreFromRepositoryOnlyOnce() {
+        given(mockEventRepository.findOne(EVENT_ID)).willReturn(createEntity(1L));
+
+        underTest.increment(EVENT_ID);
+        underTest.increment(EVENT_ID);
+        final Long result = underTest.scoreOf(EVENT_ID);
+
+        verify(mockEventRepository).findOne(EVENT_ID);
+        assertThat(result, is(equalTo(3L)));
     }
 
     @Test
     public void testSetScoreReturnsGivenScoreAfterPersistingNewValue() {
-        final EventEntity eventEntity = new EventEntity();
-        final Long currentScore = 0L;
-        eventEntity.setScore(currentScore);
-        given(mockEventRepository.findOne(EVENT_ID)).willReturn(eventEntity);
+        given(mockEventRepository.findOne(EVENT_ID)).willReturn(createEntity(0L));
         final long newScore = 11L;
 
         final Long resultScore = underTest.setScore(EVENT_ID, newScore);
 
         verify(mockEventRepository).findOne(EVENT_ID);
-        verify(mockEventRepository).save(eventEntity);
+        verify(mockEventRepository).save(batchCaptor.capture());
         assertThat(resultScore, is(equalTo(newScore)));
-        assertThat(eventEntity.getScore(), is(equalTo(newScore)));
+        assertThat(batchCaptor.getValue().iterator().next().getScore(), is(equalTo(newScore)));
     }
 
     @Test
     public void testSetScoreReturnsGivenScoreAfterPersistingNewlyCreatedEventScore() {
         given(mockEventRepository.findOne(EVENT_ID)).willReturn(null);
-        given(mockEventRepository.save(argumentCaptor.capture())).willReturn(null);
         final long newScore = 11L;
 
         final Long resultScore = underTest.setScore(EVENT_ID, newScore);
 
         verify(mockEventRepository).findOne(EVENT_ID);
-        final EventEntity savedEntity = argumentCaptor.getValue();
-        verify(mockEventRepository).save(savedEntity);
+        verify(mockEventRepository).save(batchCaptor.capture());
         assertThat(resultScore, is(equalTo(newScore)));
-        assertThat(savedEntity.getScore(), is(equalTo(newScore)));
+        assertThat(batchCaptor.getValue().iterator().next().getScore(), is(equalTo(newScore)));
     }
 
     @Test(expected = MissingEventCounterException.class)
@@ -107,13 +140,145 @@ public class EventDaoTest {
 
     @Test
     public void testScoreOfReturnsCurrentValueOfThePersistedEventScore() {
-        final EventEntity entity = new EventEntity();
         final long currentValue = 42L;
-        entity.setScore(currentValue);
-        given(mockEventRepository.findOne(EVENT_ID)).willReturn(entity);
+        given(mockEventRepository.findOne(EVENT_ID)).willReturn(createEntity(currentValue));
 
         final Long result = underTest.scoreOf(EVENT_ID);
 
         assertThat(result, is(equalTo(currentValue)));
     }
+
+    @Test
+    public void testUpdateSetsNewScoresThenAddsDeltasAndSavesAllChangesInOneBatch() {
+        given(mockEventRepository.findOne(any(String.class))).willReturn(null);
+        final Map<String, Long> newScores = new HashMap<>();
+        newScores.put(EVENT_ID, 10L);
+        final Map<String, Long> deltas = new HashMap<>();
+        deltas.put(EVENT_ID, 2L);
+        deltas.put("other", 3L);
+
+        final Map<String, Long> result = underTest.update(newScores, deltas);
+
+        assertThat(result.get(EVENT_ID), is(equalTo(12L)));
+        assertThat(result.get("other"), is(equalTo(3L)));
+        verify(mockEventRepository).save(batchCaptor.capture());
+        assertThat(batchCaptor.getValue().size(), is(2));
+    }
+
+    @Test
+    public void testAsyncDurabilityWritesChangedScoresInOneBatchOnFlush() {
+        underTest.setDurability(ScoreDurability.ASYNC, Long.MAX_VALUE);
+        given(mockEventRepository.findOne(any(String.class))).willReturn(null);
+        underTest.increment(EVENT_ID);
+        underTest.increment(EVENT_ID);
+        underTest.setScore("other", 5L);
+        verify(mockEventRepository, never()).save(any(EventEntity.class));
+
+        underTest.flush();
+
+        verify(mockEventRepository).save(batchCaptor.capture());
+        assertThat(batchCaptor.getValue().size(), is(2));
+    }
+
+    @Test
+    public void testFlushDoesNotWriteUnchangedScoresAgain() {
+        underTest.setDurability(ScoreDurability.ASYNC, Long.MAX_VALUE);
+        given(mockEventRepository.findOne(EVENT_ID)).willReturn(null);
+        underTest.increment(EVENT_ID);
+
+        underTest.flush();
+        underTest.flush();
+
+        verify(mockEventRepository, times(1)).save(anyCollection());
+    }
+
+    @Test
+    public void testShutdownFlushesPendingScores() {
+        underTest.setDurability(ScoreDurability.ASYNC, Long.MAX_VALUE);
+        given(mockEventRepository.findOne(EVENT_ID)).willReturn(null);
+        underTest.increment(EVENT_ID);
+
+        underTest.shutdown();
+
+        verify(mockEventRepository).save(batchCaptor.capture());
+        assertThat(batchCaptor.getValue().iterator().next().getScore(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testMemoryOnlyDurabilityNeverWritesToRepository() {
+        underTest.setDurability(ScoreDurability.MEMORY_ONLY, EventDao.DEFAULT_FLUSH_INTERVAL);
+        given(mockEventRepository.findOne(EVENT_ID)).willReturn(null);
+        underTest.increment(EVENT_ID);
+
+        underTest.shutdown();
+
+        verify(mockEventRepository, never()).save(any(EventEntity.class));
+        verify(mockEventRepository, never()).save(anyCollection());
+    }
+
+    @Test
+    public void testCounterTableTakesOverStoredScoreOfDefinedEvent() {
+        given(mockEventRepository.findOne(EVENT_ID)).willReturn(createEntity(5L));
+        underTest.registerEvents(Collections.singleton(EVENT_ID));
+        final MappedCounterTable counterTable = new MappedCounterTable(new File(folder.getRoot(), "counters"), 4);
+        underTest.setCounterTable(counterTable);
+
+        final Long result = underTest.increment(EVENT_ID);
+
+        assertThat(result, is(equalTo(6L)));
+        assertThat(counterTable.get(counterTable.slotOf(EVENT_ID)), is(equalTo(6L)));
+        verify(mockEventRepository, never()).save(anyCollection());
+        underTest.shutdown();
+    }
+
+    @Test
+    public void testCounterTableIsRestoredAfterRestart() {
+        final File file = new File(folder.getRoot(), "counters");
+        underTest.registerEvents(Collections.singleton(EVENT_ID));
+        underTest.setCounterTable(new MappedCounterTable(file, 4));
+        underTest.setScore(EVENT_ID, 41L);
+        underTest.increment(EVENT_ID);
+        underTest.shutdown();
+
+        final EventDao restarted = new EventDao();
+        restarted.setPersistenceStore(new InMemoryPersistenceStore());
+        restarted.registerEvents(Collections.singleton(EVENT_ID));
+        restarted.setCounterTable(new MappedCounterTable(file, 4));
+
+        assertThat(restarted.scoreOf(EVENT_ID), is(equalTo(42L)));
+        restarted.shutdown();
+    }
+
+    @Test(expected = MissingEventCounterException.class)
+    public void testScoreOfNeverTriggeredEventInCounterTableThrowsException() {
+        underTest.registerEvents(Collections.singleton(EVENT_ID));
+        underTest.setCounterTable(new MappedCounterTable(new File(folder.getRoot(), "counters"), 4));
+
+        try {
+            underTest.scoreOf(EVENT_ID);
+        } finally {
+            underTest.shutdown();
+        }
+    }
+
+    @Test
+    public void testEventsNotFittingIntoCounterTableAreKeptOnHeap() {
+        underTest.registerEvents(Collections.singleton("defined"));
+        underTest.setCounterTable(new MappedCounterTable(new File(folder.getRoot(), "counters"), 1));
+        underTest.registerEvents(Collections.singleton(EVENT_ID));
+        given(mockEventRepository.findOne(EVENT_ID)).willReturn(null);
+
+        underTest.increment(EVENT_ID);
+
+        verify(mockEventRepository).save(batchCaptor.capture());
+        assertThat(batchCaptor.getValue().iterator().next().getScore(), is(equalTo(1L)));
+        underTest.shutdown();
+    }
+
+    private EventEntity createEntity(final long score) {
+        final EventEntity entity = new EventEntity();
+        entity.setId(EVENT_ID);
+        entity.setScore(score);
+        return entity;
+    }
 }
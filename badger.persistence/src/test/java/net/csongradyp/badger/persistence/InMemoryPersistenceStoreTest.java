@@ -0,0 +1,131 @@
+package net.csongradyp.badger.persistence;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.csongradyp.badger.persistence.entity.AchievementEntity;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class InMemoryPersistenceStoreTest {
+
+    private static final String EVENT_ID = "event";
+    private static final String ACHIEVEMENT_ID = "achievement";
+
+    private InMemoryPersistenceStore underTest;
+
+    @Before
+    public void setUp() {
+        underTest = new InMemoryPersistenceStore();
+    }
+
+    @Test
+    public void testGetScoreReturnsNullForMissingCounter() {
+        assertThat(underTest.getScore(EVENT_ID), is(nullValue()));
+    }
+
+    @Test
+    public void testAddScoreStartsMissingCounterFromZero() {
+        assertThat(underTest.addScore(EVENT_ID, 3L), is(3L));
+        assertThat(underTest.addScore(EVENT_ID, 2L), is(5L));
+        assertThat(underTest.getScore(EVENT_ID), is(5L));
+    }
+
+    @Test
+    public void testSetScoresOverwritesStoredScores() {
+        underTest.addScore(EVENT_ID, 3L);
+        final Map<String, Long> scores = new HashMap<>();
+        scores.put(EVENT_ID, 10L);
+        scores.put("other", 1L);
+
+        underTest.setScores(scores);
+
+        assertThat(underTest.getScores(), is(equalTo(scores)));
+    }
+
+    @Test
+    public void testDeleteScoresRemovesAllCounters() {
+        underTest.addScore(EVENT_ID, 3L);
+
+        underTest.deleteScores();
+
+        assertThat(underTest.getScores().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testRaiseLevelStoresLevelOnlyWhenItIsHigherThanTheStoredOne() {
+        assertThat(underTest.raiseLevel(ACHIEVEMENT_ID, 1, Collections.emptySet()), is(true));
+        assertThat(underTest.raiseLevel(ACHIEVEMENT_ID, 1, Collections.emptySet()), is(false));
+        assertThat(underTest.raiseLevel(ACHIEVEMENT_ID, 3, Collections.emptySet()), is(true));
+        assertThat(underTest.raiseLevel(ACHIEVEMENT_ID, 2, Collections.emptySet()), is(false));
+        assertThat(underTest.getUnlocked(ACHIEVEMENT_ID).getLevel(), is(3));
+    }
+
+    @Test
+    public void testRaiseLevelLetsOnlyOneOfConcurrentCallersUnlock() throws Exception {
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final AtomicInteger unlocks = new AtomicInteger();
+        try {
+            final Collection<Future<?>> futures = new HashSet<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    if (underTest.raiseLevel(ACHIEVEMENT_ID, 1, Collections.emptySet())) {
+                        unlocks.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(unlocks.get(), is(1));
+    }
+
+    @Test
+    public void testGetUnlockedByOwnerReturnsOnlyAchievementsOfTheOwner() {
+        underTest.setLevel(ACHIEVEMENT_ID, 1, new HashSet<>(Arrays.asList("owner", "other")));
+        underTest.setLevel("foreign", 1, Collections.singleton("other"));
+
+        final Collection<AchievementEntity> result = underTest.getUnlockedByOwner("owner");
+
+        assertThat(result.size(), is(1));
+        assertThat(result.iterator().next().getId(), is(ACHIEVEMENT_ID));
+    }
+
+    @Test
+    public void testReturnedEntitiesDoNotChangeTheStore() {
+        underTest.setLevel(ACHIEVEMENT_ID, 1, Collections.emptySet());
+
+        underTest.getUnlocked(ACHIEVEMENT_ID).setLevel(5);
+
+        assertThat(underTest.getUnlocked(ACHIEVEMENT_ID).getLevel(), is(1));
+        assertThat(underTest.raiseLevel(ACHIEVEMENT_ID, 2, Collections.emptySet()), is(true));
+    }
+
+    @Test
+    public void testDeleteUnlockedRemovesAllAchievements() {
+        underTest.setLevel(ACHIEVEMENT_ID, 1, Collections.emptySet());
+
+        underTest.deleteUnlocked();
+
+        assertThat(underTest.countUnlocked(), is(0L));
+        assertThat(underTest.getUnlocked(ACHIEVEMENT_ID), is(nullValue()));
+    }
+}
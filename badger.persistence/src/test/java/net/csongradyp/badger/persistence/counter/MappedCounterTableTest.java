@@ -0,0 +1,155 @@
+package net.csongradyp.badger.persistence.counter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class MappedCounterTableTest {
+
+    private static final int CAPACITY = 4;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private MappedCounterTable underTest;
+
+    @Before
+    public void setUp() throws IOException {
+        file = new File(folder.getRoot(), "counters.tbl");
+        underTest = new MappedCounterTable(file, CAPACITY);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        underTest.close();
+    }
+
+    private MappedCounterTable reopen(final int capacity) throws IOException {
+        underTest.close();
+        underTest = new MappedCounterTable(file, capacity);
+        return underTest;
+    }
+
+    @Test
+    public void testRegisterAssignsDenseSlotsInRegistrationOrder() {
+        assertThat(underTest.register("a"), is(0));
+        assertThat(underTest.register("b"), is(1));
+        assertThat(underTest.register("a"), is(0));
+        assertThat(underTest.slotOf("b"), is(1));
+        assertThat(underTest.slotOf("unknown"), is(-1));
+    }
+
+    @Test
+    public void testRegisterReturnsMinusOneWhenTableIsFull() {
+        for (int i = 0; i < CAPACITY; i++) {
+            underTest.register("event" + i);
+        }
+
+        assertThat(underTest.register("overflow"), is(-1));
+    }
+
+    @Test
+    public void testNewSlotIsUnsetAndAddTreatsItAsZero() {
+        final int slot = underTest.register("a");
+
+        assertThat(underTest.get(slot), is(MappedCounterTable.UNSET));
+        assertThat(underTest.add(slot, 3L), is(3L));
+        assertThat(underTest.add(slot, 2L), is(5L));
+    }
+
+    @Test
+    public void testSlotsAndValuesAreRestoredAfterReopen() throws IOException {
+        underTest.set(underTest.register("a"), 10L);
+        underTest.add(underTest.register("b"), 7L);
+
+        final MappedCounterTable result = reopen(CAPACITY);
+
+        assertThat(result.slotOf("b"), is(1));
+        assertThat(result.get(result.slotOf("a")), is(10L));
+        assertThat(result.get(result.slotOf("b")), is(7L));
+    }
+
+    @Test
+    public void testReopenWithLargerCapacityKeepsValuesAndUnsetsNewSlots() throws IOException {
+        for (int i = 0; i < CAPACITY; i++) {
+            underTest.set(underTest.register("event" + i), i);
+        }
+
+        final MappedCounterTable result = reopen(2 * CAPACITY);
+
+        assertThat(result.getCapacity(), is(2 * CAPACITY));
+        assertThat(result.get(result.slotOf("event3")), is(3L));
+        assertThat(result.get(result.register("new")), is(MappedCounterTable.UNSET));
+    }
+
+    @Test
+    public void testIncompleteEventNameIsIgnoredAfterReopen() throws IOException {
+        underTest.register("a");
+        Files.write(new File(file.getPath() + ".events").toPath(), "torn".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        final MappedCounterTable result = reopen(CAPACITY);
+
+        assertThat(result.slotOf("torn"), is(-1));
+        assertThat(result.getAll().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testEventRegisteredAfterIncompleteEventNameIsRestoredAfterReopen() throws IOException {
+        underTest.register("a");
+        Files.write(new File(file.getPath() + ".events").toPath(), "ev".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        reopen(CAPACITY).set(underTest.register("event2"), 5L);
+
+        final MappedCounterTable result = reopen(CAPACITY);
+
+        assertThat(result.slotOf("event2"), is(1));
+        assertThat(result.get(result.slotOf("event2")), is(5L));
+    }
+
+    @Test
+    public void testClearUnsetsEveryCounterAndKeepsSlots() {
+        underTest.set(underTest.register("a"), 10L);
+
+        underTest.clear();
+
+        assertThat(underTest.slotOf("a"), is(0));
+        assertThat(underTest.getAll().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testConcurrentAddsAreNotLost() throws Exception {
+        final int slot = underTest.register("a");
+        final int threads = 4;
+        final int increments = 10000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < increments; j++) {
+                    underTest.add(slot, 1L);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertThat(underTest.get(slot), is((long) threads * increments));
+    }
+}
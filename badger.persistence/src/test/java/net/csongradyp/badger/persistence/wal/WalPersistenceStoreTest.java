@@ -0,0 +1,261 @@
+package net.csongradyp.badger.persistence.wal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import net.csongradyp.badger.persistence.entity.AchievementEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class WalPersistenceStoreTest {
+
+    private static final String EVENT_ID = "e";
+    private static final String ACHIEVEMENT_ID = "achievement";
+    // header, type, event name length and bytes, value
+    private static final int SCORE_RECORD_SIZE = LogSegment.HEADER_SIZE + 1 + 4 + EVENT_ID.length() + 8;
+    private static final int SEGMENT_SIZE = 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+    private WalPersistenceStore underTest;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = folder.newFolder("wal");
+        underTest = open();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        underTest.close();
+    }
+
+    private WalPersistenceStore open() {
+        final WalPersistenceStore store = new WalPersistenceStore(directory, SEGMENT_SIZE);
+        store.setSyncPolicy(LogSyncPolicy.NEVER, 0L);
+        return store;
+    }
+
+    private WalPersistenceStore reopen() throws IOException {
+        underTest.close();
+        underTest = open();
+        return underTest;
+    }
+
+    @Test
+    public void testStateIsRestoredFromTheLogAfterReopen() throws IOException {
+        final Map<String, Long> scores = new HashMap<>();
+        scores.put(EVENT_ID, 10L);
+        scores.put("other", 3L);
+        underTest.setScores(scores);
+        underTest.addScore(EVENT_ID, 5L);
+        underTest.raiseLevel(ACHIEVEMENT_ID, 1, new HashSet<>(Arrays.asList("owner1", "owner2")));
+        underTest.raiseLevel(ACHIEVEMENT_ID, 2, Collections.singleton("owner1"));
+        final AchievementEntity unlocked = underTest.getUnlocked(ACHIEVEMENT_ID);
+
+        final WalPersistenceStore result = reopen();
+
+        assertThat(result.getScore(EVENT_ID), is(15L));
+        assertThat(result.getScore("other"), is(3L));
+        assertThat(result.getUnlocked(ACHIEVEMENT_ID).getLevel(), is(2));
+        assertThat(result.getUnlocked(ACHIEVEMENT_ID).getAcquireDate(), is(equalTo(unlocked.getAcquireDate())));
+        assertThat(result.getUnlockedByOwner("owner1").size(), is(1));
+        assertThat(result.getUnlockedByOwner("owner2").isEmpty(), is(true));
+    }
+
+    @Test
+    public void testDeletesAreRestoredFromTheLogAfterReopen() throws IOException {
+        underTest.addScore(EVENT_ID, 5L);
+        underTest.setLevel(ACHIEVEMENT_ID, 1, Collections.emptySet());
+        underTest.deleteScores();
+        underTest.deleteUnlocked();
+
+        final WalPersistenceStore result = reopen();
+
+        assertThat(result.getScores().isEmpty(), is(true));
+        assertThat(result.countUnlocked(), is(0L));
+    }
+
+    @Test
+    public void testRaiseLevelDoesNotLogRejectedChanges() throws IOException {
+        underTest.setLevel(ACHIEVEMENT_ID, 2, Collections.emptySet());
+
+        final boolean result = underTest.raiseLevel(ACHIEVEMENT_ID, 1, Collections.emptySet());
+
+        assertThat(result, is(false));
+        assertThat(reopen().getUnlocked(ACHIEVEMENT_ID).getLevel(), is(2));
+    }
+
+    @Test
+    public void testFullSegmentIsRolledOver() throws IOException {
+        final int records = 2 * SEGMENT_SIZE / SCORE_RECORD_SIZE;
+        for (int i = 0; i < records; i++) {
+            underTest.addScore(EVENT_ID, 1L);
+        }
+
+        assertThat(underTest.getSegmentSequences().size(), is(3));
+        assertThat(reopen().getScore(EVENT_ID), is((long) records));
+    }
+
+    @Test
+    public void testSnapshotDeletesCoveredSegmentsAndStateIsRestoredFromSnapshotAndLogTail() throws IOException {
+        for (int i = 0; i < SEGMENT_SIZE / SCORE_RECORD_SIZE + 1; i++) {
+            underTest.addScore(EVENT_ID, 1L);
+        }
+        underTest.setLevel(ACHIEVEMENT_ID, 1, Collections.singleton("owner"));
+
+        underTest.snapshot();
+        underTest.addScore(EVENT_ID, 100L);
+
+        assertThat(underTest.getSegmentSequences(), is(equalTo(Collections.singletonList(2L))));
+        final WalPersistenceStore result = reopen();
+        assertThat(result.getScore(EVENT_ID), is(SEGMENT_SIZE / SCORE_RECORD_SIZE + 101L));
+        assertThat(result.getUnlockedByOwner("owner").size(), is(1));
+    }
+
+    @Test
+    public void testSnapshotIsWrittenAfterTheConfiguredNumberOfRecords() throws Exception {
+        underTest.setSnapshotInterval(3);
+
+        underTest.addScore(EVENT_ID, 1L);
+        underTest.addScore(EVENT_ID, 1L);
+        underTest.addScore(EVENT_ID, 1L);
+        underTest.awaitSnapshot();
+
+        assertThat(snapshotFiles().length, is(1));
+        assertThat(underTest.getSegmentSequences(), is(equalTo(Collections.singletonList(1L))));
+        assertThat(reopen().getScore(EVENT_ID), is(3L));
+    }
+
+    @Test
+    public void testFailedSnapshotDoesNotFailTheChange() throws Exception {
+        underTest.setSnapshotInterval(1);
+        Files.createDirectory(directory.toPath().resolve(String.format("snapshot-%020d.snap.tmp", 1L)));
+
+        final long result = underTest.addScore(EVENT_ID, 1L);
+        underTest.awaitSnapshot();
+
+        assertThat(result, is(1L));
+        assertThat(reopen().getScore(EVENT_ID), is(1L));
+    }
+
+    @Test
+    public void testRecoveryDropsRecordTornAtAnyOffset() throws IOException {
+        underTest.addScore(EVENT_ID, 1L);
+        underTest.addScore(EVENT_ID, 1L);
+        underTest.addScore(EVENT_ID, 1L);
+        underTest.close();
+        final byte[] segment = Files.readAllBytes(segmentFile(0));
+
+        for (int length = 2 * SCORE_RECORD_SIZE; length < 3 * SCORE_RECORD_SIZE; length++) {
+            Files.write(segmentFile(0), Arrays.copyOf(segment, length));
+            underTest = open();
+            assertThat("truncated to " + length, underTest.getScore(EVENT_ID), is(2L));
+            underTest.close();
+        }
+        underTest = open();
+    }
+
+    @Test
+    public void testRecoveryFromTruncatedSegmentContinuesTheLog() throws IOException {
+        underTest.addScore(EVENT_ID, 1L);
+        underTest.addScore(EVENT_ID, 1L);
+        underTest.close();
+        truncate(segmentFile(0), SCORE_RECORD_SIZE + 3);
+        underTest = open();
+
+        underTest.addScore(EVENT_ID, 10L);
+
+        assertThat(reopen().getScore(EVENT_ID), is(11L));
+    }
+
+    @Test
+    public void testRecoveryStopsAtCorruptedRecordAndDropsLaterSegments() throws IOException {
+        for (int i = 0; i < SEGMENT_SIZE / SCORE_RECORD_SIZE + 1; i++) {
+            underTest.addScore(EVENT_ID, 1L);
+        }
+        underTest.close();
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile(0).toFile(), "rw")) {
+            file.seek(SCORE_RECORD_SIZE + SCORE_RECORD_SIZE - 1);
+            file.write(0x7f);
+        }
+
+        underTest = open();
+
+        assertThat(underTest.getScore(EVENT_ID), is(1L));
+        assertThat(underTest.getSegmentSequences(), is(equalTo(Collections.singletonList(0L))));
+    }
+
+    @Test
+    public void testRecoveryWithoutLogStartsEmpty() {
+        assertThat(underTest.getScore(EVENT_ID), is(nullValue()));
+        assertThat(underTest.getAllUnlocked().isEmpty(), is(true));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSnapshotThrowsExceptionWhenStoreIsClosed() throws IOException {
+        underTest.close();
+
+        underTest.snapshot();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAddScoreThrowsExceptionWhenStoreIsClosed() throws IOException {
+        underTest.close();
+
+        underTest.addScore(EVENT_ID, 1L);
+    }
+
+    @Test
+    public void testStateIsReadableAfterClose() throws IOException {
+        underTest.addScore(EVENT_ID, 1L);
+        underTest.close();
+
+        assertThat(underTest.getScore(EVENT_ID), is(1L));
+    }
+
+    @Test
+    public void testGetUnlockedByOwnerReturnsOnlyAchievementsOfTheOwner() {
+        underTest.setLevel(ACHIEVEMENT_ID, 1, new HashSet<>(Arrays.asList("owner", "other")));
+        underTest.setLevel("foreign", 1, Collections.singleton("other"));
+
+        assertThat(underTest.getUnlockedByOwner("owner").size(), is(1));
+        assertThat(underTest.getUnlockedByOwner("other").size(), is(2));
+        assertThat(underTest.getUnlocked(ACHIEVEMENT_ID).getOwners(), hasItems("owner", "other"));
+    }
+
+    private Path segmentFile(final long sequence) {
+        return directory.toPath().resolve(String.format("segment-%020d.log", sequence));
+    }
+
+    private File[] snapshotFiles() {
+        return directory.listFiles((dir, name) -> name.endsWith(".snap"));
+    }
+
+    private void truncate(final Path file, final long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+        }
+        assertThat(Files.size(file), is(length));
+    }
+}